@@ -10,18 +10,18 @@ import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import inf112.skeleton.app.board.Board;
 import inf112.skeleton.app.cards.Deck;
 import inf112.skeleton.app.cards.ProgramCard;
-import inf112.skeleton.app.enums.Direction;
+import inf112.skeleton.app.engine.BoardEvent;
+import inf112.skeleton.app.engine.BoardModel;
+import inf112.skeleton.app.engine.Robot;
+import inf112.skeleton.app.engine.TurnEngine;
+import inf112.skeleton.app.engine.TurnRecorder;
+import inf112.skeleton.app.enums.AnimationTiming;
+import inf112.skeleton.app.enums.AnimationTiming.Pause;
 import inf112.skeleton.app.enums.Messages;
-import inf112.skeleton.app.lan.Converter;
 import inf112.skeleton.app.lan.GameClientThread;
 import inf112.skeleton.app.lan.GameServer;
-import inf112.skeleton.app.lan.ServerThread;
-import inf112.skeleton.app.objects.Belt;
-import inf112.skeleton.app.objects.Flag;
 import inf112.skeleton.app.objects.Laser;
-import inf112.skeleton.app.objects.RotatePad;
 import inf112.skeleton.app.objects.player.Player;
-import inf112.skeleton.app.objects.player.PlayerSorter;
 import inf112.skeleton.app.screens.ActorImages;
 import inf112.skeleton.app.screens.LoadingScreen;
 import inf112.skeleton.app.screens.gamescreen.GameScreen;
@@ -30,12 +30,15 @@ import inf112.skeleton.app.screens.menuscreen.MenuScreen;
 import inf112.skeleton.app.screens.menuscreen.MenuScreenActors;
 import inf112.skeleton.app.screens.standardscreen.SettingsScreen;
 import inf112.skeleton.app.screens.standardscreen.StandardScreen;
+import inf112.skeleton.app.server.DedicatedServer;
 
 import java.io.IOException;
 import java.net.Socket;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import java.util.Stack;
 import java.util.concurrent.Semaphore;
 
@@ -66,11 +69,10 @@ public class RallyGame extends Game {
     public Player mainPlayer;
     private int numberOfPlayers;
     private int myPlayerNumber;
-    private ServerThread serverThread;
+    private GameServer server;
 
     private boolean isServer;
     private GameClientThread client;
-    private Converter converter;
 
     public Skin textSkin;
     public Skin defaultSkin;
@@ -81,7 +83,15 @@ public class RallyGame extends Game {
     private String mapPath;
     public Semaphore waitForPowerUp;
     private ArrayList<Player> poweredDownPlayers;
+    /**
+     * Cards a room dealt the main player, kept until the main player is made.
+     */
+    private ArrayList<ProgramCard> handFromRoom;
     private Semaphore waitForCards;
+    private AnimationTiming animationTiming = AnimationTiming.NORMAL;
+    private long seed = new Random().nextLong();
+    private Random cardRandom;
+    private Random boardRandom;
 
     public void create() {
         this.actorImages = new ActorImages();
@@ -96,8 +106,13 @@ public class RallyGame extends Game {
      *
      */
     public void setupGame() {
+        // Printed so that a game can be played again with the same seed
+        System.out.println("Game seed: " + seed);
+        this.cardRandom = new Random(seed);
+        // Only the host shuffles cards, so the board gets its own random to stay the same for every player
+        this.boardRandom = new Random(~seed);
         this.board = new Board(mapPath);
-        this.deck = new Deck();
+        this.deck = new Deck(cardRandom);
         this.players = makePlayersAndAddToBoard(this.numberOfPlayers);
         this.respawnPlayers = new ArrayList<>();
         this.poweredDownPlayers = new ArrayList<>();
@@ -106,7 +121,6 @@ public class RallyGame extends Game {
         this.waitForCards = new Semaphore(1);
         this.waitForCards.tryAcquire();
         this.playing = true;
-        this.converter = new Converter();
         this.waitingForCards = true;
         this.waitingForPowerUp = false;
         this.game = this;
@@ -167,8 +181,12 @@ public class RallyGame extends Game {
     public void setUpHost(int portNumber) {
         this.isServer = true;
         this.myPlayerNumber = 1;
-        this.serverThread = new ServerThread(this, portNumber);
-        serverThread.start();
+        this.server = new GameServer(this);
+        try {
+            server.start(portNumber);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 
     /**
@@ -194,15 +212,69 @@ public class RallyGame extends Game {
     }
 
     /**
-     * Send all mainplayer's selected cards to {@link GameServer}.
+     * Connect to a {@link DedicatedServer} at host IP on port {@link DedicatedServer#DEFAULT_PORT_NUMBER}, and make
+     * a room playing the map.
+     *
+     * @param hostIP  IP to connect to
+     * @param mapPath of the map to play
+     * @return code of the room, null if no room was made
+     */
+    public String createRoom(String hostIP, String mapPath) {
+        return setUpRoomClient(hostIP, mapPath, null);
+    }
+
+    /**
+     * Connect to a {@link DedicatedServer} at host IP on port {@link DedicatedServer#DEFAULT_PORT_NUMBER}, and join
+     * the room with the code.
+     *
+     * @param hostIP   IP to connect to
+     * @param roomCode of room to join
+     * @return code of the room, null if the room was not joined
+     */
+    public String joinRoom(String hostIP, String roomCode) {
+        return setUpRoomClient(hostIP, null, roomCode);
+    }
+
+    /**
+     * Make a client and make a room if there is no room code, or join the room. The client is only started if
+     * it is in a room.
+     */
+    private String setUpRoomClient(String hostIP, String mapPath, String roomCode) {
+        int portNumber = DedicatedServer.DEFAULT_PORT_NUMBER;
+        try {
+            Socket clientSocket = new Socket(hostIP, portNumber);
+            this.client = new GameClientThread(this, clientSocket);
+            String code = roomCode == null ? client.createRoom(mapPath) : client.joinRoom(roomCode);
+            if (code == null) {
+                client.close();
+                this.client = null;
+                return null;
+            }
+            System.out.println("I am in room " + code + " on " + hostIP + " port " + portNumber);
+            client.start();
+            return code;
+        } catch (IOException e) {
+            System.out.println("Could not connect to " + hostIP + " on port " + portNumber);
+            this.client = null;
+            return null;
+        }
+    }
+
+    /**
+     * @return true if this game is played in a room on a {@link DedicatedServer}
+     */
+    public boolean isPlayingInRoom() {
+        return !isServer && client != null && client.isPlayingInRoom();
+    }
+
+    /**
+     * Send all mainplayer's selected cards, and if mainplayer is powering down, to {@link GameServer} in one message.
      *
      * isServer needs to be false to send the cards.
      */
     public void sendSelectedCardsToServer() {
         if (!isServer) {
-            for (ProgramCard card : mainPlayer.getRegisters().getCards()) {
-                client.sendMessage(converter.convertToString(mainPlayer.getPlayerNumber(), card));
-            }
+            client.sendProgram(mainPlayer);
         }
     }
 
@@ -244,31 +316,31 @@ public class RallyGame extends Game {
 
     /**
      * Called when confirm button in {@link inf112.skeleton.app.screens.gamescreen.GameScreenActors} is pressed.
+     *
+     * In a room cards are only sent while {@link #endCardSelection()} has not been called, and there is nothing
+     * to confirm when powered down.
      */
-    public void confirm() {
+    public synchronized void confirm() {
         setWaitingForPowerUp(false);
         if (waitingForCards) {
             setWaitingForCards(false);
             if (mainPlayer.getPowerDownNextRound()) {
                 mainPlayer.setPoweringDown(true);
                 mainPlayer.setPowerDownNextRound(false);
-                sendPoweringDownMessage();
             }
             System.out.println("Sending cards");
             sendSelectedCardsToServer();
             if (isServer) {
-                GameServer server = serverThread.getServer();
                 server.setServerHasConfirmed(true);
                 if (server.allClientsHaveSelectedCardsOrIsPoweredDown()) {
                     server.setServerHasConfirmed(false);
                     server.setAllClientsHaveSelectedCardsOrIsPoweredDown(false);
                     System.out.println("All clients selected cards");
                     server.sendSelectedCardsToAll();
-                    server.sendToAll(Messages.START_TURN.toString());
-                    startTurn();
+                    server.startTurn();
                 }
             }
-        } else {
+        } else if (!isPlayingInRoom()) {
             if (mainPlayer.getPowerUpNextRound()) {
                 mainPlayer.setPoweredDown(false);
                 mainPlayer.setPowerUpNextRound(false);
@@ -278,14 +350,12 @@ public class RallyGame extends Game {
                 sendContinuePowerDownMessage();
             }
             if (isServer) {
-                GameServer server = serverThread.getServer();
                 server.setServerHasConfirmed(true);
                 if (server.allPoweredDownClientsHaveConfirmed() || serverIsOnlyOneInPowerDown()) {
                     server.setAllPoweredDownClientsHaveConfirmed(false);
                     server.setServerHasConfirmed(false);
                     System.out.println("All clients confirmed powered up");
-                    server.sendToAll(Messages.CONTINUE_TURN.toString());
-                    continueTurn();
+                    server.continueTurn();
                 }
             }
         }
@@ -416,6 +486,9 @@ public class RallyGame extends Game {
         D. Lasers Fire (player, then board)
         E. Touch Checkpoints (Flag, Repair)
     5. Clean up any end-of-turn effects
+
+     Step 4 and the repairs and respawns of step 5 are resolved at once by {@link #computeTurn()}
+     and then shown on the board by {@link #playBack(List)}.
     */
     public void doTurn () {
 
@@ -423,27 +496,19 @@ public class RallyGame extends Game {
             System.out.println("Wait for cards");
             waitForCards();
             if (Thread.interrupted()) { return; }
-            for (int cardNumber = 0; cardNumber < 5; cardNumber++) {
-                System.out.println("Round " + (cardNumber + 1));
-                allPlayersPlayCard(cardNumber);
-                activateBeltsAndRotatePads();
-                fireAllLasers();
-                updateBackupAndPickUpFlagsAndRepair(false);
-                if (someoneWon()) {
-                    this.playing = false;
-                    return;
-                }
-                sleep(1000);
-            }
-            updateBackupAndPickUpFlagsAndRepair(true);
-            if (!respawnPlayers.isEmpty()) {
-                respawnPlayers();
+            playBack(computeTurn());
+            if (!playing) {
+                return;
             }
             removeDeadPlayers();
             updateRegisters();
             discardCardsAndServerCreatesNewDeckIfEmpty();
             if (!poweredDownPlayers.isEmpty()) {
-                getPowerUpOrDownConfirm();
+                if (isPlayingInRoom()) {
+                    powerUpPoweredDownPlayers();
+                } else {
+                    getPowerUpOrDownConfirm();
+                }
             }
             resetConfirmPowerUp();
             powerDown();
@@ -459,67 +524,249 @@ public class RallyGame extends Game {
     }
 
     /**
-     * End game if a player has picked up all flags
+     * Resolve the whole turn at once with the {@link TurnEngine}, from the positions, tokens and programs
+     * of the players. Nothing on the board changes until the events are played back with {@link #playBack(List)}.
+     *
+     * @return everything that happens in the turn, in order
      */
-    public boolean someoneWon() {
+    public ArrayList<BoardEvent> computeTurn() {
+        TurnRecorder recorder = new TurnRecorder();
+        makeTurnEngine(recorder).playTurn();
+        return recorder.getEvents();
+    }
+
+    /**
+     * @param recorder told about everything the engine does
+     * @return engine with a robot for each player in the game
+     */
+    private TurnEngine makeTurnEngine(TurnRecorder recorder) {
+        ArrayList<Robot> robots = new ArrayList<>();
         for (Player player : players) {
-            if (player.hasAllFlags(board.getFlags().size())) {
-                return true;
+            robots.add(toRobot(player));
+        }
+        TurnEngine engine = new TurnEngine(board.getModel(), robots, boardRandom);
+        engine.setListener(recorder);
+        return engine;
+    }
+
+    /**
+     * @param player to copy
+     * @return robot in the {@link TurnEngine} with the position, tokens and program of player
+     */
+    private Robot toRobot(Player player) {
+        Robot robot = new Robot(player.getPlayerNumber(), cellOf(player.getPosition()), player.getDirection());
+        robot.setBackup(cellOf(player.getBackupPosition()), player.getBackupDirection());
+        robot.setBeltPushDirection(player.getBeltPushDir());
+        robot.setDamageTokens(player.getDamageTokens());
+        robot.setLifeTokens(player.getLifeTokens());
+        robot.setFlagsCollected(player.getFlagsCollected().size());
+        robot.setPoweredDown(player.isPoweredDown());
+        ProgramCard[] program = new ProgramCard[Robot.REGISTERS];
+        for (int register = 0; register < program.length; register++) {
+            if (player.getRegisters().getRegister(register).hasCard()) {
+                program[register] = player.getRegisters().getCard(register);
             }
         }
-        return false;
+        robot.setProgram(program);
+        return robot;
     }
+
     /**
-     * Discard all players cards using {@link #discardCards()}.
+     * @param position on board
+     * @return index of cell, {@link BoardModel#OFF_BOARD} if position is outside of board
+     */
+    private int cellOf(Vector2 position) {
+        if (board.outsideBoard(position)) {
+            return BoardModel.OFF_BOARD;
+        }
+        return board.toIndex((int) position.x, (int) position.y);
+    }
+
+    /**
+     * Show a turn resolved by {@link #computeTurn()} on the board. Each event is done to the players and the
+     * board, with sounds and the pauses of the {@link AnimationTiming} of this game.
      *
-     * If isServer and there is not enough cards left in deck, create a new deck,
-     * and remove the discarded cards from the new deck.
+     * @param events of turn, in order
      */
-    public void discardCardsAndServerCreatesNewDeckIfEmpty() {
-        ArrayList<ProgramCard> lockedCards = discardCards();
-        if (isServer && deck.deckSize() < numberOfDealtCards()) {
-            serverThread.getServer().createAndSendDeckToAll(lockedCards);
+    public void playBack(List<BoardEvent> events) {
+        for (BoardEvent event : events) {
+            Player player = findPlayer(event.getRobot());
+            switch (event.getType()) {
+                case REGISTER:
+                    System.out.println("Round " + (event.getValue() + 1));
+                    break;
+                case CARD:
+                    System.out.println(player + " played " + event.getCard().toString());
+                    player.setBeltPushDir(null);
+                    deck.addCardToDiscardPile(event.getCard());
+                    break;
+                case CARD_DONE:
+                    board.addPlayer(player);
+                    sleep(Pause.CARD_PLAYED);
+                    break;
+                case MOVE:
+                    movePlayer(player, event);
+                    player.setBeltPushDir(null);
+                    break;
+                case PUSH:
+                    movePlayer(player, event);
+                    player.setBeltPushDir(null);
+                    break;
+                case BELTS_STARTED:
+                    if (event.getValue() == 1) {
+                        playSound(secondBeltStartUp);
+                    } else {
+                        playSound(firstBeltStartUp);
+                    }
+                    sleep(Pause.BELT_START);
+                    break;
+                case BELT:
+                    movePlayer(player, event);
+                    player.setBeltPushDir(event.getDirection());
+                    break;
+                case BELTS_MOVED:
+                    board.updateBoard();
+                    sleep(event.getValue() == 1 ? Pause.EXPRESS_BELTS_MOVED : Pause.BELTS_MOVED);
+                    break;
+                case ROTATE:
+                    player.setDirection(event.getDirection());
+                    board.addPlayer(player);
+                    break;
+                case ROTATE_PADS_TURNED:
+                    sleep(Pause.ROTATE_PADS_TURNED);
+                    break;
+                case WALL_HIT:
+                    board.playWallCollision();
+                    break;
+                case LASER_BEAM:
+                    drawBeam(event);
+                    break;
+                case LASERS_FIRED:
+                    showLasers(event.getValue() == 1);
+                    break;
+                case LASER_HIT:
+                    player.handleDamage();
+                    playSound(hitByLaser);
+                    break;
+                case DESTROY:
+                    playSound(robotDestroyed);
+                    player.decrementLifeTokens();
+                    player.resetDamageTokens();
+                    board.removePlayerFromBoard(player);
+                    players.remove(player);
+                    respawnPlayers.add(player);
+                    break;
+                case BACKUP:
+                    player.setBackup(new Vector2(board.toX(event.getTo()), board.toY(event.getTo())), event.getDirection());
+                    sleep(Pause.CHECKPOINT);
+                    break;
+                case FLAG:
+                    player.tryToPickUpFlag(board.getFlag(player.getPosition()));
+                    break;
+                case REPAIR:
+                    player.decrementDamageTokens();
+                    playSound(repairRobotSound);
+                    break;
+                case REGISTER_DONE:
+                    sleep(Pause.REGISTER_DONE);
+                    break;
+                case RESPAWN:
+                    respawnPlayers.remove(player);
+                    players.add(player);
+                    player.setDirection(event.getDirection());
+                    board.placePlayer(player, board.toX(event.getTo()), board.toY(event.getTo()));
+                    break;
+                case WIN:
+                    this.playing = false;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * @param playerNumber of player
+     * @return player in game or waiting to respawn with given number, null if there is none
+     */
+    private Player findPlayer(int playerNumber) {
+        for (Player player : players) {
+            if (player.getPlayerNumber() == playerNumber) {
+                return player;
+            }
+        }
+        for (Player player : respawnPlayers) {
+            if (player.getPlayerNumber() == playerNumber) {
+                return player;
+            }
         }
+        return null;
     }
 
     /**
-     * First fire player lasers and then wall lasers. Wall lasers are only
-     * activated if there are any wall lasers on the board. Make thread sleep after each methodcall.
+     * Move player to the cell an event moved its robot to, or one step off the board.
      *
-     * {@link #decreaseLives()} is invoked after both {@link #firePlayerLaser()} and {@link #fireLasers()}
+     * @param player to move
+     * @param event  moving the robot of player
      */
-    private void fireAllLasers() {
-        firePlayerLaser();
-        sleep(350);
-        removeLasers();
-        sleep(600);
-        decreaseLives();
-        if (!board.getLasers().isEmpty()) {
-            fireLasers();
-            sleep(350);
-            removeLasers();
-            sleep(600);
-            decreaseLives();
+    private void movePlayer(Player player, BoardEvent event) {
+        if (event.getTo() == BoardModel.OFF_BOARD) {
+            Vector2 position = player.getPosition();
+            board.placePlayer(player, (int) position.x + BoardModel.stepX(event.getDirection()),
+                    (int) position.y + BoardModel.stepY(event.getDirection()));
+        } else {
+            board.placePlayer(player, board.toX(event.getTo()), board.toY(event.getTo()));
         }
     }
 
     /**
-     * Move express belts one and then all belts one. Turn rotatepads.
-     * Make doTurn thread sleep after each movement.
+     * Draw the beam of a robot laser in the cells after the robot, up to the last cell it covers.
      *
-     * {@link #decreaseLives()} at the end
+     * @param event beam of the laser
      */
-    public void activateBeltsAndRotatePads() {
-      if (!board.getExpressBelts().isEmpty()) {
-                    activateBelts(true);
-                    sleep(1300);
-                }
-        decreaseLives();
-        activateBelts(false);
-        sleep(800);
-        activateRotatePads();
-        sleep(250);
-        decreaseLives();
+    private void drawBeam(BoardEvent event) {
+        int x = board.toX(event.getFrom());
+        int y = board.toY(event.getFrom());
+        int toX = board.toX(event.getTo());
+        int toY = board.toY(event.getTo());
+        while (x != toX || y != toY) {
+            x += BoardModel.stepX(event.getDirection());
+            y += BoardModel.stepY(event.getDirection());
+            board.addLaser(x, y, event.getDirection());
+        }
+    }
+
+    /**
+     * Draw the laser beams for a while. The robots they hit are given damage by the events after.
+     *
+     * @param byRobots true to show the lasers of the robots, drawn by the beam events before, false to draw the
+     *                 wall lasers
+     */
+    private void showLasers(boolean byRobots) {
+        if (byRobots) {
+            playSound(robotLaserSound);
+        } else {
+            for (Laser laser : board.getLasers()) {
+                laser.drawBeam(board);
+            }
+            playSound(walledLaserSound);
+        }
+        sleep(Pause.LASER_BEAM);
+        removeLasers();
+        sleep(Pause.LASERS_FIRED);
+    }
+
+    /**
+     * Discard all players cards using {@link #discardCards()}.
+     *
+     * If isServer and there is not enough cards left in deck, create a new deck,
+     * and remove the discarded cards from the new deck.
+     */
+    public void discardCardsAndServerCreatesNewDeckIfEmpty() {
+        ArrayList<ProgramCard> lockedCards = discardCards();
+        if (isServer && deck.deckSize() < numberOfDealtCards()) {
+            server.createAndSendDeckToAll(lockedCards);
+        }
     }
 
     /**
@@ -530,7 +777,7 @@ public class RallyGame extends Game {
      */
     public void getPowerUpOrDownConfirm() {
         if (isServer) {
-            serverThread.getServer().setServerHasConfirmed(!mainPlayer.isPoweredDown());
+            server.setServerHasConfirmed(!mainPlayer.isPoweredDown());
         }
         System.out.println("Wait for power up");
         letClientsAndServerContinue();
@@ -547,8 +794,8 @@ public class RallyGame extends Game {
      */
     public void serverResetConfirms() {
         if (isServer) {
-            serverThread.getServer().setAllClientsHaveSelectedCardsOrIsPoweredDown(false);
-            serverThread.getServer().setServerHasConfirmed(false);
+            server.setAllClientsHaveSelectedCardsOrIsPoweredDown(false);
+            server.setServerHasConfirmed(false);
         }
     }
 
@@ -560,7 +807,7 @@ public class RallyGame extends Game {
      * telling them to start the next turn immediately.
      *
      * If {@link #serverIsOnlyOneInPowerDown()} or server is in power down, when server gets the last message in
-     * {@link inf112.skeleton.app.lan.GameServerThreads} from another player the server have confirmed
+     * {@link GameServer} from another player the server have confirmed
      * {@link GameServer#setServerHasConfirmed(boolean)} to true beforehand so that it will send out start turn messages.
      *
      * If {@link #everyOneExceptServerIsPoweredDown()} then server should not wait for any messages, and
@@ -571,14 +818,13 @@ public class RallyGame extends Game {
     public void serverGetReadyForNextRound() {
         if (isServer) {
             if (everyOneIsPoweredDown()) {
-                serverThread.getServer().sendToAll(Messages.START_TURN.toString());
-                startTurn();
+                server.startTurn();
             } else if (serverIsOnlyOneInPowerDown()) {
-                serverThread.getServer().setServerHasConfirmed(true);
+                server.setServerHasConfirmed(true);
             } else if (getPoweredDownRobots().contains(mainPlayer)) {
-                serverThread.getServer().setServerHasConfirmed(true);
+                server.setServerHasConfirmed(true);
             } else if (everyOneExceptServerIsPoweredDown()) {
-                serverThread.getServer().setAllClientsHaveSelectedCardsOrIsPoweredDown(true);
+                server.setAllClientsHaveSelectedCardsOrIsPoweredDown(true);
             }
         }
     }
@@ -634,7 +880,7 @@ public class RallyGame extends Game {
         if (!isServer) {
             client.continueListening();
         } else {
-            serverThread.getServer().continueAll();
+            server.continueAll();
         }
     }
 
@@ -652,7 +898,17 @@ public class RallyGame extends Game {
         }
     }
 
-    private void sleep(int milliseconds) {
+    /**
+     * Wait as long as the {@link AnimationTiming} of this game says, so that the players can follow what happens.
+     *
+     * @param pause to wait for
+     */
+    private void sleep(Pause pause) {
+        int milliseconds = animationTiming.getMilliseconds(pause);
+        // Events played back on the render thread by the debug keys are shown at once, not by freezing the window
+        if (milliseconds <= 0 || board.isRenderThread()) {
+            return;
+        }
         try {
             Thread.sleep(milliseconds);
         } catch (InterruptedException e) {
@@ -660,269 +916,134 @@ public class RallyGame extends Game {
         }
     }
 
-    public void dealCards() {
-        for (Player player : players) {
-            if (!player.isPoweredDown()) {
-                player.drawCards(deck);
-            }
-        }
-    }
-
-    public ArrayList<ProgramCard> discardCards() {
-        ArrayList<ProgramCard> lockedCards = new ArrayList<>();
-        for (Player player : players) {
-            lockedCards.addAll(player.discardCards(deck));
-        }
-        return lockedCards;
+    /**
+     * @return seed all randomness in the game comes from
+     */
+    public long getSeed() {
+        return seed;
     }
 
     /**
-     * Decrease life tokens to each player that has collected 10 damage tokens.
-     * Reset damage tokens, remove player from board and discard all cards
+     * Set the seed all randomness in the game comes from. Must be set before {@link #setupGame()}.
+     * Games with the same seed where the same cards are chosen play out the same.
+     *
+     * @param seed of game
      */
-    public void decreaseLives() {
-        ArrayList<Player> removedPlayers = new ArrayList<>();
-        for (Player player : players) {
-
-            if (player.getDamageTokens() >= 10 || board.outsideBoard(player)) {
-
-                robotDestroyed.play(soundVolume);
-                player.decrementLifeTokens();
-                player.resetDamageTokens();
-                board.removePlayerFromBoard(player);
-                removedPlayers.add(player);
-            }
-        }
-        if (!removedPlayers.isEmpty()) {
-            players.removeAll(removedPlayers);
-            respawnPlayers.addAll(removedPlayers);
-        }
+    public void setSeed(long seed) {
+        this.seed = seed;
     }
 
-    public void removeDeadPlayers() {
-        for (Player player : players) {
-            if (player.isDead()) {
-                board.removePlayerFromBoard(player);
-                players.remove(player);
-                if (isServer) {
-                    serverThread.getServer().remove(player.getPlayerNumber());
-                    serverThread.getServer().disconnect(player.getPlayerNumber());
-                }
-            }
-        }
+    /**
+     * @param animationTiming how long the turn waits between the steps shown on screen
+     */
+    public void setAnimationTiming(AnimationTiming animationTiming) {
+        this.animationTiming = animationTiming;
     }
 
-    public void respawnPlayers() {
-        for (Player player : respawnPlayers) {
-            players.add(player);
-            board.respawn(player);
-        }
-        respawnPlayers.clear();
+    public AnimationTiming getAnimationTiming() {
+        return animationTiming;
     }
 
     /**
-     * All players move their card. doTurn thread sleeps at the end and between moves.
-     * @param cardNumber index of current card
+     * The room has played the turn, so the cards of the main player can not be changed or sent any more.
      */
-    public void allPlayersPlayCard(int cardNumber) {
-        ArrayList<Player> playerOrder = new ArrayList<>(players);
-        // Add all players to order list, and remove players with no cards left or powered down
-        playerOrder.removeIf(Player::isPoweredDown);
-        playerOrder.removeIf(p -> !p.getRegisters().getRegister(cardNumber).hasCard());
-        playerOrder.sort(new PlayerSorter(cardNumber));
-        for (Player player : playerOrder) {
-            playCard(player, cardNumber);
-            // Wait 1 second for each player
-            sleep(500);
-            // Decrease lives in case player is pushed outside board
-            decreaseLives();
-            sleep(500);
-        }
-        sleep(250);
-    }
-
-    public void playCard(Player player, int cardNumber) {
-        player.setBeltPushDir(null);
-        ProgramCard card = player.getRegisters().getCard(cardNumber);
-        System.out.println(player + " played " + card.toString());
-        switch (card.getRotate()) {
-            case RIGHT:
-                player.setDirection(player.getDirection().turnRight());
-                break;
-            case LEFT:
-                player.setDirection(player.getDirection().turnLeft());
-                break;
-            case UTURN:
-                player.setDirection(player.getDirection().turnAround());
-                break;
-            case NONE:
-                if (card.getDistance() == -1) {
-                    board.movePlayer(player, true);
-                } else {
-                    for (int distance = 0; distance < card.getDistance(); distance++) {
-                        board.movePlayer(player, false);
-                        // Wait 250 ms for each move except last one
-                        if (distance < card.getDistance() - 1) {
-                            sleep(250);
-                        }
-                    }
-                }
-                break;
-            default:
-                break;
-        }
-        board.addPlayer(player);
-        deck.addCardToDiscardPile(card);
-    }
-
-    public void setWinScreen() {
-        setScreen(new GifScreen(this));
+    public synchronized void endCardSelection() {
+        setWaitingForCards(false);
+        setWaitingForPowerUp(false);
     }
 
-    public void removeLasers() {
-        for (int y = 0; y < board.getBoardHeight(); y++) {
-            for (int x = 0; x < board.getBoardWidth(); x++) {
-                board.getLaserLayer().setCell(x, y, null);
+    /**
+     * Give the main player the cards a room dealt it. If the game is not set up yet, the cards are given when it is.
+     *
+     * @param hand cards dealt to the main player
+     */
+    public synchronized void receiveHand(ArrayList<ProgramCard> hand) {
+        this.handFromRoom = hand;
+        if (playing) {
+            dealCards();
+            if (screen instanceof GameScreen) {
+                ((GameScreen) screen).updateCards();
             }
         }
     }
 
-    public void firePlayerLaser() {
-        if (!players.isEmpty()) {
-            for (Player player : players) {
-                player.fire(this);
+    /**
+     * Every player draws cards from the deck. In a room only the main player gets cards, the ones dealt by the room.
+     */
+    public synchronized void dealCards() {
+        if (isPlayingInRoom()) {
+            if (handFromRoom != null && mainPlayer != null) {
+                mainPlayer.getCardsOnHand().addAll(handFromRoom);
+                this.handFromRoom = null;
             }
-            robotLaserSound.play(soundVolume);
+            return;
         }
-    }
-
-    public void fireLasers() {
-        if (!board.getLasers().isEmpty()) {
-            for (Laser laser : board.getLasers()) {
-                laser.fire(this);
+        for (Player player : players) {
+            if (!player.isPoweredDown()) {
+                player.drawCards(deck);
             }
-            walledLaserSound.play(soundVolume);
         }
     }
 
-    public void activateRotatePads() {
+    public ArrayList<ProgramCard> discardCards() {
+        ArrayList<ProgramCard> lockedCards = new ArrayList<>();
         for (Player player : players) {
-            for (RotatePad pad : board.getRotatePads()) {
-                Vector2 playerPosition = player.getPosition();
-                Vector2 padPosition = pad.getPosition();
-
-                if (playerPosition.equals(padPosition)) {
-                    pad.rotate(player);
-                    board.addPlayer(player);
-                    sleep(500);
-                }
-            }
+            lockedCards.addAll(player.discardCards(deck));
         }
+        return lockedCards;
     }
 
     /**
-     * <p>
-     * Activate the belts on the map, so they pushes the player in the direction of the belt.
-     * </p>
-     *
-     * @param onlyExpress if true then the pool of belts should be set to expressBelts
+     * Remove the players without lives left from the game, and from the server if this is the server.
      */
-    public void activateBelts(boolean onlyExpress) {
-
-        ArrayList<Belt> belts = onlyExpress ? board.getExpressBelts() : board.getBelts();
+    public void removeDeadPlayers() {
+        ArrayList<Player> deadPlayers = new ArrayList<>();
         for (Player player : players) {
-            for (Belt belt : belts) {
-                if (player.getPosition().equals(belt.getPosition())) {
-                    beltPush(player, belt);
-                }
+            if (player.isDead()) {
+                deadPlayers.add(player);
             }
         }
-        if (!onlyExpress){
-            firstBeltStartUp.play(soundVolume);
+        for (Player player : respawnPlayers) {
+            if (player.isDead()) {
+                deadPlayers.add(player);
+            }
         }
-        else {
-            secondBeltStartUp.play(soundVolume);
+        for (Player player : deadPlayers) {
+            board.removePlayerFromBoard(player);
+            players.remove(player);
+            respawnPlayers.remove(player);
+            if (isServer) {
+                server.remove(player.getPlayerNumber());
+                server.disconnect(player.getPlayerNumber());
+            }
         }
-        sleep(500);
-        validateBeltPushPos();
-        updateBoardAfterBeltPush();
-    }
-
-    private void updateBoardAfterBeltPush() {
-        board.removePlayersFromBoard();
-        updatePositionsAfterBeltPush();
-        board.updateBoard();
     }
 
-    public void validateBeltPushPos() {
-        player:
-        for (Player player : players) {
-            for (Player otherPlayer : players) {
-                if (player.getBeltPushPos() != null && !player.equals(otherPlayer)) {
-                    if (player.getBeltPushPos().equals(otherPlayer.getBeltPushPos())) {
-                        player.setBeltPushPos(null);
-                        otherPlayer.setBeltPushPos(null);
-                        continue player;
-                    }
-                    if (board.shouldPush(player, player.getBeltPushDir()) &&
-                            otherPlayer.getBeltPushPos() == null &&
-                            !board.canPush(otherPlayer, player.getBeltPushDir())) {
-                        player.setBeltPushPos(null);
-                        continue player;
-                    }
-                }
-            }
-        }
+    /**
+     * Destroy the players with too much damage or outside of the board with the {@link TurnEngine}, and
+     * respawn the ones with lives left.
+     */
+    public void destroyDamagedPlayers() {
+        TurnRecorder recorder = new TurnRecorder();
+        makeTurnEngine(recorder).destroyAndRespawnRobots();
+        playBack(recorder.getEvents());
     }
 
-    public void updatePositionsAfterBeltPush() {
-        for (Player player : players) {
-            if (player.getBeltPushPos() != null) {
-                Direction dir = player.getBeltPushDir();
-                if (board.shouldPush(player, dir)) {
-                    Player enemyPlayer = board.getPlayer(board.getNeighbourPosition(player.getPosition(), dir));
-                    if (board.canPush(enemyPlayer, dir)) {
-                        board.pushPlayer(enemyPlayer, dir);
-                    }
-                }
-                player.setPosition(player.getBeltPushPos());
-                player.setBeltPushPos(null);
-            }
-        }
+    public void setWinScreen() {
+        setScreen(new GifScreen(this));
     }
 
-    public void beltPush(Player player, Belt belt) {
-        Direction lastPush = player.getBeltPushDir();
-        Direction beltDirection = belt.getDirection();
-        if (lastPush != null) {
-            switch (lastPush) {
-                case NORTH:
-                    setPlayerDirectionAfterBeltPush(player, beltDirection, Direction.EAST, Direction.WEST);
-                    break;
-                case SOUTH:
-                    setPlayerDirectionAfterBeltPush(player, beltDirection, Direction.WEST, Direction.EAST);
-                    break;
-                case EAST:
-                    setPlayerDirectionAfterBeltPush(player, beltDirection, Direction.SOUTH, Direction.NORTH);
-                    break;
-                case WEST:
-                    setPlayerDirectionAfterBeltPush(player, beltDirection, Direction.NORTH, Direction.SOUTH);
-                    break;
-                default:
-                    break;
-            }
-        }
-        player.setBeltPushDir(beltDirection);
-        player.setBeltPushPos(board.getNeighbourPosition(player.getPosition(), beltDirection));
+    public void removeLasers() {
+        board.removeLasers();
     }
 
-    public void setPlayerDirectionAfterBeltPush (Player player, Direction beltDirection, Direction
-    turnRight, Direction leftTurn){
-        if (beltDirection.equals(turnRight)) {
-            player.setDirection(player.getDirection().turnRight());
-        } else if (beltDirection.equals(leftTurn)) {
-            player.setDirection(player.getDirection().turnLeft());
-        }
+    /**
+     * Play sound at the sound volume. The sound is played on the render thread if the board is drawn.
+     *
+     * @param sound to play
+     */
+    public void playSound(Sound sound) {
+        board.runOnRenderThread(() -> sound.play(soundVolume));
     }
 
     public Board getBoard () {
@@ -935,7 +1056,7 @@ public class RallyGame extends Game {
      */
     public void setDeck (Stack <ProgramCard> stack) {
         if (deck == null) {
-            deck = new Deck();
+            deck = new Deck(new Random(seed));
         }
         this.deck.setDeck(stack);
     }
@@ -944,33 +1065,6 @@ public class RallyGame extends Game {
         setScreen(new GifScreen(this));
     }
 
-    /**
-     * Activate the repair keys and pick up flags. Thread sleeps between each method call
-     */
-    public void updateBackupAndPickUpFlagsAndRepair(boolean repair) {
-        for (Player player : players) {
-            for (Vector2 repairTilePos : board.getRepairTiles()) {
-                if (player.getPosition().equals(repairTilePos)) {
-                    player.setBackup(repairTilePos, player.getDirection());
-                    if (repair) {
-                        player.decrementDamageTokens();
-                    }
-                }
-            }
-            for (Flag flag : board.getFlags()) {
-                if (player.getPosition().equals(flag.getPosition())) {
-                    player.setBackup(flag.getPosition(), player.getDirection());
-                    player.tryToPickUpFlag(flag);
-                    if (repair) {
-                        player.decrementDamageTokens();
-                    }
-                }
-            }
-            repairRobotSound.play(soundVolume);
-            sleep(500);
-        }
-    }
-
     public void setPlayerNumber ( int playerNumber){
         this.myPlayerNumber = playerNumber;
     }
@@ -1009,14 +1103,13 @@ public class RallyGame extends Game {
         try {
             // Tell server you are leaving. Close your socket.
             if (!isServer) {
-                this.client.sendMessage(converter.createQuitMessage(this.myPlayerNumber));
+                this.client.sendMessage(this.myPlayerNumber, Messages.QUIT);
                 this.client.close();
-                this.client.sendMessage(Messages.CLOSED.toString());
             }
-            // Close all sockets in serverthread
+            // Close all sockets in server
             if (isServer) {
-                this.serverThread.getServer().sendToAll(Messages.HOST_LEAVES.toString());
-                this.serverThread.getServer().disconnectAll();
+                this.server.sendToAll(Messages.HOST_LEAVES);
+                this.server.stop();
                 System.out.println(Messages.CLOSED);
             }
         } catch (Exception ignored) {
@@ -1052,6 +1145,16 @@ public class RallyGame extends Game {
         this.playing = false;
     }
 
+    /**
+     * Rooms power robots down for one round, so powered down players are powered up without asking.
+     */
+    private void powerUpPoweredDownPlayers() {
+        for (Player player : poweredDownPlayers) {
+            player.setPoweredDown(false);
+        }
+        poweredDownPlayers.clear();
+    }
+
     /**
      * If a player has pressed powerDown button the round before, player is in powerDown.
      */
@@ -1073,20 +1176,9 @@ public class RallyGame extends Game {
      */
     public void sendPowerUpMessage() {
         if (isServer) {
-            serverThread.getServer().sendToAll(converter.createMessageFromPlayer(mainPlayer.getPlayerNumber(), Messages.POWER_UP));
-        } else {
-            client.sendMessage(converter.createMessageFromPlayer(mainPlayer.getPlayerNumber(), Messages.POWER_UP));
-        }
-    }
-
-    /**
-     * Let the other players know you are powering down.
-     */
-    public void sendPoweringDownMessage() {
-        if (isServer) {
-            serverThread.getServer().sendToAll(converter.createMessageFromPlayer(mainPlayer.getPlayerNumber(), Messages.POWERING_DOWN));
+            server.sendToAll(mainPlayer, Messages.POWER_UP);
         } else {
-            client.sendMessage(converter.createMessageFromPlayer(mainPlayer.getPlayerNumber(), Messages.POWERING_DOWN));
+            client.sendMessage(mainPlayer.getPlayerNumber(), Messages.POWER_UP);
         }
     }
 
@@ -1104,9 +1196,9 @@ public class RallyGame extends Game {
      */
     public void sendContinuePowerDownMessage () {
         if (isServer) {
-            serverThread.getServer().setServerHasConfirmed(true);
+            server.setServerHasConfirmed(true);
         } else {
-            client.sendMessage(converter.createMessageFromPlayer(mainPlayer.getPlayerNumber(), Messages.CONTINUE_POWER_DOWN));
+            client.sendMessage(mainPlayer.getPlayerNumber(), Messages.CONTINUE_POWER_DOWN);
         }
     }
 
@@ -1118,8 +1210,8 @@ public class RallyGame extends Game {
         this.client = client;
     }
 
-    public void setServerThread(ServerThread serverThread) {
-        this.serverThread = serverThread;
+    public void setServer(GameServer server) {
+        this.server = server;
     }
 
     public void setIsServer(boolean isServer) {
@@ -1157,7 +1249,7 @@ public class RallyGame extends Game {
 
     public GameServer getServer() {
         if (isServer) {
-            return serverThread.getServer();
+            return server;
         }
         return null;
     }
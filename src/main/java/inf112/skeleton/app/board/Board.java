@@ -3,27 +3,42 @@ package inf112.skeleton.app.board;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.maps.tiled.TiledMapTile;
-import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
-import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
 import com.badlogic.gdx.math.Vector2;
 import inf112.skeleton.app.RallyGame;
 import inf112.skeleton.app.enums.Direction;
-import inf112.skeleton.app.enums.TileID;
+import inf112.skeleton.app.objects.Flag;
 import inf112.skeleton.app.objects.player.Player;
 
 import java.util.ArrayList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class Board extends BoardLayers {
 
+    /**
+     * Most changes waiting for the render thread before the turn thread has to wait.
+     */
+    private static final int RENDER_COMMANDS = 1024;
+
     private final ArrayList<Player> players;
+    /**
+     * Player standing in each cell, indexed by {@link #toIndex(int, int)}. Null if cell is empty.
+     */
+    private final Player[] occupants;
+    private final LaserLayer laserBeams;
 
     private final Sound wall_Collision;
+    private Queue<RobotMove> robotMoves;
+    private volatile BoardCommandQueue renderCommands;
+    private volatile Thread renderThread;
 
 
     public Board(String mapPath) {
         super(mapPath);
 
         this.players = new ArrayList<>();
+        this.occupants = new Player[boardWidth * boardHeight];
+        this.laserBeams = new LaserLayer(laserLayer, tiledMap.getTileSets().getTileSet("tiles"));
         Sound scream = Gdx.audio.newSound(Gdx.files.internal("assets/Sound/WilhelmScream.mp3"));
         Sound robotCollide = Gdx.audio.newSound(Gdx.files.internal("assets/Sound/robotCollide.mp3"));
         this.wall_Collision = Gdx.audio.newSound(Gdx.files.internal("assets/Sound/robotCollide.mp3"));
@@ -41,143 +56,173 @@ public class Board extends BoardLayers {
     }
 
     /**
-     * Add a {@link Player} to the player layer in coordinate (x, y) and
+     * Put a {@link Player} on the board in its position and
      * add that player to the list of players
      *
      * @param player to add to game and board
      */
     public void addPlayer(Player player) {
-        TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
-        cell.setTile(getRobotTile(player));
-        playerLayer.setCell((int) player.getPosition().x, (int) player.getPosition().y, cell);
         if (!players.contains(player)) {
             players.add(player);
         }
-    }
-
-    public Vector2 getStartPosition(int number) {
-        for (int x = 0; x < groundLayer.getWidth(); x++) {
-            for (int y = 0; y < groundLayer.getHeight(); y++) {
-                TiledMapTileLayer.Cell cell = groundLayer.getCell(x, y);
-                int ID = cell.getTile().getId();
-                if (number == 1 && ID == TileID.START_POS1.getId()) {
-                    return new Vector2(x, y);
-                } else if (number == 2 && ID == TileID.START_POS2.getId()) {
-                    return new Vector2(x, y);
-                } else if (number == 3 && ID == TileID.START_POS3.getId()) {
-                    return new Vector2(x, y);
-                } else if (number == 4 && ID == TileID.START_POS4.getId()) {
-                    return new Vector2(x, y);
-                } else if (number == 5 && ID == TileID.START_POS5.getId()) {
-                    return new Vector2(x, y);
-                } else if (number == 6 && ID == TileID.START_POS6.getId()) {
-                    return new Vector2(x, y);
-                } else if (number == 7 && ID == TileID.START_POS7.getId()) {
-                    return new Vector2(x, y);
-                } else if (number == 8 && ID == TileID.START_POS8.getId()) {
-                    return new Vector2(x, y);
-                }
-            }
+        occupy(player.getPosition(), player);
+        player.setBoard(this);
+        if (robotMoves != null) {
+            robotMoves.add(new RobotMove(player, getRobotTile(player)));
         }
-        return null;
     }
 
     /**
-     * Add laser in position in the right direction
+     * Start telling where robots are drawn. First a {@link RobotMove} for every player on the board is put in
+     * the returned queue, and from then on one every time a player is added to or removed from the board.
+     * The screen empties the queue while drawing.
      *
-     * @param position  to add laser
-     * @param direction of laser
+     * @return queue of robot moves
      */
-    public void addLaser(Vector2 position, Direction direction) {
-        TiledMapTileLayer.Cell cell = laserLayer.getCell((int) position.x, (int) position.y);
-        TiledMapTileSet tileSet = tiledMap.getTileSets().getTileSet("tiles");
-        if (cell == null) {
-            cell = new TiledMapTileLayer.Cell();
+    public synchronized Queue<RobotMove> animateRobotMoves() {
+        if (robotMoves == null) {
+            robotMoves = new ConcurrentLinkedQueue<>();
         }
-        if (direction == Direction.NORTH || direction == Direction.SOUTH) {
-            if (cell.getTile() == null) {
-                cell.setTile(tileSet.getTile(TileID.VERTICAL_LASER.getId()));
-            } else if (cell.getTile().getId() == TileID.HORIZONTAL_LASER.getId()) {
-                cell.setTile(tileSet.getTile(TileID.CROSSED_LASER.getId()));
-            }
-        } else {
-            if (cell.getTile() == null) {
-                cell.setTile(tileSet.getTile(TileID.HORIZONTAL_LASER.getId()));
-            } else if (cell.getTile().getId() == TileID.VERTICAL_LASER.getId()) {
-                cell.setTile(tileSet.getTile(TileID.CROSSED_LASER.getId()));
+        for (Player player : new ArrayList<>(players)) {
+            if (getPlayer(player.getPosition()) == player) {
+                robotMoves.add(new RobotMove(player, getRobotTile(player)));
             }
         }
-        laserLayer.setCell((int) position.x, (int) position.y, cell);
+        return robotMoves;
     }
 
     /**
-     * Places a {@link Player} in backup position or alternative position
+     * Move a player that is on the board to a new position.
      *
-     * @param player to respawn
+     * @param player   to move
+     * @param position to move player to
      */
-    public void respawn(Player player) {
-        removePlayerFromBoard(player);
-        if (hasPlayer(player.getBackupPosition())) {
-            player.chooseAlternativeBackupPosition(this, player.getBackupPosition());
-            player.setPosition(new Vector2(player.getAlternativeBackupPosition().x, player.getAlternativeBackupPosition().y));
-            player.setDirection(player.getAlternativeBackupDirection());
-        } else {
-            player.setPosition(new Vector2(player.getBackupPosition().x, player.getBackupPosition().y));
-            player.setDirection(player.getBackupDirection());
-        }
+    public void placePlayer(Player player, Vector2 position) {
+        liftPlayer(player);
+        player.setPosition(position);
         addPlayer(player);
     }
 
     /**
-     * Check if it is possible to move in the direction the player are facing.
-     * Check if player should and can push another player, if not return
-     * Remove player from board
-     * Update player position according to direction
-     * Add player to cell that corresponds to player position
+     * Move a player that is on the board to cell (x, y). The position of the player is changed instead of
+     * replaced, which is safe since a {@link RobotMove} copies the position it is made from.
      *
-     * @param player that is supposed to move
+     * @param player to move
+     * @param x      to move player to, may be outside the board
+     * @param y      to move player to, may be outside the board
      */
-    public void movePlayer(Player player, boolean backUp) {
-        Vector2 position = player.getPosition();
-        Direction direction = backUp ? player.getDirection().turnAround() : player.getDirection();
+    public void placePlayer(Player player, int x, int y) {
+        liftPlayer(player);
+        player.getPosition().set(x, y);
+        addPlayer(player);
+    }
 
-        if (!canGo(position, direction)) {
-            wall_Collision.play(RallyGame.soundVolume);
-            addPlayer(player);
-            return;
+    /**
+     * Called by {@link Player#setPosition(Vector2)} so that the occupancy of the board follows the player.
+     *
+     * @param player      that has moved
+     * @param oldPosition position player moved from
+     */
+    public void updatePlayerPosition(Player player, Vector2 oldPosition) {
+        if (getPlayer(oldPosition) == player) {
+            occupy(oldPosition, null);
         }
-        if (shouldPush(player, direction)) {
-            Player enemyPlayer = getPlayer(getNeighbourPosition(player.getPosition(), direction));
-            if (canPush(enemyPlayer, direction)) {
-                pushPlayer(enemyPlayer, direction);
-            } else {
-                addPlayer(player);
-                return;
-            }
+        occupy(player.getPosition(), player);
+    }
+
+    /**
+     * Set the occupant of a cell. Positions outside the board are ignored.
+     *
+     * @param position of cell
+     * @param player   standing in cell, or null if the cell is empty
+     */
+    private void occupy(Vector2 position, Player player) {
+        if (!outsideBoard(position)) {
+            occupants[toIndex((int) position.x, (int) position.y)] = player;
         }
+    }
 
-        removePlayerFromBoard(player);
+    /**
+     * @param number of start position
+     * @return position of start position with given number, null if board has none
+     */
+    public Vector2 getStartPosition(int number) {
+        int cell = model.getStartCell(number);
+        if (cell == -1) {
+            return null;
+        }
+        return new Vector2(toX(cell), toY(cell));
+    }
 
-        switch (direction) {
-            case NORTH:
-                position.y++;
-                break;
-            case EAST:
-                position.x++;
-                break;
-            case WEST:
-                position.x--;
-                break;
-            case SOUTH:
-                position.y--;
-                break;
-            default:
-                break;
+    /**
+     * Add laser in position in the right direction
+     *
+     * @param position  to add laser
+     * @param direction of laser
+     */
+    public void addLaser(Vector2 position, Direction direction) {
+        addLaser((int) position.x, (int) position.y, direction);
+    }
+
+    /**
+     * Add laser in cell (x, y) in the right direction
+     *
+     * @param x         of cell
+     * @param y         of cell
+     * @param direction of laser
+     */
+    public void addLaser(int x, int y, Direction direction) {
+        runOnRenderThread(() -> laserBeams.addBeam(x, y, direction));
+    }
+
+    /**
+     * Play the sound of a robot walking into a wall.
+     */
+    public void playWallCollision() {
+        runOnRenderThread(() -> wall_Collision.play(RallyGame.soundVolume));
+    }
+
+    /**
+     * Remove all laser beams from the board.
+     */
+    public void removeLasers() {
+        runOnRenderThread(laserBeams::removeBeams);
+    }
+
+    /**
+     * Start drawing the board on the render thread. Must be called on the render thread. From now on changes to
+     * the tiled map and sounds are not done by the thread playing the turn, but put in the returned queue for the
+     * render thread to do.
+     *
+     * @return queue the render thread must drain every frame
+     */
+    public synchronized BoardCommandQueue attachRenderer() {
+        renderThread = Thread.currentThread();
+        if (renderCommands == null) {
+            renderCommands = new BoardCommandQueue(RENDER_COMMANDS);
         }
+        return renderCommands;
+    }
 
-        player.setPosition(position);
-        addPlayer(player);
-        player.setBeltPushDir(null);
+    /**
+     * @return true if called on the thread drawing the board
+     */
+    public boolean isRenderThread() {
+        return Thread.currentThread() == renderThread;
+    }
+
+    /**
+     * Do command on the render thread if the board is drawn, otherwise do it now. Commands from the render thread
+     * itself are done now, so that the thread playing the turn stays the only one putting commands in the queue.
+     *
+     * @param command changing the tiled map or playing a sound
+     */
+    public void runOnRenderThread(Runnable command) {
+        if (renderCommands == null || isRenderThread()) {
+            command.run();
+        } else {
+            renderCommands.put(command);
+        }
     }
 
     /**
@@ -200,26 +245,6 @@ public class Board extends BoardLayers {
         }
     }
 
-    /**
-
-     * Get all neighbour cells for a position
-     * @param position to find neighbours from
-     * @return list of {@link Vector2} positions
-     */
-    public ArrayList<Vector2> getNeighbourhood(Vector2 position) {
-        ArrayList<Vector2> positions = new ArrayList<>();
-        for (int yi = -1; yi <= 1; yi++) {
-            for (int xi = -1; xi <= 1; xi++) {
-                int x = (int) (position.x + xi);
-                int y = (int) (position.y + yi);
-                if (x >= 0 && x < boardWidth && y >= 0 && y < boardHeight) {
-                    positions.add(new Vector2(x, y));
-                }
-            }
-        }
-        return positions;
-    }
-
     /**
      * @param position  to go from
      * @param direction to go
@@ -253,12 +278,7 @@ public class Board extends BoardLayers {
      * @return true if position has player
      */
     public boolean hasPlayer(Vector2 position) {
-        for (Player enemyPlayer : players) {
-            if (enemyPlayer.getPosition().equals(position)) {
-                return true;
-            }
-        }
-        return false;
+        return getPlayer(position) != null;
     }
 
     /**
@@ -268,12 +288,18 @@ public class Board extends BoardLayers {
      * @return player in position
      */
     public Player getPlayer(Vector2 position) {
-        for (Player enemyPlayer : players) {
-            if (enemyPlayer.getPosition().equals(position)) {
-                return enemyPlayer;
-            }
+        if (outsideBoard(position)) {
+            return null;
         }
-        return null;
+        return occupants[toIndex((int) position.x, (int) position.y)];
+    }
+
+    /**
+     * @param cell index of cell, see {@link #toIndex(int, int)}
+     * @return player standing in cell, null if cell is empty
+     */
+    public Player getPlayerInCell(int cell) {
+        return occupants[cell];
     }
 
     public Player getPlayer(int playerNumber) {
@@ -291,7 +317,22 @@ public class Board extends BoardLayers {
      * @param player to remove from board
      */
     public void removePlayerFromBoard(Player player) {
-        playerLayer.setCell((int) player.getPosition().x, (int) player.getPosition().y, null);
+        liftPlayer(player);
+        if (robotMoves != null) {
+            robotMoves.add(new RobotMove(player, null));
+        }
+    }
+
+    /**
+     * Take player off the board for a moment while it is moved, without hiding its robot.
+     *
+     * @param player to lift
+     */
+    void liftPlayer(Player player) {
+        if (getPlayer(player.getPosition()) == player) {
+            occupy(player.getPosition(), null);
+        }
+        player.setBoard(null);
     }
 
     /**
@@ -307,24 +348,6 @@ public class Board extends BoardLayers {
         tiledMap.dispose();
     }
 
-    /**
-     * Check respawn position according to RoboRally rules
-     *
-     * @param position  to check for respawn
-     * @param direction after respawn
-     * @return true of position is valid
-     */
-    public boolean validRespawnPosition(Vector2 position, Direction direction) {
-        Vector2 currPos = position;
-        for (int step = 0; step < 3; step++) {
-            if (hasPlayer(currPos)) {
-                return false;
-            }
-            currPos = getNeighbourPosition(currPos, direction);
-        }
-        return !hasHole(position);
-    }
-
     /**
      * Checks if a position is outside the map
      *
@@ -354,191 +377,35 @@ public class Board extends BoardLayers {
      * @return true if the position contains a hole
      */
     public boolean hasHole(Vector2 position) {
-        for (Vector2 vector : getHoles()) {
-            if (vector.equals(position)) {
-                return true;
-            }
+        if (outsideBoard(position)) {
+            return false;
         }
-        return false;
+        return model.hasHole(toIndex((int) position.x, (int) position.y));
     }
 
     /**
-     * Tells if there is possible to move in the intended {@link Direction} direction
-     *
-     * @param position  to go from
-     * @param direction to go in
-     * @return true if there is no wall blocking the way
-     */
-    public boolean canGo(Vector2 position, Direction direction) {
-        TiledMapTileLayer.Cell cell = getWallLayer().getCell((int) position.x, (int) position.y);
-        TiledMapTileLayer.Cell northCell = getWallLayer().getCell((int) position.x, (int) position.y + 1);
-        TiledMapTileLayer.Cell southCell = getWallLayer().getCell((int) position.x, (int) position.y - 1);
-        TiledMapTileLayer.Cell eastCell = getWallLayer().getCell((int) position.x + 1, (int) position.y);
-        TiledMapTileLayer.Cell westCell = getWallLayer().getCell((int) position.x - 1, (int) position.y);
-
-        switch (direction) {
-            case NORTH:
-                if (hasNorthWall(cell) || hasSouthWall(northCell)) {
-                    return false;
-                }
-                break;
-            case SOUTH:
-                if (hasSouthWall(cell) || hasNorthWall(southCell)) {
-                    return false;
-                }
-                break;
-            case EAST:
-                if (hasEastWall(cell) || hasWestWall(eastCell)) {
-                    return false;
-                }
-                break;
-            case WEST:
-                if (hasWestWall(cell) || hasEastWall(westCell)) {
-                    return false;
-                }
-                break;
-            default:
-                break;
-        }
-        return true;
-    }
-
-    /**
-     * Checks is there is a wall to the west of a given {@link TiledMapTileLayer.Cell} cell}.
-     *
-     * @param cell to check for wall
-     * @return true if cell has a wall on west side
-     */
-    public boolean hasWestWall(TiledMapTileLayer.Cell cell) {
-        if (cell != null) {
-            int tileID = cell.getTile().getId();
-            return tileID == TileID.WEST_WALL.getId() ||
-                    tileID == TileID.NORTHWEST_WALL.getId() ||
-                    tileID == TileID.SOUTHWEST_WALL.getId() ||
-                    tileID == TileID.WEST_LASER_WALL.getId();
-        }
-        return false;
-    }
-
-    /**
-     * Checks is there is a wall to the east of a given {@link TiledMapTileLayer.Cell cell}.
-     *
-     * @param cell to check for wall
-     * @return true if cell has a wall on east side
-     */
-    public boolean hasEastWall(TiledMapTileLayer.Cell cell) {
-        if (cell != null) {
-            int tileID = cell.getTile().getId();
-            return tileID == TileID.EAST_WALL.getId() ||
-                    tileID == TileID.NORTHEAST_WALL.getId() ||
-                    tileID == TileID.SOUTHEAST_WALL.getId() ||
-                    tileID == TileID.EAST_LASER_WALL.getId();
-        }
-        return false;
-    }
-
-    /**
-     * Checks is there is a wall to the south of a given {@link TiledMapTileLayer.Cell cell}.
-     *
-     * @param cell to check for wall
-     * @return true if cell has a wall on south side
-     */
-    public boolean hasSouthWall(TiledMapTileLayer.Cell cell) {
-        if (cell != null) {
-            int tileID = cell.getTile().getId();
-            return tileID == TileID.SOUTH_WALL.getId() ||
-                    tileID == TileID.SOUTHWEST_WALL.getId() ||
-                    tileID == TileID.SOUTHEAST_WALL.getId() ||
-                    tileID == TileID.SOUTH_LASER_WALL.getId();
-        }
-        return false;
-    }
-
-    /**
-     * Checks is there is a wall to the north of a given {@link TiledMapTileLayer.Cell cell}.
-     *
-     * @param cell to check for wall
-     * @return true if cell has a wall on north side
-     */
-    public boolean hasNorthWall(TiledMapTileLayer.Cell cell) {
-        if (cell != null) {
-            int tileID = cell.getTile().getId();
-            return tileID == TileID.NORTH_WALL.getId() ||
-                    tileID == TileID.NORTHWEST_WALL.getId() ||
-                    tileID == TileID.NORTHEAST_WALL.getId() ||
-                    tileID == TileID.NORTH_LASER_WALL.getId();
-        }
-        return false;
-    }
-
-    /**
-     * Check if the moving player should try to push another player
-     *
-     * @param player trying to move
-     * @return true if player should push another player to move
-     */
-    public boolean shouldPush(Player player, Direction direction) {
-        return hasPlayer(getNeighbourPosition(player.getPosition(), direction));
-    }
-
-    /**
-     * Push all players in a row
-     * Remove player from board
-     * Update player position according to direction
-     * Add player to cell that corresponds to player position
-     *
-     * @param player    that should be pushed
-     * @param direction to push player in
+     * @param position to check
+     * @return the {@link Flag} in position, null if there is no flag
      */
-    public void pushPlayer(Player player, Direction direction) {
-        player.setBeltPushDir(null);
-        if (hasPlayer(getNeighbourPosition(player.getPosition(), direction))) {
-            pushPlayer(getPlayer(getNeighbourPosition(player.getPosition(), direction)), direction);
-        }
-        removePlayerFromBoard(player);
-        switch (direction) {
-            case SOUTH:
-                player.setPosition(new Vector2(player.getPosition().x, player.getPosition().y - 1));
-                break;
-            case WEST:
-                player.setPosition(new Vector2(player.getPosition().x - 1, player.getPosition().y));
-                break;
-            case EAST:
-                player.setPosition(new Vector2(player.getPosition().x + 1, player.getPosition().y));
-                break;
-            case NORTH:
-                player.setPosition(new Vector2(player.getPosition().x, player.getPosition().y + 1));
-                break;
-            default:
-                break;
+    public Flag getFlag(Vector2 position) {
+        if (outsideBoard(position)) {
+            return null;
         }
-        addPlayer(player);
-        player.setBeltPushDir(null);
+        int flagNumber = model.getFlagNumber(toIndex((int) position.x, (int) position.y));
+        return flagNumber == 0 ? null : flagsByNumber[flagNumber];
     }
 
     /**
-     * Checks if there is possible to push a player.
+     * Tells if there is possible to move in the intended {@link Direction} direction
      *
-     * @param player    that should be pushed
-     * @param direction to push in
-     * @return true if it is possible to push all enemies in a row.
+     * @param position  to go from
+     * @param direction to go in
+     * @return true if there is no wall blocking the way
      */
-    public boolean canPush(Player player, Direction direction) {
-        if (hasPlayer(getNeighbourPosition(player.getPosition(), direction))) {
-            return canGo(player.getPosition(), direction) &&
-                    canPush(getPlayer(getNeighbourPosition(player.getPosition(), direction)), direction);
+    public boolean canGo(Vector2 position, Direction direction) {
+        if (outsideBoard(position)) {
+            return true;
         }
-        return canGo(player.getPosition(), direction);
-    }
-
-    /**
-     * Checks if there is possible to fire in the direction and position
-     *
-     * @param position  the tile in question.
-     * @param direction the way the fire is happening
-     * @return true if {@link #canGo(Vector2, Direction) canGo} is true and if not {@link #outsideBoard(Vector2) outsideBoard} is true.
-     */
-    public boolean canFire(Vector2 position, Direction direction) {
-        return canGo(position, direction) && !outsideBoard(getNeighbourPosition(position, direction));
+        return getNeighbour(toIndex((int) position.x, (int) position.y), direction) != BLOCKED;
     }
-}
\ No newline at end of file
+}
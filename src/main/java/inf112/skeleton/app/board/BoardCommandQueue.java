@@ -0,0 +1,88 @@
+package inf112.skeleton.app.board;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Changes to the board made by the turn thread, waiting to be done on the render thread.
+ * </p>
+ *
+ * <p>
+ * A fixed size ring without locks for exactly one thread putting commands in and one thread taking them
+ * out. The putting thread owns the tail and the taking thread owns the head, so each index is only
+ * written by one thread.
+ * </p>
+ */
+public class BoardCommandQueue {
+
+    private final Runnable[] commands;
+    private final int mask;
+    private final AtomicLong head;
+    private final AtomicLong tail;
+
+    /**
+     * @param capacity most commands waiting at once, must be a power of two
+     */
+    public BoardCommandQueue(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, was " + capacity);
+        }
+        this.commands = new Runnable[capacity];
+        this.mask = capacity - 1;
+        this.head = new AtomicLong();
+        this.tail = new AtomicLong();
+    }
+
+    /**
+     * Put command last in queue if there is room. Only called by the producing thread.
+     *
+     * @param command to do on the render thread
+     * @return false if queue is full
+     */
+    public boolean offer(Runnable command) {
+        long t = tail.get();
+        if (t - head.get() == commands.length) {
+            return false;
+        }
+        commands[(int) t & mask] = command;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Put command last in queue, waiting for the render thread to make room if it is full.
+     *
+     * @param command to do on the render thread
+     */
+    public void put(Runnable command) {
+        while (!offer(command)) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Do the oldest commands in order. Only called by the consuming thread.
+     *
+     * @param budget most commands to do
+     * @return number of commands done
+     */
+    public int drain(int budget) {
+        long h = head.get();
+        int count = (int) Math.min(budget, tail.get() - h);
+        for (int i = 0; i < count; i++) {
+            int index = (int) (h + i) & mask;
+            Runnable command = commands[index];
+            commands[index] = null;
+            head.lazySet(h + i + 1);
+            command.run();
+        }
+        return count;
+    }
+
+    /**
+     * @return number of commands waiting
+     */
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+}
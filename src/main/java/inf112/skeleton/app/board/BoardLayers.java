@@ -5,8 +5,8 @@ import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.math.Vector2;
+import inf112.skeleton.app.engine.BoardModel;
 import inf112.skeleton.app.enums.Direction;
-import inf112.skeleton.app.enums.Rotate;
 import inf112.skeleton.app.enums.TileID;
 import inf112.skeleton.app.objects.Belt;
 import inf112.skeleton.app.objects.Flag;
@@ -17,9 +17,19 @@ import java.util.ArrayList;
 
 public abstract class BoardLayers {
 
+    /**
+     * Neighbour returned by {@link #getNeighbour(int, Direction)} when moving in that direction leaves the board.
+     */
+    public static final int OFF_BOARD = BoardModel.OFF_BOARD;
+    /**
+     * Neighbour returned by {@link #getNeighbour(int, Direction)} when a wall is in the way.
+     */
+    public static final int BLOCKED = BoardModel.BLOCKED;
+
+    private static final int MAX_FLAGS = 4;
+
     protected final TiledMap tiledMap;
 
-    protected final TiledMapTileLayer playerLayer;
     protected final TiledMapTileLayer flagLayer;
     protected final TiledMapTileLayer wallLayer;
     protected final TiledMapTileLayer laserLayer;
@@ -30,16 +40,23 @@ public abstract class BoardLayers {
     protected final ArrayList<RotatePad> rotatePads;
     protected final ArrayList<Vector2> holes;
     protected final ArrayList<Belt> belts;
-    protected final ArrayList<Belt> expressBelts;
     protected final ArrayList<Vector2> repairTiles;
+    /**
+     * Flags indexed by their number.
+     */
+    protected final Flag[] flagsByNumber;
 
     protected final int boardWidth;
     protected final int boardHeight;
 
+    /**
+     * Walls, belts and the other board elements, read from the tile ids of the map layers.
+     */
+    protected final BoardModel model;
+
     public BoardLayers(String mapPath) {
         this.tiledMap = new TmxMapLoader().load(mapPath);
 
-        this.playerLayer = (TiledMapTileLayer) tiledMap.getLayers().get("Player");
         this.flagLayer = (TiledMapTileLayer) tiledMap.getLayers().get("Flag");
         this.laserLayer = (TiledMapTileLayer) tiledMap.getLayers().get("Laser");
         this.wallLayer = (TiledMapTileLayer) tiledMap.getLayers().get("Wall");
@@ -54,281 +71,164 @@ public abstract class BoardLayers {
         this.flags = new ArrayList<>();
         this.lasers = new ArrayList<>();
         this.belts = new ArrayList<>();
-        this.expressBelts = new ArrayList<>();
         this.repairTiles = new ArrayList<>();
+        this.flagsByNumber = new Flag[MAX_FLAGS + 1];
+        this.model = new BoardModel(boardWidth, boardHeight,
+                tileIds(groundLayer), tileIds(wallLayer), tileIds(flagLayer));
 
-        findFlags();
-        findBelts();
-        findRotatePads();
-        findExpressBelts();
-        findHoles();
-        findLasers();
-        findRepairs();
+        findObjects();
     }
 
-    // FIND OBJECTS
-
-    public void findBelts() {
-        for (int x = 0; x < groundLayer.getWidth(); x++) {
-            for (int y = 0; y < groundLayer.getHeight(); y++) {
-                TiledMapTileLayer.Cell cell = groundLayer.getCell(x, y);
-                int ID = cell.getTile().getId();
-
-                if (ID == TileID.EAST_TO_SOUTH_BELT.getId()) {
-                    belts.add(new Belt(Direction.SOUTH, new Vector2(x, y)));
-                } else if (ID == TileID.NORTH_TO_EAST_BELT.getId()) {
-                    belts.add(new Belt(Direction.EAST, new Vector2(x, y)));
-                } else if (ID == TileID.WEST_TO_NORTH_BELT.getId()) {
-                    belts.add(new Belt(Direction.NORTH, new Vector2(x, y)));
-                } else if (ID == TileID.SOUTH_TO_WEST_BELT.getId()) {
-                    belts.add(new Belt(Direction.WEST, new Vector2(x, y)));
-                } else if (ID == TileID.EAST_TO_NORTH_BELT.getId()) {
-                    belts.add(new Belt(Direction.NORTH, new Vector2(x, y)));
-                } else if (ID == TileID.NORTH_TO_WEST_BELT.getId()) {
-                    belts.add(new Belt(Direction.WEST, new Vector2(x, y)));
-                } else if (ID == TileID.WEST_TO_SOUTH_BELT.getId()) {
-                    belts.add(new Belt(Direction.SOUTH, new Vector2(x, y)));
-                } else if (ID == TileID.SOUTH_TO_EAST_BELT.getId()) {
-                    belts.add(new Belt(Direction.EAST, new Vector2(x, y)));
-                } else if (ID == TileID.EAST_TO_WEST_BELT.getId()) {
-                    belts.add(new Belt(Direction.WEST, new Vector2(x, y)));
-                } else if (ID == TileID.NORTH_TO_SOUTH_BELT.getId()) {
-                    belts.add(new Belt(Direction.SOUTH, new Vector2(x, y)));
-                } else if (ID == TileID.WEST_TO_EAST_BELT.getId()) {
-                    belts.add(new Belt(Direction.EAST, new Vector2(x, y)));
-                } else if (ID == TileID.SOUTH_TO_NORTH_BELT.getId()) {
-                    belts.add(new Belt(Direction.NORTH, new Vector2(x, y)));
-                } else if (ID == TileID.WESTSOUTH_TO_NORTH_BELT.getId()) {
-                    belts.add(new Belt(Direction.NORTH, new Vector2(x, y)));
-                } else if (ID == TileID.EASTSOUTH_TO_NORTH_BELT.getId()) {
-                    belts.add(new Belt(Direction.NORTH, new Vector2(x, y)));
-                } else if (ID == TileID.WESTEAST_TO_NORTH_BELT.getId()) {
-                    belts.add(new Belt(Direction.NORTH, new Vector2(x, y)));
-                } else if (ID == TileID.WESTNORTH_TO_SOUTH_BELT.getId()) {
-                    belts.add(new Belt(Direction.SOUTH, new Vector2(x, y)));
-                } else if (ID == TileID.EASTNORTH_TO_SOUTH_BELT.getId()) {
-                    belts.add(new Belt(Direction.SOUTH, new Vector2(x, y)));
-                } else if (ID == TileID.WESTEAST_TO_SOUTH_BELT.getId()) {
-                    belts.add(new Belt(Direction.SOUTH, new Vector2(x, y)));
-                } else if (ID == TileID.WESTSOUTH_TO_EAST_BELT.getId()) {
-                    belts.add(new Belt(Direction.EAST, new Vector2(x, y)));
-                } else if (ID == TileID.WESTNORTH_TO_EAST_BELT.getId()) {
-                    belts.add(new Belt(Direction.EAST, new Vector2(x, y)));
-                } else if (ID == TileID.NORTHSOUTH_TO_EAST_BELT.getId()) {
-                    belts.add(new Belt(Direction.EAST, new Vector2(x, y)));
-                } else if (ID == TileID.EASTSOUTH_TO_WEST_BELT.getId()) {
-                    belts.add(new Belt(Direction.WEST, new Vector2(x, y)));
-                } else if (ID == TileID.EASTNORTH_TO_WEST_BELT.getId()) {
-                    belts.add(new Belt(Direction.WEST, new Vector2(x, y)));
-                } else if (ID == TileID.NORTHSOUTH_TO_WEST_BELT.getId()) {
-                    belts.add(new Belt(Direction.WEST, new Vector2(x, y)));
-                }
-            }
+    /**
+     * @param layer to read
+     * @return id of the tile in every cell of layer indexed by {@link #toIndex(int, int)}, 0 for empty cells.
+     * Null if the map has no such layer.
+     */
+    private int[] tileIds(TiledMapTileLayer layer) {
+        if (layer == null) {
+            return null;
         }
-    }
-
-    public void findExpressBelts() {
-        for (int x = 0; x < groundLayer.getWidth(); x++) {
-            for (int y = 0; y < groundLayer.getHeight(); y++) {
-                TiledMapTileLayer.Cell cell = groundLayer.getCell(x, y);
-                int ID = cell.getTile().getId();
-
-                if (ID == TileID.EAST_TO_SOUTH_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.SOUTH, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.SOUTH, new Vector2(x, y)));
-                } else if (ID == TileID.NORTH_TO_EAST_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.EAST, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.EAST, new Vector2(x, y)));
-                } else if (ID == TileID.WEST_TO_NORTH_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.NORTH, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.NORTH, new Vector2(x, y)));
-                } else if (ID == TileID.SOUTH_TO_WEST_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.WEST, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.WEST, new Vector2(x, y)));
-                } else if (ID == TileID.EAST_TO_NORTH_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.NORTH, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.NORTH, new Vector2(x, y)));
-                } else if (ID == TileID.NORTH_TO_WEST_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.WEST, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.WEST, new Vector2(x, y)));
-                } else if (ID == TileID.WEST_TO_SOUTH_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.SOUTH, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.SOUTH, new Vector2(x, y)));
-                } else if (ID == TileID.SOUTH_TO_EAST_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.EAST, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.EAST, new Vector2(x, y)));
-                } else if (ID == TileID.EAST_TO_WEST_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.WEST, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.WEST, new Vector2(x, y)));
-                } else if (ID == TileID.NORTH_TO_SOUTH_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.SOUTH, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.SOUTH, new Vector2(x, y)));
-                } else if (ID == TileID.WEST_TO_EAST_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.EAST, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.EAST, new Vector2(x, y)));
-                } else if (ID == TileID.SOUTH_TO_NORTH_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.NORTH, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.NORTH, new Vector2(x, y)));
-                } else if (ID == TileID.WESTSOUTH_TO_NORTH_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.NORTH, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.NORTH, new Vector2(x, y)));
-                } else if (ID == TileID.EASTSOUTH_TO_NORTH_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.NORTH, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.NORTH, new Vector2(x, y)));
-                } else if (ID == TileID.WESTEAST_TO_NORTH_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.NORTH, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.NORTH, new Vector2(x, y)));
-                } else if (ID == TileID.WESTNORTH_TO_SOUTH_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.SOUTH, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.SOUTH, new Vector2(x, y)));
-                } else if (ID == TileID.EASTNORTH_TO_SOUTH_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.SOUTH, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.SOUTH, new Vector2(x, y)));
-                } else if (ID == TileID.WESTEAST_TO_SOUTH_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.SOUTH, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.SOUTH, new Vector2(x, y)));
-                } else if (ID == TileID.WESTSOUTH_TO_EAST_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.EAST, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.EAST, new Vector2(x, y)));
-                } else if (ID == TileID.WESTNORTH_TO_EAST_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.EAST, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.EAST, new Vector2(x, y)));
-                } else if (ID == TileID.NORTHSOUTH_TO_EAST_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.EAST, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.EAST, new Vector2(x, y)));
-                } else if (ID == TileID.EASTSOUTH_TO_WEST_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.WEST, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.WEST, new Vector2(x, y)));
-                } else if (ID == TileID.EASTNORTH_TO_WEST_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.WEST, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.WEST, new Vector2(x, y)));
-                } else if (ID == TileID.NORTHSOUTH_TO_WEST_EXPRESS_BELT.getId()) {
-                    belts.add(new Belt(Direction.WEST, new Vector2(x, y)));
-                    expressBelts.add(new Belt(Direction.WEST, new Vector2(x, y)));
+        int[] ids = new int[boardWidth * boardHeight];
+        for (int x = 0; x < boardWidth; x++) {
+            for (int y = 0; y < boardHeight; y++) {
+                TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                if (cell != null && cell.getTile() != null) {
+                    ids[toIndex(x, y)] = cell.getTile().getId();
                 }
             }
         }
+        return ids;
     }
 
-    public void findHoles() {
-        for (int x = 0; x < groundLayer.getWidth(); x++) {
-            for (int y = 0; y < groundLayer.getHeight(); y++) {
-                TiledMapTileLayer.Cell cell = groundLayer.getCell(x, y);
-                int ID = cell.getTile().getId();
+    // FIND OBJECTS
 
-                if (ID == TileID.NORMAL_HOLE.getId()) {
-                    holes.add(new Vector2(x, y));
-                } else if (ID == TileID.NORMAL_HOLE2.getId()) {
-                    holes.add(new Vector2(x, y));
-                } else if (ID == TileID.NORTHWEST_HOLE.getId()) {
-                    holes.add(new Vector2(x, y));
-                } else if (ID == TileID.NORTH_HOLE.getId()) {
-                    holes.add(new Vector2(x, y));
-                } else if (ID == TileID.NORTHEAST_HOLE.getId()) {
-                    holes.add(new Vector2(x, y));
-                } else if (ID == TileID.EAST_HOLE.getId()) {
-                    holes.add(new Vector2(x, y));
-                } else if (ID == TileID.NORTH_EAST_SOUTH_HOLE.getId()) {
-                    holes.add(new Vector2(x, y));
-                } else if (ID == TileID.WEST_EAST_SOUTH_HOLE.getId()) {
-                    holes.add(new Vector2(x, y));
-                } else if (ID == TileID.SOUTHWEST_HOLE.getId()) {
-                    holes.add(new Vector2(x, y));
-                } else if (ID == TileID.SOUTH_HOLE.getId()) {
-                    holes.add(new Vector2(x, y));
-                } else if (ID == TileID.SOUTHEAST_HOLE.getId()) {
-                    holes.add(new Vector2(x, y));
-                } else if (ID == TileID.WEST_HOLE.getId()) {
-                    holes.add(new Vector2(x, y));
-                } else if (ID == TileID.NORTH_WEST_SOUTH_HOLE.getId()) {
-                    holes.add(new Vector2(x, y));
-                } else if (ID == TileID.NORTH_WEST_EAST_HOLE.getId()) {
+    /**
+     * Make the lists of holes, repair tiles, rotate pads, belts, flags and lasers from the {@link BoardModel model}.
+     */
+    public void findObjects() {
+        for (int x = 0; x < boardWidth; x++) {
+            for (int y = 0; y < boardHeight; y++) {
+                int cell = toIndex(x, y);
+                if (model.hasHole(cell)) {
                     holes.add(new Vector2(x, y));
                 }
+                if (model.getRepairWrenches(cell) > 0) {
+                    repairTiles.add(new Vector2(x, y));
+                }
+                if (model.getRotatePad(cell) != null) {
+                    rotatePads.add(new RotatePad(model.getRotatePad(cell), new Vector2(x, y)));
+                }
+                if (model.getBeltDirection(cell, false) != null) {
+                    belts.add(new Belt(model.getBeltDirection(cell, false), new Vector2(x, y)));
+                }
+                if (model.getFlagNumber(cell) > 0) {
+                    Flag flag = new Flag(model.getFlagNumber(cell), x, y);
+                    flags.add(flag);
+                    flagsByNumber[flag.getFlagnr()] = flag;
+                }
             }
         }
+        for (int laser = 0; laser < model.getNumberOfLasers(); laser++) {
+            int[] path = model.getLaserPath(laser);
+            Laser wallLaser = new Laser(toX(path[0]), toY(path[0]), model.getLaserDirection(laser));
+            wallLaser.setPath(path);
+            lasers.add(wallLaser);
+        }
     }
 
-    public void findRotatePads() {
-        for (int x = 0; x < groundLayer.getWidth(); x++) {
-            for (int y = 0; y < groundLayer.getHeight(); y++) {
-                TiledMapTileLayer.Cell cell = groundLayer.getCell(x, y);
-                int ID = cell.getTile().getId();
+    /**
+     * @return the walls, belts and other board elements of this board
+     */
+    public BoardModel getModel() {
+        return model;
+    }
 
-                if (ID == TileID.ROTATE_PAD_LEFT.getId()) {
-                    rotatePads.add(new RotatePad(Rotate.LEFT, new Vector2(x, y)));
-                } else if (ID == TileID.ROTATE_PAD_RIGHT.getId()) {
-                    rotatePads.add(new RotatePad(Rotate.RIGHT, new Vector2(x, y)));
-                }
-            }
-        }
+    /**
+     * @param cell      to move from, see {@link #toIndex(int, int)}
+     * @param direction to move in
+     * @return index of neighbour cell, {@link #OFF_BOARD} if it is outside the board or {@link #BLOCKED} if a
+     * wall is in the way
+     */
+    public int getNeighbour(int cell, Direction direction) {
+        return model.getNeighbour(cell, direction);
     }
 
     /**
-     * Finds the where the flags are on the board, makes {@link Flag} objects
-     * and puts them in to the flag array.
+     * @param cell index of cell
+     * @return x coordinate of cell
      */
-    public void findFlags() {
-        for (int x = 0; x < flagLayer.getWidth(); x++) {
-            for (int y = 0; y < flagLayer.getHeight(); y++) {
-                TiledMapTileLayer.Cell cell = flagLayer.getCell(x, y);
-                if (cell != null) {
-                    int ID = cell.getTile().getId();
-                    if (ID == TileID.FLAG_1.getId()) {
-                        flags.add(new Flag(1, x, y));
-                    } else if (ID == TileID.FLAG_2.getId()) {
-                        flags.add(new Flag(2, x, y));
-                    } else if (ID == TileID.FLAG_3.getId()) {
-                        flags.add(new Flag(3, x, y));
-                    } else if (ID == TileID.FLAG_4.getId()) {
-                        flags.add(new Flag(4, x, y));
-                    }
-                }
-            }
+    public int toX(int cell) {
+        return cell % boardWidth;
+    }
+
+    /**
+     * @param cell index of cell
+     * @return y coordinate of cell
+     */
+    public int toY(int cell) {
+        return cell / boardWidth;
+    }
+
+    /**
+     * @param x coordinate on board
+     * @param y coordinate on board
+     * @return index of cell (x, y) in the grids of this board
+     */
+    public int toIndex(int x, int y) {
+        return y * boardWidth + x;
+    }
+
+    /**
+     * @param cell to check for wall
+     * @param side of cell
+     * @return true if cell has a wall on given side
+     */
+    private boolean hasWall(TiledMapTileLayer.Cell cell, Direction side) {
+        if (cell == null || cell.getTile() == null) {
+            return false;
         }
+        TileID tile = TileID.fromId(cell.getTile().getId());
+        return tile != null && tile.hasWall(side);
     }
 
     /**
+     * Checks is there is a wall to the west of a given {@link TiledMapTileLayer.Cell} cell}.
      *
+     * @param cell to check for wall
+     * @return true if cell has a wall on west side
      */
-    public void findLasers() {
-        for (int x = 0; x < wallLayer.getWidth(); x++) {
-            for (int y = 0; y < wallLayer.getHeight(); y++) {
-                TiledMapTileLayer.Cell cell = wallLayer.getCell(x, y);
-                if (cell != null) {
-                    int ID = cell.getTile().getId();
-                    if (ID == TileID.EAST_LASER_WALL.getId()) {
-                        lasers.add(new Laser(x, y, Direction.WEST));
-                    } else if (ID == TileID.WEST_LASER_WALL.getId()) {
-                        lasers.add(new Laser(x, y, Direction.EAST));
-                    } else if (ID == TileID.NORTH_LASER_WALL.getId()) {
-                        lasers.add(new Laser(x, y, Direction.SOUTH));
-                    } else if (ID == TileID.SOUTH_LASER_WALL.getId()) {
-                        lasers.add(new Laser(x, y, Direction.NORTH));
-                    }
-                }
-            }
-        }
+    public boolean hasWestWall(TiledMapTileLayer.Cell cell) {
+        return hasWall(cell, Direction.WEST);
     }
 
     /**
-     * Finds all the boards repairs tiles.
+     * Checks is there is a wall to the east of a given {@link TiledMapTileLayer.Cell cell}.
+     *
+     * @param cell to check for wall
+     * @return true if cell has a wall on east side
      */
-    public void findRepairs() {
-        for (int x = 0; x < groundLayer.getWidth(); x++) {
-            for (int y = 0; y < groundLayer.getHeight(); y++) {
-
-                TiledMapTileLayer.Cell cell = groundLayer.getCell(x, y);
-                if(cell != null){
-                    int ID =  cell.getTile().getId();
-                    if (ID == TileID.WRENCH.getId()){
-                        repairTiles.add(new Vector2(x, y));
-                    } else if (ID == TileID.DOUBLE_WRENCH.getId()){
-                        repairTiles.add(new Vector2(x, y));
-                    }
-                }
-            }
-        }
+    public boolean hasEastWall(TiledMapTileLayer.Cell cell) {
+        return hasWall(cell, Direction.EAST);
+    }
+
+    /**
+     * Checks is there is a wall to the south of a given {@link TiledMapTileLayer.Cell cell}.
+     *
+     * @param cell to check for wall
+     * @return true if cell has a wall on south side
+     */
+    public boolean hasSouthWall(TiledMapTileLayer.Cell cell) {
+        return hasWall(cell, Direction.SOUTH);
+    }
+
+    /**
+     * Checks is there is a wall to the north of a given {@link TiledMapTileLayer.Cell cell}.
+     *
+     * @param cell to check for wall
+     * @return true if cell has a wall on north side
+     */
+    public boolean hasNorthWall(TiledMapTileLayer.Cell cell) {
+        return hasWall(cell, Direction.NORTH);
     }
 
     // GET MAP LAYERS
@@ -380,8 +280,11 @@ public abstract class BoardLayers {
         return belts;
     }
 
-    public ArrayList<Belt> getExpressBelts() {
-        return expressBelts;
+    /**
+     * @return true if there are express belts on the board
+     */
+    public boolean hasExpressBelts() {
+        return model.hasExpressBelts();
     }
 
     /**
@@ -0,0 +1,88 @@
+package inf112.skeleton.app.board;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import inf112.skeleton.app.enums.Direction;
+import inf112.skeleton.app.enums.TileID;
+
+/**
+ * <p>
+ * Draws laser beams in the laser layer of the map and removes them again.
+ * </p>
+ *
+ * <p>
+ * Remembers every cell a beam is drawn in, so removing the beams only visits those cells instead of the
+ * whole board. The same three cells, one for each kind of beam, are put everywhere a beam is drawn.
+ * </p>
+ */
+public class LaserLayer {
+
+    private final TiledMapTileLayer layer;
+    private final int width;
+    private final TiledMapTileLayer.Cell verticalBeam;
+    private final TiledMapTileLayer.Cell horizontalBeam;
+    private final TiledMapTileLayer.Cell crossedBeam;
+    /**
+     * Index of every cell with a beam, in the order the beams were drawn.
+     */
+    private final int[] beamCells;
+    private final boolean[] hasBeam;
+    private int numberOfBeamCells;
+
+    /**
+     * @param layer laser layer of the map
+     * @param tiles tile set with the laser tiles
+     */
+    public LaserLayer(TiledMapTileLayer layer, TiledMapTileSet tiles) {
+        this.layer = layer;
+        this.width = layer.getWidth();
+        this.verticalBeam = makeCell(tiles, TileID.VERTICAL_LASER);
+        this.horizontalBeam = makeCell(tiles, TileID.HORIZONTAL_LASER);
+        this.crossedBeam = makeCell(tiles, TileID.CROSSED_LASER);
+        this.beamCells = new int[width * layer.getHeight()];
+        this.hasBeam = new boolean[width * layer.getHeight()];
+    }
+
+    private static TiledMapTileLayer.Cell makeCell(TiledMapTileSet tiles, TileID tileID) {
+        TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+        cell.setTile(tiles.getTile(tileID.getId()));
+        return cell;
+    }
+
+    /**
+     * Draw beam in cell (x, y). A beam crossing another beam is drawn as a crossed beam.
+     *
+     * @param x         of cell
+     * @param y         of cell
+     * @param direction of laser
+     */
+    public void addBeam(int x, int y, Direction direction) {
+        if (x < 0 || x >= width || y < 0 || y >= layer.getHeight()) {
+            return;
+        }
+        boolean vertical = direction == Direction.NORTH || direction == Direction.SOUTH;
+        TiledMapTileLayer.Cell beam = vertical ? verticalBeam : horizontalBeam;
+        TiledMapTileLayer.Cell current = layer.getCell(x, y);
+        if (current == crossedBeam || current == beam) {
+            return;
+        }
+        layer.setCell(x, y, current == null ? beam : crossedBeam);
+        int cell = y * width + x;
+        if (!hasBeam[cell]) {
+            hasBeam[cell] = true;
+            beamCells[numberOfBeamCells++] = cell;
+        }
+    }
+
+    /**
+     * Remove every beam drawn since the last time beams were removed.
+     */
+    public void removeBeams() {
+        for (int i = 0; i < numberOfBeamCells; i++) {
+            int cell = beamCells[i];
+            layer.setCell(cell % width, cell / width, null);
+            hasBeam[cell] = false;
+        }
+        numberOfBeamCells = 0;
+    }
+}
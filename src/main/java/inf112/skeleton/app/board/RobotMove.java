@@ -0,0 +1,52 @@
+package inf112.skeleton.app.board;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import inf112.skeleton.app.objects.player.Player;
+
+/**
+ * Where a robot should be drawn next, and with which tile. Made by the {@link Board} every time a player
+ * is put on or taken off the board, so the screen can animate the robot from where it is drawn now.
+ */
+public class RobotMove {
+
+    private final Player player;
+    private final float x;
+    private final float y;
+    private final TiledMapTile tile;
+    private final boolean onBoard;
+
+    /**
+     * @param player that moved
+     * @param tile   of robot after the move, null if robot is taken off the board
+     */
+    public RobotMove(Player player, TiledMapTile tile) {
+        this.player = player;
+        this.x = player.getPosition().x;
+        this.y = player.getPosition().y;
+        this.tile = tile;
+        this.onBoard = tile != null;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public TiledMapTile getTile() {
+        return tile;
+    }
+
+    /**
+     * @return false if robot is taken off the board and should not be drawn
+     */
+    public boolean isOnBoard() {
+        return onBoard;
+    }
+}
@@ -1,32 +1,109 @@
 package inf112.skeleton.app.cards;
 
-import inf112.skeleton.app.enums.Rotate;
-
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EmptyStackException;
+import java.util.Random;
 import java.util.Stack;
 
+/**
+ * <p>
+ * The program cards not dealt yet, and the cards discarded since the deck was last shuffled.
+ * </p>
+ *
+ * <p>
+ * Both piles are arrays with the top card last, so drawing, discarding and shuffling do not allocate.
+ * </p>
+ */
 public class Deck {
-    private Stack<ProgramCard> deck;
-    private Stack<ProgramCard> discardPile;
 
-    public Deck() {
+    /**
+     * Number of cards in a new deck.
+     */
+    public static final int NUMBER_OF_CARDS = ProgramCard.NUMBER_OF_CARDS;
+
+    private ProgramCard[] deck;
+    private int deckSize;
+    private ProgramCard[] discardPile;
+    private int discardPileSize;
+    /**
+     * Priorities of the cards being removed by {@link #removeCards(ArrayList)}. Priorities are unique in a deck.
+     */
+    private final BitSet removedPriorities;
+    private final Random random;
+
+    /**
+     * @param random to shuffle with, the same seed gives the same order of cards
+     */
+    public Deck(Random random) {
+        this(random, new ArrayList<>());
+    }
+
+    /**
+     * Make a deck in order of priority, remove cards and then shuffle, so the deck is only shuffled once.
+     *
+     * @param random       to shuffle with
+     * @param removedCards to remove before shuffling
+     */
+    private Deck(Random random, ArrayList<ProgramCard> removedCards) {
+        this.random = random;
+        this.removedPriorities = new BitSet();
         makeNewDeck();
+        removeCards(removedCards);
         shuffleDeck();
     }
 
+    /**
+     * Make a deck in order of priority, remove cards and shuffle with a new random from the seed. Decks made
+     * from the same seed and removed cards are the same, so a deck can be sent as just the seed and the cards.
+     *
+     * @param seed         to shuffle with
+     * @param removedCards to remove before shuffling, for example cards locked in registers
+     * @return the shuffled deck
+     */
+    public static Deck fromSeed(long seed, ArrayList<ProgramCard> removedCards) {
+        return new Deck(new Random(seed), removedCards);
+    }
+
+    /**
+     * Remove cards from the deck, for example cards locked in registers.
+     *
+     * @param cards to remove, cards are the same if they have the same priority
+     */
     public void removeCards(ArrayList<ProgramCard> cards) {
-        deck.removeAll(cards);
+        for (ProgramCard card : cards) {
+            removedPriorities.set(card.getPriority());
+        }
+        int kept = 0;
+        for (int i = 0; i < deckSize; i++) {
+            if (!removedPriorities.get(deck[i].getPriority())) {
+                deck[kept++] = deck[i];
+            }
+        }
+        Arrays.fill(deck, kept, deckSize, null);
+        deckSize = kept;
+        removedPriorities.clear();
     }
 
     /**
-     * Make all the programCards and put them in the stack
+     * Put all the programCards in the deck, in order of priority
      */
     public void makeNewDeck() {
-        deck = new Stack<>();
-        discardPile = new Stack<>();
-        makeRotateCards();
-        makeMoveCards();
+        deck = new ProgramCard[NUMBER_OF_CARDS];
+        deckSize = 0;
+        discardPile = new ProgramCard[NUMBER_OF_CARDS];
+        discardPileSize = 0;
+        for (int id = 0; id < NUMBER_OF_CARDS; id++) {
+            push(ProgramCard.getCard(id));
+        }
+    }
+
+    private void push(ProgramCard card) {
+        if (deckSize == deck.length) {
+            deck = Arrays.copyOf(deck, deck.length * 2);
+        }
+        deck[deckSize++] = card;
     }
 
     /**
@@ -34,92 +111,79 @@ public class Deck {
      * @param programCard Card to be placed in the discard pile
      */
     public void addCardToDiscardPile(ProgramCard programCard) {
-        discardPile.push(programCard);
+        if (discardPileSize == discardPile.length) {
+            discardPile = Arrays.copyOf(discardPile, discardPile.length * 2);
+        }
+        discardPile[discardPileSize++] = programCard;
     }
 
     /**
      * @return the size of the deck
      */
     public int deckSize() {
-        return deck.size();
+        return deckSize;
     }
 
     /**
-     * Shuffles the deck
+     * Shuffles the deck with Fisher-Yates, in place
      */
     public void shuffleDeck() {
-        Collections.shuffle(deck);
+        for (int i = deckSize - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            ProgramCard card = deck[i];
+            deck[i] = deck[j];
+            deck[j] = card;
+        }
     }
 
     /**
      * @return the next {@link ProgramCard} in the stack / deck
      */
     public ProgramCard drawCard() {
-        ProgramCard card = deck.pop();
-        if (deck.isEmpty()) {
+        if (deckSize == 0) {
+            throw new EmptyStackException();
+        }
+        ProgramCard card = deck[--deckSize];
+        deck[deckSize] = null;
+        if (deckSize == 0) {
             addDiscardPileToDeck();
         }
         return card;
     }
 
     public void addDiscardPileToDeck() {
-        deck.addAll(discardPile);
-        discardPile.clear();
-        shuffleDeck();
-    }
-
-    /**
-     * Make all rotate cards, 18 Rotate right, 18 Rotate left and 6 Rotate U-turn
-     * with priority evenly spread between all cards
-     */
-    private void makeRotateCards() {
-        // Make 42 rotate cards
-        for (int priority = 1; priority <= 42; priority++) {
-            // Every seventh rotate card should be U-turn
-            if (priority % 7 == 0) {
-                deck.push(new ProgramCard(priority * 10, 0, Rotate.UTURN, "U-turn"));
-            } else if (priority % 2 == 0) {
-                deck.push(new ProgramCard(priority * 10, 0, Rotate.RIGHT, "Right turn"));
-            } else {
-                deck.push(new ProgramCard(priority * 10, 0, Rotate.LEFT, "Left turn"));
-            }
-        }
-    }
-
-    /**
-     * Make all move cards, 18 Move 1, 12 Move 2, 6 Move 3 and 6 backup
-     * with priority evenly spread between all cards
-     */
-    private void makeMoveCards() {
-        int startPriority = 420;
-        // Make 42 move cards
-        for (int priority = 1; priority <= 42; priority++) {
-            if (priority % 7 == 0) {
-                // For every seventh card there should be one backup, one move 3, two move 2 and three move 1 cards
-                deck.push(new ProgramCard(priority * 10 + startPriority, -1, Rotate.NONE, "Back up"));
-            } else if ((priority + 1) % 7 == 0) {
-                deck.push(new ProgramCard(priority * 10 + startPriority, 3, Rotate.NONE, "Move 3"));
-            } else if ((priority + 2) % 7 == 0 || (priority + 3) % 7 == 0) {
-                deck.push(new ProgramCard(priority * 10 + startPriority, 2, Rotate.NONE, "Move 2"));
-            } else {
-                deck.push(new ProgramCard(priority * 10 + startPriority, 1, Rotate.NONE, "Move 1"));
-            }
+        if (deckSize + discardPileSize > deck.length) {
+            deck = Arrays.copyOf(deck, deckSize + discardPileSize);
         }
+        System.arraycopy(discardPile, 0, deck, deckSize, discardPileSize);
+        deckSize += discardPileSize;
+        Arrays.fill(discardPile, 0, discardPileSize, null);
+        discardPileSize = 0;
+        shuffleDeck();
     }
 
     /**
      *
-     * @return the stack of cards in the deck
+     * @return copy of the cards in the deck as a stack, with the next card on top
      */
     public Stack<ProgramCard> getDeck() {
-        return deck;
+        Stack<ProgramCard> stack = new Stack<>();
+        for (int i = 0; i < deckSize; i++) {
+            stack.push(deck[i]);
+        }
+        return stack;
     }
 
     /**
      *
-     * @param stack new stack for this deck
+     * @param stack new cards for this deck, the top card is drawn first
      */
     public void setDeck(Stack<ProgramCard> stack) {
-        this.deck = stack;
+        if (stack.size() > deck.length) {
+            deck = new ProgramCard[stack.size()];
+        }
+        Arrays.fill(deck, null);
+        stack.toArray(deck);
+        deckSize = stack.size();
     }
 }
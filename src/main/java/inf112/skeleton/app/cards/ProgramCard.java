@@ -2,7 +2,26 @@ package inf112.skeleton.app.cards;
 
 import inf112.skeleton.app.enums.Rotate;
 
+import java.util.Objects;
+
+/**
+ * <p>
+ * A program card. Cards are immutable and two cards are equal if they have the same priority, distance and rotation.
+ * </p>
+ *
+ * <p>
+ * The 84 cards of the game are made once and shared by every deck, see {@link #getCard(int)}. A card from the game
+ * is known by its id, which is its priority divided by 10, minus 1.
+ * </p>
+ */
 public class ProgramCard {
+
+    /**
+     * Number of cards in the game, one for each priority from 10 to 840 in steps of 10.
+     */
+    public static final int NUMBER_OF_CARDS = 84;
+    private static final ProgramCard[] CARDS = makeCards();
+
     private final int priority;
     private final int distance;
     private final String name;
@@ -16,14 +35,106 @@ public class ProgramCard {
         this.name = name;
     }
 
+    /**
+     * Make all the cards of the game in order of priority. 42 rotate cards, 18 Rotate right, 18 Rotate left
+     * and 6 Rotate U-turn, then 42 move cards, 18 Move 1, 12 Move 2, 6 Move 3 and 6 Back up.
+     *
+     * @return cards indexed by id
+     */
+    private static ProgramCard[] makeCards() {
+        ProgramCard[] cards = new ProgramCard[NUMBER_OF_CARDS];
+        for (int priority = 1; priority <= 42; priority++) {
+            // Every seventh rotate card should be U-turn
+            if (priority % 7 == 0) {
+                cards[priority - 1] = new ProgramCard(priority * 10, 0, Rotate.UTURN, "U-turn");
+            } else if (priority % 2 == 0) {
+                cards[priority - 1] = new ProgramCard(priority * 10, 0, Rotate.RIGHT, "Right turn");
+            } else {
+                cards[priority - 1] = new ProgramCard(priority * 10, 0, Rotate.LEFT, "Left turn");
+            }
+        }
+        int startPriority = 420;
+        for (int priority = 1; priority <= 42; priority++) {
+            int id = priority + 41;
+            if (priority % 7 == 0) {
+                // For every seventh card there should be one backup, one move 3, two move 2 and three move 1 cards
+                cards[id] = new ProgramCard(priority * 10 + startPriority, -1, Rotate.NONE, "Back up");
+            } else if ((priority + 1) % 7 == 0) {
+                cards[id] = new ProgramCard(priority * 10 + startPriority, 3, Rotate.NONE, "Move 3");
+            } else if ((priority + 2) % 7 == 0 || (priority + 3) % 7 == 0) {
+                cards[id] = new ProgramCard(priority * 10 + startPriority, 2, Rotate.NONE, "Move 2");
+            } else {
+                cards[id] = new ProgramCard(priority * 10 + startPriority, 1, Rotate.NONE, "Move 1");
+            }
+        }
+        return cards;
+    }
+
+    /**
+     * @param id of card, from 0 to {@link #NUMBER_OF_CARDS} - 1
+     * @return the card of the game with this id
+     */
+    public static ProgramCard getCard(int id) {
+        return CARDS[id];
+    }
+
+    /**
+     * @param priority of card
+     * @return the card of the game with this priority, null if no card has this priority
+     */
+    public static ProgramCard fromPriority(int priority) {
+        if (priority % 10 != 0 || priority < 10 || priority > NUMBER_OF_CARDS * 10) {
+            return null;
+        }
+        return CARDS[priority / 10 - 1];
+    }
+
+    /**
+     * Get the card of the game if it looks like this, otherwise make a new card.
+     *
+     * @param priority of card
+     * @param distance of card
+     * @param rotate   of card
+     * @param name     of card
+     * @return card with these values
+     */
+    public static ProgramCard valueOf(int priority, int distance, Rotate rotate, String name) {
+        ProgramCard card = fromPriority(priority);
+        if (card != null && card.distance == distance && card.rotate == rotate && card.name.equals(name)) {
+            return card;
+        }
+        return new ProgramCard(priority, distance, rotate, name);
+    }
+
+    /**
+     * @return id of card, -1 if this is not one of the cards of the game
+     */
+    public int getId() {
+        ProgramCard card = fromPriority(priority);
+        return equals(card) ? priority / 10 - 1 : -1;
+    }
+
     public int getPriority() {
         return priority;
     }
 
-    public boolean equals(ProgramCard other) {
-        return this.priority == other.priority &&
-                this.distance == other.distance &&
-                this.rotate == other.rotate;
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ProgramCard)) {
+            return false;
+        }
+        ProgramCard card = (ProgramCard) other;
+        return this.priority == card.priority &&
+                this.distance == card.distance &&
+                this.rotate == card.rotate;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(priority, distance, rotate);
     }
 
     public int getDistance() {
@@ -1,43 +1,44 @@
 package inf112.skeleton.app.cards;
 
+/**
+ * One of the five registers of a player. The card and whether the register is open are kept by {@link Registers}.
+ */
 public class Register {
 
-    private final int registerNumber;
-    private ProgramCard programCard;
-    private boolean isOpen;
+    private final Registers registers;
+    private final int index;
 
-    public Register(int registerNumber) {
-        this.registerNumber = registerNumber;
-        this.isOpen = true;
-        this.programCard = null;
+    Register(Registers registers, int index) {
+        this.registers = registers;
+        this.index = index;
     }
 
     public int getRegisterNumber() {
-        return registerNumber;
+        return index + 1;
     }
 
     public ProgramCard getProgramCard() {
-        return programCard;
+        return registers.getCard(index);
     }
 
     public void setProgramCard(ProgramCard programCard) {
-        this.programCard = programCard;
+        registers.setCard(index, programCard);
     }
 
     public boolean isOpen() {
-        return isOpen;
+        return registers.isOpen(index);
     }
 
     public void setOpen(boolean open) {
-        this.isOpen = open;
+        registers.setOpen(index, open);
     }
 
     public boolean hasCard() {
-        return programCard != null;
+        return registers.hasCard(index);
     }
 
     @Override
     public String toString() {
-        return hasCard() ? programCard.toString() : "no card";
+        return hasCard() ? getProgramCard().toString() : "no card";
     }
 }
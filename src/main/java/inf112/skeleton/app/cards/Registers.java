@@ -3,24 +3,48 @@ package inf112.skeleton.app.cards;
 import java.util.ArrayList;
 import java.util.Arrays;
 
+/**
+ * <p>
+ * The five registers of a player.
+ * </p>
+ *
+ * <p>
+ * The cards are kept in an array, and which registers have a card and which are open are kept as bits, with
+ * register index i in bit i. The ids of the cards of the game in the registers are also kept as bits, so counting
+ * and looking up cards does not have to go through the registers.
+ * </p>
+ */
 public class Registers {
 
+    public static final int NUMBER_OF_REGISTERS = 5;
+    private static final int ALL_REGISTERS = (1 << NUMBER_OF_REGISTERS) - 1;
+
+    private final ProgramCard[] cards;
+    private int filledRegisters;
+    private int openRegisters;
+    /**
+     * Bit id is set if the card of the game with this id is in a register, see {@link ProgramCard#getId()}.
+     */
+    private final long[] cardIds;
     private final ArrayList<Register> registers;
 
     public Registers() {
+        this.cards = new ProgramCard[NUMBER_OF_REGISTERS];
+        this.openRegisters = ALL_REGISTERS;
+        this.cardIds = new long[(ProgramCard.NUMBER_OF_CARDS + 63) / 64];
         this.registers = new ArrayList<>();
-        for (int i = 1; i < 6; i++) {
-            registers.add(new Register(i));
+        for (int i = 0; i < NUMBER_OF_REGISTERS; i++) {
+            registers.add(new Register(this, i));
         }
     }
 
+    /**
+     * @param card to look for
+     * @return first register with this card, null if no register has it
+     */
     public Register getRegister(ProgramCard card) {
-        for (Register reg : registers) {
-            if (reg.hasCard() && reg.getProgramCard().equals(card)) {
-                return reg;
-            }
-        }
-        return null;
+        int index = indexOf(card);
+        return index == -1 ? null : registers.get(index);
     }
 
     public Register getRegister(int i) {
@@ -31,73 +55,111 @@ public class Registers {
         return registers;
     }
 
-    public void addCard(ProgramCard card) {
-        for (Register reg : registers) {
-            if (!reg.hasCard()) {
-                reg.setProgramCard(card);
-                return;
+    private int indexOf(ProgramCard card) {
+        if (card == null) {
+            return -1;
+        }
+        int id = card.getId();
+        if (id != -1 && (cardIds[id >> 6] & (1L << id)) == 0) {
+            return -1;
+        }
+        for (int filled = filledRegisters; filled != 0; filled &= filled - 1) {
+            int i = Integer.numberOfTrailingZeros(filled);
+            if (cards[i].equals(card)) {
+                return i;
             }
         }
+        return -1;
+    }
+
+    /**
+     * Put card in register, or empty the register if card is null.
+     *
+     * @param i    index of register
+     * @param card to put in register
+     */
+    void setCard(int i, ProgramCard card) {
+        ProgramCard old = cards[i];
+        cards[i] = card;
+        if (card == null) {
+            filledRegisters &= ~(1 << i);
+        } else {
+            filledRegisters |= 1 << i;
+            setCardId(card, true);
+        }
+        if (old != null && indexOf(old) == -1) {
+            setCardId(old, false);
+        }
+    }
+
+    private void setCardId(ProgramCard card, boolean inRegister) {
+        int id = card.getId();
+        if (id == -1) {
+            return;
+        }
+        if (inRegister) {
+            cardIds[id >> 6] |= 1L << id;
+        } else {
+            cardIds[id >> 6] &= ~(1L << id);
+        }
+    }
+
+    boolean hasCard(int i) {
+        return (filledRegisters & (1 << i)) != 0;
+    }
+
+    boolean isOpen(int i) {
+        return (openRegisters & (1 << i)) != 0;
+    }
+
+    void setOpen(int i, boolean open) {
+        if (open) {
+            openRegisters |= 1 << i;
+        } else {
+            openRegisters &= ~(1 << i);
+        }
+    }
+
+    public void addCard(ProgramCard card) {
+        int empty = ~filledRegisters & ALL_REGISTERS;
+        if (empty != 0) {
+            setCard(Integer.numberOfTrailingZeros(empty), card);
+        }
     }
 
     public void remove(ProgramCard card) {
-        boolean foundCard = false;
-        for (int i = 0; i < 5; i++) {
-            Register register = registers.get(i);
-            if (!foundCard && register.hasCard() && card.equals(register.getProgramCard())) {
-                foundCard = true;
-            }
-            if (foundCard) {
-                if (i < 4 && registers.get(i + 1).isOpen()) {
-                    register.setProgramCard(registers.get(i + 1).getProgramCard());
-                } else {
-                    register.setProgramCard(null);
-                    return;
-                }
+        int index = indexOf(card);
+        if (index == -1) {
+            return;
+        }
+        for (int i = index; i < NUMBER_OF_REGISTERS; i++) {
+            if (i < NUMBER_OF_REGISTERS - 1 && isOpen(i + 1)) {
+                setCard(i, cards[i + 1]);
+            } else {
+                setCard(i, null);
+                return;
             }
         }
     }
 
     public ProgramCard getCard(int i) {
-        return registers.get(i).getProgramCard();
+        return cards[i];
     }
 
     public boolean contains(ProgramCard card) {
-        for (Register register : registers) {
-            if (register.hasCard() && register.getProgramCard().equals(card)) {
-                return false;
-            }
-        }
-        return true;
+        return indexOf(card) == -1;
     }
 
     public boolean hasRegistersWithoutCard() {
-        for (Register register : registers) {
-            if (!register.hasCard()) {
-                return true;
-            }
-        }
-        return false;
+        return filledRegisters != ALL_REGISTERS;
     }
 
     public int getOpenRegisters() {
-        int open = 0;
-        for (Register register : registers) {
-            if (register.isOpen()) {
-                open++;
-            }
-        }
-        return open;
+        return Integer.bitCount(openRegisters);
     }
 
     public int getNumberOfCardsSelected() {
-        int cards = 0;
-        for (Register register : registers) {
-            if (register.hasCard()) {
-                cards++;
-            }
-        }
-        return cards;
+        return Integer.bitCount(filledRegisters);
     }
 
     public void setSelectedCards(ProgramCard... cards) {
@@ -107,28 +169,24 @@ public class Registers {
     }
 
     public void clear(boolean clearOnlyOpen) {
-        for (Register register : registers) {
-            if (!clearOnlyOpen || register.isOpen()) {
-                register.setProgramCard(null);
-            }
+        int clear = filledRegisters & (clearOnlyOpen ? openRegisters : ALL_REGISTERS);
+        for (; clear != 0; clear &= clear - 1) {
+            setCard(Integer.numberOfTrailingZeros(clear), null);
         }
     }
 
     public ArrayList<ProgramCard> getCards() {
         ArrayList<ProgramCard> cards = new ArrayList<>();
-        for (Register register : registers) {
-            if (register.hasCard()) {
-                cards.add(register.getProgramCard());
-            }
+        for (int filled = filledRegisters; filled != 0; filled &= filled - 1) {
+            cards.add(this.cards[Integer.numberOfTrailingZeros(filled)]);
         }
         return cards;
     }
 
     public void updateRegisters(int damageToken) {
-        int lockedRegisters = Math.max(damageToken - 4, 0);
-        for (int i = 0; i < 5; i++) {
-            registers.get(4 - i).setOpen(i >= lockedRegisters);
-        }
+        int lockedRegisters = Math.min(Math.max(damageToken - 4, 0), NUMBER_OF_REGISTERS);
+        // The last registers are locked first
+        this.openRegisters = ALL_REGISTERS >> lockedRegisters;
     }
 
     @Override
@@ -0,0 +1,161 @@
+package inf112.skeleton.app.engine;
+
+import inf112.skeleton.app.cards.ProgramCard;
+import inf112.skeleton.app.enums.Direction;
+
+/**
+ * <p>
+ * One thing that happened in a turn resolved by the {@link TurnEngine}, recorded by a {@link TurnRecorder}.
+ * </p>
+ *
+ * <p>
+ * Which fields are used depends on the {@link Type}. Unused robot numbers and cells are 0 and
+ * {@link BoardModel#OFF_BOARD}, and unused directions and cards are null.
+ * </p>
+ */
+public class BoardEvent {
+
+    public enum Type {
+        /**
+         * Register with index {@link #getValue() value} is revealed.
+         */
+        REGISTER,
+        /**
+         * Robot plays {@link #getCard() card}.
+         */
+        CARD,
+        /**
+         * Robot is done playing its card.
+         */
+        CARD_DONE,
+        /**
+         * Robot moves from one cell to another by its card.
+         */
+        MOVE,
+        /**
+         * Robot is pushed from one cell to another.
+         */
+        PUSH,
+        /**
+         * Belts start, {@link #getValue() value} is 1 if only express belts move.
+         */
+        BELTS_STARTED,
+        /**
+         * Robot is moved from one cell to another by a belt.
+         */
+        BELT,
+        /**
+         * Belts have moved, {@link #getValue() value} is 1 if only express belts moved.
+         */
+        BELTS_MOVED,
+        /**
+         * Robot turns to face {@link #getDirection() direction}.
+         */
+        ROTATE,
+        ROTATE_PADS_TURNED,
+        /**
+         * Robot walks into a wall.
+         */
+        WALL_HIT,
+        /**
+         * Laser of a robot covers the cells after {@link #getFrom() from} up to {@link #getTo() to}, in
+         * {@link #getDirection() direction}.
+         */
+        LASER_BEAM,
+        /**
+         * Lasers fire, {@link #getValue() value} is 1 for robot lasers and 0 for wall lasers.
+         */
+        LASERS_FIRED,
+        /**
+         * Robot is hit by a laser, {@link #getValue() value} is 1 for robot lasers and 0 for wall lasers.
+         */
+        LASER_HIT,
+        /**
+         * Robot is destroyed and loses a life.
+         */
+        DESTROY,
+        /**
+         * Robot gets its current cell and direction as backup.
+         */
+        BACKUP,
+        /**
+         * Robot picks up flag number {@link #getValue() value}.
+         */
+        FLAG,
+        /**
+         * Robot loses one damage token.
+         */
+        REPAIR,
+        /**
+         * Register with index {@link #getValue() value} is done.
+         */
+        REGISTER_DONE,
+        /**
+         * Robot is respawned in {@link #getTo() cell} facing {@link #getDirection() direction}.
+         */
+        RESPAWN,
+        /**
+         * Robot has picked up the last flag.
+         */
+        WIN
+    }
+
+    private final Type type;
+    private final int robot;
+    private final int from;
+    private final int to;
+    private final Direction direction;
+    private final int value;
+    private final ProgramCard card;
+
+    public BoardEvent(Type type, int robot, int from, int to, Direction direction, int value, ProgramCard card) {
+        this.type = type;
+        this.robot = robot;
+        this.from = from;
+        this.to = to;
+        this.direction = direction;
+        this.value = value;
+        this.card = card;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return number of robot the event is about, 0 if it is about the whole board
+     */
+    public int getRobot() {
+        return robot;
+    }
+
+    /**
+     * @return cell robot moved from
+     */
+    public int getFrom() {
+        return from;
+    }
+
+    /**
+     * @return cell robot moved to, {@link BoardModel#OFF_BOARD} if it left the board
+     */
+    public int getTo() {
+        return to;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public ProgramCard getCard() {
+        return card;
+    }
+
+    public String toString() {
+        return type + (robot == 0 ? "" : " robot " + robot);
+    }
+}
@@ -0,0 +1,619 @@
+package inf112.skeleton.app.engine;
+
+import inf112.skeleton.app.enums.Direction;
+import inf112.skeleton.app.enums.Rotate;
+import inf112.skeleton.app.enums.TileID;
+import inf112.skeleton.app.enums.TileKind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * <p>
+ * Everything on a board that does not move, read from the tile ids of the ground, wall and flag layers.
+ * </p>
+ *
+ * <p>
+ * The model knows nothing about libGDX. Cells are numbered by {@link #toIndex(int, int)}, and every lookup
+ * is an array read, so it can be shared by the {@link inf112.skeleton.app.board.Board board} drawn on screen
+ * and the {@link TurnEngine} resolving turns without a screen.
+ * </p>
+ */
+public class BoardModel {
+
+    /**
+     * Neighbour returned by {@link #getNeighbour(int, Direction)} when moving in that direction leaves the board.
+     */
+    public static final int OFF_BOARD = -1;
+    /**
+     * Neighbour returned by {@link #getNeighbour(int, Direction)} when a wall is in the way.
+     */
+    public static final int BLOCKED = -2;
+
+    private static final int CONVEYOR = 4;
+    private static final int EXPRESS_CONVEYOR = 8;
+    private static final int CONVEYOR_DIRECTION = 3;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private static final int MAX_FLAGS = 4;
+    private static final int MAX_START_POSITIONS = 8;
+
+    /**
+     * How a robot turns when moved by a belt, indexed by the direction of the last belt push and the
+     * direction of the belt it is on now.
+     */
+    private static final Rotate[][] BELT_TURNS = new Rotate[DIRECTIONS.length][DIRECTIONS.length];
+
+    static {
+        for (Direction lastPush : DIRECTIONS) {
+            for (Direction beltDirection : DIRECTIONS) {
+                Rotate turn = Rotate.NONE;
+                if (beltDirection == lastPush.turnRight()) {
+                    turn = Rotate.RIGHT;
+                } else if (beltDirection == lastPush.turnLeft()) {
+                    turn = Rotate.LEFT;
+                }
+                BELT_TURNS[lastPush.ordinal()][beltDirection.ordinal()] = turn;
+            }
+        }
+    }
+
+    private final int width;
+    private final int height;
+
+    /**
+     * Blocked edges of every cell. The lower four bits tell which sides are blocked by a wall (own wall or the
+     * facing wall of the neighbour), the upper four bits which sides are the border of the board.
+     * Bit number is {@link Direction#ordinal()}.
+     */
+    private final byte[] edges;
+    /**
+     * Cell reached by moving one step from a cell, indexed by cell times four plus {@link Direction#ordinal()}.
+     * {@link #OFF_BOARD} if the step leaves the board and {@link #BLOCKED} if a wall is in the way.
+     */
+    private final int[] neighbours;
+    /**
+     * How far a laser fired from a cell reaches, indexed by cell times four plus {@link Direction#ordinal()}.
+     * The value is the x coordinate of the last cell reached for east and west, and the y coordinate for
+     * north and south. If a wall or the border is right in front of the cell, it is the coordinate of the cell itself.
+     */
+    private final int[] beamStops;
+    /**
+     * Conveyor belt on every cell. 0 if there is no belt, otherwise {@link #CONVEYOR} and the
+     * {@link Direction#ordinal()} the belt moves robots in, and {@link #EXPRESS_CONVEYOR} for express belts.
+     */
+    private final byte[] conveyors;
+    private boolean hasExpressBelts;
+    private final BitSet holeCells;
+    /**
+     * Number of wrenches on each cell, 0 if cell is not a repair tile.
+     */
+    private final byte[] repairCells;
+    /**
+     * Rotation of the rotate pad on each cell, null if cell has no rotate pad.
+     */
+    private final Rotate[] rotatePads;
+    /**
+     * Number of the flag on each cell, 0 if cell has no flag.
+     */
+    private final byte[] flagCells;
+    /**
+     * Cell of each flag indexed by its number, -1 if board has no such flag.
+     */
+    private final int[] flagsByNumber;
+    private int numberOfFlags;
+    /**
+     * Cell of each start position indexed by its number, -1 if board has no such start position.
+     */
+    private final int[] startCells;
+
+    private final ArrayList<Integer> laserCells;
+    private final ArrayList<Direction> laserDirections;
+    private int[][] laserPaths;
+
+    /**
+     * Read a board from the tile ids of its layers. All arrays are indexed by {@link #toIndex(int, int)},
+     * and 0 means the cell is empty in that layer.
+     *
+     * @param width       of board
+     * @param height      of board
+     * @param groundTiles tile ids of ground layer
+     * @param wallTiles   tile ids of wall layer
+     * @param flagTiles   tile ids of flag layer
+     */
+    public BoardModel(int width, int height, int[] groundTiles, int[] wallTiles, int[] flagTiles) {
+        this.width = width;
+        this.height = height;
+        int cells = width * height;
+        this.edges = new byte[cells];
+        this.neighbours = new int[cells * DIRECTIONS.length];
+        this.beamStops = new int[cells * DIRECTIONS.length];
+        this.conveyors = new byte[cells];
+        this.holeCells = new BitSet(cells);
+        this.repairCells = new byte[cells];
+        this.rotatePads = new Rotate[cells];
+        this.flagCells = new byte[cells];
+        this.flagsByNumber = new int[MAX_FLAGS + 1];
+        this.startCells = new int[MAX_START_POSITIONS + 1];
+        this.laserCells = new ArrayList<>();
+        this.laserDirections = new ArrayList<>();
+        Arrays.fill(flagsByNumber, -1);
+        Arrays.fill(startCells, -1);
+
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int cell = toIndex(x, y);
+                findGroundObject(cell, tileAt(groundTiles, cell));
+                findWallObject(x, y, tileAt(wallTiles, cell));
+                findFlag(cell, tileAt(flagTiles, cell));
+                findBorders(x, y);
+            }
+        }
+        findNeighbours();
+        findLaserPaths();
+        findBeamStops();
+    }
+
+    /**
+     * @param tiles tile ids of a layer, may be null if the board has no such layer
+     * @param cell  to read
+     * @return tile in cell, null if cell is empty or tile is unknown
+     */
+    private static TileID tileAt(int[] tiles, int cell) {
+        if (tiles == null) {
+            return null;
+        }
+        return TileID.fromId(tiles[cell]);
+    }
+
+    // FIND OBJECTS
+
+    /**
+     * Finds holes, repair tiles, start positions, rotate pads and belts.
+     *
+     * @param cell to read
+     * @param tile in ground layer
+     */
+    private void findGroundObject(int cell, TileID tile) {
+        if (tile == null) {
+            return;
+        }
+        switch (tile.getKind()) {
+            case HOLE:
+                holeCells.set(cell);
+                break;
+            case REPAIR:
+                repairCells[cell] = (byte) tile.getNumber();
+                break;
+            case START_POSITION:
+                if (startCells[tile.getNumber()] == -1) {
+                    startCells[tile.getNumber()] = cell;
+                }
+                break;
+            case ROTATE_PAD:
+                rotatePads[cell] = tile.getRotate();
+                break;
+            case BELT:
+            case EXPRESS_BELT:
+                conveyors[cell] = (byte) (CONVEYOR | tile.getDirection().ordinal());
+                if (tile.getKind() == TileKind.EXPRESS_BELT) {
+                    conveyors[cell] |= EXPRESS_CONVEYOR;
+                    hasExpressBelts = true;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Finds walls and the lasers on laser walls.
+     *
+     * @param x    of cell
+     * @param y    of cell
+     * @param tile in wall layer
+     */
+    private void findWallObject(int x, int y, TileID tile) {
+        if (tile == null || (tile.getKind() != TileKind.WALL && tile.getKind() != TileKind.LASER_WALL)) {
+            return;
+        }
+        for (Direction side : DIRECTIONS) {
+            if (tile.hasWall(side)) {
+                blockEdge(x, y, side);
+            }
+        }
+        if (tile.getKind() == TileKind.LASER_WALL) {
+            laserCells.add(toIndex(x, y));
+            laserDirections.add(tile.getDirection());
+        }
+    }
+
+    /**
+     * Finds the flag in a cell.
+     *
+     * @param cell to read
+     * @param tile in flag layer
+     */
+    private void findFlag(int cell, TileID tile) {
+        if (tile == null || tile.getKind() != TileKind.FLAG) {
+            return;
+        }
+        flagCells[cell] = (byte) tile.getNumber();
+        flagsByNumber[tile.getNumber()] = cell;
+        numberOfFlags++;
+    }
+
+    /**
+     * Mark the sides of cell (x, y) that are the border of the board.
+     *
+     * @param x of cell
+     * @param y of cell
+     */
+    private void findBorders(int x, int y) {
+        int cell = toIndex(x, y);
+        if (y == height - 1) {
+            edges[cell] |= borderBit(Direction.NORTH);
+        }
+        if (y == 0) {
+            edges[cell] |= borderBit(Direction.SOUTH);
+        }
+        if (x == width - 1) {
+            edges[cell] |= borderBit(Direction.EAST);
+        }
+        if (x == 0) {
+            edges[cell] |= borderBit(Direction.WEST);
+        }
+    }
+
+    /**
+     * Block the edge on given side of cell (x, y), and the opposite edge of the neighbour sharing the wall.
+     *
+     * @param x         of cell with wall
+     * @param y         of cell with wall
+     * @param direction side of cell the wall is on
+     */
+    private void blockEdge(int x, int y, Direction direction) {
+        edges[toIndex(x, y)] |= wallBit(direction);
+        int neighbourX = x + stepX(direction);
+        int neighbourY = y + stepY(direction);
+        if (onBoard(neighbourX, neighbourY)) {
+            edges[toIndex(neighbourX, neighbourY)] |= wallBit(direction.turnAround());
+        }
+    }
+
+    /**
+     * Find the neighbour of every cell in every direction, so that moving needs no coordinates or wall checks.
+     */
+    private void findNeighbours() {
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int cell = toIndex(x, y);
+                for (Direction direction : DIRECTIONS) {
+                    int neighbourX = x + stepX(direction);
+                    int neighbourY = y + stepY(direction);
+                    int neighbour;
+                    if ((edges[cell] & wallBit(direction)) != 0) {
+                        neighbour = BLOCKED;
+                    } else if (!onBoard(neighbourX, neighbourY)) {
+                        neighbour = OFF_BOARD;
+                    } else {
+                        neighbour = toIndex(neighbourX, neighbourY);
+                    }
+                    neighbours[cell * DIRECTIONS.length + direction.ordinal()] = neighbour;
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the cells each wall laser reaches when no robot is in the way. Walls do not move,
+     * so the path is found once and walked every time the laser fires.
+     */
+    private void findLaserPaths() {
+        laserPaths = new int[laserCells.size()][];
+        for (int laser = 0; laser < laserPaths.length; laser++) {
+            Direction direction = laserDirections.get(laser);
+            int cell = laserCells.get(laser);
+            int length = 1;
+            while (canFireFrom(cell, direction)) {
+                cell = neighbours[cell * DIRECTIONS.length + direction.ordinal()];
+                length++;
+            }
+            int[] path = new int[length];
+            cell = laserCells.get(laser);
+            for (int i = 0; i < length; i++) {
+                path[i] = cell;
+                if (i < length - 1) {
+                    cell = neighbours[cell * DIRECTIONS.length + direction.ordinal()];
+                }
+            }
+            laserPaths[laser] = path;
+        }
+    }
+
+    /**
+     * Find how far a laser reaches from every cell in every direction. Each row and column is swept
+     * once from the end the beam stops at, so every cell reuses the stop of the cell in front of it.
+     */
+    private void findBeamStops() {
+        for (int y = 0; y < height; y++) {
+            for (int x = width - 1; x >= 0; x--) {
+                beamStops[beamIndex(x, y, Direction.EAST)] = canFireFrom(toIndex(x, y), Direction.EAST) ?
+                        beamStops[beamIndex(x + 1, y, Direction.EAST)] : x;
+            }
+            for (int x = 0; x < width; x++) {
+                beamStops[beamIndex(x, y, Direction.WEST)] = canFireFrom(toIndex(x, y), Direction.WEST) ?
+                        beamStops[beamIndex(x - 1, y, Direction.WEST)] : x;
+            }
+        }
+        for (int x = 0; x < width; x++) {
+            for (int y = height - 1; y >= 0; y--) {
+                beamStops[beamIndex(x, y, Direction.NORTH)] = canFireFrom(toIndex(x, y), Direction.NORTH) ?
+                        beamStops[beamIndex(x, y + 1, Direction.NORTH)] : y;
+            }
+            for (int y = 0; y < height; y++) {
+                beamStops[beamIndex(x, y, Direction.SOUTH)] = canFireFrom(toIndex(x, y), Direction.SOUTH) ?
+                        beamStops[beamIndex(x, y - 1, Direction.SOUTH)] : y;
+            }
+        }
+    }
+
+    /**
+     * @param x         of cell
+     * @param y         of cell
+     * @param direction of beam
+     * @return index in {@link #beamStops}
+     */
+    private int beamIndex(int x, int y, Direction direction) {
+        return toIndex(x, y) * DIRECTIONS.length + direction.ordinal();
+    }
+
+    /**
+     * @param direction side of cell
+     * @return bit in {@link #edges} telling there is a wall on that side
+     */
+    private static int wallBit(Direction direction) {
+        return 1 << direction.ordinal();
+    }
+
+    /**
+     * @param direction side of cell
+     * @return bit in {@link #edges} telling the board ends on that side
+     */
+    private static int borderBit(Direction direction) {
+        return 1 << (direction.ordinal() + 4);
+    }
+
+    // CELLS
+
+    /**
+     * @param x coordinate on board
+     * @param y coordinate on board
+     * @return index of cell (x, y)
+     */
+    public int toIndex(int x, int y) {
+        return y * width + x;
+    }
+
+    /**
+     * @param cell index of cell
+     * @return x coordinate of cell
+     */
+    public int toX(int cell) {
+        return cell % width;
+    }
+
+    /**
+     * @param cell index of cell
+     * @return y coordinate of cell
+     */
+    public int toY(int cell) {
+        return cell / width;
+    }
+
+    /**
+     * @param x coordinate
+     * @param y coordinate
+     * @return true if (x, y) is a cell of the board
+     */
+    public boolean onBoard(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * @param direction to step in
+     * @return change in x coordinate when stepping one cell in direction
+     */
+    public static int stepX(Direction direction) {
+        switch (direction) {
+            case EAST:
+                return 1;
+            case WEST:
+                return -1;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * @param direction to step in
+     * @return change in y coordinate when stepping one cell in direction
+     */
+    public static int stepY(Direction direction) {
+        switch (direction) {
+            case NORTH:
+                return 1;
+            case SOUTH:
+                return -1;
+            default:
+                return 0;
+        }
+    }
+
+    // LOOKUPS
+
+    /**
+     * @param cell      to move from
+     * @param direction to move in
+     * @return index of neighbour cell, {@link #OFF_BOARD} if it is outside the board or {@link #BLOCKED} if a
+     * wall is in the way
+     */
+    public int getNeighbour(int cell, Direction direction) {
+        return neighbours[cell * DIRECTIONS.length + direction.ordinal()];
+    }
+
+    /**
+     * @param cell      to fire from
+     * @param direction to fire in
+     * @return true if no wall or border is on that side of the cell
+     */
+    public boolean canFireFrom(int cell, Direction direction) {
+        return (edges[cell] & (wallBit(direction) | borderBit(direction))) == 0;
+    }
+
+    /**
+     * @param x         of cell laser is fired from
+     * @param y         of cell laser is fired from
+     * @param direction laser is fired in
+     * @return x coordinate (east and west) or y coordinate (north and south) of the last cell the laser reaches
+     */
+    public int getBeamStop(int x, int y, Direction direction) {
+        return beamStops[beamIndex(x, y, direction)];
+    }
+
+    /**
+     * @param cell        to check
+     * @param onlyExpress if true only express belts are counted
+     * @return direction of the belt in cell, null if there is no belt
+     */
+    public Direction getBeltDirection(int cell, boolean onlyExpress) {
+        int conveyor = conveyors[cell];
+        if ((conveyor & CONVEYOR) == 0 || (onlyExpress && (conveyor & EXPRESS_CONVEYOR) == 0)) {
+            return null;
+        }
+        return DIRECTIONS[conveyor & CONVEYOR_DIRECTION];
+    }
+
+    /**
+     * @param cell to check
+     * @return true if cell has an express belt
+     */
+    public boolean hasExpressBelt(int cell) {
+        return (conveyors[cell] & EXPRESS_CONVEYOR) != 0;
+    }
+
+    /**
+     * @return true if there are express belts on the board
+     */
+    public boolean hasExpressBelts() {
+        return hasExpressBelts;
+    }
+
+    /**
+     * @param lastPush      direction robot was last pushed by a belt
+     * @param beltDirection direction of belt robot is on now
+     * @return how the robot turns when it is moved from one belt on to the next
+     */
+    public static Rotate getBeltTurn(Direction lastPush, Direction beltDirection) {
+        return BELT_TURNS[lastPush.ordinal()][beltDirection.ordinal()];
+    }
+
+    /**
+     * @param cell to check
+     * @return true if cell has a hole
+     */
+    public boolean hasHole(int cell) {
+        return holeCells.get(cell);
+    }
+
+    /**
+     * @param cell to check
+     * @return number of wrenches on repair tile in cell, 0 if there is no repair tile
+     */
+    public int getRepairWrenches(int cell) {
+        return repairCells[cell];
+    }
+
+    /**
+     * @param cell to check
+     * @return rotation of rotate pad in cell, null if there is no rotate pad
+     */
+    public Rotate getRotatePad(int cell) {
+        return rotatePads[cell];
+    }
+
+    /**
+     * @param cell to check
+     * @return number of flag in cell, 0 if there is no flag
+     */
+    public int getFlagNumber(int cell) {
+        return flagCells[cell];
+    }
+
+    /**
+     * @param number of flag
+     * @return cell of flag, -1 if board has no such flag
+     */
+    public int getFlagCell(int number) {
+        if (number < 1 || number >= flagsByNumber.length) {
+            return -1;
+        }
+        return flagsByNumber[number];
+    }
+
+    /**
+     * @return number of flags on the board
+     */
+    public int getNumberOfFlags() {
+        return numberOfFlags;
+    }
+
+    /**
+     * @param number of start position
+     * @return cell of start position, -1 if board has no such start position
+     */
+    public int getStartCell(int number) {
+        if (number < 1 || number >= startCells.length) {
+            return -1;
+        }
+        return startCells[number];
+    }
+
+    /**
+     * @return number of wall lasers
+     */
+    public int getNumberOfLasers() {
+        return laserPaths.length;
+    }
+
+    /**
+     * @param laser index of wall laser, in the order they were found
+     * @return cells the laser reaches when no robot is in the way, starting with the cell of the laser wall
+     */
+    public int[] getLaserPath(int laser) {
+        return laserPaths[laser];
+    }
+
+    /**
+     * @param laser index of wall laser
+     * @return direction the laser fires in
+     */
+    public Direction getLaserDirection(int laser) {
+        return laserDirections.get(laser);
+    }
+
+    /**
+     * @return width of the board
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return height of the board
+     */
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,89 @@
+package inf112.skeleton.app.engine;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * <p>
+ * Reads a {@link BoardModel} from a Tiled map without libGDX, so boards can be played where there is no screen.
+ * </p>
+ *
+ * <p>
+ * Tile ids are the same as libGDX gives them, and rows are read bottom up like libGDX does. Only layers stored as
+ * CSV can be read, which is how the maps of the game are stored.
+ * </p>
+ */
+public class MapReader {
+
+    /**
+     * Tiled stores if a tile is flipped in the highest bits of its id.
+     */
+    private static final int TILE_ID_BITS = 0x1FFFFFFF;
+
+    private MapReader() {
+    }
+
+    /**
+     * @param file Tiled map to read
+     * @return board of the map
+     * @throws IOException if the file can not be read, or is not a map the game can read
+     */
+    public static BoardModel read(File file) throws IOException {
+        Element map;
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            Document document = builder.parse(file);
+            map = document.getDocumentElement();
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Could not read map " + file, e);
+        }
+        int width = Integer.parseInt(map.getAttribute("width"));
+        int height = Integer.parseInt(map.getAttribute("height"));
+        return new BoardModel(width, height,
+                readLayer(map, "Ground", width, height),
+                readLayer(map, "Wall", width, height),
+                readLayer(map, "Flag", width, height));
+    }
+
+    /**
+     * @return id of the tile in every cell of the layer indexed by {@link BoardModel#toIndex(int, int)},
+     * 0 for empty cells. Null if the map has no such layer.
+     */
+    private static int[] readLayer(Element map, String name, int width, int height) throws IOException {
+        NodeList layers = map.getElementsByTagName("layer");
+        for (int i = 0; i < layers.getLength(); i++) {
+            Element layer = (Element) layers.item(i);
+            if (!layer.getAttribute("name").equals(name)) {
+                continue;
+            }
+            Element data = (Element) layer.getElementsByTagName("data").item(0);
+            if (data == null || !data.getAttribute("encoding").equals("csv")) {
+                throw new IOException("Layer " + name + " is not stored as CSV");
+            }
+            String[] tiles = data.getTextContent().trim().split("\\s*,\\s*");
+            if (tiles.length != width * height) {
+                throw new IOException("Layer " + name + " has " + tiles.length + " tiles, not " + width * height);
+            }
+            int[] ids = new int[width * height];
+            for (int row = 0; row < height; row++) {
+                // First row in the file is the top of the board
+                int y = height - 1 - row;
+                for (int x = 0; x < width; x++) {
+                    ids[y * width + x] = (int) (Long.parseLong(tiles[row * width + x]) & TILE_ID_BITS);
+                }
+            }
+            return ids;
+        }
+        return null;
+    }
+}
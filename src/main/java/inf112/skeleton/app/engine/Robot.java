@@ -0,0 +1,186 @@
+package inf112.skeleton.app.engine;
+
+import inf112.skeleton.app.cards.ProgramCard;
+import inf112.skeleton.app.enums.Direction;
+
+/**
+ * <p>
+ * A robot in the {@link TurnEngine}: where it stands, where it respawns, its tokens and its program.
+ * </p>
+ *
+ * <p>
+ * The cell is {@link BoardModel#OFF_BOARD} when the robot has left the board, and the robot is destroyed
+ * from then on until it is respawned at the end of the turn.
+ * </p>
+ */
+public class Robot {
+
+    public static final int MAX_DAMAGE_TOKENS = 10;
+    public static final int LIFE_TOKENS = 3;
+    public static final int REGISTERS = 5;
+
+    private final int number;
+    private int cell;
+    private Direction direction;
+    private int backupCell;
+    private Direction backupDirection;
+    private Direction beltPushDirection;
+    private int damageTokens;
+    private int lifeTokens;
+    private int flagsCollected;
+    private boolean poweredDown;
+    private boolean destroyed;
+    private final ProgramCard[] program;
+
+    public Robot(int number, int cell, Direction direction) {
+        this.number = number;
+        this.cell = cell;
+        this.direction = direction;
+        this.backupCell = cell;
+        this.backupDirection = direction;
+        this.lifeTokens = LIFE_TOKENS;
+        this.program = new ProgramCard[REGISTERS];
+    }
+
+    /**
+     * @return number of robot, same as the number of its player
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * @return cell robot stands in, {@link BoardModel#OFF_BOARD} if robot is not on the board
+     */
+    public int getCell() {
+        return cell;
+    }
+
+    void setCell(int cell) {
+        this.cell = cell;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public void setDirection(Direction direction) {
+        this.direction = direction;
+    }
+
+    public int getBackupCell() {
+        return backupCell;
+    }
+
+    public Direction getBackupDirection() {
+        return backupDirection;
+    }
+
+    /**
+     * Set new backup cell and direction.
+     *
+     * @param backupCell      respawn cell when destroyed
+     * @param backupDirection respawn direction when destroyed
+     */
+    public void setBackup(int backupCell, Direction backupDirection) {
+        this.backupCell = backupCell;
+        this.backupDirection = backupDirection;
+    }
+
+    /**
+     * @return direction of the last belt that moved this robot, null if it was not moved by a belt since it last moved
+     */
+    public Direction getBeltPushDirection() {
+        return beltPushDirection;
+    }
+
+    public void setBeltPushDirection(Direction beltPushDirection) {
+        this.beltPushDirection = beltPushDirection;
+    }
+
+    public int getDamageTokens() {
+        return damageTokens;
+    }
+
+    public void setDamageTokens(int damageTokens) {
+        this.damageTokens = damageTokens;
+    }
+
+    public int getLifeTokens() {
+        return lifeTokens;
+    }
+
+    public void setLifeTokens(int lifeTokens) {
+        this.lifeTokens = lifeTokens;
+    }
+
+    /**
+     * @return number of flags collected, the next flag to pick up is one more
+     */
+    public int getFlagsCollected() {
+        return flagsCollected;
+    }
+
+    public void setFlagsCollected(int flagsCollected) {
+        this.flagsCollected = flagsCollected;
+    }
+
+    public boolean isPoweredDown() {
+        return poweredDown;
+    }
+
+    public void setPoweredDown(boolean poweredDown) {
+        this.poweredDown = poweredDown;
+    }
+
+    /**
+     * @return true if robot was destroyed this turn and waits to be respawned
+     */
+    public boolean isDestroyed() {
+        return destroyed;
+    }
+
+    /**
+     * @param destroyed true if robot is waiting to be respawned
+     */
+    public void setDestroyed(boolean destroyed) {
+        this.destroyed = destroyed;
+    }
+
+    /**
+     * @return true if robot has no life tokens left
+     */
+    public boolean isDead() {
+        return lifeTokens <= 0;
+    }
+
+    /**
+     * @return true if robot stands on the board and takes part in the turn
+     */
+    public boolean isOnBoard() {
+        return !destroyed && !isDead() && cell != BoardModel.OFF_BOARD;
+    }
+
+    /**
+     * @param register index of register
+     * @return card in register, null if register is empty
+     */
+    public ProgramCard getCard(int register) {
+        return program[register];
+    }
+
+    /**
+     * Put the cards to play this turn in the registers. Registers after the last card are emptied.
+     *
+     * @param cards one card for each register, in order
+     */
+    public void setProgram(ProgramCard... cards) {
+        for (int register = 0; register < REGISTERS; register++) {
+            program[register] = register < cards.length ? cards[register] : null;
+        }
+    }
+
+    public String toString() {
+        return "Robot " + number;
+    }
+}
@@ -0,0 +1,250 @@
+package inf112.skeleton.app.engine;
+
+import inf112.skeleton.app.enums.Direction;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Moves several robots one step at the same time, like belts do.
+ * </p>
+ *
+ * <p>
+ * Moves are added with {@link #addMove(Robot, Direction)} and done with {@link #resolve(TurnListener)}. A move
+ * is cancelled if a wall is in the way, if another robot moves to the same cell, if two robots would swap cells,
+ * or if it is blocked by a robot that does not move and can not be pushed. A cancelled move can block the robot
+ * moving in behind it, so cancellations are followed down the line. Destinations are counted in a grid, so the
+ * work is linear in the number of robots. The moves are done in the cells of the {@link TurnEngine} that owns
+ * the resolver.
+ * </p>
+ */
+public class SimultaneousMoveResolver {
+
+    private static final int NONE = -1;
+
+    private final BoardModel board;
+    /**
+     * Robot standing in each cell, shared with the {@link TurnEngine}.
+     */
+    private final Robot[] occupants;
+    /**
+     * Number of robots moving to each cell.
+     */
+    private final int[] destinationCount;
+    /**
+     * Index of the move going to each cell, {@link #NONE} if no robot moves there.
+     */
+    private final int[] moveTo;
+    /**
+     * Index of the move leaving each cell, {@link #NONE} if no robot moves from there.
+     */
+    private final int[] moveFrom;
+    private final Robot[] movers;
+    private final Direction[] directions;
+    private final int[] sources;
+    private final int[] destinations;
+    private final boolean[] cancelled;
+    private final boolean[] pushing;
+    private int moves;
+
+    /**
+     * @param board     robots move on
+     * @param occupants robot standing in each cell, changed when the moves are done
+     * @param maxMoves  most moves added before they are resolved
+     */
+    SimultaneousMoveResolver(BoardModel board, Robot[] occupants, int maxMoves) {
+        this.board = board;
+        this.occupants = occupants;
+        this.destinationCount = new int[occupants.length];
+        this.moveTo = new int[occupants.length];
+        this.moveFrom = new int[occupants.length];
+        Arrays.fill(moveTo, NONE);
+        Arrays.fill(moveFrom, NONE);
+        this.movers = new Robot[maxMoves];
+        this.directions = new Direction[maxMoves];
+        this.sources = new int[maxMoves];
+        this.destinations = new int[maxMoves];
+        this.cancelled = new boolean[maxMoves];
+        this.pushing = new boolean[maxMoves];
+    }
+
+    /**
+     * Add a robot standing on the board that should move one step in given direction when moves are resolved.
+     *
+     * @param robot     to move
+     * @param direction to move in
+     */
+    public void addMove(Robot robot, Direction direction) {
+        movers[moves] = robot;
+        directions[moves] = direction;
+        moves++;
+    }
+
+    /**
+     * Cancel the moves that are in conflict and do the rest of them at the same time. Robots standing still in
+     * front of a moving robot are pushed if possible. Every move done is told about as a belt move.
+     *
+     * @param listener told about the robots moved and pushed
+     */
+    public void resolve(TurnListener listener) {
+        for (int i = 0; i < moves; i++) {
+            sources[i] = movers[i].getCell();
+            int neighbour = board.getNeighbour(sources[i], directions[i]);
+            cancelled[i] = neighbour == BoardModel.BLOCKED;
+            destinations[i] = cancelled[i] || neighbour == BoardModel.OFF_BOARD ? NONE : neighbour;
+            pushing[i] = false;
+            moveFrom[sources[i]] = i;
+            if (!cancelled[i] && destinations[i] != NONE) {
+                destinationCount[destinations[i]]++;
+                moveTo[destinations[i]] = i;
+            }
+        }
+        for (int i = 0; i < moves; i++) {
+            if (cancelled[i] || destinations[i] == NONE) {
+                continue;
+            }
+            if (destinationCount[destinations[i]] > 1) {
+                cancelMove(i);
+                continue;
+            }
+            int other = moveFrom[destinations[i]];
+            if (other != NONE && !cancelled[other] && destinations[other] == sources[i]) {
+                cancelMove(i);
+                cancelMove(other);
+            }
+        }
+        for (int i = 0; i < moves; i++) {
+            if (!cancelled[i]) {
+                checkIfBlocked(i);
+            }
+        }
+        commitMoves(listener);
+        for (int i = 0; i < moves; i++) {
+            moveFrom[sources[i]] = NONE;
+            if (destinations[i] != NONE) {
+                destinationCount[destinations[i]] = 0;
+                moveTo[destinations[i]] = NONE;
+            }
+            movers[i] = null;
+        }
+        moves = 0;
+    }
+
+    /**
+     * Cancel move if the robot in its destination stands still and can not be pushed.
+     *
+     * @param move index of move to check
+     */
+    private void checkIfBlocked(int move) {
+        if (destinations[move] == NONE) {
+            return;
+        }
+        int other = moveFrom[destinations[move]];
+        if ((other != NONE && !cancelled[other]) || occupants[destinations[move]] == null) {
+            return;
+        }
+        if (canPushStandingRobots(destinations[move], directions[move])) {
+            pushing[move] = true;
+        } else {
+            cancelMove(move);
+        }
+    }
+
+    /**
+     * @param first     cell of robot standing in front of the moving robot
+     * @param direction to push in
+     * @return true if no robot in the row is moving, no wall is in the way and the cell the row is
+     * pushed into is not the destination of another move
+     */
+    private boolean canPushStandingRobots(int first, Direction direction) {
+        int cell = first;
+        while (cell != BoardModel.OFF_BOARD && cell != BoardModel.BLOCKED && occupants[cell] != null) {
+            if (moveFrom[cell] != NONE && !cancelled[moveFrom[cell]]) {
+                return false;
+            }
+            cell = board.getNeighbour(cell, direction);
+        }
+        if (cell == BoardModel.BLOCKED) {
+            return false;
+        }
+        return cell == BoardModel.OFF_BOARD || moveTo[cell] == NONE || cancelled[moveTo[cell]];
+    }
+
+    /**
+     * Cancel a move. The robot then stands still, so the robot moving in to its cell has to be checked again.
+     *
+     * @param move index of move to cancel
+     */
+    private void cancelMove(int move) {
+        if (cancelled[move]) {
+            return;
+        }
+        cancelled[move] = true;
+        int behind = moveTo[sources[move]];
+        if (behind != NONE && !cancelled[behind] && destinationCount[sources[move]] == 1) {
+            checkIfBlocked(behind);
+        }
+    }
+
+    /**
+     * Push the robots standing in the way, then move every robot that can move at the same time.
+     *
+     * @param listener told about the robots moved and pushed
+     */
+    private void commitMoves(TurnListener listener) {
+        for (int i = 0; i < moves; i++) {
+            if (!cancelled[i] && pushing[i]) {
+                pushStandingRobots(destinations[i], directions[i], listener);
+            }
+        }
+        for (int i = 0; i < moves; i++) {
+            if (!cancelled[i] && occupants[sources[i]] == movers[i]) {
+                occupants[sources[i]] = null;
+            }
+        }
+        for (int i = 0; i < moves; i++) {
+            if (!cancelled[i]) {
+                int to = destinations[i] == NONE ? BoardModel.OFF_BOARD : destinations[i];
+                movers[i].setCell(to);
+                if (to != BoardModel.OFF_BOARD) {
+                    occupants[to] = movers[i];
+                }
+                listener.robotMovedByBelt(movers[i], sources[i], to, directions[i]);
+            }
+        }
+    }
+
+    /**
+     * Push the row of standing robots starting in cell one step, starting with the one furthest away. The row
+     * must be free to move, see {@link #canPushStandingRobots(int, Direction)}.
+     *
+     * @param first     cell of first robot in row
+     * @param direction to push in
+     * @param listener  told about the robots pushed
+     */
+    private void pushStandingRobots(int first, Direction direction, TurnListener listener) {
+        int last = first;
+        int next = board.getNeighbour(last, direction);
+        while (next != BoardModel.OFF_BOARD && occupants[next] != null) {
+            last = next;
+            next = board.getNeighbour(last, direction);
+        }
+        Direction back = direction.turnAround();
+        int cell = last;
+        while (true) {
+            Robot pushed = occupants[cell];
+            int to = board.getNeighbour(cell, direction);
+            occupants[cell] = null;
+            pushed.setCell(to);
+            if (to != BoardModel.OFF_BOARD) {
+                occupants[to] = pushed;
+            }
+            pushed.setBeltPushDirection(null);
+            listener.robotPushed(pushed, cell, to, direction);
+            if (cell == first) {
+                return;
+            }
+            cell = board.getNeighbour(cell, back);
+        }
+    }
+}
@@ -0,0 +1,691 @@
+package inf112.skeleton.app.engine;
+
+import inf112.skeleton.app.cards.ProgramCard;
+import inf112.skeleton.app.enums.Direction;
+import inf112.skeleton.app.enums.Rotate;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * Resolves turns of RoboRally on a {@link BoardModel} without libGDX, sounds or waiting.
+ * </p>
+ *
+ * <p>
+ * A turn is played the same way as {@link inf112.skeleton.app.RallyGame#doTurn()} does it. For each register:
+ * </p>
+ * <ol>
+ *     <li>Robots play their cards, highest priority first. Robots in the way are pushed.</li>
+ *     <li>Express belts move, then all belts move, then rotate pads turn.</li>
+ *     <li>Robot lasers fire, then wall lasers fire.</li>
+ *     <li>Robots on repair tiles and flags get a new backup, and flags are picked up.</li>
+ * </ol>
+ * <p>
+ * Robots that leave the board, fall in a hole or get too much damage are destroyed right after the phase
+ * they happen in. At the end of the turn robots on repair tiles and flags are repaired, and destroyed
+ * robots with lives left are respawned. Everything that happens is told to the {@link TurnListener}.
+ * </p>
+ */
+public class TurnEngine {
+
+    private static final int NONE = -1;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final TurnListener NO_LISTENER = new TurnListener() {
+    };
+
+    private final BoardModel board;
+    private final List<Robot> robots;
+    private final Random random;
+    private TurnListener listener;
+    private Robot winner;
+
+    /**
+     * Robot standing in each cell, null if cell is empty.
+     */
+    private final Robot[] occupants;
+    /**
+     * Cells of the row of robots being pushed, reused by every push.
+     */
+    private final int[] chain;
+    private final ArrayList<Robot> playOrder;
+
+    /**
+     * Moves robots on belts at the same time.
+     */
+    private final SimultaneousMoveResolver beltMoves;
+    /**
+     * Robots in each row, bit number is x coordinate.
+     */
+    private final BitSet[] rows;
+    /**
+     * Robots in each column, bit number is y coordinate.
+     */
+    private final BitSet[] columns;
+    /**
+     * Cell hit by the laser of each robot, {@link #NONE} if it hit no robot.
+     */
+    private final int[] laserTargets;
+    /**
+     * Cells around the center looked at by {@link #findRespawnCell(int)}, reused by every respawn.
+     */
+    private final int[] respawnCells;
+    /**
+     * Directions tried in each respawn cell, reused by every respawn.
+     */
+    private final Direction[] respawnDirections;
+    /**
+     * Direction found by the last call to {@link #findRespawnCell(int)}.
+     */
+    private Direction respawnDirection;
+
+    /**
+     * @param board  to play on
+     * @param robots in the game, robots with a cell on the board are put there
+     * @param random used to pick a respawn position when the backup of a robot is taken
+     */
+    public TurnEngine(BoardModel board, List<Robot> robots, Random random) {
+        this.board = board;
+        this.robots = robots;
+        this.random = random;
+        this.listener = NO_LISTENER;
+        int cells = board.getWidth() * board.getHeight();
+        this.occupants = new Robot[cells];
+        this.chain = new int[Math.max(board.getWidth(), board.getHeight())];
+        this.playOrder = new ArrayList<>(robots.size());
+        this.beltMoves = new SimultaneousMoveResolver(board, occupants, robots.size());
+        this.rows = new BitSet[board.getHeight()];
+        this.columns = new BitSet[board.getWidth()];
+        for (int y = 0; y < rows.length; y++) {
+            rows[y] = new BitSet(columns.length);
+        }
+        for (int x = 0; x < columns.length; x++) {
+            columns[x] = new BitSet(rows.length);
+        }
+        this.laserTargets = new int[robots.size()];
+        this.respawnCells = new int[9];
+        this.respawnDirections = new Direction[DIRECTIONS.length];
+        for (Robot robot : robots) {
+            if (robot.isOnBoard()) {
+                occupants[robot.getCell()] = robot;
+            }
+        }
+    }
+
+    /**
+     * @param listener told about everything that happens in a turn, null to stop listening
+     */
+    public void setListener(TurnListener listener) {
+        this.listener = listener == null ? NO_LISTENER : listener;
+    }
+
+    /**
+     * Play all five registers and clean up. The turn stops right away if a robot picks up the last flag.
+     *
+     * @return robot that won, null if nobody has won yet
+     */
+    public Robot playTurn() {
+        for (int register = 0; register < Robot.REGISTERS; register++) {
+            playRegister(register);
+            if (winner != null) {
+                return winner;
+            }
+        }
+        endTurn();
+        return winner;
+    }
+
+    /**
+     * Play the cards in one register, then let the board elements, lasers and checkpoints act.
+     *
+     * @param register index of register
+     */
+    public void playRegister(int register) {
+        listener.registerRevealed(register);
+        playCards(register);
+        activateBeltsAndRotatePads();
+        fireLasers();
+        touchCheckpoints(false);
+        listener.registerDone(register);
+    }
+
+    /**
+     * Repair robots on repair tiles and flags, and respawn destroyed robots that have lives left.
+     */
+    public void endTurn() {
+        touchCheckpoints(true);
+        respawnDestroyedRobots();
+    }
+
+    /**
+     * Destroy the robots that have left the board, stand in a hole or have too much damage right away,
+     * and respawn the ones with lives left.
+     */
+    public void destroyAndRespawnRobots() {
+        destroyRobots();
+        respawnDestroyedRobots();
+    }
+
+    // CARDS
+
+    /**
+     * Every robot with a card in register plays it, highest priority first.
+     *
+     * @param register index of register
+     */
+    private void playCards(int register) {
+        playOrder.clear();
+        for (Robot robot : robots) {
+            if (robot.isOnBoard() && !robot.isPoweredDown() && robot.getCard(register) != null) {
+                playOrder.add(robot);
+            }
+        }
+        playOrder.sort((robot1, robot2) ->
+                robot2.getCard(register).getPriority() - robot1.getCard(register).getPriority());
+        for (Robot robot : playOrder) {
+            if (robot.isOnBoard()) {
+                playCard(robot, robot.getCard(register));
+                listener.cardDone(robot);
+                destroyRobots();
+            }
+        }
+    }
+
+    /**
+     * @param robot playing card
+     * @param card  to play
+     */
+    public void playCard(Robot robot, ProgramCard card) {
+        robot.setBeltPushDirection(null);
+        listener.cardPlayed(robot, card);
+        switch (card.getRotate()) {
+            case RIGHT:
+            case LEFT:
+            case UTURN:
+                turn(robot, card.getRotate());
+                break;
+            case NONE:
+                if (card.getDistance() == -1) {
+                    move(robot, robot.getDirection().turnAround());
+                } else {
+                    for (int distance = 0; distance < card.getDistance() && robot.getCell() != BoardModel.OFF_BOARD; distance++) {
+                        move(robot, robot.getDirection());
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @param robot  to turn
+     * @param rotate how to turn
+     */
+    private void turn(Robot robot, Rotate rotate) {
+        switch (rotate) {
+            case RIGHT:
+                robot.setDirection(robot.getDirection().turnRight());
+                break;
+            case LEFT:
+                robot.setDirection(robot.getDirection().turnLeft());
+                break;
+            case UTURN:
+                robot.setDirection(robot.getDirection().turnAround());
+                break;
+            default:
+                return;
+        }
+        listener.robotTurned(robot, robot.getDirection());
+    }
+
+    /**
+     * Move robot one step, pushing the robots in front of it if they can be pushed.
+     *
+     * @param robot     to move
+     * @param direction to move in
+     */
+    private void move(Robot robot, Direction direction) {
+        int from = robot.getCell();
+        int to = board.getNeighbour(from, direction);
+        if (to == BoardModel.BLOCKED) {
+            listener.robotHitWall(robot);
+            return;
+        }
+        if (to != BoardModel.OFF_BOARD && occupants[to] != null) {
+            if (!canPush(to, direction)) {
+                return;
+            }
+            push(to, direction);
+        }
+        place(robot, to);
+        robot.setBeltPushDirection(null);
+        listener.robotMoved(robot, from, to, direction);
+    }
+
+    /**
+     * @param cell      of first robot in row
+     * @param direction to push in
+     * @return true if no wall is in front of or between the robots in the row
+     */
+    private boolean canPush(int cell, Direction direction) {
+        while (true) {
+            int neighbour = board.getNeighbour(cell, direction);
+            if (neighbour == BoardModel.BLOCKED) {
+                return false;
+            }
+            if (neighbour == BoardModel.OFF_BOARD || occupants[neighbour] == null) {
+                return true;
+            }
+            cell = neighbour;
+        }
+    }
+
+    /**
+     * Push the row of robots starting in cell one step, starting with the one furthest away. The row
+     * must be free to move, see {@link #canPush(int, Direction)}.
+     *
+     * @param cell      of first robot in row
+     * @param direction to push in
+     */
+    private void push(int cell, Direction direction) {
+        int length = 0;
+        while (true) {
+            chain[length++] = cell;
+            cell = board.getNeighbour(cell, direction);
+            if (cell == BoardModel.BLOCKED) {
+                throw new IllegalStateException("Pushing robots into a wall");
+            }
+            if (cell == BoardModel.OFF_BOARD || occupants[cell] == null) {
+                break;
+            }
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            Robot pushed = occupants[chain[i]];
+            int to = board.getNeighbour(chain[i], direction);
+            place(pushed, to);
+            pushed.setBeltPushDirection(null);
+            listener.robotPushed(pushed, chain[i], to, direction);
+        }
+    }
+
+    /**
+     * @param robot to place
+     * @param cell  to place robot in, {@link BoardModel#OFF_BOARD} if robot leaves the board
+     */
+    private void place(Robot robot, int cell) {
+        if (robot.getCell() != BoardModel.OFF_BOARD && occupants[robot.getCell()] == robot) {
+            occupants[robot.getCell()] = null;
+        }
+        robot.setCell(cell);
+        if (cell != BoardModel.OFF_BOARD) {
+            occupants[cell] = robot;
+        }
+    }
+
+    // BOARD ELEMENTS
+
+    /**
+     * Move express belts one step, then all belts one step, then turn robots on rotate pads.
+     */
+    private void activateBeltsAndRotatePads() {
+        if (board.hasExpressBelts()) {
+            activateBelts(true);
+        }
+        destroyRobots();
+        activateBelts(false);
+        for (Robot robot : robots) {
+            if (robot.isOnBoard() && board.getRotatePad(robot.getCell()) != null) {
+                turn(robot, board.getRotatePad(robot.getCell()));
+            }
+        }
+        listener.rotatePadsTurned();
+        destroyRobots();
+    }
+
+    /**
+     * Move every robot on a belt one step at the same time. A robot moved from one belt on to a belt
+     * going another way is turned the same way as the belt.
+     *
+     * @param onlyExpress if true only express belts move
+     */
+    private void activateBelts(boolean onlyExpress) {
+        listener.beltsStarted(onlyExpress);
+        for (Robot robot : robots) {
+            if (!robot.isOnBoard()) {
+                continue;
+            }
+            Direction beltDirection = board.getBeltDirection(robot.getCell(), onlyExpress);
+            if (beltDirection == null) {
+                continue;
+            }
+            Direction lastPush = robot.getBeltPushDirection();
+            if (lastPush != null) {
+                turn(robot, BoardModel.getBeltTurn(lastPush, beltDirection));
+            }
+            robot.setBeltPushDirection(beltDirection);
+            beltMoves.addMove(robot, beltDirection);
+        }
+        beltMoves.resolve(listener);
+        listener.beltsMoved(onlyExpress);
+    }
+
+    // LASERS
+
+    /**
+     * Fire the lasers of all robots, then the wall lasers. Each laser hits the first robot in its way.
+     */
+    private void fireLasers() {
+        fireRobotLasers();
+        destroyRobots();
+        if (board.getNumberOfLasers() > 0) {
+            listener.lasersFired(false);
+            for (int laser = 0; laser < board.getNumberOfLasers(); laser++) {
+                for (int cell : board.getLaserPath(laser)) {
+                    if (occupants[cell] != null) {
+                        hit(occupants[cell], false);
+                        break;
+                    }
+                }
+            }
+            destroyRobots();
+        }
+    }
+
+    /**
+     * Fire the lasers of all robots at the same time. Robots are indexed by row and column, so the first robot
+     * in front of a shooter is found with one lookup, and how far the beam goes before a wall is read from
+     * {@link BoardModel#getBeamStop}. All beams are told about before the robots they hit.
+     */
+    private void fireRobotLasers() {
+        indexRobots();
+        for (int i = 0; i < robots.size(); i++) {
+            Robot shooter = robots.get(i);
+            laserTargets[i] = shooter.isOnBoard() ? fireRobotLaser(shooter) : NONE;
+        }
+        listener.lasersFired(true);
+        for (int target : laserTargets) {
+            if (target != NONE) {
+                hit(occupants[target], true);
+            }
+        }
+    }
+
+    /**
+     * Put every robot standing on the board in the row and column indexes.
+     */
+    private void indexRobots() {
+        for (BitSet row : rows) {
+            row.clear();
+        }
+        for (BitSet column : columns) {
+            column.clear();
+        }
+        for (int cell = 0; cell < occupants.length; cell++) {
+            if (occupants[cell] != null) {
+                int x = board.toX(cell);
+                int y = board.toY(cell);
+                rows[y].set(x);
+                columns[x].set(y);
+            }
+        }
+    }
+
+    /**
+     * Fire the laser of one robot. The beam hits the first robot before the beam stop, if any.
+     *
+     * @param shooter robot firing its laser
+     * @return cell of the robot hit, {@link #NONE} if the beam hit no robot
+     */
+    private int fireRobotLaser(Robot shooter) {
+        Direction direction = shooter.getDirection();
+        int x = board.toX(shooter.getCell());
+        int y = board.toY(shooter.getCell());
+        boolean horizontal = direction == Direction.EAST || direction == Direction.WEST;
+        BitSet line = horizontal ? rows[y] : columns[x];
+        int position = horizontal ? x : y;
+        int stop = board.getBeamStop(x, y, direction);
+        int target;
+        if (direction == Direction.EAST || direction == Direction.NORTH) {
+            target = line.nextSetBit(position + 1);
+            target = target > stop ? NONE : target;
+        } else {
+            target = line.previousSetBit(position - 1);
+            target = target < stop ? NONE : target;
+        }
+        int end = target == NONE ? stop : target;
+        int lastCell = horizontal ? board.toIndex(end, y) : board.toIndex(x, end);
+        listener.robotLaserFired(shooter, lastCell);
+        return target == NONE ? NONE : lastCell;
+    }
+
+    /**
+     * @param robot   hit by laser
+     * @param byRobot true if the laser of a robot hit
+     */
+    private void hit(Robot robot, boolean byRobot) {
+        robot.setDamageTokens(robot.getDamageTokens() + 1);
+        listener.robotHitByLaser(robot, byRobot);
+    }
+
+    /**
+     * Destroy every robot that has left the board, stands in a hole or has too much damage.
+     * It loses a life and waits to be respawned at the end of the turn.
+     */
+    private void destroyRobots() {
+        for (Robot robot : robots) {
+            if (robot.isDestroyed() || robot.isDead()) {
+                continue;
+            }
+            int cell = robot.getCell();
+            if (cell == BoardModel.OFF_BOARD || board.hasHole(cell) || robot.getDamageTokens() >= Robot.MAX_DAMAGE_TOKENS) {
+                place(robot, BoardModel.OFF_BOARD);
+                robot.setLifeTokens(robot.getLifeTokens() - 1);
+                robot.setDamageTokens(0);
+                robot.setDestroyed(true);
+                listener.robotDestroyed(robot);
+            }
+        }
+    }
+
+    // CHECKPOINTS
+
+    /**
+     * Robots on repair tiles and flags get a new backup, and pick up the flag if it is the next one.
+     *
+     * @param repair if true robots on repair tiles and flags are also repaired
+     */
+    private void touchCheckpoints(boolean repair) {
+        for (Robot robot : robots) {
+            if (!robot.isOnBoard()) {
+                continue;
+            }
+            int cell = robot.getCell();
+            if (board.getRepairWrenches(cell) > 0) {
+                touch(robot, repair);
+            }
+            int flag = board.getFlagNumber(cell);
+            if (flag > 0) {
+                touch(robot, repair);
+                if (flag == robot.getFlagsCollected() + 1) {
+                    robot.setFlagsCollected(flag);
+                    listener.flagPickedUp(robot, flag);
+                    if (winner == null && flag == board.getNumberOfFlags()) {
+                        winner = robot;
+                        listener.gameWon(robot);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param robot  on a repair tile or flag
+     * @param repair if true one damage token is removed
+     */
+    private void touch(Robot robot, boolean repair) {
+        robot.setBackup(robot.getCell(), robot.getDirection());
+        listener.backupChanged(robot);
+        if (repair && robot.getDamageTokens() > 0) {
+            robot.setDamageTokens(robot.getDamageTokens() - 1);
+            listener.robotRepaired(robot);
+        }
+    }
+
+    // RESPAWN
+
+    /**
+     * Respawn the destroyed robots that have lives left.
+     */
+    private void respawnDestroyedRobots() {
+        for (Robot robot : robots) {
+            if (robot.isDestroyed() && !robot.isDead()) {
+                respawn(robot);
+            }
+        }
+    }
+
+    /**
+     * Put robot in its backup cell. If another robot stands there, a free cell next to it is picked,
+     * and if there is none the start position of the robot is used.
+     *
+     * @param robot to respawn
+     */
+    private void respawn(Robot robot) {
+        int cell = robot.getBackupCell();
+        Direction direction = robot.getBackupDirection();
+        if (cell == BoardModel.OFF_BOARD) {
+            cell = NONE;
+        } else if (occupants[cell] != null) {
+            cell = findRespawnCell(cell);
+            direction = respawnDirection;
+        }
+        int startCell = board.getStartCell(robot.getNumber());
+        if (cell == NONE && startCell != NONE) {
+            if (occupants[startCell] == null) {
+                cell = startCell;
+                direction = Direction.EAST;
+            } else {
+                cell = findRespawnCell(startCell);
+                direction = respawnDirection;
+            }
+        }
+        if (cell == NONE) {
+            return;
+        }
+        place(robot, cell);
+        robot.setDirection(direction);
+        robot.setBeltPushDirection(null);
+        robot.setDestroyed(false);
+        listener.robotRespawned(robot);
+    }
+
+    /**
+     * Look for a free cell around center, in random order, where no robot stands in the three cells in
+     * front of the respawned robot. The direction found is put in {@link #respawnDirection}.
+     *
+     * @param center cell to look around
+     * @return cell to respawn in, {@link #NONE} if there is none
+     */
+    private int findRespawnCell(int center) {
+        int numberOfCells = 0;
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                int x = board.toX(center) + dx;
+                int y = board.toY(center) + dy;
+                if (board.onBoard(x, y)) {
+                    respawnCells[numberOfCells++] = board.toIndex(x, y);
+                }
+            }
+        }
+        shuffle(respawnCells, numberOfCells);
+        System.arraycopy(DIRECTIONS, 0, respawnDirections, 0, DIRECTIONS.length);
+        for (int i = 0; i < numberOfCells; i++) {
+            shuffle(respawnDirections);
+            for (Direction direction : respawnDirections) {
+                if (validRespawnCell(respawnCells[i], direction)) {
+                    respawnDirection = direction;
+                    return respawnCells[i];
+                }
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Shuffle the first length cells the same way as {@link java.util.Collections#shuffle(List, Random)}.
+     *
+     * @param cells  to shuffle
+     * @param length number of cells in use
+     */
+    private void shuffle(int[] cells, int length) {
+        for (int i = length; i > 1; i--) {
+            int other = random.nextInt(i);
+            int cell = cells[i - 1];
+            cells[i - 1] = cells[other];
+            cells[other] = cell;
+        }
+    }
+
+    /**
+     * Shuffle directions the same way as {@link java.util.Collections#shuffle(List, Random)}.
+     *
+     * @param directions to shuffle
+     */
+    private void shuffle(Direction[] directions) {
+        for (int i = directions.length; i > 1; i--) {
+            int other = random.nextInt(i);
+            Direction direction = directions[i - 1];
+            directions[i - 1] = directions[other];
+            directions[other] = direction;
+        }
+    }
+
+    /**
+     * @param cell      to check
+     * @param direction robot faces after respawn
+     * @return true if cell has no hole and no robot stands in it or the two cells in front of it
+     */
+    private boolean validRespawnCell(int cell, Direction direction) {
+        if (board.hasHole(cell)) {
+            return false;
+        }
+        int x = board.toX(cell);
+        int y = board.toY(cell);
+        for (int step = 0; step < 3; step++) {
+            if (board.onBoard(x, y) && occupants[board.toIndex(x, y)] != null) {
+                return false;
+            }
+            x += BoardModel.stepX(direction);
+            y += BoardModel.stepY(direction);
+        }
+        return true;
+    }
+
+    // GETTERS
+
+    /**
+     * @param cell to check
+     * @return robot standing in cell, null if cell is empty
+     */
+    public Robot getRobotInCell(int cell) {
+        return occupants[cell];
+    }
+
+    /**
+     * @return robot that picked up the last flag first, null if nobody has
+     */
+    public Robot getWinner() {
+        return winner;
+    }
+
+    public List<Robot> getRobots() {
+        return robots;
+    }
+
+    public BoardModel getBoard() {
+        return board;
+    }
+}
@@ -0,0 +1,130 @@
+package inf112.skeleton.app.engine;
+
+import inf112.skeleton.app.cards.ProgramCard;
+import inf112.skeleton.app.enums.Direction;
+
+/**
+ * Told about everything that happens while the {@link TurnEngine} resolves a turn, in the order it happens.
+ * All methods do nothing by default, so a listener only implements what it needs.
+ */
+public interface TurnListener {
+
+    /**
+     * @param register index of register that is revealed
+     */
+    default void registerRevealed(int register) {
+    }
+
+    default void cardPlayed(Robot robot, ProgramCard card) {
+    }
+
+    /**
+     * Robot is done playing its card. Robots destroyed by the card are told about right after.
+     */
+    default void cardDone(Robot robot) {
+    }
+
+    /**
+     * Robot moved one step by its own card.
+     *
+     * @param from      cell robot moved from
+     * @param to        cell robot moved to, {@link BoardModel#OFF_BOARD} if it left the board
+     * @param direction robot moved in
+     */
+    default void robotMoved(Robot robot, int from, int to, Direction direction) {
+    }
+
+    /**
+     * Robot was pushed one step by another robot.
+     *
+     * @param from      cell robot was pushed from
+     * @param to        cell robot was pushed to, {@link BoardModel#OFF_BOARD} if it left the board
+     * @param direction robot was pushed in
+     */
+    default void robotPushed(Robot robot, int from, int to, Direction direction) {
+    }
+
+    /**
+     * @param onlyExpress true if only express belts are started
+     */
+    default void beltsStarted(boolean onlyExpress) {
+    }
+
+    /**
+     * Robot was moved one step by a belt.
+     *
+     * @param from      cell robot was moved from
+     * @param to        cell robot was moved to, {@link BoardModel#OFF_BOARD} if it left the board
+     * @param direction of belt
+     */
+    default void robotMovedByBelt(Robot robot, int from, int to, Direction direction) {
+    }
+
+    /**
+     * @param onlyExpress true if only express belts moved
+     */
+    default void beltsMoved(boolean onlyExpress) {
+    }
+
+    default void rotatePadsTurned() {
+    }
+
+    /**
+     * @param direction robot faces after turning
+     */
+    default void robotTurned(Robot robot, Direction direction) {
+    }
+
+    default void robotHitWall(Robot robot) {
+    }
+
+    /**
+     * Robot fires its laser. Beams of robot lasers are told about right before the lasers are fired.
+     *
+     * @param robot firing its laser
+     * @param to    last cell the beam covers, the cell of the robot hit if any, the cell of robot if a wall is in front
+     */
+    default void robotLaserFired(Robot robot, int to) {
+    }
+
+    /**
+     * Lasers are fired. The robots they hit are told about right after.
+     *
+     * @param byRobots true if the lasers of the robots are fired, false if the wall lasers are fired
+     */
+    default void lasersFired(boolean byRobots) {
+    }
+
+    /**
+     * @param byRobot true if the laser of a robot hit, false if a wall laser hit
+     */
+    default void robotHitByLaser(Robot robot, boolean byRobot) {
+    }
+
+    default void robotDestroyed(Robot robot) {
+    }
+
+    /**
+     * @param flag number of flag picked up
+     */
+    default void flagPickedUp(Robot robot, int flag) {
+    }
+
+    default void backupChanged(Robot robot) {
+    }
+
+    default void robotRepaired(Robot robot) {
+    }
+
+    /**
+     * @param register index of register that is done
+     */
+    default void registerDone(int register) {
+    }
+
+    default void robotRespawned(Robot robot) {
+    }
+
+    default void gameWon(Robot robot) {
+    }
+}
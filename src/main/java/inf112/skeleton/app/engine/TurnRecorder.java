@@ -0,0 +1,144 @@
+package inf112.skeleton.app.engine;
+
+import inf112.skeleton.app.cards.ProgramCard;
+import inf112.skeleton.app.enums.Direction;
+import inf112.skeleton.app.engine.BoardEvent.Type;
+
+import java.util.ArrayList;
+
+/**
+ * Records everything the {@link TurnEngine} tells in a list of {@link BoardEvent board events}, so that
+ * a turn can be resolved at once and shown on screen afterwards.
+ */
+public class TurnRecorder implements TurnListener {
+
+    private final ArrayList<BoardEvent> events;
+
+    public TurnRecorder() {
+        this.events = new ArrayList<>();
+    }
+
+    /**
+     * @return events recorded so far, in the order they happened
+     */
+    public ArrayList<BoardEvent> getEvents() {
+        return events;
+    }
+
+    private void record(Type type, Robot robot, int from, int to, Direction direction, int value, ProgramCard card) {
+        events.add(new BoardEvent(type, robot == null ? 0 : robot.getNumber(), from, to, direction, value, card));
+    }
+
+    private void record(Type type, Robot robot) {
+        record(type, robot, BoardModel.OFF_BOARD, BoardModel.OFF_BOARD, null, 0, null);
+    }
+
+    private void record(Type type, int value) {
+        record(type, null, BoardModel.OFF_BOARD, BoardModel.OFF_BOARD, null, value, null);
+    }
+
+    @Override
+    public void registerRevealed(int register) {
+        record(Type.REGISTER, register);
+    }
+
+    @Override
+    public void cardPlayed(Robot robot, ProgramCard card) {
+        record(Type.CARD, robot, robot.getCell(), robot.getCell(), robot.getDirection(), 0, card);
+    }
+
+    @Override
+    public void cardDone(Robot robot) {
+        record(Type.CARD_DONE, robot);
+    }
+
+    @Override
+    public void robotMoved(Robot robot, int from, int to, Direction direction) {
+        record(Type.MOVE, robot, from, to, direction, 0, null);
+    }
+
+    @Override
+    public void robotPushed(Robot robot, int from, int to, Direction direction) {
+        record(Type.PUSH, robot, from, to, direction, 0, null);
+    }
+
+    @Override
+    public void beltsStarted(boolean onlyExpress) {
+        record(Type.BELTS_STARTED, onlyExpress ? 1 : 0);
+    }
+
+    @Override
+    public void robotMovedByBelt(Robot robot, int from, int to, Direction direction) {
+        record(Type.BELT, robot, from, to, direction, 0, null);
+    }
+
+    @Override
+    public void beltsMoved(boolean onlyExpress) {
+        record(Type.BELTS_MOVED, onlyExpress ? 1 : 0);
+    }
+
+    @Override
+    public void rotatePadsTurned() {
+        record(Type.ROTATE_PADS_TURNED, 0);
+    }
+
+    @Override
+    public void robotTurned(Robot robot, Direction direction) {
+        record(Type.ROTATE, robot, robot.getCell(), robot.getCell(), direction, 0, null);
+    }
+
+    @Override
+    public void robotHitWall(Robot robot) {
+        record(Type.WALL_HIT, robot);
+    }
+
+    @Override
+    public void robotLaserFired(Robot robot, int to) {
+        record(Type.LASER_BEAM, robot, robot.getCell(), to, robot.getDirection(), 0, null);
+    }
+
+    @Override
+    public void lasersFired(boolean byRobots) {
+        record(Type.LASERS_FIRED, byRobots ? 1 : 0);
+    }
+
+    @Override
+    public void robotHitByLaser(Robot robot, boolean byRobot) {
+        record(Type.LASER_HIT, robot, robot.getCell(), robot.getCell(), null, byRobot ? 1 : 0, null);
+    }
+
+    @Override
+    public void robotDestroyed(Robot robot) {
+        record(Type.DESTROY, robot);
+    }
+
+    @Override
+    public void flagPickedUp(Robot robot, int flag) {
+        record(Type.FLAG, robot, robot.getCell(), robot.getCell(), null, flag, null);
+    }
+
+    @Override
+    public void backupChanged(Robot robot) {
+        record(Type.BACKUP, robot, robot.getBackupCell(), robot.getBackupCell(), robot.getBackupDirection(), 0, null);
+    }
+
+    @Override
+    public void robotRepaired(Robot robot) {
+        record(Type.REPAIR, robot);
+    }
+
+    @Override
+    public void registerDone(int register) {
+        record(Type.REGISTER_DONE, register);
+    }
+
+    @Override
+    public void robotRespawned(Robot robot) {
+        record(Type.RESPAWN, robot, BoardModel.OFF_BOARD, robot.getCell(), robot.getDirection(), 0, null);
+    }
+
+    @Override
+    public void gameWon(Robot robot) {
+        record(Type.WIN, robot);
+    }
+}
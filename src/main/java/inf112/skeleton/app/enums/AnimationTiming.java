@@ -0,0 +1,107 @@
+package inf112.skeleton.app.enums;
+
+/**
+ * <p>
+ * How long the turn waits between the steps it shows on screen, and how fast robots are drawn moving.
+ * </p>
+ *
+ * <p>
+ * Each {@link Pause} has a length in {@link #NORMAL} speed. {@link #FAST} shortens every pause, and
+ * {@link #ZERO_DELAY} skips them, so games without anyone watching run as fast as the rules can be played.
+ * </p>
+ *
+ * <p>
+ * Robots are not paused for. The screen moves them towards where they are at {@link #getRobotSpeed()}.
+ * </p>
+ */
+public enum AnimationTiming {
+    NORMAL(1f, 4f),
+    FAST(0.25f, 16f),
+    ZERO_DELAY(0f, Float.POSITIVE_INFINITY);
+
+    /**
+     * The places a turn pauses, with their length in milliseconds at normal speed.
+     */
+    public enum Pause {
+        /**
+         * After a robot has played its card, and again after destroyed robots are removed.
+         */
+        CARD_PLAYED(500),
+        /**
+         * After all robots have played their card in a register.
+         */
+        ALL_CARDS_PLAYED(250),
+        /**
+         * Between starting the belts and moving the robots on them.
+         */
+        BELT_START(500),
+        /**
+         * After express belts have moved.
+         */
+        EXPRESS_BELTS_MOVED(1300),
+        /**
+         * After all belts have moved.
+         */
+        BELTS_MOVED(800),
+        /**
+         * After a rotate pad has turned a robot.
+         */
+        ROTATE_PAD(500),
+        /**
+         * After all rotate pads have turned.
+         */
+        ROTATE_PADS_TURNED(250),
+        /**
+         * While laser beams are shown.
+         */
+        LASER_BEAM(350),
+        /**
+         * After laser beams are removed.
+         */
+        LASERS_FIRED(600),
+        /**
+         * After each robot has touched checkpoints.
+         */
+        CHECKPOINT(500),
+        /**
+         * After each register is done.
+         */
+        REGISTER_DONE(1000);
+
+        private final int milliseconds;
+
+        Pause(int milliseconds) {
+            this.milliseconds = milliseconds;
+        }
+
+        /**
+         * @return length of pause at normal speed
+         */
+        public int getMilliseconds() {
+            return milliseconds;
+        }
+    }
+
+    private final float scale;
+    private final float robotSpeed;
+
+    AnimationTiming(float scale, float robotSpeed) {
+        this.scale = scale;
+        this.robotSpeed = robotSpeed;
+    }
+
+    /**
+     * @return cells per second robots are drawn moving, infinite if they should jump straight to where they are
+     */
+    public float getRobotSpeed() {
+        return robotSpeed;
+    }
+
+    /**
+     * @param pause to look up
+     * @return length of pause in milliseconds at this speed, 0 if the turn should not wait
+     */
+    public int getMilliseconds(Pause pause) {
+        return Math.round(pause.getMilliseconds() * scale);
+    }
+}
@@ -3,6 +3,7 @@ package inf112.skeleton.app.enums;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 public enum Direction {
     WEST,
@@ -61,9 +62,13 @@ public enum Direction {
         }
     }
 
-    public static List<Direction> getDirectionRandomOrder() {
+    /**
+     * @param random to shuffle with
+     * @return all directions in random order
+     */
+    public static List<Direction> getDirectionRandomOrder(Random random) {
         List<Direction> directions = Arrays.asList(Direction.values());
-        Collections.shuffle(directions);
+        Collections.shuffle(directions, random);
         return directions;
     }
 }
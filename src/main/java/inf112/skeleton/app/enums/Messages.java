@@ -2,11 +2,14 @@ package inf112.skeleton.app.enums;
 
 /**
  * Messages to communicate between Host and Client.
+ *
+ * The {@link inf112.skeleton.app.lan.BinaryProtocol} sends a message as its ordinal, so new messages are added last.
  */
 public enum Messages {
     QUIT, HOST_LEAVES, CLOSED,
     DECK_BEGIN, DECK_END, HERE_IS_MAP, YOUR_NUMBER, PLAYERS,
     START_TURN, CONTINUE_TURN,
     POWERING_DOWN, POWER_UP, CONTINUE_POWER_DOWN,
-    STOP_THREAD
+    STOP_THREAD,
+    ROOM_NOT_FOUND, ROOM_FULL, MAP_NOT_FOUND, WINNER
 }
@@ -3,177 +3,277 @@ package inf112.skeleton.app.enums;
 import java.util.HashMap;
 
 public enum TileID {
-    PLAYER_BLUE_SOUTH(137),
-    PLAYER_BLUE_NORTH(138),
-    PLAYER_BLUE_EAST(139),
-    PLAYER_BLUE_WEST(140),
-
-    PLAYER_BROWN_SOUTH(141),
-    PLAYER_BROWN_NORTH(142),
-    PLAYER_BROWN_EAST(143),
-    PLAYER_BROWN_WEST(144),
-
-    PLAYER_DARKGREEN_SOUTH(145),
-    PLAYER_DARKGREEN_NORTH(146),
-    PLAYER_DARKGREEN_EAST(147),
-    PLAYER_DARKGREEN_WEST(148),
-
-    PLAYER_LIGHTGREEN_SOUTH(149),
-    PLAYER_LIGHTGREEN_NORTH(150),
-    PLAYER_LIGHTGREEN_EAST(151),
-    PLAYER_LIGHTGREEN_WEST(152),
-
-    PLAYER_PINK_SOUTH(153),
-    PLAYER_PINK_NORTH(154),
-    PLAYER_PINK_EAST(155),
-    PLAYER_PINK_WEST(156),
-
-    PLAYER_PURPLE_SOUTH(157),
-    PLAYER_PURPLE_NORTH(158),
-    PLAYER_PURPLE_EAST(159),
-    PLAYER_PURPLE_WEST(160),
-
-    PLAYER_RED_SOUTH(161),
-    PLAYER_RED_NORTH(162),
-    PLAYER_RED_EAST(163),
-    PLAYER_RED_WEST(164),
-
-    PLAYER_YELLOW_SOUTH(165),
-    PLAYER_YELLOW_NORTH(166),
-    PLAYER_YELLOW_EAST(167),
-    PLAYER_YELLOW_WEST(168),
-
-    PLAYER_WHITE_SOUTH(169),
-    PLAYER_WHITE_NORTH(170),
-    PLAYER_WHITE_EAST(171),
-    PLAYER_WHITE_WEST(172),
-
-    START_POS1(121),
-    START_POS2(122),
-    START_POS3(123),
-    START_POS4(124),
-    START_POS5(129),
-    START_POS6(130),
-    START_POS7(131),
-    START_POS8(132),
-
-    EAST_WALL(23),
-    SOUTH_WALL(29),
-    WEST_WALL(30),
-    NORTH_WALL(31),
-
-    EAST_LASER_WALL(46),
-    SOUTH_LASER_WALL(37),
-    WEST_LASER_WALL(38),
-    NORTH_LASER_WALL(45),
-
-    SOUTHEAST_WALL(8),
-    NORTHEAST_WALL(16),
-    NORTHWEST_WALL(24),
-    SOUTHWEST_WALL(32),
-
-    VERTICAL_LASER(47),
-    HORIZONTAL_LASER(39),
-    CROSSED_LASER(40),
-
-    NORMAL_HOLE(6),
-    NORMAL_HOLE2(91),
-    NORTHWEST_HOLE(105),
-    NORTH_HOLE(106),
-    NORTHEAST_HOLE(107),
-    EAST_HOLE(108),
-    NORTH_EAST_SOUTH_HOLE(109),
-    WEST_EAST_SOUTH_HOLE(110),
-    SOUTHWEST_HOLE(113),
-    SOUTH_HOLE(114),
-    SOUTHEAST_HOLE(115),
-    WEST_HOLE(116),
-    NORTH_WEST_SOUTH_HOLE(117),
-    NORTH_WEST_EAST_HOLE(118),
-
-    ROTATE_PAD_LEFT(53),
-    ROTATE_PAD_RIGHT(54),
-
-    WRENCH(15),
-    DOUBLE_WRENCH(7),
-
-    FLAG_1(55),
-    FLAG_2(63),
-    FLAG_3(71),
-    FLAG_4(79),
-
-    EAST_TO_SOUTH_BELT(33),
-    NORTH_TO_EAST_BELT(41),
-    WEST_TO_NORTH_BELT(42),
-    SOUTH_TO_WEST_BELT(34),
-
-    EAST_TO_NORTH_BELT(43),
-    NORTH_TO_WEST_BELT(44),
-    WEST_TO_SOUTH_BELT(36),
-    SOUTH_TO_EAST_BELT(35),
-
-    EAST_TO_WEST_BELT(51),
-    NORTH_TO_SOUTH_BELT(50),
-    WEST_TO_EAST_BELT(52),
-    SOUTH_TO_NORTH_BELT(49),
-
-    WESTSOUTH_TO_NORTH_BELT(57),
-    EASTSOUTH_TO_NORTH_BELT(65),
-    WESTEAST_TO_NORTH_BELT(69),
-
-    WESTNORTH_TO_SOUTH_BELT(67),
-    EASTNORTH_TO_SOUTH_BELT(59),
-    WESTEAST_TO_SOUTH_BELT(62),
-
-    WESTSOUTH_TO_EAST_BELT(66),
-    WESTNORTH_TO_EAST_BELT(58),
-    NORTHSOUTH_TO_EAST_BELT(61),
-
-    EASTSOUTH_TO_WEST_BELT(60),
-    EASTNORTH_TO_WEST_BELT(68),
-    NORTHSOUTH_TO_WEST_BELT(70),
-
-    EAST_TO_SOUTH_EXPRESS_BELT(17),
-    NORTH_TO_EAST_EXPRESS_BELT(25),
-    WEST_TO_NORTH_EXPRESS_BELT(26),
-    SOUTH_TO_WEST_EXPRESS_BELT(18),
-
-    EAST_TO_NORTH_EXPRESS_BELT(27),
-    NORTH_TO_WEST_EXPRESS_BELT(28),
-    WEST_TO_SOUTH_EXPRESS_BELT(20),
-    SOUTH_TO_EAST_EXPRESS_BELT(19),
-
-    EAST_TO_WEST_EXPRESS_BELT(22),
-    NORTH_TO_SOUTH_EXPRESS_BELT(21),
-    WEST_TO_EAST_EXPRESS_BELT(14),
-    SOUTH_TO_NORTH_EXPRESS_BELT(13),
-
-    WESTSOUTH_TO_NORTH_EXPRESS_BELT(73),
-    EASTSOUTH_TO_NORTH_EXPRESS_BELT(77),
-    WESTEAST_TO_NORTH_EXPRESS_BELT(84),
-
-    WESTNORTH_TO_SOUTH_EXPRESS_BELT(86),
-    EASTNORTH_TO_SOUTH_EXPRESS_BELT(75),
-    WESTEAST_TO_SOUTH_EXPRESS_BELT(82),
-
-    WESTSOUTH_TO_EAST_EXPRESS_BELT(78),
-    WESTNORTH_TO_EAST_EXPRESS_BELT(74),
-    NORTHSOUTH_TO_EAST_EXPRESS_BELT(81),
-
-    EASTSOUTH_TO_WEST_EXPRESS_BELT(76),
-    EASTNORTH_TO_WEST_EXPRESS_BELT(85),
-    NORTHSOUTH_TO_WEST_EXPRESS_BELT(83);
+    PLAYER_BLUE_SOUTH(137, TileKind.PLAYER),
+    PLAYER_BLUE_NORTH(138, TileKind.PLAYER),
+    PLAYER_BLUE_EAST(139, TileKind.PLAYER),
+    PLAYER_BLUE_WEST(140, TileKind.PLAYER),
+
+    PLAYER_BROWN_SOUTH(141, TileKind.PLAYER),
+    PLAYER_BROWN_NORTH(142, TileKind.PLAYER),
+    PLAYER_BROWN_EAST(143, TileKind.PLAYER),
+    PLAYER_BROWN_WEST(144, TileKind.PLAYER),
+
+    PLAYER_DARKGREEN_SOUTH(145, TileKind.PLAYER),
+    PLAYER_DARKGREEN_NORTH(146, TileKind.PLAYER),
+    PLAYER_DARKGREEN_EAST(147, TileKind.PLAYER),
+    PLAYER_DARKGREEN_WEST(148, TileKind.PLAYER),
+
+    PLAYER_LIGHTGREEN_SOUTH(149, TileKind.PLAYER),
+    PLAYER_LIGHTGREEN_NORTH(150, TileKind.PLAYER),
+    PLAYER_LIGHTGREEN_EAST(151, TileKind.PLAYER),
+    PLAYER_LIGHTGREEN_WEST(152, TileKind.PLAYER),
+
+    PLAYER_PINK_SOUTH(153, TileKind.PLAYER),
+    PLAYER_PINK_NORTH(154, TileKind.PLAYER),
+    PLAYER_PINK_EAST(155, TileKind.PLAYER),
+    PLAYER_PINK_WEST(156, TileKind.PLAYER),
+
+    PLAYER_PURPLE_SOUTH(157, TileKind.PLAYER),
+    PLAYER_PURPLE_NORTH(158, TileKind.PLAYER),
+    PLAYER_PURPLE_EAST(159, TileKind.PLAYER),
+    PLAYER_PURPLE_WEST(160, TileKind.PLAYER),
+
+    PLAYER_RED_SOUTH(161, TileKind.PLAYER),
+    PLAYER_RED_NORTH(162, TileKind.PLAYER),
+    PLAYER_RED_EAST(163, TileKind.PLAYER),
+    PLAYER_RED_WEST(164, TileKind.PLAYER),
+
+    PLAYER_YELLOW_SOUTH(165, TileKind.PLAYER),
+    PLAYER_YELLOW_NORTH(166, TileKind.PLAYER),
+    PLAYER_YELLOW_EAST(167, TileKind.PLAYER),
+    PLAYER_YELLOW_WEST(168, TileKind.PLAYER),
+
+    PLAYER_WHITE_SOUTH(169, TileKind.PLAYER),
+    PLAYER_WHITE_NORTH(170, TileKind.PLAYER),
+    PLAYER_WHITE_EAST(171, TileKind.PLAYER),
+    PLAYER_WHITE_WEST(172, TileKind.PLAYER),
+
+    START_POS1(121, TileKind.START_POSITION, 1),
+    START_POS2(122, TileKind.START_POSITION, 2),
+    START_POS3(123, TileKind.START_POSITION, 3),
+    START_POS4(124, TileKind.START_POSITION, 4),
+    START_POS5(129, TileKind.START_POSITION, 5),
+    START_POS6(130, TileKind.START_POSITION, 6),
+    START_POS7(131, TileKind.START_POSITION, 7),
+    START_POS8(132, TileKind.START_POSITION, 8),
+
+    EAST_WALL(23, TileKind.WALL, Direction.EAST),
+    SOUTH_WALL(29, TileKind.WALL, Direction.SOUTH),
+    WEST_WALL(30, TileKind.WALL, Direction.WEST),
+    NORTH_WALL(31, TileKind.WALL, Direction.NORTH),
+
+    EAST_LASER_WALL(46, TileKind.LASER_WALL, Direction.EAST),
+    SOUTH_LASER_WALL(37, TileKind.LASER_WALL, Direction.SOUTH),
+    WEST_LASER_WALL(38, TileKind.LASER_WALL, Direction.WEST),
+    NORTH_LASER_WALL(45, TileKind.LASER_WALL, Direction.NORTH),
+
+    SOUTHEAST_WALL(8, TileKind.WALL, Direction.SOUTH, Direction.EAST),
+    NORTHEAST_WALL(16, TileKind.WALL, Direction.NORTH, Direction.EAST),
+    NORTHWEST_WALL(24, TileKind.WALL, Direction.NORTH, Direction.WEST),
+    SOUTHWEST_WALL(32, TileKind.WALL, Direction.SOUTH, Direction.WEST),
+
+    VERTICAL_LASER(47, TileKind.LASER),
+    HORIZONTAL_LASER(39, TileKind.LASER),
+    CROSSED_LASER(40, TileKind.LASER),
+
+    NORMAL_HOLE(6, TileKind.HOLE),
+    NORMAL_HOLE2(91, TileKind.HOLE),
+    NORTHWEST_HOLE(105, TileKind.HOLE),
+    NORTH_HOLE(106, TileKind.HOLE),
+    NORTHEAST_HOLE(107, TileKind.HOLE),
+    EAST_HOLE(108, TileKind.HOLE),
+    NORTH_EAST_SOUTH_HOLE(109, TileKind.HOLE),
+    WEST_EAST_SOUTH_HOLE(110, TileKind.HOLE),
+    SOUTHWEST_HOLE(113, TileKind.HOLE),
+    SOUTH_HOLE(114, TileKind.HOLE),
+    SOUTHEAST_HOLE(115, TileKind.HOLE),
+    WEST_HOLE(116, TileKind.HOLE),
+    NORTH_WEST_SOUTH_HOLE(117, TileKind.HOLE),
+    NORTH_WEST_EAST_HOLE(118, TileKind.HOLE),
+
+    ROTATE_PAD_LEFT(53, Rotate.LEFT),
+    ROTATE_PAD_RIGHT(54, Rotate.RIGHT),
+
+    WRENCH(15, TileKind.REPAIR, 1),
+    DOUBLE_WRENCH(7, TileKind.REPAIR, 2),
+
+    FLAG_1(55, TileKind.FLAG, 1),
+    FLAG_2(63, TileKind.FLAG, 2),
+    FLAG_3(71, TileKind.FLAG, 3),
+    FLAG_4(79, TileKind.FLAG, 4),
+
+    EAST_TO_SOUTH_BELT(33, TileKind.BELT, Direction.SOUTH),
+    NORTH_TO_EAST_BELT(41, TileKind.BELT, Direction.EAST),
+    WEST_TO_NORTH_BELT(42, TileKind.BELT, Direction.NORTH),
+    SOUTH_TO_WEST_BELT(34, TileKind.BELT, Direction.WEST),
+
+    EAST_TO_NORTH_BELT(43, TileKind.BELT, Direction.NORTH),
+    NORTH_TO_WEST_BELT(44, TileKind.BELT, Direction.WEST),
+    WEST_TO_SOUTH_BELT(36, TileKind.BELT, Direction.SOUTH),
+    SOUTH_TO_EAST_BELT(35, TileKind.BELT, Direction.EAST),
+
+    EAST_TO_WEST_BELT(51, TileKind.BELT, Direction.WEST),
+    NORTH_TO_SOUTH_BELT(50, TileKind.BELT, Direction.SOUTH),
+    WEST_TO_EAST_BELT(52, TileKind.BELT, Direction.EAST),
+    SOUTH_TO_NORTH_BELT(49, TileKind.BELT, Direction.NORTH),
+
+    WESTSOUTH_TO_NORTH_BELT(57, TileKind.BELT, Direction.NORTH),
+    EASTSOUTH_TO_NORTH_BELT(65, TileKind.BELT, Direction.NORTH),
+    WESTEAST_TO_NORTH_BELT(69, TileKind.BELT, Direction.NORTH),
+
+    WESTNORTH_TO_SOUTH_BELT(67, TileKind.BELT, Direction.SOUTH),
+    EASTNORTH_TO_SOUTH_BELT(59, TileKind.BELT, Direction.SOUTH),
+    WESTEAST_TO_SOUTH_BELT(62, TileKind.BELT, Direction.SOUTH),
+
+    WESTSOUTH_TO_EAST_BELT(66, TileKind.BELT, Direction.EAST),
+    WESTNORTH_TO_EAST_BELT(58, TileKind.BELT, Direction.EAST),
+    NORTHSOUTH_TO_EAST_BELT(61, TileKind.BELT, Direction.EAST),
+
+    EASTSOUTH_TO_WEST_BELT(60, TileKind.BELT, Direction.WEST),
+    EASTNORTH_TO_WEST_BELT(68, TileKind.BELT, Direction.WEST),
+    NORTHSOUTH_TO_WEST_BELT(70, TileKind.BELT, Direction.WEST),
+
+    EAST_TO_SOUTH_EXPRESS_BELT(17, TileKind.EXPRESS_BELT, Direction.SOUTH),
+    NORTH_TO_EAST_EXPRESS_BELT(25, TileKind.EXPRESS_BELT, Direction.EAST),
+    WEST_TO_NORTH_EXPRESS_BELT(26, TileKind.EXPRESS_BELT, Direction.NORTH),
+    SOUTH_TO_WEST_EXPRESS_BELT(18, TileKind.EXPRESS_BELT, Direction.WEST),
+
+    EAST_TO_NORTH_EXPRESS_BELT(27, TileKind.EXPRESS_BELT, Direction.NORTH),
+    NORTH_TO_WEST_EXPRESS_BELT(28, TileKind.EXPRESS_BELT, Direction.WEST),
+    WEST_TO_SOUTH_EXPRESS_BELT(20, TileKind.EXPRESS_BELT, Direction.SOUTH),
+    SOUTH_TO_EAST_EXPRESS_BELT(19, TileKind.EXPRESS_BELT, Direction.EAST),
+
+    EAST_TO_WEST_EXPRESS_BELT(22, TileKind.EXPRESS_BELT, Direction.WEST),
+    NORTH_TO_SOUTH_EXPRESS_BELT(21, TileKind.EXPRESS_BELT, Direction.SOUTH),
+    WEST_TO_EAST_EXPRESS_BELT(14, TileKind.EXPRESS_BELT, Direction.EAST),
+    SOUTH_TO_NORTH_EXPRESS_BELT(13, TileKind.EXPRESS_BELT, Direction.NORTH),
+
+    WESTSOUTH_TO_NORTH_EXPRESS_BELT(73, TileKind.EXPRESS_BELT, Direction.NORTH),
+    EASTSOUTH_TO_NORTH_EXPRESS_BELT(77, TileKind.EXPRESS_BELT, Direction.NORTH),
+    WESTEAST_TO_NORTH_EXPRESS_BELT(84, TileKind.EXPRESS_BELT, Direction.NORTH),
+
+    WESTNORTH_TO_SOUTH_EXPRESS_BELT(86, TileKind.EXPRESS_BELT, Direction.SOUTH),
+    EASTNORTH_TO_SOUTH_EXPRESS_BELT(75, TileKind.EXPRESS_BELT, Direction.SOUTH),
+    WESTEAST_TO_SOUTH_EXPRESS_BELT(82, TileKind.EXPRESS_BELT, Direction.SOUTH),
+
+    WESTSOUTH_TO_EAST_EXPRESS_BELT(78, TileKind.EXPRESS_BELT, Direction.EAST),
+    WESTNORTH_TO_EAST_EXPRESS_BELT(74, TileKind.EXPRESS_BELT, Direction.EAST),
+    NORTHSOUTH_TO_EAST_EXPRESS_BELT(81, TileKind.EXPRESS_BELT, Direction.EAST),
+
+    EASTSOUTH_TO_WEST_EXPRESS_BELT(76, TileKind.EXPRESS_BELT, Direction.WEST),
+    EASTNORTH_TO_WEST_EXPRESS_BELT(85, TileKind.EXPRESS_BELT, Direction.WEST),
+    NORTHSOUTH_TO_WEST_EXPRESS_BELT(83, TileKind.EXPRESS_BELT, Direction.WEST);
+
+    private static final TileID[] tilesById;
+
+    static {
+        int maxId = 0;
+        for (TileID tile : values()) {
+            maxId = Math.max(maxId, tile.id);
+        }
+        tilesById = new TileID[maxId + 1];
+        for (TileID tile : values()) {
+            tilesById[tile.id] = tile;
+        }
+    }
 
     private final int id;
-
-    TileID(int id) {
+    private final TileKind kind;
+    private final int number;
+    private final Direction[] directions;
+    private final Rotate rotate;
+
+    /**
+     * @param id         of tile in tile set
+     * @param kind       of tile
+     * @param number     of start position or flag, or number of wrenches on a repair tile
+     * @param rotate     of rotate pad
+     * @param directions sides with wall for walls and laser walls, direction the belt moves for belts
+     */
+    TileID(int id, TileKind kind, int number, Rotate rotate, Direction... directions) {
         this.id = id;
+        this.kind = kind;
+        this.number = number;
+        this.rotate = rotate;
+        this.directions = directions;
+    }
+
+    TileID(int id, TileKind kind, Direction... directions) {
+        this(id, kind, 0, Rotate.NONE, directions);
+    }
+
+    TileID(int id, TileKind kind, int number) {
+        this(id, kind, number, Rotate.NONE);
+    }
+
+    TileID(int id, Rotate rotate) {
+        this(id, TileKind.ROTATE_PAD, 0, rotate);
     }
 
     public int getId() {
         return this.id;
     }
 
+    public TileKind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return number of start position or flag, or number of wrenches on a repair tile. 0 for other tiles.
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * @return rotation of rotate pad, {@link Rotate#NONE} for other tiles
+     */
+    public Rotate getRotate() {
+        return rotate;
+    }
+
+    /**
+     * @return direction a belt moves robots, or direction a laser wall fires. Null for other tiles.
+     */
+    public Direction getDirection() {
+        switch (kind) {
+            case BELT:
+            case EXPRESS_BELT:
+                return directions[0];
+            case LASER_WALL:
+                return directions[0].turnAround();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @param side of tile
+     * @return true if this tile is a wall on given side
+     */
+    public boolean hasWall(Direction side) {
+        if (kind != TileKind.WALL && kind != TileKind.LASER_WALL) {
+            return false;
+        }
+        for (Direction direction : directions) {
+            if (direction == side) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param id of tile in tile set
+     * @return the tile with given id, null if it is not a known tile
+     */
+    public static TileID fromId(int id) {
+        if (id < 0 || id >= tilesById.length) {
+            return null;
+        }
+        return tilesById[id];
+    }
+
     public static HashMap<Direction, Integer> getRobotId(String color) {
         HashMap<Direction, Integer> IDs = new HashMap<>();
         for (int i = 0; i < 36; i++) {
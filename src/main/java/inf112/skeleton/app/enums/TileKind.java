@@ -0,0 +1,18 @@
+package inf112.skeleton.app.enums;
+
+/**
+ * What a {@link TileID tile} is on the board.
+ */
+public enum TileKind {
+    PLAYER,
+    START_POSITION,
+    WALL,
+    LASER_WALL,
+    LASER,
+    HOLE,
+    ROTATE_PAD,
+    REPAIR,
+    FLAG,
+    BELT,
+    EXPRESS_BELT
+}
@@ -0,0 +1,370 @@
+package inf112.skeleton.app.lan;
+
+import inf112.skeleton.app.cards.Deck;
+import inf112.skeleton.app.cards.ProgramCard;
+import inf112.skeleton.app.enums.Messages;
+
+import java.net.ProtocolException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * <p>
+ * Binary messages between host and clients.
+ * </p>
+ *
+ * <p>
+ * Every frame starts with its length in two bytes, not counting the length itself, then one opcode byte
+ * and the payload. Player numbers and card ids are one byte each, see {@link ProgramCard#getId()}. Text is at most
+ * {@link #MAX_TEXT_LENGTH} bytes, so no frame is longer than {@link #MAX_FRAME_SIZE}.
+ * </p>
+ *
+ * <pre>
+ * MESSAGE         message                              a {@link Messages} by ordinal
+ * PLAYER_MESSAGE  player, message                      a {@link Messages} from a player
+ * CARD            player, card                         a card selected by a player
+ * PLAYER_NUMBER   player                               your player number
+ * PLAYERS         number                               number of players in the game
+ * SEED            seed (8 bytes)                       seed of the game
+ * MAP             path (UTF-8)                         map to play on
+ * DECK            seed (8 bytes), cards                deck made from the seed without the cards, see {@link Deck#fromSeed}
+ * PROGRAM         player, round, powering down, cards  selected cards of a player, see {@link Program}
+ * CREATE_ROOM     path (UTF-8)                         make a room playing on the map, and join it
+ * JOIN            code (UTF-8)                         join the room with the code
+ * ROOM            code (UTF-8)                         code of the room you made, for others to join
+ * HAND            player, round, cards                 cards dealt to you
+ * </pre>
+ *
+ * <p>
+ * The round of a hand is the round of the room dealing it, and a program is sent with the round of the hand it
+ * was selected from, so the room can tell a program sent too late from the program of the next round. Rounds are
+ * counted in one byte, and are 0 outside rooms.
+ * </p>
+ *
+ * <p>
+ * The programs of all players are sent as one PROGRAM frame each, written to the same buffer and sent together.
+ * </p>
+ *
+ * <p>
+ * Writing puts the frame in a buffer, and reading fills a reused {@link Frame}, so neither allocates
+ * except for text.
+ * </p>
+ */
+public class BinaryProtocol {
+
+    public static final int MESSAGE = 1;
+    public static final int PLAYER_MESSAGE = 2;
+    public static final int CARD = 3;
+    public static final int PLAYER_NUMBER = 4;
+    public static final int PLAYERS = 5;
+    public static final int SEED = 6;
+    public static final int MAP = 7;
+    public static final int DECK = 8;
+    public static final int PROGRAM = 9;
+    public static final int CREATE_ROOM = 10;
+    public static final int JOIN = 11;
+    public static final int ROOM = 12;
+    public static final int HAND = 13;
+
+    /**
+     * Bytes before the payload, the length and the opcode.
+     */
+    public static final int HEADER = 3;
+    /**
+     * Most bytes of text in a frame.
+     */
+    public static final int MAX_TEXT_LENGTH = 255;
+    /**
+     * Bytes of the longest frame, a frame with the longest text. Frames with cards are shorter.
+     */
+    public static final int MAX_FRAME_SIZE = HEADER + MAX_TEXT_LENGTH;
+
+    private BinaryProtocol() {
+    }
+
+    private static void putHeader(ByteBuffer out, int opcode, int payload) {
+        if (out.remaining() < HEADER + payload) {
+            throw new BufferOverflowException();
+        }
+        out.putShort((short) (1 + payload));
+        out.put((byte) opcode);
+    }
+
+    public static void writeMessage(ByteBuffer out, Messages message) {
+        putHeader(out, MESSAGE, 1);
+        out.put((byte) message.ordinal());
+    }
+
+    public static void writePlayerMessage(ByteBuffer out, int playerNumber, Messages message) {
+        putHeader(out, PLAYER_MESSAGE, 2);
+        out.put((byte) playerNumber);
+        out.put((byte) message.ordinal());
+    }
+
+    /**
+     * @param out          buffer to write to
+     * @param playerNumber of player selecting the card
+     * @param card         one of the cards of the game
+     */
+    public static void writeCard(ByteBuffer out, int playerNumber, ProgramCard card) {
+        int id = card.getId();
+        if (id == -1) {
+            throw new IllegalArgumentException("Only cards of the game can be sent: " + card);
+        }
+        putHeader(out, CARD, 2);
+        out.put((byte) playerNumber);
+        out.put((byte) id);
+    }
+
+    public static void writePlayerNumber(ByteBuffer out, int playerNumber) {
+        putHeader(out, PLAYER_NUMBER, 1);
+        out.put((byte) playerNumber);
+    }
+
+    public static void writeNumberOfPlayers(ByteBuffer out, int numberOfPlayers) {
+        putHeader(out, PLAYERS, 1);
+        out.put((byte) numberOfPlayers);
+    }
+
+    public static void writeSeed(ByteBuffer out, long seed) {
+        putHeader(out, SEED, 8);
+        out.putLong(seed);
+    }
+
+    private static void writeText(ByteBuffer out, int opcode, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("Text is too long to send: " + text);
+        }
+        putHeader(out, opcode, bytes.length);
+        out.put(bytes);
+    }
+
+    public static void writeMapPath(ByteBuffer out, String mapPath) {
+        writeText(out, MAP, mapPath);
+    }
+
+    public static void writeCreateRoom(ByteBuffer out, String mapPath) {
+        writeText(out, CREATE_ROOM, mapPath);
+    }
+
+    public static void writeJoin(ByteBuffer out, String roomCode) {
+        writeText(out, JOIN, roomCode);
+    }
+
+    public static void writeRoomCode(ByteBuffer out, String roomCode) {
+        writeText(out, ROOM, roomCode);
+    }
+
+    /**
+     * @param out          buffer to write to
+     * @param seed         of the deck
+     * @param removedCards cards of the game removed from the deck
+     */
+    public static void writeDeck(ByteBuffer out, long seed, List<ProgramCard> removedCards) {
+        for (ProgramCard card : removedCards) {
+            if (card.getId() == -1) {
+                throw new IllegalArgumentException("Only cards of the game can be sent: " + card);
+            }
+        }
+        putHeader(out, DECK, 8 + removedCards.size());
+        out.putLong(seed);
+        for (ProgramCard card : removedCards) {
+            out.put((byte) card.getId());
+        }
+    }
+
+    /**
+     * @param out          buffer to write to
+     * @param playerNumber of player the cards are dealt to
+     * @param round        of the room, only the lowest byte is sent
+     * @param cards        cards of the game dealt
+     */
+    public static void writeHand(ByteBuffer out, int playerNumber, int round, List<ProgramCard> cards) {
+        for (ProgramCard card : cards) {
+            if (card.getId() == -1) {
+                throw new IllegalArgumentException("Only cards of the game can be sent: " + card);
+            }
+        }
+        putHeader(out, HAND, 2 + cards.size());
+        out.put((byte) playerNumber);
+        out.put((byte) round);
+        for (ProgramCard card : cards) {
+            out.put((byte) card.getId());
+        }
+    }
+
+    /**
+     * Write a program played outside rooms, in round 0.
+     */
+    public static void writeProgram(ByteBuffer out, int playerNumber, boolean poweringDown, List<ProgramCard> cards) {
+        writeProgram(out, playerNumber, 0, poweringDown, cards);
+    }
+
+    /**
+     * @param out          buffer to write to
+     * @param playerNumber of player the program is for
+     * @param round        of the hand the cards were selected from, only the lowest byte is sent
+     * @param poweringDown true if the player powers down after the turn
+     * @param cards        selected cards of the game, in order of registers
+     */
+    public static void writeProgram(ByteBuffer out, int playerNumber, int round, boolean poweringDown,
+                                    List<ProgramCard> cards) {
+        for (ProgramCard card : cards) {
+            if (card.getId() == -1) {
+                throw new IllegalArgumentException("Only cards of the game can be sent: " + card);
+            }
+        }
+        putHeader(out, PROGRAM, 3 + cards.size());
+        out.put((byte) playerNumber);
+        out.put((byte) round);
+        out.put((byte) (poweringDown ? 1 : 0));
+        for (ProgramCard card : cards) {
+            out.put((byte) card.getId());
+        }
+    }
+
+    /**
+     * Read the next frame if all of it is in the buffer. If it is not, nothing is read and the position of the
+     * buffer is unchanged, so the rest can be added to the buffer later.
+     *
+     * @param in    buffer ready to be read from
+     * @param frame to put what was read in
+     * @return true if a frame was read
+     * @throws ProtocolException if the frame is longer than {@link #MAX_FRAME_SIZE}, has the wrong length for its
+     *                           opcode, or a message or card that does not exist. A frame that has arrived is
+     *                           skipped, but the connection should be closed.
+     */
+    public static boolean read(ByteBuffer in, Frame frame) throws ProtocolException {
+        if (in.remaining() < 2) {
+            return false;
+        }
+        int length = in.getShort(in.position()) & 0xFFFF;
+        if (length > MAX_FRAME_SIZE - 2) {
+            throw new ProtocolException("Frame of " + length + " bytes is too long");
+        }
+        if (in.remaining() < 2 + length) {
+            return false;
+        }
+        int end = in.position() + 2 + length;
+        if (length == 0) {
+            in.position(end);
+            throw new ProtocolException("Frame without opcode");
+        }
+        int opcode = in.get(in.position() + 2) & 0xFF;
+        if (!hasValidLength(opcode, length - 1)) {
+            in.position(end);
+            throw new ProtocolException("Frame " + opcode + " can not have " + (length - 1) + " bytes");
+        }
+        in.position(in.position() + 3);
+        frame.opcode = opcode;
+        try {
+            switch (opcode) {
+                case MESSAGE:
+                    frame.message = readMessage(in);
+                    break;
+                case PLAYER_MESSAGE:
+                    frame.playerNumber = in.get() & 0xFF;
+                    frame.message = readMessage(in);
+                    break;
+                case CARD:
+                    frame.playerNumber = in.get() & 0xFF;
+                    frame.cardId = readCardId(in);
+                    break;
+                case PLAYER_NUMBER:
+                case PLAYERS:
+                    frame.number = in.get() & 0xFF;
+                    frame.playerNumber = (int) frame.number;
+                    break;
+                case SEED:
+                    frame.number = in.getLong();
+                    break;
+                case MAP:
+                case CREATE_ROOM:
+                case JOIN:
+                case ROOM:
+                    byte[] text = new byte[end - in.position()];
+                    in.get(text);
+                    frame.text = new String(text, StandardCharsets.UTF_8);
+                    break;
+                case HAND:
+                    frame.playerNumber = in.get() & 0xFF;
+                    frame.round = in.get() & 0xFF;
+                    readCardIds(in, end, frame);
+                    break;
+                case DECK:
+                    frame.number = in.getLong();
+                    readCardIds(in, end, frame);
+                    break;
+                case PROGRAM:
+                    frame.playerNumber = in.get() & 0xFF;
+                    frame.round = in.get() & 0xFF;
+                    frame.poweringDown = in.get() != 0;
+                    readCardIds(in, end, frame);
+                    break;
+                default:
+                    break;
+            }
+        } finally {
+            // Skip what is not understood, so newer frames can be added
+            in.position(end);
+        }
+        return true;
+    }
+
+    /**
+     * @param opcode  of frame
+     * @param payload number of bytes after the opcode
+     * @return true if a frame with the opcode can have that many bytes. Frames with opcodes not known are skipped,
+     * so they can have any length.
+     */
+    private static boolean hasValidLength(int opcode, int payload) {
+        switch (opcode) {
+            case MESSAGE:
+            case PLAYER_NUMBER:
+            case PLAYERS:
+                return payload == 1;
+            case PLAYER_MESSAGE:
+            case CARD:
+                return payload == 2;
+            case SEED:
+                return payload == 8;
+            case HAND:
+                return payload >= 2 && payload <= 2 + Deck.NUMBER_OF_CARDS;
+            case DECK:
+                return payload >= 8 && payload <= 8 + Deck.NUMBER_OF_CARDS;
+            case PROGRAM:
+                return payload >= 3 && payload <= 3 + Deck.NUMBER_OF_CARDS;
+            default:
+                return true;
+        }
+    }
+
+    private static int readMessage(ByteBuffer in) throws ProtocolException {
+        int message = in.get() & 0xFF;
+        if (message >= Frame.MESSAGES.length) {
+            throw new ProtocolException("No message " + message);
+        }
+        return message;
+    }
+
+    private static int readCardId(ByteBuffer in) throws ProtocolException {
+        int id = in.get() & 0xFF;
+        if (id >= ProgramCard.NUMBER_OF_CARDS) {
+            throw new ProtocolException("No card " + id);
+        }
+        return id;
+    }
+
+    private static void readCardIds(ByteBuffer in, int end, Frame frame) throws ProtocolException {
+        // Length is checked, so the cards fit in the frame
+        frame.cardCount = 0;
+        int count = end - in.position();
+        for (int i = 0; i < count; i++) {
+            frame.cardIds[i] = readCardId(in);
+            frame.cardCount++;
+        }
+    }
+}
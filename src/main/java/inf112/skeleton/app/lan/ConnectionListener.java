@@ -0,0 +1,24 @@
+package inf112.skeleton.app.lan;
+
+/**
+ * Told about the connections of a {@link NioGameServer}. All methods are called on the game thread of the server,
+ * one at a time, so game logic does not need to be thread safe.
+ */
+public interface ConnectionListener {
+
+    /**
+     * @param connection that was accepted
+     */
+    void connected(NioConnection connection);
+
+    /**
+     * @param connection the frame came from
+     * @param frame      that was received, only valid until this method returns
+     */
+    void received(NioConnection connection, Frame frame);
+
+    /**
+     * @param connection that was closed by the client, or because it was broken
+     */
+    void disconnected(NioConnection connection);
+}
@@ -0,0 +1,101 @@
+package inf112.skeleton.app.lan;
+
+import inf112.skeleton.app.cards.Deck;
+import inf112.skeleton.app.cards.ProgramCard;
+import inf112.skeleton.app.enums.Messages;
+
+import java.util.ArrayList;
+
+/**
+ * <p>
+ * One message of the {@link BinaryProtocol}, as read by {@link BinaryProtocol#read(java.nio.ByteBuffer, Frame)}.
+ * </p>
+ *
+ * <p>
+ * A frame is reused for every message read from a connection, so reading does not allocate. Which fields are set
+ * depends on the opcode, see {@link BinaryProtocol}.
+ * </p>
+ */
+public class Frame {
+
+    static final Messages[] MESSAGES = Messages.values();
+
+    int opcode;
+    int playerNumber;
+    int round;
+    int message;
+    int cardId;
+    long number;
+    String text;
+    final int[] cardIds = new int[Deck.NUMBER_OF_CARDS];
+    int cardCount;
+    boolean poweringDown;
+
+    public int getOpcode() {
+        return opcode;
+    }
+
+    /**
+     * @return number of player the frame is from or about
+     */
+    public int getPlayerNumber() {
+        return playerNumber;
+    }
+
+    /**
+     * @return round of a hand or program, see {@link BinaryProtocol}
+     */
+    public int getRound() {
+        return round;
+    }
+
+    public Messages getMessage() {
+        return MESSAGES[message];
+    }
+
+    /**
+     * @return the card of the game sent, see {@link ProgramCard#getCard(int)}
+     */
+    public ProgramCard getCard() {
+        return ProgramCard.getCard(cardId);
+    }
+
+    /**
+     * @return player number, number of players or seed
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    /**
+     * @return cards of a hand, or the cards of a deck or program
+     */
+    public ArrayList<ProgramCard> getCards() {
+        ArrayList<ProgramCard> cards = new ArrayList<>(cardCount);
+        for (int i = 0; i < cardCount; i++) {
+            cards.add(ProgramCard.getCard(cardIds[i]));
+        }
+        return cards;
+    }
+
+    /**
+     * @return the deck sent, made from the seed without the cards removed
+     */
+    public Deck getDeck() {
+        return Deck.fromSeed(number, getCards());
+    }
+
+    /**
+     * @return the program sent
+     */
+    public Program getProgram() {
+        return new Program(playerNumber, round, poweringDown, getCards());
+    }
+
+    /**
+     * @return map path or room code
+     */
+    public String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,75 @@
+package inf112.skeleton.app.lan;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>
+ * Sends and receives {@link BinaryProtocol} frames over blocking streams, like the streams of a socket.
+ * </p>
+ *
+ * <p>
+ * Frames to send are put in {@link #getOutput()} and sent together by {@link #flush()}, so many frames
+ * can go in one write. Received frames are read into one buffer that is reused.
+ * </p>
+ */
+public class FrameConnection {
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private final DataInputStream input;
+    private final OutputStream output;
+    private final ByteBuffer readBuffer;
+    private final ByteBuffer writeBuffer;
+
+    public FrameConnection(InputStream input, OutputStream output) {
+        this.input = new DataInputStream(input);
+        this.output = output;
+        this.readBuffer = ByteBuffer.allocate(BinaryProtocol.MAX_FRAME_SIZE);
+        this.writeBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+    }
+
+    /**
+     * @return buffer to write frames to with {@link BinaryProtocol}, sent on {@link #flush()}
+     */
+    public ByteBuffer getOutput() {
+        return writeBuffer;
+    }
+
+    /**
+     * Send all frames written to {@link #getOutput()}.
+     *
+     * @throws IOException if the frames could not be sent
+     */
+    public void flush() throws IOException {
+        if (writeBuffer.position() > 0) {
+            output.write(writeBuffer.array(), 0, writeBuffer.position());
+            output.flush();
+            writeBuffer.clear();
+        }
+    }
+
+    /**
+     * Wait for the next frame.
+     *
+     * @param frame to put what was read in
+     * @throws IOException if the connection is closed or broken, or a {@link ProtocolException} if the frame can not
+     *                     be read
+     */
+    public void read(Frame frame) throws IOException {
+        int length = input.readUnsignedShort();
+        if (length > BinaryProtocol.MAX_FRAME_SIZE - 2) {
+            throw new ProtocolException("Frame of " + length + " bytes is too long");
+        }
+        readBuffer.clear();
+        readBuffer.putShort((short) length);
+        input.readFully(readBuffer.array(), 2, length);
+        readBuffer.position(0);
+        readBuffer.limit(2 + length);
+        BinaryProtocol.read(readBuffer, frame);
+    }
+}
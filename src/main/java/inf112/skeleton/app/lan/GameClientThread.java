@@ -5,128 +5,162 @@ import inf112.skeleton.app.cards.ProgramCard;
 import inf112.skeleton.app.enums.Messages;
 import inf112.skeleton.app.objects.player.Player;
 import inf112.skeleton.app.screens.menuscreen.MenuScreenActors;
+import inf112.skeleton.app.server.DedicatedServer;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
 import java.net.Socket;
+import java.util.ArrayList;
 import java.util.Stack;
 import java.util.concurrent.Semaphore;
 
 /**
- * Own thread for a client so client can get continous updates from server.
+ * Own thread for a client so client can get continous updates from server. Frames are sent and received with
+ * the {@link BinaryProtocol}.
+ *
+ * The server is a {@link GameServer} hosted by another player, or a {@link DedicatedServer} if the client has
+ * made or joined a room with {@link #createRoom(String)} or {@link #joinRoom(String)} before the thread is started.
  */
 public class GameClientThread extends Thread {
 
+    /**
+     * How long to wait for the server to answer when making or joining a room.
+     */
+    public static final int HANDSHAKE_TIMEOUT_MILLIS = 5000;
+
     private final Socket clientSideSocket;
     private int myPlayerNumber;
-    private PrintWriter writer;
-    private BufferedReader reader;
+    private FrameConnection connection;
     private final RallyGame game;
-    private final Converter converter;
     private final Semaphore continueListening;
     private Stack<ProgramCard> stack;
-    private boolean receivingDeck;
-
+    private boolean playingInRoom;
+    /**
+     * Round of the last hand dealt by the room, sent with the program selected from it.
+     */
+    private volatile int round;
 
     @SuppressWarnings("ResultOfMethodCallIgnored")
     public GameClientThread(RallyGame game, Socket clientSideSocket) {
         this.clientSideSocket = clientSideSocket;
         this.game = game;
-        this.converter = new Converter();
         this.continueListening = new Semaphore(1);
         continueListening.tryAcquire();
         try {
-            this.writer = new PrintWriter(clientSideSocket.getOutputStream(), true);
-            this.reader = new BufferedReader(new InputStreamReader(clientSideSocket.getInputStream()));
+            this.connection = new FrameConnection(clientSideSocket.getInputStream(), clientSideSocket.getOutputStream());
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
     /**
-     * Listen for messages from server. If no messages match, it is a {@link ProgramCard} and should
-     * be added to the player is belongs to (it is discarded if it is yours, since you have selected cards)
-     *
+     * Listen for frames from server until the connection is closed. Programs of other players are given to the
+     * players they belong to (your own is discarded, since you have selected cards).
      */
     @Override
     public void run() {
-
-        while (true) {
-            String message = getMessage();
-            if (message == null) {
-                break;
-            }
-            if (message.equals(Messages.STOP_THREAD.toString())) {
-                return;
-            }
-            if (message.equals(Messages.HOST_LEAVES.toString())) {
-                printMessageFinishTurnAndCloseSocket();
-                return;
-            }
-            if (message.equals(Messages.CONTINUE_TURN.toString())) {
-                game.continueTurn();
-                waitForTurnToFinish();
-            }
-            else if (message.equals(Messages.START_TURN.toString())) {
-                game.startTurn();
-                waitForTurnToFinish();
+        Frame frame = new Frame();
+        while (readFrame(frame)) {
+            int opcode = frame.getOpcode();
+            if (opcode == BinaryProtocol.MESSAGE) {
+                Messages message = frame.getMessage();
+                if (message == Messages.HOST_LEAVES) {
+                    printMessageFinishTurnAndCloseSocket();
+                    return;
+                }
+                if (message == Messages.CONTINUE_TURN) {
+                    game.continueTurn();
+                    waitForTurnToFinish();
+                } else if (message == Messages.START_TURN) {
+                    if (playingInRoom) {
+                        game.endCardSelection();
+                    }
+                    game.startTurn();
+                    waitForTurnToFinish();
+                }
             }
-            else if (message.contains(Messages.HERE_IS_MAP.toString())){
-                giveMapToGameAndTellMapIsReceived(message);
+            else if (opcode == BinaryProtocol.MAP) {
+                giveMapToGameAndTellMapIsReceived(frame.getText());
             }
-            else if (message.equals(Messages.DECK_BEGIN.toString())) {
-                createNewDeckAndWaitForCardsForThisDeck();
+            else if (opcode == BinaryProtocol.PROGRAM) {
+                receiveProgram(frame.getProgram());
             }
-            else if (message.equals(Messages.DECK_END.toString())){
+            else if (opcode == BinaryProtocol.DECK) {
+                this.stack = frame.getDeck().getDeck();
                 giveDeckToGameAndTellStartValuesAreReceived();
             }
-            else if (message.contains(Messages.YOUR_NUMBER.toString())) {
-                myPlayerNumber = converter.getMyPlayerNumber(message);
+            else if (opcode == BinaryProtocol.PLAYER_NUMBER) {
+                myPlayerNumber = frame.getPlayerNumber();
                 game.setPlayerNumber(myPlayerNumber);
             }
-            else if (message.contains(Messages.PLAYERS.toString())) {
-                game.setNumberOfPlayers(converter.getNumbersOfPlayers(message));
+            else if (opcode == BinaryProtocol.SEED) {
+                game.setSeed(frame.getNumber());
+                // Rooms deal the cards, so there is no deck to wait for
+                if (playingInRoom) {
+                    tellStartValuesAreReceived();
+                }
+            }
+            else if (opcode == BinaryProtocol.HAND) {
+                this.round = frame.getRound();
+                game.receiveHand(frame.getCards());
             }
-            else if (receivingDeck) {
-                addReceivedCardToDeck(message);
+            else if (opcode == BinaryProtocol.PLAYERS) {
+                game.setNumberOfPlayers((int) frame.getNumber());
             }
-            else if (converter.isMessageFromAnotherPlayer(message)) {
-                int playerNumber = converter.getPlayerNumberFromMessage(message);
+            else if (opcode == BinaryProtocol.PLAYER_MESSAGE) {
+                int playerNumber = frame.getPlayerNumber();
                 Player player = game.getBoard().getPlayer(playerNumber);
-                String messageFromPlayer = converter.getMessageFromPlayer(message);
-                if (messageFromPlayer.equals(Messages.QUIT.toString())) {
+                Messages messageFromPlayer = frame.getMessage();
+                if (messageFromPlayer == Messages.QUIT) {
                     printMessageFinishTurnAndCloseSocket(playerNumber);
                     return;
                 }
-                if (messageFromPlayer.equals(Messages.POWERING_DOWN.toString())) {
+                if (messageFromPlayer == Messages.WINNER) {
+                    System.out.println("Player " + playerNumber + " won.");
+                }
+                else if (messageFromPlayer == Messages.POWERING_DOWN) {
                     player.setPoweringDown(true);
                     game.displayPlayersPoweringDown();
                 }
-                else if (messageFromPlayer.equals(Messages.POWER_UP.toString())) {
+                else if (messageFromPlayer == Messages.POWER_UP) {
                     player.setPoweredDown(false);
                     game.removePoweredDownPlayer(player);
                 }
-                else {
-                    try {
-                        ProgramCard card = converter.convertToCard(messageFromPlayer);
-                        // Your player have already selected cards
-                        if (myPlayerNumber != playerNumber) {
-                            player.addSelectedCard(card);
-                        }
-                    } catch (NotProgramCardException e) {
-                        e.printStackTrace();
-                    }
-                }
             }
         }
-
     }
 
-    private void createNewDeckAndWaitForCardsForThisDeck() {
-        this.stack = new Stack<>();
-        this.receivingDeck = true;
+    /**
+     * Give another player the cards of its program, and show if it is powering down. The server sends the programs
+     * of all players before the turn starts.
+     *
+     * In a room the turn is played with the programs the room has, so they are given to every player, also your
+     * own. If time ran out your program may not have been received, and cards can not be selected any more.
+     *
+     * @param program of a player
+     */
+    public void receiveProgram(Program program) {
+        Player player = game.getBoard().getPlayer(program.getPlayerNumber());
+        if (playingInRoom) {
+            if (program.getPlayerNumber() == myPlayerNumber) {
+                game.endCardSelection();
+            }
+            player.setPoweringDown(program.isPoweringDown());
+            player.setProgram(program.getCards());
+            if (program.isPoweringDown()) {
+                game.displayPlayersPoweringDown();
+            }
+            return;
+        }
+        if (program.isPoweringDown()) {
+            player.setPoweringDown(true);
+            game.displayPlayersPoweringDown();
+        }
+        // Your player have already selected cards
+        if (program.getPlayerNumber() != myPlayerNumber) {
+            for (ProgramCard card : program.getCards()) {
+                player.addSelectedCard(card);
+            }
+        }
     }
 
     /**
@@ -134,35 +168,80 @@ public class GameClientThread extends Thread {
      * so that we can receive the mapPath.
      */
     public void giveDeckToGameAndTellStartValuesAreReceived() {
-        this.receivingDeck = false;
         game.setDeck(this.stack);
         System.out.println("Received deck.");
+        tellStartValuesAreReceived();
+    }
+
+    private void tellStartValuesAreReceived() {
         if (game.getMenuScreenActors() != null) {
             game.getMenuScreenActors().haveReceivedStartValues();
         }
     }
 
     /**
-     * Get the card from the message using {@link Converter#convertToCard(String)} and add it to Deck
+     * Make a new room playing the map on a {@link DedicatedServer}.
      *
-     * @param message to interpret
+     * @param mapPath of the map to play
+     * @return code of the room, null if the server does not have the map
+     * @throws IOException if the server does not answer
      */
-    public void addReceivedCardToDeck(String message) {
+    public String createRoom(String mapPath) throws IOException {
+        BinaryProtocol.writeCreateRoom(connection.getOutput(), mapPath);
+        connection.flush();
+        return readRoomCode();
+    }
+
+    /**
+     * Join a room on a {@link DedicatedServer}.
+     *
+     * @param roomCode of the room, in any case
+     * @return code of the room, null if there is no such room or it is full
+     * @throws IOException if the server does not answer
+     */
+    public String joinRoom(String roomCode) throws IOException {
+        BinaryProtocol.writeJoin(connection.getOutput(), roomCode);
+        connection.flush();
+        return readRoomCode();
+    }
+
+    /**
+     * Read the answer of the server to {@link #createRoom(String)} or {@link #joinRoom(String)}.
+     *
+     * @return code of the room, null if the server sent why the room could not be made or joined
+     */
+    private String readRoomCode() throws IOException {
+        Frame frame = new Frame();
+        clientSideSocket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
         try {
-            ProgramCard card = converter.convertToCard(message);
-            this.stack.add(card);
-        } catch (NotProgramCardException e) {
-            e.printStackTrace();
+            connection.read(frame);
+        } finally {
+            clientSideSocket.setSoTimeout(0);
+        }
+        if (frame.getOpcode() == BinaryProtocol.ROOM) {
+            this.playingInRoom = true;
+            return frame.getText();
+        }
+        if (frame.getOpcode() == BinaryProtocol.MESSAGE) {
+            System.out.println(frame.getMessage());
         }
+        return null;
+    }
+
+    /**
+     * @return true if the server is a room on a {@link DedicatedServer}
+     */
+    public boolean isPlayingInRoom() {
+        return playingInRoom;
     }
 
     /**
      * When mapPath is received we can release {@link MenuScreenActors#haveReceivedMapPath()} and game can begin.
      *
-     * @param message from server
+     * @param mapPath from server
      */
-    public void giveMapToGameAndTellMapIsReceived(String message) {
-        game.setMapPath(converter.getMapPath(message));
+    public void giveMapToGameAndTellMapIsReceived(String mapPath) {
+        game.setMapPath(mapPath);
         System.out.println("Got map");
         game.getMenuScreenActors().haveReceivedMapPath();
     }
@@ -206,12 +285,13 @@ public class GameClientThread extends Thread {
     }
 
     /**
-     *
-     * @return message from this socket. Close socket if error.
+     * @param frame to read the next frame from server into
+     * @return true if a frame was read. Close socket if error.
      */
-    public String getMessage() {
+    private boolean readFrame(Frame frame) {
         try {
-            return reader.readLine();
+            connection.read(frame);
+            return true;
         } catch (IOException e) {
             try {
                 // Close socket if exception
@@ -220,19 +300,46 @@ public class GameClientThread extends Thread {
                 ex.printStackTrace();
             }
         }
-        return null;
+        return false;
     }
 
-    public void setReader(BufferedReader reader) {
-        this.reader = reader;
+    /**
+     * Send a message to server, like {@link Messages#START_TURN} to start the game in a room.
+     * @param message message to be sent
+     */
+    public synchronized void sendMessage(Messages message) {
+        BinaryProtocol.writeMessage(connection.getOutput(), message);
+        flush();
     }
 
     /**
-     * Send a message to server.
+     * Send a message from a player to server.
+     * @param playerNumber of player sending the message
      * @param message message to be sent
      */
-    public void sendMessage(String message) {
-        writer.println(message);
+    public synchronized void sendMessage(int playerNumber, Messages message) {
+        BinaryProtocol.writePlayerMessage(connection.getOutput(), playerNumber, message);
+        flush();
+    }
+
+    /**
+     * Send the selected cards of the player, and if the player is powering down, to server.
+     * @param player sending its program
+     */
+    public synchronized void sendProgram(Player player) {
+        // Powered down players have no cards
+        ArrayList<ProgramCard> cards = player.isPoweredDown() ? new ArrayList<>() : player.getRegisters().getCards();
+        BinaryProtocol.writeProgram(connection.getOutput(), player.getPlayerNumber(), round, player.isPoweringDown(),
+                cards);
+        flush();
+    }
+
+    private void flush() {
+        try {
+            connection.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 
     /**
@@ -6,132 +6,107 @@ import inf112.skeleton.app.cards.ProgramCard;
 import inf112.skeleton.app.enums.Messages;
 import inf112.skeleton.app.objects.player.Player;
 
-import java.io.*;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.net.SocketException;
-import java.util.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 
 /**
- * A server for handling connection between players.
+ * <p>
+ * A server for handling connection between players, hosted by the game of player 1.
+ * </p>
+ *
+ * <p>
+ * Clients are served by a {@link NioGameServer}, so all frames from clients are handled one at a time on its game
+ * thread. While a turn is played the game thread waits for the game to call {@link #continueAll()}, so what clients
+ * send during the turn is handled after it. Frames are sent from the game thread and from the game, so all sending
+ * is synchronized.
+ * </p>
  */
-public class GameServer {
+public class GameServer implements ConnectionListener {
 
-    private final ArrayList<GameServerThreads> clients;
+    /**
+     * Most clients, the host is the eighth player.
+     */
+    public static final int MAX_CLIENTS = 7;
+
+    private final ArrayList<NioConnection> clients;
     private final RallyGame game;
-    private final Converter converter;
-    private boolean allClientsHaveSelectedCardsOrIsPoweredDown;
+    private final NioGameServer server;
+    private volatile boolean allClientsHaveSelectedCardsOrIsPoweredDown;
     private Deck deck;
-    private boolean serverHasConfirmed;
-    private ServerSocket serverSocket;
-    private boolean allPoweredDownClientsHaveConfirmed;
+    private long deckSeed;
+    private ArrayList<ProgramCard> lockedCards;
+    private volatile boolean serverHasConfirmed;
+    private volatile boolean allPoweredDownClientsHaveConfirmed;
     private boolean connectingToClients;
-    private int waitForNextConnectionMilliSeconds;
     private String mapPath;
     private int connectedClients;
+    private final Random random;
+    private final Semaphore continueListening;
 
     public GameServer(RallyGame game) {
         this.clients = new ArrayList<>();
         this.game = game;
-        this.converter = new Converter();
-        this.deck = new Deck();
-        deck.shuffleDeck();
-        game.setDeck(deck.getDeck());
+        this.server = new NioGameServer(this);
+        this.random = new Random(game.getSeed());
+        this.continueListening = new Semaphore(0);
+        makeDeck(new ArrayList<>());
         this.connectingToClients = true;
     }
 
     /**
-     * Set the socket for incoming connections.
+     * Start listening for clients.
      *
-     * @param serverSocket socket for server
+     * @param portNumber to listen on, 0 for any free port
+     * @throws IOException if the port can not be used
      */
-    public void setServerSocket(ServerSocket serverSocket) {
-        this.serverSocket = serverSocket;
+    public void start(int portNumber) throws IOException {
+        server.bind(portNumber);
+        server.start();
     }
 
-    /**
-     * Create a server socket using given port number
-     *
-     * @param portNumber port number for server socket
-     */
-    public void createServerSocket(int portNumber) {
-        try {
-            this.serverSocket = new ServerSocket(portNumber);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    public int getPortNumber() {
+        return server.getPortNumber();
     }
 
     /**
-     *
-     * @return number of clients connected to server
+     * Close all connections and stop the server.
      */
-    public int getNumberOfConnectedClients() {
-        return connectedClients;
+    public void stop() {
+        // Do not leave the game thread waiting for a turn that is not played
+        continueListening.release();
+        server.stop();
     }
 
     /**
-     * Establish a connection waiting for clients to connect. Create a new thread for each client.
-     * If no serverSocket is made by {@link #setServerSocket(ServerSocket)} or {@link #createServerSocket(int)} then
-     * a default serversocket will be made on port 9000. Close socket after connection.
      *
-     * @param maxNumberOfClients how many clients allowed to connect before closing welcoming socket
+     * @return number of clients connected to server
      */
-    public void connect(int maxNumberOfClients) {
-        try {
-            if (this.serverSocket == null) {
-                createServerSocket(9000);
-            }
-            System.out.println("connecting");
-            connectedClients = 0;
-            while (connectingToClients) {
-                if (connectedClients >= maxNumberOfClients) {
-                    break;
-                }
-                try {
-                    Socket socket = serverSocket.accept();
-                    createThreadForCommunicatingWithClientAndSendStartValues(connectedClients, socket);
-                    connectedClients++;
-                    if (waitForNextConnectionMilliSeconds != 0) {
-                        waitForNextConnection(waitForNextConnectionMilliSeconds);
-                    }
-                } catch (SocketException error) {
-                    System.out.println("Closed connection.");
-                }
-            }
-            /*
-            if (connectedClients == 0) {
-                System.out.println("Stopping host");
-                return;
-            }
-            */
-            int numberOfPlayers = getNumberOfConnectedClients() + 1;
-            game.setNumberOfPlayers(numberOfPlayers);
-            System.out.println("Connected! :D");
-            sendToAll(converter.createNumberOfPlayersMessage(numberOfPlayers));
-            if (mapPath!=null) {
-                sendToAll(converter.createMapPathMessage(mapPath));
-            }
-            serverSocket.close();
-
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    public synchronized int getNumberOfConnectedClients() {
+        return clients.size();
     }
 
     /**
-     * Create a new thread {@link GameServerThreads} for communicating with the connected client.
-     * Send player number and deck using {@link #sendPlayerNumberAndDeck(GameServerThreads, int, Deck)}
+     * Give the client the next player number and send it the start values with
+     * {@link #sendPlayerNumberAndDeck(NioConnection, int)}. Clients connecting after {@link #MAX_CLIENTS} clients,
+     * or after the game has started, are closed.
      *
-     * @param connected number of connected clients at this point in time
-     * @param socket socket for communicating with client
+     * @param connection of the new client
      */
-    public void createThreadForCommunicatingWithClientAndSendStartValues(int connected, Socket socket) {
-        int playerNumber = getNewPlayerNumber(connected);
-        GameServerThreads client = new GameServerThreads(this, game, socket, playerNumber);
-        client.start();
-        sendPlayerNumberAndDeck(client, playerNumber, this.deck);
-        clients.add(client);
+    @Override
+    public synchronized void connected(NioConnection connection) {
+        if (!connectingToClients || connectedClients >= MAX_CLIENTS) {
+            connection.close();
+            return;
+        }
+        int playerNumber = getNewPlayerNumber(connectedClients);
+        connectedClients++;
+        connection.setAttachment(playerNumber);
+        clients.add(connection);
+        sendPlayerNumberAndDeck(connection, playerNumber);
     }
 
     /**
@@ -147,138 +122,309 @@ public class GameServer {
     }
 
     /**
-     * Open serversocket to wait for maximum 7 clients to connect. Uses {@link #connect(int)}
+     * Receive a frame from a client. A {@link Program} gives the player all its cards at once.
+     *
+     * When all clients have sent their cards, the server will wait until the host confirm its cards before
+     * sending cards to the clients and start the turn. If a client is the last one to confirm its cards, then
+     * {@link #allPlayersHaveSelectedCardsOrInPowerDown()} will be true and server will send all cards to players
+     * and tell them to start the turn.
+     *
+     * @param connection the frame came from
+     * @param frame      that was received
      */
-    public void connect() {
-        connect(7);
+    @Override
+    public synchronized void received(NioConnection connection, Frame frame) {
+        if (!clients.contains(connection)) {
+            return;
+        }
+        // Frames are from the player of the connection, whatever player number they have
+        Player player = game.getBoard().getPlayer((Integer) connection.getAttachment());
+        if (frame.getOpcode() == BinaryProtocol.PLAYER_MESSAGE) {
+            receiveMessage(player, frame.getMessage());
+        } else if (frame.getOpcode() == BinaryProtocol.PROGRAM) {
+            receiveProgram(player, frame.getProgram());
+        }
     }
 
     /**
-     * @param client to send to
+     * @param connection that was closed
      */
-    public void sendPlayerNumberAndDeck(GameServerThreads client, int playerNumber, Deck deck) {
-        client.sendMessage(converter.createPlayerNumberMessage(playerNumber));
-        sendDeck(client, deck);
+    @Override
+    public synchronized void disconnected(NioConnection connection) {
+        clients.remove(connection);
+    }
+
+    private void receiveMessage(Player player, Messages message) {
+        if (message == Messages.QUIT) {
+            endConnectionWithPlayerAndTellOtherPlayersThatThisPlayerLeft(player);
+            game.quitPlaying();
+        } else if (message == Messages.POWERING_DOWN) {
+            player.setPoweringDown(true);
+            sendToAllExcept(player, message);
+            game.displayPlayersPoweringDown();
+        } else if (message == Messages.CONTINUE_POWER_DOWN) {
+            player.setConfirmedPowerUpOrContinuePowerDown(true);
+            continueTurnIfAllPoweredDownClientsHaveConfirmed();
+        } else if (message == Messages.POWER_UP) {
+            player.setPoweredDown(false);
+            player.setConfirmedPowerUpOrContinuePowerDown(true);
+            game.removePoweredDownPlayer(player);
+            sendToAllExcept(player, message);
+            continueTurnIfAllPoweredDownClientsHaveConfirmed();
+        }
     }
 
     /**
-     * Create a new deck, but remove the locked cards.
-     * Update deck in {@link RallyGame} and send this deck to the other players.
+     * Give the player the cards of the program, and set the player powering down if the program says so.
      *
-     * The player hosting the game gives all of the players locked cards.
+     * @param player  the program is from
+     * @param program received from the client
      */
-    public void createAndSendDeckToAll(ArrayList<ProgramCard> lockedCards) {
-        this.deck = new Deck();
-        deck.removeCards(lockedCards);
-        deck.shuffleDeck();
-        game.setDeck(deck.getDeck());
-        sendDeckToAll(deck);
+    private void receiveProgram(Player player, Program program) {
+        if (program.isPoweringDown()) {
+            player.setPoweringDown(true);
+            game.displayPlayersPoweringDown();
+        }
+        for (ProgramCard card : program.getCards()) {
+            player.addSelectedCard(card);
+        }
+        startTurnIfAllPlayersHaveSelectedCards();
     }
 
     /**
-     * Send a message to all connecting clients.
-     * @param message to send
+     * Send all programs and start the turn if every player, the host included, has selected cards.
      */
-    public void sendToAll(String message) {
-        for (GameServerThreads thread : clients) {
-            thread.sendMessage(message);
+    private void startTurnIfAllPlayersHaveSelectedCards() {
+        if (allPlayersHaveSelectedCardsOrInPowerDown() && serverHasConfirmed()) {
+            System.out.println("Server has confirmed");
+            sendSelectedCardsToAll();
+            setServerHasConfirmed(false);
+            startTurn();
+        }
+        if (allClientsHaveSelectedCardsOrInPowerDown()) {
+            setAllClientsHaveSelectedCardsOrIsPoweredDown(true);
+        }
+    }
+
+    private void continueTurnIfAllPoweredDownClientsHaveConfirmed() {
+        if (poweredDownClientsHaveConfirmed()) {
+            if (serverHasConfirmed()) {
+                setAllPoweredDownClientsHaveConfirmed(false);
+                setServerHasConfirmed(false);
+                continueTurn();
+            } else {
+                setAllPoweredDownClientsHaveConfirmed(true);
+            }
         }
     }
 
     /**
-     * Send a message to all clients except player specified.
-     * @param player player not to send message to
-     * @param message to send
+     * Tell all clients to start the turn and start it with {@link RallyGame#startTurn()}.
      */
-    public void sendToAllExcept(Player player, String message) {
-        for (GameServerThreads thread : clients) {
-            if (thread.getPlayerNumber() != player.getPlayerNumber()) {
-                thread.sendMessage(message);
+    public synchronized void startTurn() {
+        sendToAll(Messages.START_TURN);
+        game.startTurn();
+        waitForTurnToFinish();
+    }
+
+    /**
+     * Tell all clients to continue the turn when players have confirmed power up or power down, and continue it
+     * with {@link RallyGame#continueTurn()}.
+     */
+    public synchronized void continueTurn() {
+        sendToAll(Messages.CONTINUE_TURN);
+        game.continueTurn();
+        waitForTurnToFinish();
+    }
+
+    /**
+     * Make the game thread wait for {@link #continueAll()} after the frames already received.
+     */
+    private void waitForTurnToFinish() {
+        server.execute(() -> {
+            try {
+                continueListening.acquire();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
             }
-        }
+        });
     }
 
     /**
-     * Disconnect this player from the server and close socket.
-     * @param playerNumber to disconnect
+     * Let the game thread handle frames again, after playing cards.
      */
-    public void disconnect(int playerNumber) {
-        for (GameServerThreads thread : clients) {
-            if (thread.getPlayerNumber() == playerNumber) {
-                thread.close();
+    public void continueAll() {
+        continueListening.release();
+    }
+
+    /**
+     *
+     * @param player to end connection with
+     */
+    private void endConnectionWithPlayerAndTellOtherPlayersThatThisPlayerLeft(Player player) {
+        sendToAllExcept(player, Messages.QUIT);
+        System.out.println("Player " + player.getPlayerNumber() + " is leaving...");
+        disconnect(player.getPlayerNumber());
+        remove(player.getPlayerNumber());
+    }
+
+    /**
+     *
+     * @return true if all clients have selected cards or in power down. Server has playernr 1
+     */
+    public boolean allClientsHaveSelectedCardsOrInPowerDown() {
+        for (Player player : game.getBoard().getPlayers()) {
+            if (player.getPlayerNumber() != 1 && (player.getRegisters().hasRegistersWithoutCard() && !player.isPoweredDown())) {
+                return false;
             }
         }
+        return true;
     }
 
     /**
-     * Remove a client from the list.
-     * @param playerNumber number of player to remove.
+     *
+     * @return true if all players have selected their cards.
      */
-    public void remove(int playerNumber) {
-        GameServerThreads playerToRemove = null;
-        for (GameServerThreads thread : clients) {
-            if (thread.getPlayerNumber() == playerNumber) {
-                playerToRemove = thread;
+    public boolean allPlayersHaveSelectedCardsOrInPowerDown() {
+        for (Player player : game.getBoard().getPlayers()) {
+            if (player.getRegisters().hasRegistersWithoutCard() && !player.isPoweredDown()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean poweredDownClientsHaveConfirmed() {
+        for (Player player : game.getPoweredDownRobots()) {
+            if (player.getPlayerNumber() != 1 && player.hasConfirmedPowerUpOrContinuePowerDown()) {
+                return false;
             }
         }
-        clients.remove(playerToRemove);
+        return true;
     }
 
     /**
-     * Disconnect all players from server.
+     * Send player number, the seed of the game and the deck.
+     *
+     * @param client       to send to
+     * @param playerNumber of the client
      */
-    public void disconnectAll() {
-        for (GameServerThreads thread : clients) {
-            disconnect(thread.getPlayerNumber());
-        }
+    public synchronized void sendPlayerNumberAndDeck(NioConnection client, int playerNumber) {
+        BinaryProtocol.writePlayerNumber(client.getOutput(), playerNumber);
+        BinaryProtocol.writeSeed(client.getOutput(), game.getSeed());
+        BinaryProtocol.writeDeck(client.getOutput(), deckSeed, lockedCards);
+        client.flush();
     }
 
     /**
-     * Send program to all clients.
+     * Create a new deck, but remove the locked cards.
+     * Update deck in {@link RallyGame} and send this deck to the other players.
+     *
+     * The player hosting the game gives all of the players locked cards.
      */
-    public void sendSelectedCardsToAll() {
-        for (GameServerThreads client : clients) {
-            for (Player player : game.getBoard().getPlayers()) {
-                client.sendSelectedCards(player);
+    public synchronized void createAndSendDeckToAll(ArrayList<ProgramCard> lockedCards) {
+        makeDeck(lockedCards);
+        sendDeckToAll();
+    }
+
+    /**
+     * Make a deck from a new seed without the locked cards, see {@link Deck#fromSeed(long, ArrayList)},
+     * and give it to the game.
+     *
+     * @param lockedCards to remove from the deck
+     */
+    private void makeDeck(ArrayList<ProgramCard> lockedCards) {
+        this.deckSeed = random.nextLong();
+        this.lockedCards = new ArrayList<>(lockedCards);
+        this.deck = Deck.fromSeed(deckSeed, this.lockedCards);
+        game.setDeck(deck.getDeck());
+    }
+
+    /**
+     * Send deck to all players as the seed and the locked cards of the deck, so the clients can make the same deck.
+     */
+    public synchronized void sendDeckToAll() {
+        sendToAll(out -> BinaryProtocol.writeDeck(out, deckSeed, lockedCards));
+    }
+
+    /**
+     * Send a message to all connecting clients.
+     * @param message to send
+     */
+    public synchronized void sendToAll(Messages message) {
+        sendToAll(out -> BinaryProtocol.writeMessage(out, message));
+    }
+
+    /**
+     * Send a message from a player to all clients.
+     * @param player  the message is from
+     * @param message to send
+     */
+    public synchronized void sendToAll(Player player, Messages message) {
+        sendToAll(out -> BinaryProtocol.writePlayerMessage(out, player.getPlayerNumber(), message));
+    }
+
+    /**
+     * Send a message from a player to all clients except that player.
+     * @param player player the message is from, and not to send message to
+     * @param message to send
+     */
+    public synchronized void sendToAllExcept(Player player, Messages message) {
+        for (NioConnection client : clients) {
+            if ((Integer) client.getAttachment() != player.getPlayerNumber()) {
+                BinaryProtocol.writePlayerMessage(client.getOutput(), player.getPlayerNumber(), message);
+                client.flush();
             }
         }
     }
 
     /**
-     * Let all serverthreads continue loop
+     * Send the programs of all players to all clients, one {@link BinaryProtocol#PROGRAM} frame each.
+     * Players in power down do not send out their cards.
      */
-    public void continueAll() {
-        for (GameServerThreads client : clients) {
-            client.continueListening();
+    public synchronized void sendSelectedCardsToAll() {
+        ArrayList<Program> programs = new ArrayList<>();
+        for (Player player : game.getBoard().getPlayers()) {
+            ArrayList<ProgramCard> cards = player.isPoweredDown() ? new ArrayList<>() : player.getRegisters().getCards();
+            programs.add(new Program(player.getPlayerNumber(), player.isPoweringDown(), cards));
         }
+        sendToAll(out -> {
+            for (Program program : programs) {
+                BinaryProtocol.writeProgram(out, program.getPlayerNumber(), program.isPoweringDown(), program.getCards());
+            }
+        });
     }
 
     /**
-     * Send deck to client
-     * @param client to send to
-     * @param deck to send
+     * @param writer writes the frames to send to an output
      */
-    public void sendDeck(GameServerThreads client, Deck deck) {
-        Stack<ProgramCard> stack = deck.getDeck();
-        Iterator<ProgramCard> iter = stack.iterator();
-        client.sendMessage(Messages.DECK_BEGIN.toString());
-        while (iter.hasNext()) {
-            ProgramCard card = iter.next();
-            client.sendMessage(converter.convertToString(card));
+    private void sendToAll(Consumer<ByteBuffer> writer) {
+        for (NioConnection client : clients) {
+            writer.accept(client.getOutput());
+            client.flush();
         }
-        client.sendMessage(Messages.DECK_END.toString());
     }
 
     /**
-     * Send deck to all players.
-     * @param deck to send
+     * Disconnect this player from the server and close socket.
+     * @param playerNumber to disconnect
      */
-    public void sendDeckToAll(Deck deck) {
-        for (GameServerThreads client : clients) {
-            sendDeck(client, deck);
+    public synchronized void disconnect(int playerNumber) {
+        for (NioConnection client : clients) {
+            if ((Integer) client.getAttachment() == playerNumber) {
+                client.close();
+            }
         }
     }
 
+    /**
+     * Remove a client from the list.
+     * @param playerNumber number of player to remove.
+     */
+    public synchronized void remove(int playerNumber) {
+        clients.removeIf(client -> (Integer) client.getAttachment() == playerNumber);
+    }
+
     /**
      * Tell if all clients have selected their cards or not.
      * @param allClientsHaveSelectedCardsOrIsPoweredDown true if all have selected cards
@@ -291,7 +437,7 @@ public class GameServer {
      *
      * @return true if all clients have selected cards
      */
-    public boolean allClientsHaveSelectedCardsOrIsPoweredDown() {
+    public synchronized boolean allClientsHaveSelectedCardsOrIsPoweredDown() {
         return allClientsHaveSelectedCardsOrIsPoweredDown || clients.isEmpty();
     }
 
@@ -303,10 +449,6 @@ public class GameServer {
         return serverHasConfirmed;
     }
 
-    public ArrayList<GameServerThreads> getClients() {
-        return clients;
-    }
-
     public Deck getDeck() {
         return deck;
     }
@@ -320,57 +462,20 @@ public class GameServer {
     }
 
     /**
-     * Stop while loop
-     * @param connectingToClients value to update variable with
-     */
-    public void setConnectingToClients(boolean connectingToClients) {
-        this.connectingToClients = connectingToClients;
-    }
-
-    /**
-     * Stop while loop with {@link #setConnectingToClients(boolean)} and close socket.
+     * Stop taking new clients, give the game the number of players and send it and the map to all clients.
+     * Clients connecting later are closed.
      */
-    public void stopConnectingToClients() {
-        setConnectingToClients(false);
-        try {
-            serverSocket.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
-    /***
-     *
-     * @param milliseconds time before connection is ended
-     */
-    public void setConnectingToClientsTimeout(int milliseconds) {
-        try {
-            Thread.sleep(milliseconds);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-        stopConnectingToClients();
-    }
-
-    /***
-     * Make the socket wait before listening for new client.
-     *
-     * @param milliseconds to wait before listening
-     */
-    public void setWaitBetweenEachConnection(int milliseconds) {
-        this.waitForNextConnectionMilliSeconds = milliseconds;
-    }
-
-    /**
-     * Wait given milliseconds before accepting new connection.
-     * @param milliseconds to wait for new connection
-     */
-    public void waitForNextConnection(int milliseconds) {
-        try {
-            Thread.sleep(milliseconds);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+    public synchronized void stopConnectingToClients() {
+        this.connectingToClients = false;
+        int numberOfPlayers = clients.size() + 1;
+        game.setNumberOfPlayers(numberOfPlayers);
+        System.out.println("Connected! :D");
+        sendToAll(out -> {
+            BinaryProtocol.writeNumberOfPlayers(out, numberOfPlayers);
+            if (mapPath != null) {
+                BinaryProtocol.writeMapPath(out, mapPath);
+            }
+        });
     }
 
     /**
@@ -378,7 +483,7 @@ public class GameServer {
      * Set map path in game.
      * @param mapPath path of current map
      */
-    public void setMapPath(String mapPath) {
+    public synchronized void setMapPath(String mapPath) {
         this.mapPath = mapPath;
         game.setMapPath(mapPath);
     }
@@ -0,0 +1,142 @@
+package inf112.skeleton.app.lan;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * <p>
+ * A client connected to a {@link NioGameServer}.
+ * </p>
+ *
+ * <p>
+ * Frames are written to {@link #getOutput()} by one thread at a time, usually the game thread, and handed to the
+ * server by {@link #flush()}. The server sends them when the socket can take them, so nobody waits for a slow client.
+ * </p>
+ */
+public class NioConnection {
+
+    /**
+     * Size of {@link #getOutput()}, room for all frames written between two flushes.
+     */
+    static final int OUTPUT_SIZE = 2048;
+    /**
+     * Most bytes flushed and not sent yet. A client that does not read is closed when more is waiting.
+     */
+    static final int MAX_OUTGOING_SIZE = 1 << 16;
+
+    private final int id;
+    private final SocketChannel channel;
+    private final NioGameServer server;
+    /**
+     * Only used by the selector thread. Holds at most one frame not all arrived yet, and the frames that have.
+     */
+    final ByteBuffer readBuffer;
+    /**
+     * Only used by the thread writing frames.
+     */
+    private final ByteBuffer output;
+    /**
+     * Flushed frames not sent yet, guarded by this connection. Grows if the client reads slower than the
+     * game sends, up to {@link #MAX_OUTGOING_SIZE}.
+     */
+    private ByteBuffer outgoing;
+    private Object attachment;
+
+    NioConnection(int id, SocketChannel channel, NioGameServer server) {
+        this.id = id;
+        this.channel = channel;
+        this.server = server;
+        this.readBuffer = ByteBuffer.allocate(BinaryProtocol.MAX_FRAME_SIZE);
+        this.output = ByteBuffer.allocate(OUTPUT_SIZE);
+        this.outgoing = ByteBuffer.allocate(OUTPUT_SIZE);
+    }
+
+    /**
+     * @return number given by the server, unique while the server runs
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return buffer to write frames to with {@link BinaryProtocol}, sent after {@link #flush()}
+     */
+    public ByteBuffer getOutput() {
+        return output;
+    }
+
+    /**
+     * Hand the frames written to {@link #getOutput()} to the server to send. A client that does not read what is
+     * sent to it is closed when too much is waiting.
+     */
+    public void flush() {
+        if (output.position() == 0) {
+            return;
+        }
+        output.flip();
+        boolean full = false;
+        synchronized (this) {
+            int waiting = outgoing.position() + output.remaining();
+            if (waiting > MAX_OUTGOING_SIZE) {
+                full = true;
+            } else {
+                if (waiting > outgoing.capacity()) {
+                    grow(Math.min(Integer.highestOneBit(waiting - 1) << 1, MAX_OUTGOING_SIZE));
+                }
+                outgoing.put(output);
+            }
+        }
+        output.clear();
+        if (full) {
+            close();
+        } else {
+            server.wantsToWrite(this);
+        }
+    }
+
+    private void grow(int capacity) {
+        ByteBuffer bigger = ByteBuffer.allocate(capacity);
+        outgoing.flip();
+        bigger.put(outgoing);
+        this.outgoing = bigger;
+    }
+
+    /**
+     * Send as much of the flushed frames as the socket takes. Called by the selector thread.
+     *
+     * @return true if everything was sent
+     * @throws IOException if the connection is broken
+     */
+    synchronized boolean send() throws IOException {
+        outgoing.flip();
+        try {
+            channel.write(outgoing);
+            return !outgoing.hasRemaining();
+        } finally {
+            outgoing.compact();
+        }
+    }
+
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * @return what was given to {@link #setAttachment(Object)}, for example the player of this connection
+     */
+    public Object getAttachment() {
+        return attachment;
+    }
+
+    public void setAttachment(Object attachment) {
+        this.attachment = attachment;
+    }
+
+    /**
+     * Close the connection. {@link ConnectionListener#disconnected(NioConnection)} is called when it is closed.
+     */
+    public void close() {
+        server.close(this);
+    }
+}
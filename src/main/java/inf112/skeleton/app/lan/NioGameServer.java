@@ -0,0 +1,267 @@
+package inf112.skeleton.app.lan;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <p>
+ * A server sending {@link BinaryProtocol} frames to and from many clients with two threads, whatever the number
+ * of clients.
+ * </p>
+ *
+ * <p>
+ * The selector thread accepts connections, reads what has arrived and sends what has been flushed, without ever
+ * waiting on one client. Whole frames are read by the selector thread into frames taken from a pool, and handed to
+ * the game thread, which calls the {@link ConnectionListener} one frame at a time and gives the frame back. Game logic
+ * runs only on the game thread, see {@link #execute(Runnable)}.
+ * </p>
+ */
+public class NioGameServer {
+
+    /**
+     * Frames kept for reuse. More frames are made if the game thread falls behind, and dropped when given back.
+     */
+    private static final int POOLED_FRAMES = 64;
+
+    /**
+     * A frame read by the selector thread, waiting to be given to the listener on the game thread.
+     */
+    private class ReceivedFrame implements Runnable {
+
+        private final Frame frame = new Frame();
+        private NioConnection connection;
+
+        @Override
+        public void run() {
+            try {
+                if (connection.getChannel().isOpen()) {
+                    listener.received(connection, frame);
+                }
+            } catch (RuntimeException e) {
+                // Keep the game thread for the other tasks
+                e.printStackTrace();
+            } finally {
+                this.connection = null;
+                receivedFrames.offer(this);
+            }
+        }
+    }
+
+    private final ConnectionListener listener;
+    private final ExecutorService gameThread;
+    private final BlockingQueue<ReceivedFrame> receivedFrames;
+    private final Queue<NioConnection> connectionsToWrite;
+    private final Queue<NioConnection> connectionsToClose;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private volatile boolean running;
+    private int nextConnectionId;
+
+    public NioGameServer(ConnectionListener listener) {
+        this.listener = listener;
+        this.gameThread = Executors.newSingleThreadExecutor(task -> new Thread(task, "Game"));
+        this.receivedFrames = new ArrayBlockingQueue<>(POOLED_FRAMES);
+        this.connectionsToWrite = new ConcurrentLinkedQueue<>();
+        this.connectionsToClose = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Listen for connections.
+     *
+     * @param portNumber to listen on, 0 for any free port
+     * @throws IOException if the port can not be used
+     */
+    public void bind(int portNumber) throws IOException {
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(portNumber));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * @return port the server listens on, after {@link #bind(int)}
+     */
+    public int getPortNumber() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Start accepting connections and handling frames, after {@link #bind(int)}.
+     */
+    public void start() {
+        this.running = true;
+        this.selectorThread = new Thread(this::run, "Selector");
+        selectorThread.start();
+    }
+
+    /**
+     * Close all connections and stop both threads. Listeners are not told about connections closed by stopping.
+     */
+    public void stop() {
+        if (selectorThread != null) {
+            running = false;
+            selector.wakeup();
+            try {
+                selectorThread.join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+        gameThread.shutdown();
+    }
+
+    /**
+     * Run a task on the game thread, after frames already received.
+     *
+     * @param task to run
+     */
+    public void execute(Runnable task) {
+        gameThread.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // Keep the game thread for the other tasks
+                e.printStackTrace();
+            }
+        });
+    }
+
+    void wantsToWrite(NioConnection connection) {
+        connectionsToWrite.add(connection);
+        selector.wakeup();
+    }
+
+    void close(NioConnection connection) {
+        connectionsToClose.add(connection);
+        selector.wakeup();
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                NioConnection connection;
+                while ((connection = connectionsToWrite.poll()) != null) {
+                    SelectionKey key = connection.getChannel().keyFor(selector);
+                    if (key != null && key.isValid()) {
+                        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    }
+                }
+                while ((connection = connectionsToClose.poll()) != null) {
+                    closeNow(connection);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    connection = (NioConnection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            read(connection);
+                        }
+                        if (key.isValid() && key.isWritable() && connection.send()) {
+                            key.interestOps(SelectionKey.OP_READ);
+                        }
+                    } catch (IOException e) {
+                        closeNow(connection);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        NioConnection connection = new NioConnection(nextConnectionId++, channel, this);
+        channel.register(selector, SelectionKey.OP_READ, connection);
+        execute(() -> listener.connected(connection));
+    }
+
+    /**
+     * Read what has arrived, and hand every whole frame to the game thread. The rest of a frame stays in the buffer
+     * until it has arrived. A client sending a frame that can not be read is closed.
+     */
+    private void read(NioConnection connection) throws IOException {
+        ByteBuffer buffer = connection.readBuffer;
+        if (connection.getChannel().read(buffer) == -1) {
+            closeNow(connection);
+            return;
+        }
+        buffer.flip();
+        ReceivedFrame received = takeReceivedFrame();
+        try {
+            while (BinaryProtocol.read(buffer, received.frame)) {
+                received.connection = connection;
+                gameThread.execute(received);
+                received = takeReceivedFrame();
+            }
+        } catch (ProtocolException e) {
+            closeNow(connection);
+            return;
+        } finally {
+            receivedFrames.offer(received);
+        }
+        buffer.compact();
+    }
+
+    private ReceivedFrame takeReceivedFrame() {
+        ReceivedFrame received = receivedFrames.poll();
+        return received == null ? new ReceivedFrame() : received;
+    }
+
+    private void closeNow(NioConnection connection) {
+        SelectionKey key = connection.getChannel().keyFor(selector);
+        if (key == null || !key.isValid()) {
+            return;
+        }
+        key.cancel();
+        try {
+            connection.getChannel().close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        execute(() -> listener.disconnected(connection));
+    }
+
+    private void closeAll() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
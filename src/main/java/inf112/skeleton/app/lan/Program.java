@@ -0,0 +1,55 @@
+package inf112.skeleton.app.lan;
+
+import inf112.skeleton.app.cards.ProgramCard;
+
+import java.util.ArrayList;
+
+/**
+ * The cards a player has selected for a turn, and if the player is powering down, as sent in one message.
+ */
+public class Program {
+
+    private final int playerNumber;
+    private final int round;
+    private final boolean poweringDown;
+    private final ArrayList<ProgramCard> cards;
+
+    public Program(int playerNumber, boolean poweringDown, ArrayList<ProgramCard> cards) {
+        this(playerNumber, 0, poweringDown, cards);
+    }
+
+    /**
+     * @param round of the hand the cards were selected from, see {@link BinaryProtocol}
+     */
+    public Program(int playerNumber, int round, boolean poweringDown, ArrayList<ProgramCard> cards) {
+        this.playerNumber = playerNumber;
+        this.round = round;
+        this.poweringDown = poweringDown;
+        this.cards = cards;
+    }
+
+    public int getPlayerNumber() {
+        return playerNumber;
+    }
+
+    /**
+     * @return round of the hand the cards were selected from, only the lowest byte
+     */
+    public int getRound() {
+        return round;
+    }
+
+    /**
+     * @return true if the player powers down after this turn
+     */
+    public boolean isPoweringDown() {
+        return poweringDown;
+    }
+
+    /**
+     * @return selected cards in order of registers, empty if the player is powered down
+     */
+    public ArrayList<ProgramCard> getCards() {
+        return cards;
+    }
+}
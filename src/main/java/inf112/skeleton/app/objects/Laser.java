@@ -1,31 +1,48 @@
 package inf112.skeleton.app.objects;
 
 import com.badlogic.gdx.math.Vector2;
-import inf112.skeleton.app.RallyGame;
+import inf112.skeleton.app.board.Board;
 import inf112.skeleton.app.enums.Direction;
+import inf112.skeleton.app.objects.player.Player;
 
 public class Laser {
 
     private final Vector2 startPosition;
     private final Direction direction;
+    /**
+     * Cells the laser reaches if no robot is in the way, starting with the cell of the laser.
+     */
+    private int[] path;
 
     public Laser(int x, int y, Direction direction) {
         this.startPosition = new Vector2(x, y);
         this.direction = direction;
     }
 
-    public void fire(RallyGame game) {
-        fire(game, startPosition);
+    /**
+     * Walk the path of the laser and draw it until it hits the first robot.
+     *
+     * @param board laser is on
+     * @return player hit by laser, null if no player is in the way
+     */
+    public Player drawBeam(Board board) {
+        int boardWidth = board.getBoardWidth();
+        for (int cell : path) {
+            board.addLaser(cell % boardWidth, cell / boardWidth, direction);
+            Player player = board.getPlayerInCell(cell);
+            if (player != null) {
+                return player;
+            }
+        }
+        return null;
     }
 
-    public void fire(RallyGame game, Vector2 position) {
-        game.getBoard().addLaser(position, direction);
-        if (game.getBoard().hasPlayer(position)) {
-            game.hitByLaser.play(game.getSoundVolume());
-            game.getBoard().getPlayer(position).handleDamage();
-        } else if (game.getBoard().canFire(position, this.direction)) {
-            fire(game, game.getBoard().getNeighbourPosition(position, direction));
-        }
+    public void setPath(int[] path) {
+        this.path = path;
+    }
+
+    public int[] getPath() {
+        return path;
     }
 
     public Direction getDirection() {
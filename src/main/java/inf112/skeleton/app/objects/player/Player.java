@@ -2,7 +2,6 @@ package inf112.skeleton.app.objects.player;
 
 
 import com.badlogic.gdx.math.Vector2;
-import inf112.skeleton.app.RallyGame;
 import inf112.skeleton.app.board.Board;
 import inf112.skeleton.app.cards.Deck;
 import inf112.skeleton.app.cards.ProgramCard;
@@ -12,8 +11,8 @@ import inf112.skeleton.app.enums.TileID;
 import inf112.skeleton.app.objects.Flag;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 
 public class Player {
 
@@ -22,15 +21,12 @@ public class Player {
     private boolean confirmedPowerUpOrContinuePowerDown;
     private Vector2 backupPosition;
     private Direction backupDirection;
-    private Vector2 alternativeBackupPosition;
-    private Direction alternativeBackupDirection;
     private Vector2 position;
     private Direction direction;
     private final ArrayList<Flag> flagsCollected;
     private final ArrayList<ProgramCard> cardsOnHand;
     private int programCardsDealt;
     private Direction beltPushDir;
-    private Vector2 beltPushPos;
     private boolean poweringDown;
     private boolean poweredDown;
     private boolean powerDownNextRound;
@@ -40,13 +36,14 @@ public class Player {
     private int damageTokens;
     private int lifeTokens;
     private final String color;
+    private Board board;
 
     public Player(Vector2 position, int playerNumber) {
         this(position, playerNumber, "white");
     }
 
     public Player(Vector2 position, int playerNumber, String color) {
-        this.position = position;
+        this.position = new Vector2(position);
         this.direction = Direction.EAST;
         this.playerNumber = playerNumber;
         this.flagsCollected = new ArrayList<>();
@@ -55,7 +52,6 @@ public class Player {
         this.damageTokens = 0;
         this.lifeTokens = 3;
         this.beltPushDir = null;
-        this.beltPushPos = null;
         this.programCardsDealt = 9;
         this.poweringDown = false;
         this.poweredDown = false;
@@ -118,6 +114,17 @@ public class Player {
         registers.addCard(card);
     }
 
+    /**
+     * Put the cards in the open registers in order, instead of the cards selected. Locked registers keep their cards.
+     * @param cards of the program, one for each open register at most
+     */
+    public void setProgram(List<ProgramCard> cards) {
+        registers.clear(true);
+        for (ProgramCard card : cards) {
+            registers.addCard(card);
+        }
+    }
+
     public void drawCards(Deck deck) {
         updateProgramCardsDealt();
         while (cardsOnHand.size() < programCardsDealt) {
@@ -133,14 +140,6 @@ public class Player {
         this.beltPushDir = direction;
     }
 
-    public Vector2 getBeltPushPos() {
-        return beltPushPos;
-    }
-
-    public void setBeltPushPos(Vector2 position) {
-        this.beltPushPos = position;
-    }
-
     public ArrayList<ProgramCard> discardCards(Deck deck) {
         for (ProgramCard card : cardsOnHand) {
             if (registers.contains(card) || registers.getRegister(card).isOpen()) {
@@ -214,47 +213,6 @@ public class Player {
         return backupDirection;
     }
 
-    public void setAlternativeBackup(Vector2 alternativeBackupPosition, Direction alternativeBackupDirection) {
-        if (this.alternativeBackupPosition == null) {
-            this.alternativeBackupPosition = new Vector2(alternativeBackupPosition);
-        } else {
-            this.alternativeBackupPosition.set(alternativeBackupPosition.x, alternativeBackupPosition.y);
-        }
-        this.alternativeBackupDirection = alternativeBackupDirection;
-    }
-
-    /**
-     * @return alternative backup position
-     */
-    public Vector2 getAlternativeBackupPosition() {
-        return alternativeBackupPosition;
-    }
-
-    /**
-     * @return alternative backup direction
-     */
-    public Direction getAlternativeBackupDirection() {
-        return alternativeBackupDirection;
-    }
-
-
-    public void chooseAlternativeBackupPosition(Board board, Vector2 position) {
-        ArrayList<Vector2> possiblePositions = board.getNeighbourhood(position);
-        Collections.shuffle(possiblePositions);
-        for (Vector2 pos : possiblePositions) {
-            for (Direction dir : Direction.getDirectionRandomOrder()) {
-                if (board.validRespawnPosition(pos, dir)) {
-                    setAlternativeBackup(pos, dir);
-                    return;
-                }
-            }
-        }
-        setAlternativeBackup(board.getStartPosition(getPlayerNumber()), Direction.EAST);
-        if (board.hasPlayer(board.getStartPosition(getPlayerNumber()))) {
-            chooseAlternativeBackupPosition(board, alternativeBackupPosition);
-        }
-    }
-
     /**
      * @return number of player
      */
@@ -273,7 +231,20 @@ public class Player {
      * Set's the position to the player
      */
     public void setPosition(Vector2 pos) {
+        Vector2 oldPosition = this.position;
         this.position = new Vector2(pos);
+        if (board != null) {
+            board.updatePlayerPosition(this, oldPosition);
+        }
+    }
+
+    /**
+     * Set the board keeping track of where this player stands.
+     *
+     * @param board player is standing on, or null if player is removed from board
+     */
+    public void setBoard(Board board) {
+        this.board = board;
     }
 
     /**
@@ -305,22 +276,6 @@ public class Player {
         }
     }
 
-    public void fire(RallyGame game) {
-        if (game.getBoard().canFire(position, direction)) {
-            fire(game, game.getBoard().getNeighbourPosition(position, direction));
-        }
-    }
-
-    public void fire(RallyGame game, Vector2 position) {
-        game.getBoard().addLaser(position, direction);
-        if (game.getBoard().hasPlayer(position)) {
-            game.hitByLaser.play(game.getSoundVolume());
-            game.getBoard().getPlayer(position).handleDamage();
-        } else if (game.getBoard().canFire(position, direction)) {
-            fire(game, game.getBoard().getNeighbourPosition(position, direction));
-        }
-    }
-
     /**
      * Update the selected cards for this player.
      * Used for testing, so that we can decide what card the player is going to play, and then test that the player
@@ -4,11 +4,20 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.maps.tiled.TiledMapRenderer;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import inf112.skeleton.app.RallyGame;
+import inf112.skeleton.app.board.BoardCommandQueue;
 import inf112.skeleton.app.screens.standardscreen.StandardScreen;
 
 public class GameScreen extends StandardScreen {
 
+    /**
+     * Most board changes done each frame, the rest wait for the next frame.
+     */
+    private static final int BOARD_COMMANDS_PER_FRAME = 256;
+
     private final TiledMapRenderer mapRenderer;
+    private final RobotSprites robotSprites;
+    private final BoardCommandQueue boardCommands;
+    private final float cellSize;
     public final GameScreenActors actors;
 
     public GameScreen(final RallyGame game) {
@@ -28,17 +37,25 @@ public class GameScreen extends StandardScreen {
         actors.initializeInfoLabel();
 
         float tilePx = 300f;
-        float unitScale = ((float) Gdx.graphics.getHeight() / game.getBoard().getBoardHeight()) / tilePx;
+        this.cellSize = (float) Gdx.graphics.getHeight() / game.getBoard().getBoardHeight();
+        float unitScale = cellSize / tilePx;
 
         this.mapRenderer = new OrthogonalTiledMapRenderer(game.getBoard().getTiledMap(), unitScale, batch);
         this.mapRenderer.setView(camera);
+        this.boardCommands = game.getBoard().attachRenderer();
+        this.robotSprites = new RobotSprites(game.getBoard(), game.getAnimationTiming().getRobotSpeed());
     }
 
     @Override
     public void render(float v) {
         actors.updateButtons();
         super.render(v);
+        boardCommands.drain(BOARD_COMMANDS_PER_FRAME);
         mapRenderer.render();
+        robotSprites.update(v);
+        batch.begin();
+        robotSprites.draw(batch, cellSize);
+        batch.end();
     }
 
     public void updateCards() {
@@ -0,0 +1,124 @@
+package inf112.skeleton.app.screens.gamescreen;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import inf112.skeleton.app.board.Board;
+import inf112.skeleton.app.board.RobotMove;
+import inf112.skeleton.app.objects.player.Player;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Queue;
+
+/**
+ * <p>
+ * Draws the robots on top of the board, moving them smoothly between the cells they have been in.
+ * </p>
+ *
+ * <p>
+ * The {@link Board} tells every move in a queue of {@link RobotMove robot moves}. Each frame the queue is
+ * emptied, and every robot is moved towards its next cell at the given speed. A robot taken off the board
+ * is hidden, and jumps straight to the next cell it is put in.
+ * </p>
+ */
+public class RobotSprites {
+
+    private final Queue<RobotMove> moves;
+    private final HashMap<Player, RobotSprite> sprites;
+    private float speed;
+
+    /**
+     * @param board to draw robots of
+     * @param speed in cells per second
+     */
+    public RobotSprites(Board board, float speed) {
+        this.moves = board.animateRobotMoves();
+        this.sprites = new HashMap<>();
+        this.speed = speed;
+    }
+
+    /**
+     * @param speed in cells per second, infinite to show robots where they are without moving them
+     */
+    public void setSpeed(float speed) {
+        this.speed = speed;
+    }
+
+    /**
+     * Take the new moves and move every robot as far as it gets in the time since last frame.
+     *
+     * @param delta seconds since last frame
+     */
+    public void update(float delta) {
+        RobotMove move;
+        while ((move = moves.poll()) != null) {
+            RobotSprite sprite = sprites.get(move.getPlayer());
+            if (sprite == null) {
+                sprite = new RobotSprite();
+                sprites.put(move.getPlayer(), sprite);
+            }
+            sprite.moves.add(move);
+        }
+        for (RobotSprite sprite : sprites.values()) {
+            sprite.update(speed * delta);
+        }
+    }
+
+    /**
+     * Draw robots. The batch must be begun.
+     *
+     * @param batch    to draw with
+     * @param cellSize width and height of one cell
+     */
+    public void draw(Batch batch, float cellSize) {
+        for (RobotSprite sprite : sprites.values()) {
+            if (sprite.visible) {
+                batch.draw(sprite.tile.getTextureRegion(), sprite.x * cellSize, sprite.y * cellSize, cellSize, cellSize);
+            }
+        }
+    }
+
+    private static class RobotSprite {
+
+        private final ArrayDeque<RobotMove> moves = new ArrayDeque<>();
+        private float x;
+        private float y;
+        private TiledMapTile tile;
+        private boolean visible;
+
+        /**
+         * Move towards the next cells until there are no cells left or the distance is used up.
+         *
+         * @param distance in cells robot can move
+         */
+        private void update(float distance) {
+            while (!moves.isEmpty()) {
+                RobotMove move = moves.peek();
+                if (!move.isOnBoard()) {
+                    visible = false;
+                    moves.poll();
+                    continue;
+                }
+                tile = move.getTile();
+                if (!visible) {
+                    x = move.getX();
+                    y = move.getY();
+                    visible = true;
+                }
+                float dx = move.getX() - x;
+                float dy = move.getY() - y;
+                float length = Math.abs(dx) + Math.abs(dy);
+                if (length <= distance) {
+                    x = move.getX();
+                    y = move.getY();
+                    distance -= length;
+                    moves.poll();
+                } else {
+                    x += dx / length * distance;
+                    y += dy / length * distance;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.InputListener;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.ui.TextField;
 import com.badlogic.gdx.scenes.scene2d.ui.ImageButton;
 import com.badlogic.gdx.scenes.scene2d.ui.SelectBox;
@@ -12,6 +13,7 @@ import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
 import inf112.skeleton.app.RallyGame;
+import inf112.skeleton.app.enums.Messages;
 import inf112.skeleton.app.screens.gamescreen.GameScreen;
 
 import java.io.File;
@@ -53,6 +55,8 @@ public class MenuScreenActors {
     private ImageButton joinGameButton;
     private ImageButton backButton;
     private TextField IPInput;
+    private TextField roomCodeInput;
+    private TextButton newRoomButton;
     private Label IPLabel;
     private Label errorLabel;
     private Label clientsConnectedLabel;
@@ -218,7 +222,9 @@ public class MenuScreenActors {
                     toggleVisibilityJoinFirstClick();
                 } else {
                     if (validIP(IPInput.getText())) {
-                        if (setUpClient()) {
+                        if (!"".equals(roomCodeInput.getText())) {
+                            joinRoom();
+                        } else if (setUpClient()) {
                             toggleVisibilityJoinSecondClick();
                             waitForGameSetUpAndStartGame();
                         } else {
@@ -238,6 +244,60 @@ public class MenuScreenActors {
         stage.addActor(joinGameButton);
     }
 
+    /**
+     * Button to make a room on a dedicated server. First click shows the maps, second click makes the room.
+     */
+    public void initializeNewRoomButton() {
+        newRoomButton = new TextButton("New room", game.getDefaultSkin());
+        newRoomButton.setSize(IPInput.getWidth() * .45f, IPInput.getHeight());
+        newRoomButton.setPosition(IPInput.getX() + IPInput.getWidth() * .55f, getRoomInputY());
+        newRoomButton.addListener(new InputListener() {
+            @Override
+            public void touchUp(InputEvent event, float x, float y, int pointer, int button) {
+                if (!validIP(IPInput.getText())) {
+                    updateErrorLabel(IPInput);
+                } else if (roomCodeInput.isVisible()) {
+                    toggleVisibilityNewRoomFirstClick();
+                } else {
+                    createRoom();
+                }
+            }
+
+            @Override
+            public boolean touchDown(InputEvent event, float x, float y, int pointer, int button) {
+                return true;
+            }
+        });
+        stage.addActor(newRoomButton);
+    }
+
+    /**
+     * Start button for the player who made a room. The room starts the game with the players who have joined.
+     */
+    public void initializeStartRoomButton() {
+        ImageButton.ImageButtonStyle startButtonStyle = new ImageButton.ImageButtonStyle();
+        startButtonStyle.up = game.actorImages.getSkin().getDrawable("Start");
+        startButtonStyle.over = game.actorImages.getSkin().getDrawable("Start over");
+
+        startButton = new ImageButton(startButtonStyle);
+        startButton.setSize(BUTTON_WIDTH, BUTTON_HEIGHT);
+        startButton.setPosition(CENTERED_BUTTON_X, TOP_BUTTON_Y);
+        startButton.addListener(new InputListener() {
+            @Override
+            public void touchUp(InputEvent event, float x, float y, int pointer, int button) {
+                game.getClient().sendMessage(Messages.START_TURN);
+                startButton.setVisible(false);
+                waitForGameSetUpAndStartGame();
+            }
+
+            @Override
+            public boolean touchDown(InputEvent event, float x, float y, int pointer, int button) {
+                return true;
+            }
+        });
+        stage.addActor(startButton);
+    }
+
     public void initializeSelectMap() {
         selectMap = new SelectBox<>(game.getDefaultSkin());
         selectMap.setItems(getMaps());
@@ -277,6 +337,37 @@ public class MenuScreenActors {
         stage.addActor(IPInput);
     }
 
+    public void initializeRoomCodeInput() {
+        roomCodeInput = new TextField("", game.getDefaultSkin());
+        roomCodeInput.setMessageText("Room code");
+        roomCodeInput.setWidth(IPInput.getWidth() * .45f);
+        roomCodeInput.setPosition(IPInput.getX(), getRoomInputY());
+        roomCodeInput.setMaxLength(5);
+        roomCodeInput.setTextFieldFilter((textField, c) -> Character.isLetterOrDigit(c));
+        stage.addActor(roomCodeInput);
+    }
+
+    /**
+     * @return y of the room code and new room button, over the IP address
+     */
+    private float getRoomInputY() {
+        return TEXT_INPUT_Y + IPInput.getHeight() * 1.5f;
+    }
+
+    /**
+     * Show the code of the room so the other players can join it.
+     *
+     * @param code of room
+     */
+    public void initializeRoomCodeLabel(String code) {
+        Label roomCodeLabel = new Label("Room: " + code, game.getTextSkin(), "button");
+        roomCodeLabel.setPosition(screenWidth*0.072f, LABEL_Y);
+        roomCodeLabel.setSize(BUTTON_WIDTH, BUTTON_HEIGHT);
+        roomCodeLabel.setAlignment(Align.center);
+        roomCodeLabel.setFontScale(FONT_SCALE * 0.8f);
+        stage.addActor(roomCodeLabel);
+    }
+
     public void initializeWaitForHostLabel() {
         Label waitForHost = new Label("Wait for host to start game", game.getTextSkin(), "button");
         waitForHost.setPosition(CENTERED_BUTTON_X, TOP_BUTTON_Y);
@@ -350,6 +441,8 @@ public class MenuScreenActors {
         createGameButton.setVisible(false);
         joinGameButton.setPosition(CENTERED_BUTTON_X, TOP_BUTTON_Y);
         initializeIPInput();
+        initializeRoomCodeInput();
+        initializeNewRoomButton();
         initializeErrorLabel();
     }
 
@@ -357,6 +450,29 @@ public class MenuScreenActors {
         initializeWaitForHostLabel();
         joinGameButton.setVisible(false);
         IPInput.setVisible(false);
+        roomCodeInput.setVisible(false);
+        newRoomButton.setVisible(false);
+        errorLabel.setVisible(false);
+    }
+
+    /**
+     * Show the maps where the room code was, so the map of the new room can be chosen.
+     */
+    public void toggleVisibilityNewRoomFirstClick() {
+        initializeSelectMap();
+        selectMap.setWidth(roomCodeInput.getWidth());
+        selectMap.setPosition(roomCodeInput.getX(), roomCodeInput.getY());
+        selectMap.setVisible(true);
+        roomCodeInput.setVisible(false);
+        joinGameButton.setVisible(false);
+    }
+
+    public void toggleVisibilityNewRoomSecondClick(String code) {
+        initializeRoomCodeLabel(code);
+        initializeStartRoomButton();
+        IPInput.setVisible(false);
+        selectMap.setVisible(false);
+        newRoomButton.setVisible(false);
         errorLabel.setVisible(false);
     }
 
@@ -374,6 +490,10 @@ public class MenuScreenActors {
             errorLabel.setText("Could not connect to " + IPInput.getText() + " on port 9000");
         } else if (textField.equals(IPInput)) {
             errorLabel.setText("Invalid IP address");
+        } else if (textField.equals(roomCodeInput)) {
+            errorLabel.setText("Could not join room " + roomCodeInput.getText());
+            roomCodeInput.setText("");
+            return;
         }
         IPInput.setText("");
     }
@@ -404,12 +524,17 @@ public class MenuScreenActors {
             @Override
             public void touchUp(InputEvent event, float x, float y, int pointer, int button) {
                 if (game.isServer()) {
-                    game.getServer().stopConnectingToClients();
+                    game.getServer().stop();
                     game.setIsServer(false);
                     toggleVisibilityBackClick();
                 } else {
                     // Client has not made the client yet
                     joinGameButton.setVisible(false);
+                    roomCodeInput.setVisible(false);
+                    newRoomButton.setVisible(false);
+                    if (selectMap != null) {
+                        selectMap.setVisible(false);
+                    }
                     initializeExitButton();
                     initializeSettingsButton();
                     initializeCreateGame();
@@ -458,6 +583,32 @@ public class MenuScreenActors {
         return true;
     }
 
+    /**
+     * Join the room with the code in the room code input, on the dedicated server at the IP address.
+     */
+    public void joinRoom() {
+        String code = game.joinRoom(IPInput.getText(), roomCodeInput.getText());
+        if (code == null) {
+            updateErrorLabel(roomCodeInput);
+            return;
+        }
+        toggleVisibilityJoinSecondClick();
+        initializeRoomCodeLabel(code);
+        waitForGameSetUpAndStartGame();
+    }
+
+    /**
+     * Make a room playing the selected map on the dedicated server at the IP address.
+     */
+    public void createRoom() {
+        String code = game.createRoom(IPInput.getText(), "assets/maps/" + selectMap.getSelected() + ".tmx");
+        if (code == null) {
+            updateErrorLabel(null);
+            return;
+        }
+        toggleVisibilityNewRoomSecondClick(code);
+    }
+
     /**
      * Wait for server to sent initial values so you can create game.
      */
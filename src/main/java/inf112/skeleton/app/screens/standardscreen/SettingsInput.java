@@ -35,8 +35,7 @@ public class SettingsInput extends InputAdapter {
                 for (int i = 0; i < 10; i++) {
                     game.getBoard().getPlayer(2).handleDamage();
                 }
-                game.decreaseLives();
-                game.respawnPlayers();
+                game.destroyDamagedPlayers();
                 game.removeDeadPlayers();
                 break;
             case Input.Keys.G:
@@ -0,0 +1,128 @@
+package inf112.skeleton.app.server;
+
+import inf112.skeleton.app.enums.Messages;
+import inf112.skeleton.app.lan.BinaryProtocol;
+import inf112.skeleton.app.lan.ConnectionListener;
+import inf112.skeleton.app.lan.Frame;
+import inf112.skeleton.app.lan.NioConnection;
+import inf112.skeleton.app.lan.NioGameServer;
+import inf112.skeleton.app.lan.Program;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * <p>
+ * A server without a screen hosting many games at once, each in its own {@link Room}.
+ * </p>
+ *
+ * <p>
+ * A client first sends {@link BinaryProtocol#CREATE_ROOM} with a map, and is told the code of the new room, or
+ * {@link BinaryProtocol#JOIN} with the code of a room. After that all its frames go to its room.
+ * </p>
+ */
+public class DedicatedServer implements ConnectionListener {
+
+    public static final int DEFAULT_PORT_NUMBER = 9000;
+
+    private final RoomRegistry registry;
+    private final NioGameServer server;
+
+    public DedicatedServer(RoomRegistry registry) {
+        this.registry = registry;
+        this.server = new NioGameServer(this);
+    }
+
+    /**
+     * Start the server with the port number and map directory given, or port 9000 and the maps of the game.
+     *
+     * @param args port number and map directory
+     */
+    public static void main(String[] args) {
+        int portNumber = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT_NUMBER;
+        File mapDirectory = new File(args.length > 1 ? args[1] : "assets/maps");
+        DedicatedServer server = new DedicatedServer(
+                new RoomRegistry(mapDirectory, Runtime.getRuntime().availableProcessors()));
+        try {
+            server.start(portNumber);
+            System.out.println("Dedicated server on port " + server.getPortNumber());
+        } catch (IOException e) {
+            e.printStackTrace();
+            server.registry.shutdown();
+        }
+    }
+
+    /**
+     * @param portNumber to listen on, 0 for any free port
+     * @throws IOException if the port can not be used
+     */
+    public void start(int portNumber) throws IOException {
+        server.bind(portNumber);
+        server.start();
+    }
+
+    public int getPortNumber() {
+        return server.getPortNumber();
+    }
+
+    /**
+     * Close all connections and stop all rooms.
+     */
+    public void stop() {
+        server.stop();
+        registry.shutdown();
+    }
+
+    @Override
+    public void connected(NioConnection connection) {
+    }
+
+    /**
+     * Make or join a room, or give the frame to the room of the connection. The frame is only valid until this
+     * method returns, so what the room needs is read from it before the room is given the task.
+     */
+    @Override
+    public void received(NioConnection connection, Frame frame) {
+        Room room = (Room) connection.getAttachment();
+        if (room == null) {
+            receiveHandshake(connection, frame);
+        } else if (frame.getOpcode() == BinaryProtocol.PROGRAM) {
+            Program program = frame.getProgram();
+            room.execute(() -> room.receiveProgram(connection, program));
+        } else if (frame.getOpcode() == BinaryProtocol.MESSAGE) {
+            Messages message = frame.getMessage();
+            room.execute(() -> room.receiveMessage(connection, message));
+        }
+    }
+
+    private void receiveHandshake(NioConnection connection, Frame frame) {
+        Room room;
+        if (frame.getOpcode() == BinaryProtocol.CREATE_ROOM) {
+            room = registry.createRoom(frame.getText());
+            if (room == null) {
+                BinaryProtocol.writeMessage(connection.getOutput(), Messages.MAP_NOT_FOUND);
+                connection.flush();
+                return;
+            }
+        } else if (frame.getOpcode() == BinaryProtocol.JOIN) {
+            room = registry.getRoom(frame.getText());
+            if (room == null) {
+                BinaryProtocol.writeMessage(connection.getOutput(), Messages.ROOM_NOT_FOUND);
+                connection.flush();
+                return;
+            }
+        } else {
+            return;
+        }
+        connection.setAttachment(room);
+        room.execute(() -> room.join(connection));
+    }
+
+    @Override
+    public void disconnected(NioConnection connection) {
+        Room room = (Room) connection.getAttachment();
+        if (room != null) {
+            room.execute(() -> room.leave(connection));
+        }
+    }
+}
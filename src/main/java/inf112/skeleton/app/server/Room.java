@@ -0,0 +1,426 @@
+package inf112.skeleton.app.server;
+
+import inf112.skeleton.app.cards.Deck;
+import inf112.skeleton.app.cards.ProgramCard;
+import inf112.skeleton.app.engine.BoardModel;
+import inf112.skeleton.app.engine.Robot;
+import inf112.skeleton.app.engine.TurnEngine;
+import inf112.skeleton.app.enums.Direction;
+import inf112.skeleton.app.enums.Messages;
+import inf112.skeleton.app.lan.BinaryProtocol;
+import inf112.skeleton.app.lan.NioConnection;
+import inf112.skeleton.app.lan.Program;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * One game on a {@link DedicatedServer}, with its board, deck, players and turns, played without a screen.
+ * </p>
+ *
+ * <p>
+ * Players join while the room is waiting, and the first player starts the game. Every round the room deals the
+ * cards, waits for the programs of all players, or {@link #SELECT_CARDS_SECONDS} at most, sends all programs to
+ * everybody and plays the turn with a {@link TurnEngine}. Players then play the same turn on their screens.
+ * </p>
+ *
+ * <p>
+ * All methods except {@link #execute(Runnable)} and {@link #getCode()} must run on the {@link RoomScheduler}
+ * of the room.
+ * </p>
+ */
+public class Room {
+
+    public static final int MAX_PLAYERS = 8;
+    /**
+     * Time to select cards. The turn is then played, and players without a program do not move.
+     */
+    public static final long SELECT_CARDS_SECONDS = 60;
+    private static final int CARDS_DEALT = 9;
+
+    private enum State {
+        WAITING_FOR_PLAYERS, SELECTING_CARDS, FINISHED
+    }
+
+    private final String code;
+    private final String mapPath;
+    private final BoardModel board;
+    private final long seed;
+    /**
+     * Gives the seed of each deck.
+     */
+    private final Random deckRandom;
+    /**
+     * Gives the respawn positions, from ~seed like the board of {@link inf112.skeleton.app.RallyGame}, so the
+     * players playing the turn on their screens respawn robots where the room did.
+     */
+    private final Random boardRandom;
+    private final RoomRegistry registry;
+    private final RoomScheduler scheduler;
+
+    /**
+     * Connection of each player indexed by player number - 1, null if nobody has that number.
+     */
+    private final NioConnection[] players;
+    private final Robot[] robots;
+    private final ArrayList<ArrayList<ProgramCard>> hands;
+    private final Program[] programs;
+    private final ArrayList<Robot> robotsInGame;
+    private TurnEngine engine;
+    private State state;
+    private int round;
+    private ScheduledFuture<?> selectCardsTimeout;
+
+    /**
+     * @param code      to join the room with
+     * @param mapPath   of the map as sent to the players
+     * @param board     of the map
+     * @param seed      of the game, gives the decks and respawn positions
+     * @param registry  the room is in
+     * @param scheduler to run the room on
+     */
+    public Room(String code, String mapPath, BoardModel board, long seed, RoomRegistry registry, RoomScheduler scheduler) {
+        this.code = code;
+        this.mapPath = mapPath;
+        this.board = board;
+        this.seed = seed;
+        this.deckRandom = new Random(seed);
+        this.boardRandom = new Random(~seed);
+        this.registry = registry;
+        this.scheduler = scheduler;
+        this.players = new NioConnection[MAX_PLAYERS];
+        this.robots = new Robot[MAX_PLAYERS];
+        this.hands = new ArrayList<>();
+        for (int i = 0; i < MAX_PLAYERS; i++) {
+            hands.add(new ArrayList<>());
+        }
+        this.programs = new Program[MAX_PLAYERS];
+        this.robotsInGame = new ArrayList<>();
+        this.state = State.WAITING_FOR_PLAYERS;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * @param task to run on the scheduler of the room
+     */
+    public void execute(Runnable task) {
+        scheduler.execute(task);
+    }
+
+    /**
+     * Give the connection the first free player number, or close it if the game has started or the room is full.
+     *
+     * @param connection joining
+     */
+    public void join(NioConnection connection) {
+        int index = indexOf(null);
+        if (state != State.WAITING_FOR_PLAYERS || index == -1) {
+            BinaryProtocol.writeMessage(connection.getOutput(),
+                    state == State.FINISHED ? Messages.ROOM_NOT_FOUND : Messages.ROOM_FULL);
+            connection.flush();
+            connection.close();
+            return;
+        }
+        players[index] = connection;
+        BinaryProtocol.writeRoomCode(connection.getOutput(), code);
+        BinaryProtocol.writePlayerNumber(connection.getOutput(), index + 1);
+        connection.flush();
+        int numberOfPlayers = getNumberOfPlayers();
+        sendToAll(out -> BinaryProtocol.writeNumberOfPlayers(out, numberOfPlayers));
+        System.out.println("Room " + code + ": player " + (index + 1) + " joined.");
+    }
+
+    /**
+     * Remove the player of the connection. The robot of the player stays, but does not move. The room is closed
+     * when the last player leaves.
+     *
+     * @param connection that closed
+     */
+    public void leave(NioConnection connection) {
+        int index = indexOf(connection);
+        if (index == -1) {
+            return;
+        }
+        players[index] = null;
+        System.out.println("Room " + code + ": player " + (index + 1) + " left.");
+        if (getNumberOfPlayers() == 0) {
+            finish();
+        } else if (state == State.WAITING_FOR_PLAYERS) {
+            int numberOfPlayers = getNumberOfPlayers();
+            sendToAll(out -> BinaryProtocol.writeNumberOfPlayers(out, numberOfPlayers));
+        } else if (state == State.SELECTING_CARDS) {
+            playTurnIfAllProgramsAreReceived();
+        }
+    }
+
+    /**
+     * {@link Messages#START_TURN} from the first player starts the game, and {@link Messages#QUIT} leaves the room.
+     *
+     * @param connection message is from
+     * @param message    received
+     */
+    public void receiveMessage(NioConnection connection, Messages message) {
+        int index = indexOf(connection);
+        if (index == -1) {
+            return;
+        }
+        if (message == Messages.QUIT) {
+            connection.close();
+        } else if (message == Messages.START_TURN && state == State.WAITING_FOR_PLAYERS && index == firstPlayer()) {
+            start();
+        }
+    }
+
+    /**
+     * Keep the program of the player for this round. Only cards dealt to the player are kept, and a program selected
+     * from the hand of an earlier round, sent after its turn was played, is dropped.
+     *
+     * @param connection program is from
+     * @param program    received
+     */
+    public void receiveProgram(NioConnection connection, Program program) {
+        int index = indexOf(connection);
+        if (index == -1 || state != State.SELECTING_CARDS || programs[index] != null
+                || program.getRound() != (round & 0xFF)) {
+            return;
+        }
+        ArrayList<ProgramCard> hand = new ArrayList<>(hands.get(index));
+        ArrayList<ProgramCard> cards = new ArrayList<>();
+        for (ProgramCard card : program.getCards()) {
+            if (cards.size() < getOpenRegisters(robots[index]) && hand.remove(card)) {
+                cards.add(card);
+            }
+        }
+        programs[index] = new Program(index + 1, round, program.isPoweringDown(), cards);
+        playTurnIfAllProgramsAreReceived();
+    }
+
+    /**
+     * Number the players from 1 without the numbers of players who left, put a robot on the start position of every
+     * player, send the start values and deal the first cards.
+     */
+    private void start() {
+        closeGapsInPlayerNumbers();
+        for (int index = 0; index < MAX_PLAYERS; index++) {
+            if (players[index] != null) {
+                robots[index] = new Robot(index + 1, board.getStartCell(index + 1), Direction.EAST);
+                robotsInGame.add(robots[index]);
+            }
+        }
+        this.engine = new TurnEngine(board, robotsInGame, boardRandom);
+        int numberOfPlayers = getNumberOfPlayers();
+        sendToAll(out -> {
+            BinaryProtocol.writeSeed(out, seed);
+            BinaryProtocol.writeMapPath(out, mapPath);
+            BinaryProtocol.writeNumberOfPlayers(out, numberOfPlayers);
+        });
+        System.out.println("Room " + code + ": game started with " + numberOfPlayers + " players.");
+        newRound();
+    }
+
+    /**
+     * Move the players down to the numbers of players who left, and send every player its number. The players make
+     * the players 1 to the number of players in the game.
+     */
+    private void closeGapsInPlayerNumbers() {
+        int numberOfPlayers = 0;
+        for (int index = 0; index < MAX_PLAYERS; index++) {
+            if (players[index] != null) {
+                NioConnection player = players[index];
+                players[index] = null;
+                players[numberOfPlayers] = player;
+                numberOfPlayers++;
+                BinaryProtocol.writePlayerNumber(player.getOutput(), numberOfPlayers);
+            }
+        }
+    }
+
+    /**
+     * Power robots up and down, make a deck without the locked cards and deal cards to robots not powered down.
+     */
+    private void newRound() {
+        if (!connectedPlayersHaveRobots()) {
+            finish();
+            return;
+        }
+        round++;
+        ArrayList<ProgramCard> lockedCards = new ArrayList<>();
+        for (Robot robot : robotsInGame) {
+            int index = robot.getNumber() - 1;
+            robot.setPoweredDown(programs[index] != null && programs[index].isPoweringDown());
+            if (robot.isPoweredDown()) {
+                robot.setDamageTokens(0);
+            }
+            for (int register = getOpenRegisters(robot); register < Robot.REGISTERS; register++) {
+                if (robot.getCard(register) != null) {
+                    lockedCards.add(robot.getCard(register));
+                }
+            }
+        }
+        Arrays.fill(programs, null);
+        Deck deck = Deck.fromSeed(deckRandom.nextLong(), lockedCards);
+        for (Robot robot : robotsInGame) {
+            ArrayList<ProgramCard> hand = hands.get(robot.getNumber() - 1);
+            hand.clear();
+            if (robot.isPoweredDown() || robot.isDead()) {
+                continue;
+            }
+            for (int i = robot.getDamageTokens(); i < CARDS_DEALT; i++) {
+                hand.add(deck.drawCard());
+            }
+            NioConnection player = players[robot.getNumber() - 1];
+            if (player != null) {
+                BinaryProtocol.writeHand(player.getOutput(), robot.getNumber(), round, hand);
+                player.flush();
+            }
+        }
+        this.state = State.SELECTING_CARDS;
+        int thisRound = round;
+        this.selectCardsTimeout = scheduler.schedule(() -> playTurnOfRound(thisRound), SELECT_CARDS_SECONDS, TimeUnit.SECONDS);
+        playTurnIfAllProgramsAreReceived();
+    }
+
+    /**
+     * Play the turn if cards are still being selected in the round, when time is up.
+     */
+    private void playTurnOfRound(int round) {
+        if (state == State.SELECTING_CARDS && this.round == round) {
+            playTurn();
+        }
+    }
+
+    private void playTurnIfAllProgramsAreReceived() {
+        for (Robot robot : robotsInGame) {
+            int index = robot.getNumber() - 1;
+            if (players[index] != null && !hands.get(index).isEmpty() && programs[index] == null) {
+                return;
+            }
+        }
+        playTurn();
+    }
+
+    /**
+     * Put the programs in the registers, send them to all players with the start of the turn, and play the turn.
+     * Locked registers keep their cards, so only the cards of the open registers are sent. Players put them in
+     * the registers in order, also when their own program was not received in time.
+     */
+    private void playTurn() {
+        selectCardsTimeout.cancel(false);
+        for (Robot robot : robotsInGame) {
+            Program program = programs[robot.getNumber() - 1];
+            ProgramCard[] cards = new ProgramCard[Robot.REGISTERS];
+            for (int register = 0; register < Robot.REGISTERS; register++) {
+                if (register >= getOpenRegisters(robot)) {
+                    cards[register] = robot.getCard(register);
+                } else if (program != null && register < program.getCards().size()) {
+                    cards[register] = program.getCards().get(register);
+                }
+            }
+            robot.setProgram(cards);
+        }
+        sendToAll(out -> {
+            for (Robot robot : robotsInGame) {
+                Program program = programs[robot.getNumber() - 1];
+                ArrayList<ProgramCard> cards = new ArrayList<>();
+                for (int register = 0; register < getOpenRegisters(robot) && !robot.isPoweredDown(); register++) {
+                    if (robot.getCard(register) != null) {
+                        cards.add(robot.getCard(register));
+                    }
+                }
+                BinaryProtocol.writeProgram(out, robot.getNumber(), round, program != null && program.isPoweringDown(),
+                        cards);
+            }
+            BinaryProtocol.writeMessage(out, Messages.START_TURN);
+        });
+        Robot winner = engine.playTurn();
+        if (winner != null) {
+            sendToAll(out -> BinaryProtocol.writePlayerMessage(out, winner.getNumber(), Messages.WINNER));
+            System.out.println("Room " + code + ": player " + winner.getNumber() + " won.");
+            finish();
+        } else {
+            newRound();
+        }
+    }
+
+    /**
+     * Stop the game and remove the room from the registry. Players still in the room stay connected.
+     */
+    private void finish() {
+        this.state = State.FINISHED;
+        if (selectCardsTimeout != null) {
+            selectCardsTimeout.cancel(false);
+        }
+        registry.remove(this);
+    }
+
+    /**
+     * @return true if a player still in the room has a robot with lives left
+     */
+    private boolean connectedPlayersHaveRobots() {
+        for (Robot robot : robotsInGame) {
+            if (players[robot.getNumber() - 1] != null && !robot.isDead()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return number of registers not locked by damage, the last registers are locked first
+     */
+    private int getOpenRegisters(Robot robot) {
+        return Robot.REGISTERS - Math.min(Math.max(robot.getDamageTokens() - 4, 0), Robot.REGISTERS);
+    }
+
+    /**
+     * @param writer writes the frames to send to an output
+     */
+    private void sendToAll(Consumer<ByteBuffer> writer) {
+        for (NioConnection player : players) {
+            if (player != null) {
+                writer.accept(player.getOutput());
+                player.flush();
+            }
+        }
+    }
+
+    private int indexOf(NioConnection connection) {
+        for (int index = 0; index < MAX_PLAYERS; index++) {
+            if (players[index] == connection) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return index of the player with the lowest number, the player who can start the game
+     */
+    private int firstPlayer() {
+        for (int index = 0; index < MAX_PLAYERS; index++) {
+            if (players[index] != null) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    public int getNumberOfPlayers() {
+        int numberOfPlayers = 0;
+        for (NioConnection player : players) {
+            if (player != null) {
+                numberOfPlayers++;
+            }
+        }
+        return numberOfPlayers;
+    }
+}
@@ -0,0 +1,123 @@
+package inf112.skeleton.app.server;
+
+import inf112.skeleton.app.engine.BoardModel;
+import inf112.skeleton.app.engine.MapReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * <p>
+ * The rooms of a {@link DedicatedServer}, found by their code.
+ * </p>
+ *
+ * <p>
+ * All rooms run on the same few threads, each room on its own {@link RoomScheduler}. Boards are read once per map
+ * and shared by the rooms playing on it, since a {@link BoardModel} is not changed by playing.
+ * </p>
+ */
+public class RoomRegistry {
+
+    /**
+     * Letters and digits of room codes, without the ones that are easy to mix up.
+     */
+    private static final String CODE_CHARACTERS = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+    private static final int CODE_LENGTH = 5;
+
+    private final File mapDirectory;
+    private final ScheduledExecutorService threads;
+    private final ConcurrentHashMap<String, Room> rooms;
+    private final HashMap<String, BoardModel> boards;
+    private final SecureRandom random;
+
+    /**
+     * @param mapDirectory    where the maps rooms can be made with are
+     * @param numberOfThreads to run the rooms on
+     */
+    public RoomRegistry(File mapDirectory, int numberOfThreads) {
+        this.mapDirectory = mapDirectory;
+        this.threads = Executors.newScheduledThreadPool(numberOfThreads);
+        this.rooms = new ConcurrentHashMap<>();
+        this.boards = new HashMap<>();
+        this.random = new SecureRandom();
+    }
+
+    /**
+     * Make a room with a new code. Only the name of the map is used, so only maps in the map directory can be played.
+     *
+     * @param mapPath of the map to play on, as the players know it
+     * @return the new room, null if there is no such map
+     */
+    public Room createRoom(String mapPath) {
+        String mapName = mapPath.substring(Math.max(mapPath.lastIndexOf('/'), mapPath.lastIndexOf('\\')) + 1);
+        BoardModel board = getBoard(mapName);
+        if (board == null) {
+            return null;
+        }
+        while (true) {
+            String code = newCode();
+            Room room = new Room(code, mapPath, board, random.nextLong(), this, new RoomScheduler(threads));
+            if (rooms.putIfAbsent(code, room) == null) {
+                System.out.println("Room " + code + " made on " + mapName + ".");
+                return room;
+            }
+        }
+    }
+
+    /**
+     * @param code of room, not case sensitive
+     * @return the room, null if there is no room with the code
+     */
+    public Room getRoom(String code) {
+        return rooms.get(code.trim().toUpperCase());
+    }
+
+    /**
+     * @param room that has finished
+     */
+    void remove(Room room) {
+        if (rooms.remove(room.getCode(), room)) {
+            System.out.println("Room " + room.getCode() + " closed.");
+        }
+    }
+
+    public int getNumberOfRooms() {
+        return rooms.size();
+    }
+
+    /**
+     * Stop the threads of the rooms.
+     */
+    public void shutdown() {
+        threads.shutdownNow();
+    }
+
+    private synchronized BoardModel getBoard(String mapName) {
+        if (!boards.containsKey(mapName)) {
+            File map = new File(mapDirectory, mapName);
+            if (!map.isFile()) {
+                return null;
+            }
+            try {
+                boards.put(mapName, MapReader.read(map));
+            } catch (IOException e) {
+                e.printStackTrace();
+                return null;
+            }
+        }
+        return boards.get(mapName);
+    }
+
+    private String newCode() {
+        StringBuilder code = new StringBuilder();
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            code.append(CODE_CHARACTERS.charAt(random.nextInt(CODE_CHARACTERS.length())));
+        }
+        return code.toString();
+    }
+}
@@ -0,0 +1,78 @@
+package inf112.skeleton.app.server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>
+ * Runs the tasks of one {@link Room} one at a time and in order, on threads shared by all rooms.
+ * </p>
+ *
+ * <p>
+ * Rooms run at the same time as each other, but a room never runs on two threads at once, so a room does not need
+ * locks. A room with many tasks gives its thread back after {@link #TASKS_PER_RUN} tasks, so other rooms get to run.
+ * </p>
+ */
+public class RoomScheduler {
+
+    private static final int TASKS_PER_RUN = 64;
+
+    private final ScheduledExecutorService threads;
+    private final Queue<Runnable> tasks;
+    private final AtomicBoolean running;
+
+    /**
+     * @param threads shared by the rooms
+     */
+    public RoomScheduler(ScheduledExecutorService threads) {
+        this.threads = threads;
+        this.tasks = new ConcurrentLinkedQueue<>();
+        this.running = new AtomicBoolean();
+    }
+
+    /**
+     * @param task to run after the tasks already given
+     */
+    public void execute(Runnable task) {
+        tasks.add(task);
+        runIfNotRunning();
+    }
+
+    /**
+     * @param task  to run after the delay, in order with the other tasks
+     * @param delay before running
+     * @param unit  of delay
+     * @return to cancel the task before it runs
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return threads.schedule(() -> execute(task), delay, unit);
+    }
+
+    private void runIfNotRunning() {
+        if (!tasks.isEmpty() && running.compareAndSet(false, true)) {
+            threads.execute(this::runTasks);
+        }
+    }
+
+    private void runTasks() {
+        for (int i = 0; i < TASKS_PER_RUN; i++) {
+            Runnable task = tasks.poll();
+            if (task == null) {
+                break;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // Keep running the other tasks of the room
+                e.printStackTrace();
+            }
+        }
+        running.set(false);
+        // Tasks given while the last task ran
+        runIfNotRunning();
+    }
+}
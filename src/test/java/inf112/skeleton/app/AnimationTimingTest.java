@@ -0,0 +1,32 @@
+package inf112.skeleton.app;
+
+import inf112.skeleton.app.enums.AnimationTiming;
+import inf112.skeleton.app.enums.AnimationTiming.Pause;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AnimationTimingTest {
+
+    @Test
+    public void normalTimingWaitsFullPauseTest() {
+        for (Pause pause : Pause.values()) {
+            assertEquals(pause.getMilliseconds(), AnimationTiming.NORMAL.getMilliseconds(pause));
+        }
+    }
+
+    @Test
+    public void fastTimingWaitsShorterThanNormalTest() {
+        for (Pause pause : Pause.values()) {
+            assertTrue(AnimationTiming.FAST.getMilliseconds(pause) < AnimationTiming.NORMAL.getMilliseconds(pause));
+        }
+    }
+
+    @Test
+    public void zeroDelayTimingNeverWaitsTest() {
+        for (Pause pause : Pause.values()) {
+            assertEquals(0, AnimationTiming.ZERO_DELAY.getMilliseconds(pause));
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package inf112.skeleton.app;
+
+import inf112.skeleton.app.cards.Deck;
+import inf112.skeleton.app.cards.ProgramCard;
+import inf112.skeleton.app.enums.Messages;
+import inf112.skeleton.app.enums.Rotate;
+import inf112.skeleton.app.lan.BinaryProtocol;
+import inf112.skeleton.app.lan.Frame;
+import inf112.skeleton.app.lan.FrameConnection;
+import inf112.skeleton.app.lan.Program;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BinaryProtocolTest {
+
+    private ByteBuffer buffer;
+    private Frame frame;
+
+    @Before
+    public void setUp() {
+        this.buffer = ByteBuffer.allocate(256);
+        this.frame = new Frame();
+    }
+
+    @Test
+    public void cardFrameIsFiveBytesAndGivesSameCardBackTest() throws ProtocolException {
+        ProgramCard card = ProgramCard.getCard(42);
+        BinaryProtocol.writeCard(buffer, 3, card);
+        assertEquals(5, buffer.position());
+        buffer.flip();
+        assertTrue(BinaryProtocol.read(buffer, frame));
+        assertEquals(BinaryProtocol.CARD, frame.getOpcode());
+        assertEquals(3, frame.getPlayerNumber());
+        assertSame(card, frame.getCard());
+    }
+
+    @Test
+    public void framesAreReadInOrderTest() throws ProtocolException {
+        BinaryProtocol.writePlayerMessage(buffer, 2, Messages.POWERING_DOWN);
+        BinaryProtocol.writeSeed(buffer, -42L);
+        BinaryProtocol.writeMapPath(buffer, "assets/maps/Risky Exchange.tmx");
+        buffer.flip();
+        assertTrue(BinaryProtocol.read(buffer, frame));
+        assertEquals(2, frame.getPlayerNumber());
+        assertEquals(Messages.POWERING_DOWN, frame.getMessage());
+        assertTrue(BinaryProtocol.read(buffer, frame));
+        assertEquals(-42L, frame.getNumber());
+        assertTrue(BinaryProtocol.read(buffer, frame));
+        assertEquals("assets/maps/Risky Exchange.tmx", frame.getText());
+        assertFalse(BinaryProtocol.read(buffer, frame));
+    }
+
+    @Test
+    public void halfAFrameIsNotReadTest() throws ProtocolException {
+        BinaryProtocol.writeSeed(buffer, 1L);
+        buffer.flip();
+        buffer.limit(5);
+        assertFalse(BinaryProtocol.read(buffer, frame));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void deckFrameGivesSameDeckBackTest() throws ProtocolException {
+        ArrayList<ProgramCard> lockedCards = new ArrayList<>();
+        lockedCards.add(ProgramCard.getCard(0));
+        lockedCards.add(ProgramCard.getCard(83));
+        BinaryProtocol.writeDeck(buffer, 7L, lockedCards);
+        assertEquals(BinaryProtocol.HEADER + 8 + 2, buffer.position());
+        buffer.flip();
+        assertTrue(BinaryProtocol.read(buffer, frame));
+        assertEquals(BinaryProtocol.DECK, frame.getOpcode());
+        assertEquals(Deck.fromSeed(7L, lockedCards).getDeck(), frame.getDeck().getDeck());
+    }
+
+    @Test
+    public void programFrameGivesSameProgramBackTest() throws ProtocolException {
+        ArrayList<ProgramCard> cards = new ArrayList<>();
+        for (int id = 10; id < 15; id++) {
+            cards.add(ProgramCard.getCard(id));
+        }
+        BinaryProtocol.writeProgram(buffer, 4, true, cards);
+        buffer.flip();
+        assertTrue(BinaryProtocol.read(buffer, frame));
+        Program program = frame.getProgram();
+        assertEquals(4, program.getPlayerNumber());
+        assertTrue(program.isPoweringDown());
+        assertEquals(cards, program.getCards());
+    }
+
+    @Test
+    public void roundOfHandAndProgramIsOneByteTest() throws ProtocolException {
+        ArrayList<ProgramCard> cards = new ArrayList<>(Arrays.asList(ProgramCard.getCard(3)));
+        BinaryProtocol.writeHand(buffer, 2, 257, cards);
+        BinaryProtocol.writeProgram(buffer, 2, 257, false, cards);
+        buffer.flip();
+        assertTrue(BinaryProtocol.read(buffer, frame));
+        assertEquals(1, frame.getRound());
+        assertEquals(cards, frame.getCards());
+        assertTrue(BinaryProtocol.read(buffer, frame));
+        assertEquals(1, frame.getProgram().getRound());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cardNotOfTheGameCanNotBeSentTest() {
+        BinaryProtocol.writeCard(buffer, 1, new ProgramCard(10, 2, Rotate.NONE, "Move 2"));
+    }
+
+    @Test
+    public void connectionSendsFramesTogetherTest() throws IOException {
+        ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        FrameConnection sender = new FrameConnection(new ByteArrayInputStream(new byte[0]), sent);
+        BinaryProtocol.writeMessage(sender.getOutput(), Messages.START_TURN);
+        BinaryProtocol.writeNumberOfPlayers(sender.getOutput(), 4);
+        sender.flush();
+        FrameConnection receiver = new FrameConnection(new ByteArrayInputStream(sent.toByteArray()), new ByteArrayOutputStream());
+        receiver.read(frame);
+        assertEquals(Messages.START_TURN, frame.getMessage());
+        receiver.read(frame);
+        assertEquals(4, frame.getNumber());
+    }
+
+    @Test
+    public void messageThatDoesNotExistIsNotReadTest() {
+        buffer.putShort((short) 2).put((byte) BinaryProtocol.MESSAGE).put((byte) Messages.values().length);
+        BinaryProtocol.writeSeed(buffer, 1L);
+        buffer.flip();
+        try {
+            BinaryProtocol.read(buffer, frame);
+            fail();
+        } catch (ProtocolException e) {
+            // The bad frame is skipped
+            assertEquals(4, buffer.position());
+        }
+    }
+
+    @Test(expected = ProtocolException.class)
+    public void cardThatDoesNotExistIsNotReadTest() throws ProtocolException {
+        buffer.putShort((short) 3).put((byte) BinaryProtocol.CARD).put((byte) 1).put((byte) ProgramCard.NUMBER_OF_CARDS);
+        buffer.flip();
+        BinaryProtocol.read(buffer, frame);
+    }
+
+    @Test(expected = ProtocolException.class)
+    public void frameTooShortForItsOpcodeIsNotReadTest() throws ProtocolException {
+        buffer.putShort((short) 3).put((byte) BinaryProtocol.SEED).putShort((short) 1);
+        buffer.flip();
+        BinaryProtocol.read(buffer, frame);
+    }
+
+    @Test(expected = ProtocolException.class)
+    public void programWithMoreCardsThanTheGameIsNotReadTest() throws ProtocolException {
+        int payload = 3 + ProgramCard.NUMBER_OF_CARDS + 1;
+        buffer = ByteBuffer.allocate(BinaryProtocol.HEADER + payload);
+        buffer.putShort((short) (1 + payload)).put((byte) BinaryProtocol.PROGRAM);
+        buffer.position(buffer.limit());
+        buffer.flip();
+        BinaryProtocol.read(buffer, frame);
+    }
+
+    @Test(expected = ProtocolException.class)
+    public void frameLongerThanAnyFrameIsRejectedBeforeItArrivesTest() throws ProtocolException {
+        buffer.putShort((short) BinaryProtocol.MAX_FRAME_SIZE).put((byte) BinaryProtocol.MAP);
+        buffer.flip();
+        BinaryProtocol.read(buffer, frame);
+    }
+}
@@ -0,0 +1,73 @@
+package inf112.skeleton.app;
+
+import inf112.skeleton.app.board.BoardCommandQueue;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BoardCommandQueueTest {
+
+    private BoardCommandQueue queue;
+    private ArrayList<Integer> done;
+
+    @Before
+    public void setUp() {
+        this.queue = new BoardCommandQueue(4);
+        this.done = new ArrayList<>();
+    }
+
+    private Runnable command(int number) {
+        return () -> done.add(number);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityMustBePowerOfTwoTest() {
+        new BoardCommandQueue(3);
+    }
+
+    @Test
+    public void fullQueueRefusesCommandsTest() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(command(i)));
+        }
+        assertFalse(queue.offer(command(4)));
+        assertEquals(4, queue.size());
+    }
+
+    @Test
+    public void drainDoesAtMostBudgetCommandsInOrderTest() {
+        for (int i = 0; i < 3; i++) {
+            queue.offer(command(i));
+        }
+        assertEquals(2, queue.drain(2));
+        assertEquals(2, done.size());
+        assertEquals(0, (int) done.get(0));
+        assertEquals(1, (int) done.get(1));
+        assertEquals(1, queue.drain(10));
+        assertEquals(2, (int) done.get(2));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void commandsFromAnotherThreadAreDoneInOrderTest() throws InterruptedException {
+        int commands = 10000;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < commands; i++) {
+                queue.put(command(i));
+            }
+        });
+        producer.start();
+        while (done.size() < commands) {
+            queue.drain(3);
+        }
+        producer.join();
+        for (int i = 0; i < commands; i++) {
+            assertEquals(i, (int) done.get(i));
+        }
+    }
+}
@@ -4,7 +4,13 @@ import com.badlogic.gdx.backends.headless.HeadlessApplication;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.math.Vector2;
 import inf112.skeleton.app.board.Board;
+import inf112.skeleton.app.board.BoardCommandQueue;
+import inf112.skeleton.app.board.RobotMove;
+import inf112.skeleton.app.cards.ProgramCard;
+import inf112.skeleton.app.engine.Robot;
+import inf112.skeleton.app.engine.TurnEngine;
 import inf112.skeleton.app.enums.Direction;
+import inf112.skeleton.app.enums.Rotate;
 import inf112.skeleton.app.objects.Flag;
 import inf112.skeleton.app.objects.player.Player;
 import org.junit.Before;
@@ -12,6 +18,8 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Queue;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
@@ -27,6 +35,9 @@ public class BoardTest {
     private ArrayList<Vector2> holes;
     private Vector2 startPosition;
     private ArrayList<Flag> flags;
+    private ArrayList<Robot> robots;
+    private ProgramCard moveOne;
+    private ProgramCard backUp;
 
     @Before
     public void setUp() {
@@ -43,6 +54,32 @@ public class BoardTest {
         this.flags = board.getFlags();
         // Sort the flags so player can go on them in correct order
         flags.sort(Comparator.comparingInt(Flag::getFlagnr));
+        this.robots = new ArrayList<>();
+        this.moveOne = new ProgramCard(490, 1, Rotate.NONE, "Move 1");
+        this.backUp = new ProgramCard(430, -1, Rotate.NONE, "Back up");
+    }
+
+    /**
+     * @param position to get cell of
+     * @return index of cell in position
+     */
+    private int cellOf(Vector2 position) {
+        return board.toIndex((int) position.x, (int) position.y);
+    }
+
+    /**
+     * @param position  of robot
+     * @param direction robot faces
+     * @return robot in position, with position as backup
+     */
+    private Robot robotAt(Vector2 position, Direction direction) {
+        Robot robot = new Robot(robots.size() + 1, cellOf(position), direction);
+        robots.add(robot);
+        return robot;
+    }
+
+    private TurnEngine makeEngine() {
+        return new TurnEngine(board.getModel(), robots, new Random(0));
     }
 
     /**
@@ -117,28 +154,27 @@ public class BoardTest {
 
     @Test
     public void playerOutsideBoardIsRespawnedTest() {
-        Vector2 outsideOfBoardPosition = new Vector2(-1, 0);
-        player.setPosition(outsideOfBoardPosition);
-        board.addPlayer(player);
-        board.respawn(player);
-        assertTrue(player.isInBackupState());
+        Robot robot = new Robot(1, Board.OFF_BOARD, Direction.EAST);
+        robot.setBackup(cellOf(startPosition), Direction.NORTH);
+        robots.add(robot);
+        makeEngine().destroyAndRespawnRobots();
+        assertEquals(cellOf(startPosition), robot.getCell());
+        assertEquals(Direction.NORTH, robot.getDirection());
     }
 
 
     @Test
     public void movedPlayerHasChangedCoordinatesTest() {
-        Vector2 startPosition = new Vector2(player.getPosition().x, player.getPosition().y);
-        player.setDirection(Direction.EAST);
-        board.movePlayer(player, false);
-        assertNotEquals(startPosition, player.getPosition());
+        Robot robot = robotAt(startPosition, Direction.EAST);
+        makeEngine().playCard(robot, moveOne);
+        assertNotEquals(cellOf(startPosition), robot.getCell());
     }
 
     @Test
     public void whenPlayerIsMovedUpItHasMovedOneStepTest() {
-        Vector2 startPosition = new Vector2(player.getPosition().x, player.getPosition().y);
-        player.setDirection(Direction.NORTH);
-        board.movePlayer(player, false);
-        assertEquals((int) startPosition.y + 1, (int) player.getPosition().y);
+        Robot robot = robotAt(startPosition, Direction.NORTH);
+        makeEngine().playCard(robot, moveOne);
+        assertEquals((int) startPosition.y + 1, board.toY(robot.getCell()));
     }
 
     @Test
@@ -146,6 +182,23 @@ public class BoardTest {
         assertFalse(holes.isEmpty());
     }
 
+    @Test
+    public void onlyHolesAreFoundAsHolesTest() {
+        for (int x = 0; x < BOARD_WIDTH; x++) {
+            for (int y = 0; y < BOARD_HEIGHT; y++) {
+                Vector2 position = new Vector2(x, y);
+                assertEquals(holes.contains(position), board.hasHole(position));
+            }
+        }
+    }
+
+    @Test
+    public void flagIsFoundInItsPositionTest() {
+        for (Flag flag : flags) {
+            assertTrue(isEqualFlags(flag, board.getFlag(flag.getPosition())));
+        }
+    }
+
     @Test
     public void playerOnHoleIsOutsideBoardTest() {
         // Choose some random holes
@@ -158,14 +211,12 @@ public class BoardTest {
 
     @Test
     public void playerOnHoleIsRespawnedTest() {
-        // Choose some random holes
-        for (int i = 0; i < 5; i++) {
-            Vector2 holePosition = holes.get(0);
-            player.setPosition(holePosition);
-            board.addPlayer(player);
-            board.respawn(player);
-            assertTrue(player.isInBackupState());
-        }
+        Robot robot = robotAt(holes.get(0), Direction.EAST);
+        robot.setBackup(cellOf(startPosition), Direction.NORTH);
+        makeEngine().destroyAndRespawnRobots();
+        assertEquals(Robot.LIFE_TOKENS - 1, robot.getLifeTokens());
+        assertEquals(cellOf(startPosition), robot.getCell());
+        assertEquals(Direction.NORTH, robot.getDirection());
     }
 
     @Test
@@ -192,6 +243,23 @@ public class BoardTest {
         assertEquals(neighbourPosition, board.getNeighbourPosition(startPosition, Direction.NORTH));
     }
 
+    @Test
+    public void neighbourCellIsOffBoardOrBlockedOrNextCellTest() {
+        int corner = board.toIndex(0, 0);
+        assertEquals(Board.OFF_BOARD, board.getNeighbour(corner, Direction.WEST));
+        assertEquals(Board.OFF_BOARD, board.getNeighbour(corner, Direction.SOUTH));
+        assertEquals(board.toIndex(1, 0), board.getNeighbour(corner, Direction.EAST));
+        for (int x = 0; x < BOARD_WIDTH; x++) {
+            for (int y = 0; y < BOARD_HEIGHT; y++) {
+                for (Direction direction : Direction.values()) {
+                    Vector2 position = new Vector2(x, y);
+                    int neighbour = board.getNeighbour(board.toIndex(x, y), direction);
+                    assertEquals(board.canGo(position, direction), neighbour != Board.BLOCKED);
+                }
+            }
+        }
+    }
+
     @Test
     public void playerPicksUpFirstFlagTest() {
         Flag flag = flags.get(0);
@@ -226,12 +294,11 @@ public class BoardTest {
     public void playerMovesOnFlagTest() {
         Flag flag = flags.get(0);
         Vector2 flagPosition = flag.getPosition();
-        Vector2 playerPosition = new Vector2(flagPosition.x -1, flagPosition.y);
-        player.setPosition(playerPosition);
-        player.setDirection(Direction.EAST);
-        board.movePlayer(player, false);
-        player.pickUpFlag(flag);
-        assertTrue(isEqualFlags(flag, player.getFlagsCollected().get(0)));
+        Robot robot = robotAt(new Vector2(flagPosition.x -1, flagPosition.y), Direction.EAST);
+        robot.setProgram(moveOne);
+        makeEngine().playRegister(0);
+        assertEquals(cellOf(flagPosition), robot.getCell());
+        assertEquals(flag.getFlagnr(), robot.getFlagsCollected());
     }
 
     @Test
@@ -254,47 +321,40 @@ public class BoardTest {
         Player player2 = new Player(playerTwoPos, 2);
         player2.setDirection(Direction.WEST);
         board.addPlayer(player);
-        assertTrue(board.shouldPush(player2, Direction.WEST));
+        assertTrue(board.hasPlayer(board.getNeighbourPosition(player2.getPosition(), Direction.WEST)));
     }
 
     @Test
     public void playerPushingBackwardsTest() {
         Vector2 playerToBePushedPosition = new Vector2(0,0);
-        player.setPosition(playerToBePushedPosition);
-        Vector2 playerTwoPos = new Vector2(1, 0);
-        Player player2 = new Player(playerTwoPos, 2);
+        robotAt(playerToBePushedPosition, Direction.NORTH);
         // Facing away from player to be pushed
-        player2.setDirection(Direction.EAST);
-        board.addPlayer(player);
-        board.movePlayer(player2, true);
-        assertEquals(player2, board.getPlayer(playerToBePushedPosition));
+        Robot robot2 = robotAt(new Vector2(1, 0), Direction.EAST);
+        TurnEngine engine = makeEngine();
+        engine.playCard(robot2, backUp);
+        assertEquals(robot2, engine.getRobotInCell(cellOf(playerToBePushedPosition)));
     }
 
     @Test
     public void pushedPlayerIsReplacedByPlayerThatIsPushingTest() {
         Vector2 playerToBePushedPosition = new Vector2(1, 0);
-        player.setPosition(playerToBePushedPosition);
-        Vector2 playerTwoPos = new Vector2(0,0);
-        Player player2 = new Player(playerTwoPos, 2);
-        player2.setDirection(Direction.EAST);
-        board.addPlayer(player);
-        board.movePlayer(player2, false);
-        assertEquals(player2, board.getPlayer(playerToBePushedPosition));
+        robotAt(playerToBePushedPosition, Direction.NORTH);
+        Robot robot2 = robotAt(new Vector2(0, 0), Direction.EAST);
+        TurnEngine engine = makeEngine();
+        engine.playCard(robot2, moveOne);
+        assertEquals(robot2, engine.getRobotInCell(cellOf(playerToBePushedPosition)));
     }
 
     @Test
     public void pushedPlayerMovesInSameDirectionAsItIsPushedTest() {
         Vector2 playerToBePushedPosition = new Vector2(1, 0);
         Vector2 playerIsPushedToPosition = new Vector2(2,0);
-        player.setPosition(playerToBePushedPosition);
         // Set different direction then it is pushed in
-        player.setDirection(Direction.NORTH);
-        Vector2 playerTwoPos = new Vector2(0,0);
-        Player player2 = new Player(playerTwoPos, 2);
-        player2.setDirection(Direction.EAST);
-        board.addPlayer(player);
-        board.movePlayer(player2, false);
-        assertEquals(player, board.getPlayer(playerIsPushedToPosition));
+        Robot robot = robotAt(playerToBePushedPosition, Direction.NORTH);
+        Robot robot2 = robotAt(new Vector2(0, 0), Direction.EAST);
+        TurnEngine engine = makeEngine();
+        engine.playCard(robot2, moveOne);
+        assertEquals(robot, engine.getRobotInCell(cellOf(playerIsPushedToPosition)));
     }
 
     @Test
@@ -304,32 +364,24 @@ public class BoardTest {
         Vector2 playerToBePushedPositionTwo = new Vector2(3, 6);
         Vector2 playerPushingPosition = new Vector2(4, 6);
         Vector2 positionToBePushedTo = new Vector2(1, 6);
-        Player player2 = new Player(playerToBePushedPositionOne, 2);
-        Player player3 = new Player(playerToBePushedPositionTwo, 3);
         // Random directions
-        player2.setDirection(Direction.EAST);
-        player3.setDirection(Direction.SOUTH);
-        player.setPosition(playerPushingPosition);
-        player.setDirection(Direction.WEST);
-        board.addPlayer(player2);
-        board.addPlayer(player3);
-        board.movePlayer(player, false);
-        assertEquals(player2, board.getPlayer(positionToBePushedTo));
+        Robot robot2 = robotAt(playerToBePushedPositionOne, Direction.EAST);
+        robotAt(playerToBePushedPositionTwo, Direction.SOUTH);
+        Robot robot = robotAt(playerPushingPosition, Direction.WEST);
+        TurnEngine engine = makeEngine();
+        engine.playCard(robot, moveOne);
+        assertEquals(robot2, engine.getRobotInCell(cellOf(positionToBePushedTo)));
     }
 
     @Test
     public void wallStopsPushingTest() {
         // Found wall in Risky Exhange
         Vector2 northWallPosition = new Vector2(0, 5);
-        Player player2 = new Player(northWallPosition, 2);
-        player2.setDirection(Direction.WEST);
-        Vector2 playerPushingPosition = new Vector2(0,4);
-        player.setPosition(playerPushingPosition);
-        player.setDirection(Direction.NORTH);
-        board.addPlayer(player2);
-        board.addPlayer(player);
-        board.movePlayer(player, false);
-        assertEquals(player2, board.getPlayer(northWallPosition));
+        Robot robot2 = robotAt(northWallPosition, Direction.WEST);
+        Robot robot = robotAt(new Vector2(0, 4), Direction.NORTH);
+        TurnEngine engine = makeEngine();
+        engine.playCard(robot, moveOne);
+        assertEquals(robot2, engine.getRobotInCell(cellOf(northWallPosition)));
     }
 
     @Test
@@ -337,18 +389,68 @@ public class BoardTest {
         // Found wall in Risky Exhange
         Vector2 northWallPosition = new Vector2(0, 5);
         Vector2 middlePosition = new Vector2(0, 4);
-        Player playerToBeStoppedByWall = new Player(northWallPosition, 2);
-        Player playerInMiddle = new Player(middlePosition, 3);
-        playerToBeStoppedByWall.setDirection(Direction.WEST);
-        playerInMiddle.setDirection(Direction.SOUTH);
-        Vector2 playerPushingPosition = new Vector2(0,3);
-        player.setPosition(playerPushingPosition);
-        player.setDirection(Direction.NORTH);
-        board.addPlayer(playerToBeStoppedByWall);
-        board.addPlayer(playerInMiddle);
+        Robot robotToBeStoppedByWall = robotAt(northWallPosition, Direction.WEST);
+        robotAt(middlePosition, Direction.SOUTH);
+        Robot robot = robotAt(new Vector2(0, 3), Direction.NORTH);
+        TurnEngine engine = makeEngine();
+        engine.playCard(robot, moveOne);
+        assertEquals(robotToBeStoppedByWall, engine.getRobotInCell(cellOf(northWallPosition)));
+    }
+
+    @Test
+    public void playerIsFoundInNewPositionAfterPositionIsSetTest() {
+        board.addPlayer(player);
+        Vector2 newPosition = new Vector2(2, 2);
+        player.setPosition(newPosition);
+        assertEquals(player, board.getPlayer(newPosition));
+        assertFalse(board.hasPlayer(startPosition));
+    }
+
+    @Test
+    public void playerRemovedFromBoardIsNotFoundTest() {
+        board.addPlayer(player);
+        board.removePlayerFromBoard(player);
+        assertFalse(board.hasPlayer(startPosition));
+    }
+
+    @Test
+    public void playerPlacedInCellIsFoundThereTest() {
         board.addPlayer(player);
-        board.movePlayer(player, false);
-        assertEquals(playerToBeStoppedByWall, board.getPlayer(northWallPosition));
+        Vector2 position = player.getPosition();
+        board.placePlayer(player, 2, 3);
+        assertSame(position, player.getPosition());
+        assertEquals(new Vector2(2, 3), player.getPosition());
+        assertEquals(player, board.getPlayer(new Vector2(2, 3)));
+        assertFalse(board.hasPlayer(startPosition));
+    }
+
+    @Test
+    public void animatedBoardTellsEveryStepOfAMoveTest() {
+        board.addPlayer(player);
+        Queue<RobotMove> moves = board.animateRobotMoves();
+        assertEquals(startPosition, new Vector2(moves.peek().getX(), moves.poll().getY()));
+        board.placePlayer(player, new Vector2(4, 5));
+        board.placePlayer(player, new Vector2(3, 5));
+        assertEquals(4, moves.poll().getX(), 0);
+        assertEquals(3, moves.poll().getX(), 0);
+        board.removePlayerFromBoard(player);
+        assertFalse(moves.poll().isOnBoard());
+        assertTrue(moves.isEmpty());
+    }
+
+    @Test
+    public void pushingARowOfPlayersMovesEveryPlayerOneStepTest() {
+        Robot robot = robotAt(new Vector2(2, 3), Direction.EAST);
+        Robot robot2 = robotAt(new Vector2(3, 3), Direction.NORTH);
+        Robot robot3 = robotAt(new Vector2(4, 3), Direction.NORTH);
+        Robot robot4 = robotAt(new Vector2(5, 3), Direction.NORTH);
+        TurnEngine engine = makeEngine();
+        engine.playCard(robot, moveOne);
+        assertEquals(board.toIndex(3, 3), robot.getCell());
+        assertEquals(board.toIndex(4, 3), robot2.getCell());
+        assertEquals(board.toIndex(5, 3), robot3.getCell());
+        assertEquals(board.toIndex(6, 3), robot4.getCell());
+        assertNull(engine.getRobotInCell(board.toIndex(2, 3)));
     }
 
     @Test
@@ -360,4 +462,19 @@ public class BoardTest {
         assertEquals(8, game.getBoard().getPlayers().size());
     }
 
+    @Test
+    public void commandFromRenderThreadIsDoneAtOnceTest() throws InterruptedException {
+        BoardCommandQueue[] renderCommands = new BoardCommandQueue[1];
+        boolean[] done = new boolean[1];
+        Thread renderThread = new Thread(() -> {
+            renderCommands[0] = board.attachRenderer();
+            board.runOnRenderThread(() -> done[0] = true);
+        });
+        renderThread.start();
+        renderThread.join();
+        assertTrue(done[0]);
+        assertEquals(0, renderCommands[0].size());
+        board.runOnRenderThread(() -> done[0] = false);
+        assertEquals(1, renderCommands[0].size());
+    }
 }
@@ -2,10 +2,12 @@ package inf112.skeleton.app;
 
 import com.badlogic.gdx.math.Vector2;
 import inf112.skeleton.app.board.Board;
+import inf112.skeleton.app.cards.Deck;
 import inf112.skeleton.app.cards.ProgramCard;
 import inf112.skeleton.app.enums.Messages;
-import inf112.skeleton.app.enums.Rotate;
-import inf112.skeleton.app.lan.Converter;
+import inf112.skeleton.app.lan.BinaryProtocol;
+import inf112.skeleton.app.lan.Frame;
+import inf112.skeleton.app.lan.FrameConnection;
 import inf112.skeleton.app.lan.GameClientThread;
 import inf112.skeleton.app.objects.player.Player;
 import inf112.skeleton.app.screens.menuscreen.MenuScreenActors;
@@ -15,240 +17,260 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 
-import static org.junit.Assert.assertTrue;
-import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ClientTest {
 
-    private GameClientThread client;
-    private Converter converter;
     private ProgramCard programcard;
     private Player player1;
+    private ByteBuffer frames;
+    private ByteArrayOutputStream sent;
 
     @Mock
     private Socket socket;
 
-    @Mock
-    private OutputStream outputStream;
-
     @Mock
     private RallyGame game;
 
     @Mock
     private Board board;
 
-    @Mock
-    private BufferedReader reader;
-
     @Mock
     private MenuScreenActors menuScreenActors;
 
-    @Mock
-    private InputStream inputStream;
-
     @Before
     public void setUp() {
-        try {
-            when(socket.getInputStream()).thenReturn(inputStream);
-            when(socket.getOutputStream()).thenReturn(outputStream);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        this.client = new GameClientThread(game, socket);
-        this.converter = new Converter();
-        this.programcard = new ProgramCard(10, 2, Rotate.NONE, "Move 2");
+        this.programcard = ProgramCard.getCard(10);
         this.player1 = new Player(new Vector2(0,0), 1);
-        when(game.getBoard()).thenReturn(board);
-        when(board.getPlayer(1)).thenReturn(player1);
-        when(game.getMenuScreenActors()).thenReturn(menuScreenActors);
-        // Reader is decided in each test
-        client.setReader(reader);
+        // Frames from server are decided in each test
+        this.frames = ByteBuffer.allocate(1024);
+        this.sent = new ByteArrayOutputStream();
+    }
+
+    /**
+     * @return client reading the frames written to {@link #frames} and then the end of the stream
+     */
+    private GameClientThread makeClient() throws IOException {
+        when(socket.getInputStream()).thenReturn(new ByteArrayInputStream(frames.array(), 0, frames.position()));
+        when(socket.getOutputStream()).thenReturn(sent);
+        return new GameClientThread(game, socket);
     }
 
     /**
-     * Wait for thread to finish
-     * @param thread thread to wait for
+     * Start client and wait for it to read all frames.
+     * @param client client to run
      */
-    private void waitForThread(Thread thread) {
+    private void runClient(GameClientThread client) {
+        client.start();
         try {
-            thread.join();
+            client.join();
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
     }
 
+    private void givePlayer1ToGame() {
+        when(game.getBoard()).thenReturn(board);
+        when(board.getPlayer(1)).thenReturn(player1);
+    }
+
     @Test
-    public void clientGetCorrectPlayerNumberTest() {
-        try {
-            when(reader.readLine()).thenReturn(converter.createPlayerNumberMessage(3))
-            .thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        client.start();
-        waitForThread(client);
+    public void clientGetCorrectPlayerNumberTest() throws IOException {
+        BinaryProtocol.writePlayerNumber(frames, 3);
+        runClient(makeClient());
         verify(game).setPlayerNumber(3);
     }
 
     @Test
-    public void clientGetCorrectNumberOfPlayersTest() {
-        try {
-            when(reader.readLine()).thenReturn(converter.createNumberOfPlayersMessage(4)).thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        client.start();
-        waitForThread(client);
+    public void clientGetCorrectNumberOfPlayersTest() throws IOException {
+        BinaryProtocol.writeNumberOfPlayers(frames, 4);
+        runClient(makeClient());
         verify(game).setNumberOfPlayers(4);
     }
 
     @Test
-    public void whenReceivingProgramCardFromServerCorrectPlayerIsExtractedTest() {
-        String programCardAsString = converter.convertToString(1, programcard);
-        try {
-            when(reader.readLine())
-                    .thenReturn(programCardAsString)
-                    .thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        client.start();
-        waitForThread(client);
-        assertEquals(programcard.toString(), player1.getRegisters().getCard(0).toString());
+    public void whenReceivingProgramFromServerCorrectPlayerIsExtractedTest() throws IOException {
+        givePlayer1ToGame();
+        BinaryProtocol.writeProgram(frames, 1, false, Arrays.asList(programcard));
+        runClient(makeClient());
+        assertEquals(programcard, player1.getRegisters().getCard(0));
+    }
 
+    @Test
+    public void ownProgramIsNotAddedAgainTest() throws IOException {
+        givePlayer1ToGame();
+        BinaryProtocol.writePlayerNumber(frames, 1);
+        BinaryProtocol.writeProgram(frames, 1, false, Arrays.asList(programcard));
+        runClient(makeClient());
+        assertTrue(player1.getRegisters().getCards().isEmpty());
     }
 
     @Test
-    public void onlyAddingCardsToDeckWhenReceivingDeckIsTrueTest() {
-        String programCardString = converter.convertToString(programcard);
-        Player player = new Player(new Vector2(0,0), 1);
-        String programCardNotBelongingToDeck = converter.convertToString(1, programcard);
-        try {
-            when(reader.readLine())
-                    .thenReturn(Messages.DECK_BEGIN.toString())
-                    .thenReturn(programCardString)
-                    .thenReturn(Messages.DECK_END.toString())
-                    .thenReturn(programCardNotBelongingToDeck)
-                    .thenReturn(Messages.STOP_THREAD.toString());
-            when(board.getPlayer(1)).thenReturn(player);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        client.start();
-        waitForThread(client);
-        assertEquals(1, client.getStackOfDeck().size());
+    public void receivedDeckIsGivenToGameTest() throws IOException {
+        when(game.getMenuScreenActors()).thenReturn(menuScreenActors);
+        ArrayList<ProgramCard> lockedCards = new ArrayList<>(Arrays.asList(programcard));
+        BinaryProtocol.writeDeck(frames, 42L, lockedCards);
+        GameClientThread client = makeClient();
+        runClient(client);
+        assertEquals(Deck.fromSeed(42L, lockedCards).getDeck(), client.getStackOfDeck());
+        verify(game).setDeck(client.getStackOfDeck());
+        verify(menuScreenActors).haveReceivedStartValues();
     }
 
     @Test
-    public void receivingCorrectMapTest() {
-        try {
-            when(reader.readLine())
-                    .thenReturn(converter.createMapPathMessage("assets/maps/Risky Exchange.tmx"))
-                    .thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        client.start();
-        waitForThread(client);
+    public void receivingCorrectMapTest() throws IOException {
+        when(game.getMenuScreenActors()).thenReturn(menuScreenActors);
+        BinaryProtocol.writeMapPath(frames, "assets/maps/Risky Exchange.tmx");
+        runClient(makeClient());
         verify(game).setMapPath("assets/maps/Risky Exchange.tmx");
     }
 
     @Test
-    public void playerOneSendsPoweringDownTest() {
-        try {
-            when(reader.readLine())
-                    .thenReturn(converter.createMessageFromPlayer(1, Messages.POWERING_DOWN))
-                    .thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        client.start();
-        waitForThread(client);
+    public void playerOneSendsPowerDownIsRegisteredTest() throws IOException {
+        givePlayer1ToGame();
+        BinaryProtocol.writePlayerMessage(frames, 1, Messages.POWERING_DOWN);
+        runClient(makeClient());
         assertTrue(player1.isPoweringDown());
     }
 
     @Test
-    public void playerOneSendsPowerUpTest() {
-        try {
-            when(reader.readLine())
-                    .thenReturn(converter.createMessageFromPlayer(1, Messages.POWER_UP))
-                    .thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        client.start();
-        waitForThread(client);
+    public void playerOneSendsPowerUpTest() throws IOException {
+        givePlayer1ToGame();
+        player1.setPoweredDown(true);
+        BinaryProtocol.writePlayerMessage(frames, 1, Messages.POWER_UP);
+        runClient(makeClient());
         assertFalse(player1.isPoweredDown());
     }
 
     @Test
-    public void playerOneSendsPowerDownIsRegisteredTest() {
-        try {
-            when(reader.readLine())
-                    .thenReturn(converter.createMessageFromPlayer(1, Messages.POWERING_DOWN))
-                    .thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        client.start();
-        waitForThread(client);
-        assertTrue(player1.isPoweringDown());
-    }
-
-    @Test
-    public void playerOneSendsPowerUpIsRemovedFromPoweredDownInGameTest() {
-        try {
-            when(reader.readLine())
-                    .thenReturn(converter.createMessageFromPlayer(1, Messages.POWER_UP))
-                    .thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        client.start();
-        waitForThread(client);
+    public void playerOneSendsPowerUpIsRemovedFromPoweredDownInGameTest() throws IOException {
+        givePlayer1ToGame();
+        BinaryProtocol.writePlayerMessage(frames, 1, Messages.POWER_UP);
+        runClient(makeClient());
         verify(game).removePoweredDownPlayer(player1);
     }
 
     @Test
-    public void continueTurnWhenServerSendsContinueMessage() {
-        try {
-            when(reader.readLine())
-                    .thenReturn(Messages.CONTINUE_TURN.toString())
-                    .thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    public void continueTurnWhenServerSendsContinueMessage() throws IOException {
+        BinaryProtocol.writeMessage(frames, Messages.CONTINUE_TURN);
+        GameClientThread client = makeClient();
         // Do not wait for doTurn to finish
         client.continueListening();
-        client.start();
-        waitForThread(client);
+        runClient(client);
         verify(game).continueTurn();
     }
 
     @Test
-    public void client2SendsQuitMessageTest() {
-        try {
-            when(reader.readLine())
-                    .thenReturn(converter.createQuitMessage(2))
-                    .thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        // Do not wait for doTurn to finish
-        client.continueListening();
-        client.start();
-        waitForThread(client);
+    public void client2SendsQuitMessageTest() throws IOException {
+        when(game.getBoard()).thenReturn(board);
+        BinaryProtocol.writePlayerMessage(frames, 2, Messages.QUIT);
+        runClient(makeClient());
         verify(game).quitPlaying();
     }
 
+    @Test
+    public void roomCodeIsReadWhenRoomIsCreatedTest() throws IOException {
+        BinaryProtocol.writeRoomCode(frames, "ABCDE");
+        GameClientThread client = makeClient();
+        assertEquals("ABCDE", client.createRoom("assets/maps/Risky Exchange.tmx"));
+        assertTrue(client.isPlayingInRoom());
+        FrameConnection server = new FrameConnection(new ByteArrayInputStream(sent.toByteArray()), new ByteArrayOutputStream());
+        Frame frame = new Frame();
+        server.read(frame);
+        assertEquals(BinaryProtocol.CREATE_ROOM, frame.getOpcode());
+        assertEquals("assets/maps/Risky Exchange.tmx", frame.getText());
+    }
+
+    @Test
+    public void roomThatIsNotFoundIsNotJoinedTest() throws IOException {
+        BinaryProtocol.writeMessage(frames, Messages.ROOM_NOT_FOUND);
+        GameClientThread client = makeClient();
+        assertNull(client.joinRoom("NOPE0"));
+        assertFalse(client.isPlayingInRoom());
+    }
+
+    @Test
+    public void seedFromRoomTellsStartValuesAreReceivedTest() throws IOException {
+        when(game.getMenuScreenActors()).thenReturn(menuScreenActors);
+        BinaryProtocol.writeRoomCode(frames, "ABCDE");
+        BinaryProtocol.writeSeed(frames, 42L);
+        GameClientThread client = makeClient();
+        client.joinRoom("abcde");
+        runClient(client);
+        verify(game).setSeed(42L);
+        verify(menuScreenActors).haveReceivedStartValues();
+    }
+
+    @Test
+    public void handFromRoomIsGivenToGameTest() throws IOException {
+        ArrayList<ProgramCard> hand = new ArrayList<>(Arrays.asList(programcard, ProgramCard.getCard(11)));
+        BinaryProtocol.writeHand(frames, 1, 3, hand);
+        runClient(makeClient());
+        verify(game).receiveHand(hand);
+    }
+
+    @Test
+    public void programFromRoomReplacesOwnSelectionTest() throws IOException {
+        givePlayer1ToGame();
+        player1.setSelectedCards(ProgramCard.getCard(1), ProgramCard.getCard(2));
+        BinaryProtocol.writeRoomCode(frames, "ABCDE");
+        BinaryProtocol.writePlayerNumber(frames, 1);
+        // Time ran out before the selection of player 1 was received
+        BinaryProtocol.writeProgram(frames, 1, 3, false, Arrays.asList(programcard));
+        GameClientThread client = makeClient();
+        client.joinRoom("ABCDE");
+        runClient(client);
+        verify(game).endCardSelection();
+        assertEquals(Arrays.asList(programcard), player1.getRegisters().getCards());
+    }
+
+    @Test
+    public void programIsSentWithRoundOfHandTest() throws IOException {
+        BinaryProtocol.writeRoomCode(frames, "ABCDE");
+        BinaryProtocol.writeHand(frames, 2, 7, Arrays.asList(programcard));
+        GameClientThread client = makeClient();
+        client.joinRoom("ABCDE");
+        runClient(client);
+        sent.reset();
+        Player player = new Player(new Vector2(0, 0), 2);
+        player.addSelectedCard(programcard);
+        client.sendProgram(player);
+        FrameConnection server = new FrameConnection(new ByteArrayInputStream(sent.toByteArray()), new ByteArrayOutputStream());
+        Frame frame = new Frame();
+        server.read(frame);
+        assertEquals(7, frame.getProgram().getRound());
+    }
+
+    @Test
+    public void programIsSentInOneFrameTest() throws IOException {
+        GameClientThread client = makeClient();
+        Player player = new Player(new Vector2(0, 0), 2);
+        for (int id = 0; id < 5; id++) {
+            player.addSelectedCard(ProgramCard.getCard(id));
+        }
+        player.setPoweringDown(true);
+        client.sendProgram(player);
+        FrameConnection server = new FrameConnection(new ByteArrayInputStream(sent.toByteArray()), new ByteArrayOutputStream());
+        Frame frame = new Frame();
+        server.read(frame);
+        assertEquals(BinaryProtocol.PROGRAM, frame.getOpcode());
+        assertEquals(2, frame.getProgram().getPlayerNumber());
+        assertTrue(frame.getProgram().isPoweringDown());
+        assertEquals(player.getRegisters().getCards(), frame.getProgram().getCards());
+    }
+
 }
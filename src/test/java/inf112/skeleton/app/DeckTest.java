@@ -1,10 +1,16 @@
 package inf112.skeleton.app;
 
 import inf112.skeleton.app.cards.Deck;
+import inf112.skeleton.app.cards.ProgramCard;
+import inf112.skeleton.app.enums.Rotate;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 
 public class DeckTest {
 
@@ -13,7 +19,7 @@ public class DeckTest {
 
     @Before
     public void setUp() {
-        deck = new Deck();
+        deck = new Deck(new Random(0));
     }
 
     @Test
@@ -33,5 +39,48 @@ public class DeckTest {
         assertEquals(NUMBER_OF_CARDS-1, deck.deckSize());
     }
 
+    @Test
+    public void decksWithSameSeedAreShuffledTheSameTest() {
+        Deck deck1 = new Deck(new Random(42));
+        Deck deck2 = new Deck(new Random(42));
+        deck1.shuffleDeck();
+        deck2.shuffleDeck();
+        while (deck1.deckSize() > 1) {
+            assertEquals(deck1.drawCard().getPriority(), deck2.drawCard().getPriority());
+        }
+    }
+
+    @Test
+    public void removedCardsAreNotDrawnTest() {
+        ArrayList<ProgramCard> lockedCards = new ArrayList<>();
+        lockedCards.add(new ProgramCard(10, 0, Rotate.LEFT, "Left turn"));
+        lockedCards.add(new ProgramCard(840, -1, Rotate.NONE, "Back up"));
+        deck.removeCards(lockedCards);
+        assertEquals(NUMBER_OF_CARDS - 2, deck.deckSize());
+        while (deck.deckSize() > 1) {
+            int priority = deck.drawCard().getPriority();
+            assertNotEquals(10, priority);
+            assertNotEquals(840, priority);
+        }
+    }
+
+    @Test
+    public void discardPileIsShuffledIntoDeckWhenDeckIsEmptyTest() {
+        for (int card = 0; card < 10; card++) {
+            deck.addCardToDiscardPile(deck.drawCard());
+        }
+        while (deck.deckSize() > 1) {
+            deck.drawCard();
+        }
+        deck.drawCard();
+        assertEquals(10, deck.deckSize());
+    }
 
+    @Test
+    public void stackGivenToDeckIsDrawnFromTheTopTest() {
+        Deck other = new Deck(new Random(1));
+        deck.setDeck(other.getDeck());
+        assertEquals(other.deckSize(), deck.deckSize());
+        assertEquals(other.drawCard().getPriority(), deck.drawCard().getPriority());
+    }
 }
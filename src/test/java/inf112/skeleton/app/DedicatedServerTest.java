@@ -0,0 +1,201 @@
+package inf112.skeleton.app;
+
+import inf112.skeleton.app.cards.ProgramCard;
+import inf112.skeleton.app.enums.Messages;
+import inf112.skeleton.app.lan.BinaryProtocol;
+import inf112.skeleton.app.lan.Frame;
+import inf112.skeleton.app.lan.FrameConnection;
+import inf112.skeleton.app.lan.GameClientThread;
+import inf112.skeleton.app.server.DedicatedServer;
+import inf112.skeleton.app.server.RoomRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class DedicatedServerTest {
+
+    private static final String MAP_PATH = "assets/maps/Risky Exchange.tmx";
+
+    private DedicatedServer server;
+    private RoomRegistry registry;
+    private final ArrayList<Socket> sockets = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        this.registry = new RoomRegistry(new File("assets/maps"), 2);
+        this.server = new DedicatedServer(registry);
+        server.start(0);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        server.stop();
+    }
+
+    private FrameConnection connect() throws IOException {
+        Socket socket = new Socket("localhost", server.getPortNumber());
+        socket.setSoTimeout(5000);
+        sockets.add(socket);
+        return new FrameConnection(socket.getInputStream(), socket.getOutputStream());
+    }
+
+    /**
+     * Read frames until a frame with the opcode is read.
+     */
+    private Frame readUntil(FrameConnection connection, int opcode) throws IOException {
+        Frame frame = new Frame();
+        do {
+            connection.read(frame);
+        } while (frame.getOpcode() != opcode);
+        return frame;
+    }
+
+    /**
+     * @return code of the room made
+     */
+    private String createRoom(FrameConnection host) throws IOException {
+        BinaryProtocol.writeCreateRoom(host.getOutput(), MAP_PATH);
+        host.flush();
+        return readUntil(host, BinaryProtocol.ROOM).getText();
+    }
+
+    private void join(FrameConnection client, String code) throws IOException {
+        BinaryProtocol.writeJoin(client.getOutput(), code);
+        client.flush();
+    }
+
+    @Test
+    public void roomIsJoinedWithItsCodeTest() throws IOException {
+        FrameConnection host = connect();
+        String code = createRoom(host);
+        assertEquals(1, readUntil(host, BinaryProtocol.PLAYER_NUMBER).getPlayerNumber());
+        FrameConnection client = connect();
+        join(client, code.toLowerCase());
+        assertEquals(code, readUntil(client, BinaryProtocol.ROOM).getText());
+        assertEquals(2, readUntil(client, BinaryProtocol.PLAYER_NUMBER).getPlayerNumber());
+        assertEquals(2, readUntil(client, BinaryProtocol.PLAYERS).getNumber());
+        assertEquals(1, registry.getNumberOfRooms());
+    }
+
+    @Test
+    public void playersAreNumberedFromOneWhenGameStartsTest() throws IOException {
+        FrameConnection host = connect();
+        String code = createRoom(host);
+        FrameConnection client2 = connect();
+        join(client2, code);
+        assertEquals(2, readUntil(client2, BinaryProtocol.PLAYER_NUMBER).getPlayerNumber());
+        FrameConnection client3 = connect();
+        join(client3, code);
+        assertEquals(3, readUntil(client3, BinaryProtocol.PLAYER_NUMBER).getPlayerNumber());
+        sockets.get(0).close();
+        // Number of players when 2 and 3 joined, and when 1 left
+        readUntil(client2, BinaryProtocol.PLAYERS);
+        readUntil(client2, BinaryProtocol.PLAYERS);
+        assertEquals(2, readUntil(client2, BinaryProtocol.PLAYERS).getNumber());
+
+        BinaryProtocol.writeMessage(client2.getOutput(), Messages.START_TURN);
+        client2.flush();
+        assertEquals(1, readUntil(client2, BinaryProtocol.PLAYER_NUMBER).getPlayerNumber());
+        assertEquals(2, readUntil(client3, BinaryProtocol.PLAYER_NUMBER).getPlayerNumber());
+        assertEquals(1, readUntil(client2, BinaryProtocol.HAND).getPlayerNumber());
+        assertEquals(2, readUntil(client3, BinaryProtocol.HAND).getPlayerNumber());
+    }
+
+    @Test
+    public void programOfEarlierRoundIsDroppedTest() throws IOException {
+        FrameConnection host = connect();
+        createRoom(host);
+        BinaryProtocol.writeMessage(host.getOutput(), Messages.START_TURN);
+        host.flush();
+        Frame hand = readUntil(host, BinaryProtocol.HAND);
+        ArrayList<ProgramCard> cards = hand.getCards();
+        // Sent after the turn of the round before was played
+        BinaryProtocol.writeProgram(host.getOutput(), 1, hand.getRound() - 1, false, cards.subList(0, 5));
+        BinaryProtocol.writeProgram(host.getOutput(), 1, hand.getRound(), false, cards.subList(4, 9));
+        host.flush();
+        assertEquals(cards.subList(4, 9), readUntil(host, BinaryProtocol.PROGRAM).getProgram().getCards());
+    }
+
+    /**
+     * @return client of a game, not started
+     */
+    private GameClientThread makeGameClient() throws IOException {
+        Socket socket = new Socket("localhost", server.getPortNumber());
+        sockets.add(socket);
+        return new GameClientThread(mock(RallyGame.class), socket);
+    }
+
+    @Test
+    public void gameClientsMakeAndJoinRoomTest() throws IOException {
+        String code = makeGameClient().createRoom(MAP_PATH);
+        assertEquals(5, code.length());
+        GameClientThread client = makeGameClient();
+        assertEquals(code, client.joinRoom(code.toLowerCase()));
+        assertTrue(client.isPlayingInRoom());
+        assertNull(makeGameClient().joinRoom("NOPE0"));
+        assertNull(makeGameClient().createRoom("../../pom.xml"));
+    }
+
+    @Test
+    public void unknownRoomAndMapAreNotFoundTest() throws IOException {
+        FrameConnection client = connect();
+        join(client, "NOPE0");
+        assertEquals(Messages.ROOM_NOT_FOUND, readUntil(client, BinaryProtocol.MESSAGE).getMessage());
+        BinaryProtocol.writeCreateRoom(client.getOutput(), "../../pom.xml");
+        client.flush();
+        assertEquals(Messages.MAP_NOT_FOUND, readUntil(client, BinaryProtocol.MESSAGE).getMessage());
+        assertEquals(0, registry.getNumberOfRooms());
+    }
+
+    @Test
+    public void turnIsPlayedWhenAllProgramsAreReceivedTest() throws IOException {
+        FrameConnection host = connect();
+        String code = createRoom(host);
+        FrameConnection client = connect();
+        join(client, code);
+        readUntil(client, BinaryProtocol.PLAYER_NUMBER);
+        BinaryProtocol.writeMessage(host.getOutput(), Messages.START_TURN);
+        host.flush();
+
+        FrameConnection[] players = {host, client};
+        for (int number = 1; number <= players.length; number++) {
+            FrameConnection player = players[number - 1];
+            assertEquals(MAP_PATH, readUntil(player, BinaryProtocol.MAP).getText());
+            Frame hand = readUntil(player, BinaryProtocol.HAND);
+            assertEquals(number, hand.getPlayerNumber());
+            ArrayList<ProgramCard> cards = hand.getCards();
+            assertEquals(9, cards.size());
+            BinaryProtocol.writeProgram(player.getOutput(), number, hand.getRound(), false, cards.subList(0, 5));
+            player.flush();
+        }
+
+        for (FrameConnection player : players) {
+            Frame frame = new Frame();
+            int programs = 0;
+            do {
+                player.read(frame);
+                if (frame.getOpcode() == BinaryProtocol.PROGRAM) {
+                    assertEquals(5, frame.getProgram().getCards().size());
+                    programs++;
+                }
+            } while (frame.getOpcode() != BinaryProtocol.MESSAGE);
+            assertEquals(Messages.START_TURN, frame.getMessage());
+            assertEquals(2, programs);
+            // Next round is dealt
+            assertTrue(readUntil(player, BinaryProtocol.HAND).getCards().size() > 0);
+        }
+    }
+}
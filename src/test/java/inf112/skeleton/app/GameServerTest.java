@@ -1,88 +1,82 @@
 package inf112.skeleton.app;
 
 import com.badlogic.gdx.math.Vector2;
-import inf112.skeleton.app.lan.Converter;
+import inf112.skeleton.app.enums.Messages;
+import inf112.skeleton.app.lan.BinaryProtocol;
+import inf112.skeleton.app.lan.Frame;
+import inf112.skeleton.app.lan.FrameConnection;
 import inf112.skeleton.app.lan.GameServer;
 import inf112.skeleton.app.objects.player.Player;
-import inf112.skeleton.app.screens.menuscreen.MenuScreenActors;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.ArrayList;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
-import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyInt;
-import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class GameServerTest {
 
     private GameServer gameServer;
-    private Converter converter;
-
-    @Mock
-    private ServerSocket serverSocket;
-
-    @Mock
-    private Socket socket;
+    private final ArrayList<Socket> sockets = new ArrayList<>();
 
     @Mock
     private RallyGame game;
 
-    @Mock
-    private InputStream inputStream;
+    @Before
+    public void setUp() throws IOException {
+        this.gameServer = new GameServer(game);
+        gameServer.start(0);
+    }
 
-    @Mock
-    private OutputStream outputStream;
+    @After
+    public void tearDown() throws IOException {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        gameServer.stop();
+    }
 
-    @Mock
-    private MenuScreenActors menuScreenActors;
+    private FrameConnection connect() throws IOException {
+        Socket socket = new Socket("localhost", gameServer.getPortNumber());
+        socket.setSoTimeout(5000);
+        sockets.add(socket);
+        return new FrameConnection(socket.getInputStream(), socket.getOutputStream());
+    }
 
-    @Before
-    public void setUp() {
-        try {
-            when(serverSocket.accept()).thenReturn(socket);
-            when(socket.getOutputStream()).thenReturn(outputStream);
-            when(socket.getInputStream()).thenReturn(inputStream);
-            when(game.getMenuScreenActors()).thenReturn(menuScreenActors);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        this.gameServer = new GameServer(game);
-        this.converter = new Converter();
-        gameServer.setServerSocket(serverSocket);
-        gameServer.setConnectingToClients(true);
+    private Frame read(FrameConnection client) throws IOException {
+        Frame frame = new Frame();
+        client.read(frame);
+        return frame;
     }
 
-    @Test
-    public void clientsConnectUntilServerIsToldToCloseTest() {
-        new Thread(gameServer::connect).start();
-        // Make server wait for each new connection for 1 second, and stop connecting
-        // after 2 seconds, gives 2 connected clients.
-        gameServer.setWaitBetweenEachConnection(1100);
-        gameServer.setConnectingToClientsTimeout(2000);
-        assertEquals(2, gameServer.getNumberOfConnectedClients());
+    /**
+     * Connect a client and read its start values.
+     *
+     * @return player number of the client
+     */
+    private int connectAndReadStartValues(FrameConnection client) throws IOException {
+        Frame playerNumber = read(client);
+        assertEquals(BinaryProtocol.PLAYER_NUMBER, playerNumber.getOpcode());
+        assertEquals(BinaryProtocol.SEED, read(client).getOpcode());
+        assertEquals(BinaryProtocol.DECK, read(client).getOpcode());
+        return playerNumber.getPlayerNumber();
     }
 
     @Test
-    public void serverStopsConnectionAfterMaxNumberOfConnectionsIsMadeTest() {
-        gameServer.connect(2);
-        try {
-            verify(serverSocket).close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    public void clientsGetPlayerNumbersAfterTheHostTest() throws IOException {
+        assertEquals(2, connectAndReadStartValues(connect()));
+        assertEquals(3, connectAndReadStartValues(connect()));
+        assertEquals(2, gameServer.getNumberOfConnectedClients());
     }
 
     @Test
@@ -91,40 +85,52 @@ public class GameServerTest {
     }
 
     @Test
-    public void sendPlayerNumberAndDeckWhenNewClientConnectedTest() {
-        GameServer spyServer = spy(gameServer);
-        spyServer.connect(1);
-        verify(spyServer).sendPlayerNumberAndDeck(any(), anyInt(), any());
+    public void sendMapToClientsAfterMapIsChosenTest() throws IOException {
+        FrameConnection client = connect();
+        connectAndReadStartValues(client);
+        gameServer.setMapPath("My map path");
+        gameServer.stopConnectingToClients();
+        assertEquals(2, read(client).getNumber());
+        assertEquals("My map path", read(client).getText());
+        verify(game).setNumberOfPlayers(2);
     }
 
-    @Test
-    public void sendMapToClientsAfterMapIsChosenTest() {
-        GameServer spyServer = spy(gameServer);
-        spyServer.setMapPath("My map path");
-        spyServer.connect(1);
-        verify(spyServer).sendToAll(converter.createMapPathMessage("My map path"));
+    @Test(expected = EOFException.class)
+    public void clientConnectingAfterGameHasStartedIsClosedTest() throws IOException {
+        gameServer.stopConnectingToClients();
+        read(connect());
     }
 
     @Test
-    public void sendToAllExceptPlayerNumberTwoTest() {
-        gameServer.connect( 3);
-        gameServer.sendToAll("Hello");
-        gameServer.sendToAllExcept(new Player(new Vector2(0,0), 2), "Hello again");
-        assertEquals("Hello", gameServer.getClients().get(0).getLastSentMessage());
+    public void sendToAllExceptPlayerNumberTwoTest() throws IOException {
+        FrameConnection client2 = connect();
+        connectAndReadStartValues(client2);
+        FrameConnection client3 = connect();
+        connectAndReadStartValues(client3);
+        gameServer.sendToAllExcept(new Player(new Vector2(0,0), 2), Messages.POWERING_DOWN);
+        gameServer.sendToAll(Messages.START_TURN);
+        assertEquals(Messages.START_TURN, read(client2).getMessage());
+        Frame frame = read(client3);
+        assertEquals(2, frame.getPlayerNumber());
+        assertEquals(Messages.POWERING_DOWN, frame.getMessage());
+        assertEquals(Messages.START_TURN, read(client3).getMessage());
     }
 
     @Test
-    public void removePlayerFromServerTest() {
-        gameServer.connect(2);
+    public void removePlayerFromServerTest() throws IOException {
+        connectAndReadStartValues(connect());
+        connectAndReadStartValues(connect());
         gameServer.remove(2);
-        assertEquals(1, gameServer.getClients().size());
+        assertEquals(1, gameServer.getNumberOfConnectedClients());
     }
 
-    @Test
-    public void maxNumberOfPlayersTest() {
-        gameServer.connect(8);
-        assertEquals(8, gameServer.getNumberOfConnectedClients());
+    @Test(expected = EOFException.class)
+    public void maxNumberOfPlayersTest() throws IOException {
+        for (int playerNumber = 2; playerNumber <= GameServer.MAX_CLIENTS + 1; playerNumber++) {
+            assertEquals(playerNumber, connectAndReadStartValues(connect()));
+        }
+        assertEquals(8, gameServer.getNumberOfConnectedClients() + 1);
+        read(connect());
     }
 
-
 }
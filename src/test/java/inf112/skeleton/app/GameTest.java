@@ -8,14 +8,17 @@ import inf112.skeleton.app.board.Board;
 import inf112.skeleton.app.cards.Deck;
 import inf112.skeleton.app.cards.ProgramCard;
 import inf112.skeleton.app.cards.Registers;
+import inf112.skeleton.app.engine.BoardEvent;
+import inf112.skeleton.app.engine.Robot;
+import inf112.skeleton.app.engine.TurnEngine;
+import inf112.skeleton.app.enums.AnimationTiming;
 import inf112.skeleton.app.enums.Direction;
 import inf112.skeleton.app.enums.Messages;
 import inf112.skeleton.app.enums.Rotate;
-import inf112.skeleton.app.lan.Converter;
 import inf112.skeleton.app.lan.GameClientThread;
 import inf112.skeleton.app.lan.GameServer;
-import inf112.skeleton.app.lan.ServerThread;
 import inf112.skeleton.app.objects.Belt;
+import inf112.skeleton.app.objects.Flag;
 import inf112.skeleton.app.objects.player.Player;
 import inf112.skeleton.app.screens.gamescreen.GameScreen;
 import org.junit.Before;
@@ -26,13 +29,17 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
-import static org.mockito.Matchers.anyString;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -43,9 +50,9 @@ public class GameTest {
     private RallyGame game;
     private Player player1;
     private ArrayList<Belt> belts;
-    private Converter converter;
     private Player player2;
     private Player player3;
+    private ArrayList<Robot> robots;
 
     @Mock
     private Player mainPlayer;
@@ -56,9 +63,6 @@ public class GameTest {
     @Mock
     private Registers registers;
 
-    @Mock
-    private ServerThread serverThread;
-
     @Mock
     private GameServer server;
 
@@ -73,7 +77,8 @@ public class GameTest {
         this.game = new RallyGame();
         this.game.setMapPath("assets/maps/Risky Exchange.tmx");
         this.game.setupGame();
-        this.game.setDeck(new Deck().getDeck());
+        this.game.setAnimationTiming(AnimationTiming.ZERO_DELAY);
+        this.game.setDeck(new Deck(new Random(0)).getDeck());
         this.game.setScreen(screen);
         Board board = game.getBoard();
         player1 = new Player(new Vector2(0, 0), 1);
@@ -82,15 +87,12 @@ public class GameTest {
         game.setPlayers(player1, player2, player3);
         game.addPlayer(player1);
         this.belts = board.getBelts();
-        this.converter = new Converter();
+        this.robots = new ArrayList<>();
 
         game.setMainPlayer(mainPlayer);
         when(mainPlayer.getRegisters()).thenReturn(registers);
-        ProgramCard card = new ProgramCard(1,1, Rotate.NONE, "Card");
+        ProgramCard card = ProgramCard.getCard(0);
         when(registers.getCards()).thenReturn(new ArrayList<>(Arrays.asList(card, card, card, card, card)));
-
-
-        when(serverThread.getServer()).thenReturn(server);
     }
 
     /**
@@ -103,54 +105,77 @@ public class GameTest {
         }
     }
 
+    /**
+     * @param x         of cell
+     * @param y         of cell
+     * @param direction robot faces
+     * @return robot in cell (x, y) of the board of the game
+     */
+    private Robot robotAt(int x, int y, Direction direction) {
+        Robot robot = new Robot(robots.size() + 1, game.getBoard().toIndex(x, y), direction);
+        robots.add(robot);
+        return robot;
+    }
+
+    private TurnEngine makeEngine() {
+        return new TurnEngine(game.getBoard().getModel(), robots, new Random(0));
+    }
+
     @Test
     public void lifeDecreasedWhenCollectedTenDamageTokensTest() {
         int livesBefore = player1.getLifeTokens();
         fillUpDamageTokens(player1);
-        game.decreaseLives();
+        game.destroyDamagedPlayers();
         assertEquals(livesBefore-1, player1.getLifeTokens());
     }
 
     @Test
     public void respawnIfTenCollectedDamageTokensTest() {
+        game.setPlayers(player1);
         // Move player out of backupposition
-        game.getBoard().movePlayer(player1, false);
+        game.getBoard().placePlayer(player1, new Vector2(1, 0));
         fillUpDamageTokens(player1);
-        game.decreaseLives();
-        game.respawnPlayers();
+        game.destroyDamagedPlayers();
         assertTrue(player1.isInBackupState());
+        assertTrue(game.players.contains(player1));
     }
 
     @Test
     public void deadPlayerAreRemovedFromGameTest() {
         // Kill player
-        for (int livesTaken = 1; livesTaken <= 3; livesTaken++) {
+        while (!player1.isDead()) {
             fillUpDamageTokens(player1);
-            player1.decrementLifeTokens();
-            game.decreaseLives();
+            game.destroyDamagedPlayers();
         }
         game.removeDeadPlayers();
         assertFalse(game.players.contains(player1));
+        assertFalse(game.respawnPlayers.contains(player1));
     }
 
     @Test
     public void playerMovesOnBeltTest() {
         Belt belt = belts.get(0);
         Vector2 beltPosition = belt.getPosition();
-        player1.setPosition(beltPosition);
-        game.activateBelts(false);
-        assertNotEquals(beltPosition, player1.getPosition());
+        Robot robot = robotAt((int) beltPosition.x, (int) beltPosition.y, Direction.NORTH);
+        makeEngine().playRegister(0);
+        assertNotEquals(game.getBoard().toIndex((int) beltPosition.x, (int) beltPosition.y), robot.getCell());
     }
 
     @Test
     public void playerMovesInSameDirectionAsBeltTest() {
-        Belt belt = belts.get(0);
-        Vector2 beltPosition = belt.getPosition();
-        Direction beltDirection = belt.getDirection();
-        Vector2 newPosition = game.getBoard().getNeighbourPosition(beltPosition, beltDirection);
-        player1.setPosition(beltPosition);
-        game.activateBelts(false);
-        assertEquals(newPosition, player1.getPosition());
+        Board board = game.getBoard();
+        for (Belt belt : belts) {
+            Vector2 beltPosition = belt.getPosition();
+            int cell = board.toIndex((int) beltPosition.x, (int) beltPosition.y);
+            if (board.getModel().getBeltDirection(cell, true) == null) {
+                Vector2 newPosition = board.getNeighbourPosition(beltPosition, belt.getDirection());
+                Robot robot = robotAt((int) beltPosition.x, (int) beltPosition.y, Direction.NORTH);
+                makeEngine().playRegister(0);
+                assertEquals(board.toIndex((int) newPosition.x, (int) newPosition.y), robot.getCell());
+                return;
+            }
+        }
+        fail("No normal belts on board");
     }
 
     /**
@@ -160,69 +185,56 @@ public class GameTest {
     @Test
     public void playerChangesDirectionWhenInACornerOfTheBeltTest() {
         // Found postition in Risky Exhange
-        Vector2 fromSouthToNorthBeltPosition = new Vector2(1, 1);
-        player1.setPosition(fromSouthToNorthBeltPosition);
-        player1.setDirection(Direction.NORTH);
+        Robot robot = robotAt(1, 1, Direction.NORTH);
+        TurnEngine engine = makeEngine();
         // Move player onto corner belt
-        game.activateBelts(false);
+        engine.playRegister(0);
         // Turn player with corner belt
-        game.activateBelts(false);
-        assertEquals(Direction.WEST, player1.getDirection());
+        engine.playRegister(1);
+        assertEquals(Direction.WEST, robot.getDirection());
     }
 
     @Test
     public void moveOneStepWhenOnBeltTest() {
         // Found postition in Risky Exhange. Belt goes east.
-        Vector2 startBeltPosition = new Vector2(5, 5);
-        player1.setPosition(startBeltPosition);
-        game.activateBelts(false);
-        game.activateBelts(true);
-        Vector2 beltMovedToPosition = new Vector2(6, 5);
-        assertEquals(beltMovedToPosition, player1.getPosition());
+        Robot robot = robotAt(5, 5, Direction.NORTH);
+        makeEngine().playRegister(0);
+        assertEquals(game.getBoard().toIndex(6, 5), robot.getCell());
     }
 
     @Test
     public void moveTwoStepOnExpressBeltTest() {
         // Found position in Risky Exhange. Belt goes west
-        Vector2 startBeltPosition = new Vector2(8, 6);
-        player1.setPosition(startBeltPosition);
-        game.activateBelts(false);
-        game.activateBelts(true);
-        Vector2 beltMovedToPosition = new Vector2(6, 6);
-        assertEquals(beltMovedToPosition, player1.getPosition());
+        Robot robot = robotAt(8, 6, Direction.NORTH);
+        makeEngine().playRegister(0);
+        assertEquals(game.getBoard().toIndex(6, 6), robot.getCell());
     }
 
     @Test
     public void beltPushingPlayerOntoAnotherPlayerPushesTheOtherPlayerTest() {
         // Found position in Risky Exhange. Belt goes east
-        Vector2 endBeltPosition = new Vector2(8, 5);
-        player1.setPosition(endBeltPosition);
-        Vector2 playerToBePushedPosition = new Vector2(9, 5);
-        player2.setPosition(playerToBePushedPosition);
-        Vector2 positionAfterPush = new Vector2(10, 5);
-        game.addPlayer(player2);
-        game.activateBelts(false);
-        assertEquals(player2.getPosition(), positionAfterPush);
+        robotAt(8, 5, Direction.NORTH);
+        Robot pushed = robotAt(9, 5, Direction.NORTH);
+        makeEngine().playRegister(0);
+        assertEquals(game.getBoard().toIndex(10, 5), pushed.getCell());
     }
 
     @Test
     public void repairTileDecrementsDamageTokensToZeroWhenOneDamageToken() {
         Vector2 repairTilePosition = game.getBoard().getRepairTiles().get(0);
-        player1.handleDamage();
-        player1.setPosition(repairTilePosition);
-        game.updateBackupAndPickUpFlagsAndRepair(true);
-        assertEquals(0, player1.getDamageTokens());
+        Robot robot = robotAt((int) repairTilePosition.x, (int) repairTilePosition.y, Direction.NORTH);
+        robot.setDamageTokens(1);
+        makeEngine().endTurn();
+        assertEquals(0, robot.getDamageTokens());
     }
 
     @Test
     public void repairTileDecrementsDamageTokenToNineWhenTenDamageTokens() {
         Vector2 repairTilePosition = game.getBoard().getRepairTiles().get(0);
-        for (int i = 0; i < 10; i++) {
-            player1.handleDamage();
-        }
-        player1.setPosition(repairTilePosition);
-        game.updateBackupAndPickUpFlagsAndRepair(true);
-        assertEquals(9, player1.getDamageTokens());
+        Robot robot = robotAt((int) repairTilePosition.x, (int) repairTilePosition.y, Direction.NORTH);
+        robot.setDamageTokens(10);
+        makeEngine().endTurn();
+        assertEquals(9, robot.getDamageTokens());
     }
 
     @Test
@@ -232,6 +244,30 @@ public class GameTest {
         assertTrue(player1.getRegisters().getCards().isEmpty());
     }
 
+    @Test
+    public void handFromRoomIsGivenToMainPlayerTest() {
+        game.setClient(client);
+        when(client.isPlayingInRoom()).thenReturn(true);
+        ArrayList<ProgramCard> cardsOnHand = new ArrayList<>();
+        when(mainPlayer.getCardsOnHand()).thenReturn(cardsOnHand);
+        ArrayList<ProgramCard> hand = new ArrayList<>(Arrays.asList(ProgramCard.getCard(1), ProgramCard.getCard(2)));
+        game.receiveHand(hand);
+        assertEquals(hand, cardsOnHand);
+        // Other players get their cards from the room
+        assertTrue(player1.getCardsOnHand().isEmpty());
+    }
+
+    @Test
+    public void cardsAreNotSentAfterRoomHasPlayedTheTurnTest() {
+        game.setClient(client);
+        when(client.isPlayingInRoom()).thenReturn(true);
+        game.setWaitingForCards(true);
+        game.endCardSelection();
+        game.confirm();
+        verify(client, never()).sendProgram(mainPlayer);
+        verify(client, never()).sendMessage(anyInt(), any(Messages.class));
+    }
+
     @Test
     public void playerPoweringDownBecomesPoweredDownTest() {
         player1.setPoweringDown(true);
@@ -262,12 +298,13 @@ public class GameTest {
         game.setClient(client);
         when(mainPlayer.getRegisters().hasRegistersWithoutCard()).thenReturn(false);
         game.confirm();
-        verify(client, times(5)).sendMessage(anyString());
+        // All cards in one program message
+        verify(client, times(1)).sendProgram(mainPlayer);
     }
 
     @Test
     public void confirmingCardsSendToClientsTest() {
-        game.setServerThread(serverThread);
+        game.setServer(server);
         game.setIsServer(true);
         when(mainPlayer.getRegisters().hasRegistersWithoutCard()).thenReturn(false);
         when(server.allClientsHaveSelectedCardsOrIsPoweredDown()).thenReturn(true);
@@ -281,7 +318,8 @@ public class GameTest {
         when(mainPlayer.getPowerDownNextRound()).thenReturn(true);
         when(mainPlayer.getRegisters().hasRegistersWithoutCard()).thenReturn(false);
         game.confirm();
-        verify(client, times(6)).sendMessage(anyString());
+        // Powering down is sent with the cards
+        verify(client, times(1)).sendProgram(mainPlayer);
         verify(mainPlayer).setPoweringDown(true);
     }
 
@@ -290,16 +328,15 @@ public class GameTest {
         game.setClient(client);
         when(mainPlayer.getPlayerNumber()).thenReturn(2);
         game.sendPowerUpMessage();
-        verify(client).sendMessage(converter.createMessageFromPlayer(2, Messages.POWER_UP));
+        verify(client).sendMessage(2, Messages.POWER_UP);
     }
 
     @Test
     public void sendPowerUpMessageToClient() {
         game.setIsServer(true);
-        game.setServerThread(serverThread);
-        when(mainPlayer.getPlayerNumber()).thenReturn(1);
+        game.setServer(server);
         game.sendPowerUpMessage();
-        verify(server).sendToAll(converter.createMessageFromPlayer(1, Messages.POWER_UP));
+        verify(server).sendToAll(mainPlayer, Messages.POWER_UP);
 
     }
 
@@ -325,25 +362,25 @@ public class GameTest {
         when(mainPlayer.getPowerUpNextRound()).thenReturn(false);
         when(mainPlayer.getPlayerNumber()).thenReturn(2);
         game.confirm();
-        verify(client).sendMessage(converter.createMessageFromPlayer(2, Messages.CONTINUE_POWER_DOWN));
+        verify(client).sendMessage(2, Messages.CONTINUE_POWER_DOWN);
     }
 
     @Test
     public void everyOneInPowerDownAtEndOfTurnNextTurnStartsRightAwayTest() {
         game.setIsServer(true);
-        game.setServerThread(serverThread);
+        game.setServer(server);
         player1.setPoweringDown(true);
         player2.setPoweringDown(true);
         player3.setPoweringDown(true);
         game.powerDown();
         game.serverGetReadyForNextRound();
-        verify(server).sendToAll(Messages.START_TURN.toString());
+        verify(server).startTurn();
     }
 
     @Test
     public void onlyServerInPowerDownThenServerHasConfirmedTest() {
         game.setIsServer(true);
-        game.setServerThread(serverThread);
+        game.setServer(server);
         player1.setPoweringDown(true);
         game.powerDown();
         game.serverGetReadyForNextRound();
@@ -353,7 +390,7 @@ public class GameTest {
     @Test
     public void onlyServerIsPoweredUpThenAllClientsHaveConfirmedTest() {
         game.setIsServer(true);
-        game.setServerThread(serverThread);
+        game.setServer(server);
         player2.setPoweringDown(true);
         player3.setPoweringDown(true);
         game.powerDown();
@@ -364,16 +401,52 @@ public class GameTest {
     @Test
     public void removeDamageTokenIfOnFlagAtEndOfRoundTest() {
         Vector2 flag = game.getBoard().getFlags().get(0).getPosition();
-        player1.setPosition(flag);
-        player1.handleDamage();
-        game.updateBackupAndPickUpFlagsAndRepair(true);
-        assertEquals(0, player1.getDamageTokens());
+        Robot robot = robotAt((int) flag.x, (int) flag.y, Direction.NORTH);
+        robot.setDamageTokens(1);
+        makeEngine().endTurn();
+        assertEquals(0, robot.getDamageTokens());
     }
 
     @Test
     public void playerWinsTest() {
-        when(mainPlayer.hasAllFlags(3)).thenReturn(true);
-        game.setPlayers(mainPlayer, player2);
-        assertTrue(game.someoneWon());
+        int numberOfFlags = game.getBoard().getFlags().size();
+        for (Flag flag : game.getBoard().getFlags()) {
+            if (flag.getFlagnr() == numberOfFlags) {
+                Robot robot = robotAt((int) flag.getPosition().x, (int) flag.getPosition().y, Direction.NORTH);
+                robot.setFlagsCollected(numberOfFlags - 1);
+                TurnEngine engine = makeEngine();
+                engine.playRegister(0);
+                assertEquals(robot, engine.getWinner());
+                return;
+            }
+        }
+        fail("No last flag on board");
+    }
+
+    @Test
+    public void computedTurnIsOnlyDoneToBoardWhenPlayedBackTest() {
+        game.setPlayers(player1);
+        player1.setPosition(new Vector2(0, 3));
+        player1.setSelectedCards(new ProgramCard(490, 1, Rotate.NONE, "Move 1"));
+        ArrayList<BoardEvent> events = game.computeTurn();
+        assertEquals(new Vector2(0, 3), player1.getPosition());
+
+        BoardEvent lastMove = null;
+        for (BoardEvent event : events) {
+            if (event.getType() == BoardEvent.Type.MOVE && lastMove == null) {
+                assertEquals(game.getBoard().toIndex(1, 3), event.getTo());
+            }
+            if (event.getType() == BoardEvent.Type.MOVE || event.getType() == BoardEvent.Type.BELT
+                    || event.getType() == BoardEvent.Type.PUSH) {
+                lastMove = event;
+            }
+        }
+        if (lastMove == null) {
+            fail("Player did not move");
+        }
+        game.playBack(events);
+        Board board = game.getBoard();
+        assertEquals(new Vector2(board.toX(lastMove.getTo()), board.toY(lastMove.getTo())), player1.getPosition());
+        assertEquals(player1, board.getPlayer(player1.getPosition()));
     }
 }
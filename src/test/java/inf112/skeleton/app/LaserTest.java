@@ -6,13 +6,17 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.math.Vector2;
 import inf112.skeleton.app.board.Board;
+import inf112.skeleton.app.engine.Robot;
+import inf112.skeleton.app.engine.TurnEngine;
 import inf112.skeleton.app.enums.Direction;
+import inf112.skeleton.app.enums.TileID;
 import inf112.skeleton.app.objects.Laser;
 import inf112.skeleton.app.objects.player.Player;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -25,6 +29,7 @@ public class LaserTest {
     private Board board;
     private ArrayList<Laser> lasers;
     private Player player;
+    private ArrayList<Robot> robots;
 
     @Before
     public void setUp() {
@@ -38,6 +43,34 @@ public class LaserTest {
         this.lasers = board.getLasers();
         this.player = new Player(new Vector2(0,0), 5);
         game.addPlayer(player);
+        this.robots = new ArrayList<>();
+    }
+
+    /**
+     * Draw the beams of all wall lasers.
+     */
+    private void drawBeams() {
+        for (Laser laser : lasers) {
+            laser.drawBeam(board);
+        }
+    }
+
+    /**
+     * @param position  of robot
+     * @param direction robot faces
+     * @return robot in position on the board of the game
+     */
+    private Robot robotAt(Vector2 position, Direction direction) {
+        Robot robot = new Robot(robots.size() + 1, board.toIndex((int) position.x, (int) position.y), direction);
+        robots.add(robot);
+        return robot;
+    }
+
+    /**
+     * Play one register without cards, so the robot lasers and wall lasers fire.
+     */
+    private void fireLasers() {
+        new TurnEngine(board.getModel(), robots, new Random(0)).playRegister(0);
     }
 
     /**
@@ -57,7 +90,7 @@ public class LaserTest {
 
     @Test
     public void lasersFiredHasLasersInStartPositionTest() {
-        game.fireLasers();
+        drawBeams();
         for (int i = 0; i < 3; i++) {
             Laser laser = lasers.get(0);
             Vector2 laserPosition = laser.getStartPosition();
@@ -65,12 +98,37 @@ public class LaserTest {
         }
     }
 
+    @Test
+    public void laserPathEndsAtFirstWallOrBorderTest() {
+        for (Laser laser : lasers) {
+            int[] path = laser.getPath();
+            assertEquals(board.toIndex((int) laser.getStartPosition().x, (int) laser.getStartPosition().y), path[0]);
+            for (int i = 0; i < path.length; i++) {
+                assertEquals(i < path.length - 1, board.getModel().canFireFrom(path[i], laser.getDirection()));
+            }
+        }
+    }
+
+    @Test
+    public void removingLasersClearsEveryBeamTest() {
+        drawBeams();
+        board.addLaser(new Vector2(0, 0), Direction.NORTH);
+        board.addLaser(new Vector2(0, 0), Direction.EAST);
+        assertEquals(TileID.CROSSED_LASER.getId(), board.getLaserLayer().getCell(0, 0).getTile().getId());
+        game.removeLasers();
+        for (int y = 0; y < board.getBoardHeight(); y++) {
+            for (int x = 0; x < board.getBoardWidth(); x++) {
+                assertFalse(hasLaser(new Vector2(x, y)));
+            }
+        }
+    }
+
     @Test
     public void playerBlockingLaserTest() {
         Laser laser = lasers.get(0);
         Vector2 blockingPosition = board.getNeighbourPosition(laser.getStartPosition(), laser.getDirection());
         player.setPosition(blockingPosition);
-        game.fireLasers();
+        drawBeams();
         Vector2 noLaserPosition = board.getNeighbourPosition(blockingPosition, laser.getDirection());
         assertFalse(hasLaser(noLaserPosition));
     }
@@ -79,37 +137,39 @@ public class LaserTest {
     public void playerTakesDamageWhenHitByLaserTest() {
         Laser laser = lasers.get(0);
         Vector2 hitPosition = board.getNeighbourPosition(laser.getStartPosition(), laser.getDirection());
-        int damageBefore = player.getDamageTokens();
-        player.setPosition(hitPosition);
-        game.fireLasers();
-        assertEquals(damageBefore+1, player.getDamageTokens());
+        Robot robot = robotAt(hitPosition, laser.getDirection());
+        fireLasers();
+        assertEquals(1, robot.getDamageTokens());
     }
 
     @Test
     public void laserBlockedByAnotherPlayersDoesNotGiveDamageTest() {
         Laser laser = lasers.get(0);
         Vector2 hitPosition = board.getNeighbourPosition(laser.getStartPosition(), laser.getDirection());
-        Player blockingPlayer = new Player(new Vector2(hitPosition), 6);
-        board.addPlayer(blockingPlayer);
+        robotAt(hitPosition, laser.getDirection().turnAround());
         Vector2 notHitPosition = board.getNeighbourPosition(hitPosition, laser.getDirection());
-        player.setPosition(notHitPosition);
-        int damageBefore = player.getDamageTokens();
-        game.fireLasers();
-        assertEquals(damageBefore, player.getDamageTokens());
+        Robot robot = robotAt(notHitPosition, laser.getDirection());
+        fireLasers();
+        assertEquals(0, robot.getDamageTokens());
     }
 
     @Test
     public void playerTakesDamageWhenOtherPlayerFiresAtPlayerTest() {
-        Vector2 neighbourPosition = board.getNeighbourPosition(player.getPosition(), Direction.EAST);
-
-        Player firePlayer = new Player(neighbourPosition, 6);
-        firePlayer.setDirection(Direction.WEST);
-        game.addPlayer(firePlayer);
-        int damageBefore = player.getDamageTokens();
-        game.firePlayerLaser();
-        System.out.println(firePlayer.getPosition());
-        System.out.println(player.getPosition());
-        assertEquals(damageBefore+1, player.getDamageTokens());
+        // Row 6 of Risky Exchange has nothing that moves the robots before the lasers fire
+        Robot robot = robotAt(new Vector2(2, 6), Direction.NORTH);
+        robotAt(new Vector2(3, 6), Direction.WEST);
+        fireLasers();
+        assertEquals(1, robot.getDamageTokens());
+    }
+
+    @Test
+    public void playerLaserOnlyHitsFirstPlayerInFrontTest() {
+        Robot robot = robotAt(new Vector2(2, 6), Direction.NORTH);
+        Robot blockingRobot = robotAt(new Vector2(3, 6), Direction.NORTH);
+        robotAt(new Vector2(4, 6), Direction.WEST);
+        fireLasers();
+        assertEquals(0, robot.getDamageTokens());
+        assertEquals(1, blockingRobot.getDamageTokens());
     }
 
 }
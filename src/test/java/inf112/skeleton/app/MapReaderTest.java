@@ -0,0 +1,73 @@
+package inf112.skeleton.app;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.graphics.GL20;
+import inf112.skeleton.app.board.Board;
+import inf112.skeleton.app.engine.BoardModel;
+import inf112.skeleton.app.engine.MapReader;
+import inf112.skeleton.app.enums.Direction;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public class MapReaderTest {
+
+    @Before
+    public void setUp() {
+        Gdx.gl = mock(GL20.class);
+        new HeadlessApplication(new EmptyApplication());
+    }
+
+    /**
+     * Read the map with and without libGDX and check that every cell is the same.
+     *
+     * @param mapPath map to read
+     */
+    private void assertSameBoard(String mapPath) throws IOException {
+        BoardModel expected = new Board(mapPath).getModel();
+        BoardModel actual = MapReader.read(new File(mapPath));
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        assertEquals(expected.getNumberOfFlags(), actual.getNumberOfFlags());
+        assertEquals(expected.getNumberOfLasers(), actual.getNumberOfLasers());
+        for (int number = 1; number <= 8; number++) {
+            assertEquals(expected.getStartCell(number), actual.getStartCell(number));
+        }
+        for (int laser = 0; laser < expected.getNumberOfLasers(); laser++) {
+            assertArrayEquals(expected.getLaserPath(laser), actual.getLaserPath(laser));
+        }
+        for (int cell = 0; cell < expected.getWidth() * expected.getHeight(); cell++) {
+            assertEquals(expected.hasHole(cell), actual.hasHole(cell));
+            assertEquals(expected.getFlagNumber(cell), actual.getFlagNumber(cell));
+            assertEquals(expected.getRepairWrenches(cell), actual.getRepairWrenches(cell));
+            assertEquals(expected.getRotatePad(cell), actual.getRotatePad(cell));
+            assertEquals(expected.getBeltDirection(cell, false), actual.getBeltDirection(cell, false));
+            assertEquals(expected.hasExpressBelt(cell), actual.hasExpressBelt(cell));
+            for (Direction direction : Direction.values()) {
+                assertEquals(expected.getNeighbour(cell, direction), actual.getNeighbour(cell, direction));
+            }
+        }
+    }
+
+    @Test
+    public void riskyExchangeIsReadSameAsWithLibGdxTest() throws IOException {
+        assertSameBoard("assets/maps/Risky Exchange.tmx");
+    }
+
+    @Test
+    public void dizzyDashIsReadSameAsWithLibGdxTest() throws IOException {
+        assertSameBoard("assets/maps/Dizzy Dash.tmx");
+    }
+
+    @Test
+    public void islandHopIsReadSameAsWithLibGdxTest() throws IOException {
+        assertSameBoard("assets/maps/Island Hop.tmx");
+    }
+}
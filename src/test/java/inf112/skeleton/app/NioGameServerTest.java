@@ -0,0 +1,120 @@
+package inf112.skeleton.app;
+
+import inf112.skeleton.app.lan.BinaryProtocol;
+import inf112.skeleton.app.lan.ConnectionListener;
+import inf112.skeleton.app.lan.Frame;
+import inf112.skeleton.app.lan.FrameConnection;
+import inf112.skeleton.app.lan.NioConnection;
+import inf112.skeleton.app.lan.NioGameServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class NioGameServerTest {
+
+    private NioGameServer server;
+    private BlockingQueue<String> events;
+
+    /**
+     * Write down what happens, and send every seed back to the client it came from.
+     */
+    private class Listener implements ConnectionListener {
+        @Override
+        public void connected(NioConnection connection) {
+            events.add("connected");
+            BinaryProtocol.writePlayerNumber(connection.getOutput(), connection.getId() + 2);
+            connection.flush();
+        }
+
+        @Override
+        public void received(NioConnection connection, Frame frame) {
+            events.add(Thread.currentThread().getName() + " " + frame.getNumber());
+            BinaryProtocol.writeSeed(connection.getOutput(), frame.getNumber());
+            connection.flush();
+        }
+
+        @Override
+        public void disconnected(NioConnection connection) {
+            events.add("disconnected");
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        this.events = new LinkedBlockingQueue<>();
+        this.server = new NioGameServer(new Listener());
+        server.bind(0);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop();
+    }
+
+    private String nextEvent() throws InterruptedException {
+        return events.poll(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void connectedClientGetsPlayerNumberTest() throws IOException, InterruptedException {
+        try (Socket socket = new Socket("localhost", server.getPortNumber())) {
+            FrameConnection client = new FrameConnection(socket.getInputStream(), socket.getOutputStream());
+            Frame frame = new Frame();
+            client.read(frame);
+            assertEquals("connected", nextEvent());
+            assertEquals(BinaryProtocol.PLAYER_NUMBER, frame.getOpcode());
+            assertEquals(2, frame.getPlayerNumber());
+        }
+    }
+
+    @Test
+    public void frameSentInPartsIsReceivedOnGameThreadTest() throws IOException, InterruptedException {
+        try (Socket socket = new Socket("localhost", server.getPortNumber())) {
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            BinaryProtocol.writeSeed(buffer, 1234L);
+            OutputStream output = socket.getOutputStream();
+            output.write(buffer.array(), 0, 4);
+            output.flush();
+            assertEquals("connected", nextEvent());
+            output.write(buffer.array(), 4, buffer.position() - 4);
+            output.flush();
+            assertEquals("Game 1234", nextEvent());
+
+            FrameConnection client = new FrameConnection(socket.getInputStream(), socket.getOutputStream());
+            Frame frame = new Frame();
+            client.read(frame);
+            client.read(frame);
+            assertEquals(BinaryProtocol.SEED, frame.getOpcode());
+            assertEquals(1234L, frame.getNumber());
+        }
+    }
+
+    @Test
+    public void closedClientIsDisconnectedTest() throws IOException, InterruptedException {
+        new Socket("localhost", server.getPortNumber()).close();
+        assertEquals("connected", nextEvent());
+        assertEquals("disconnected", nextEvent());
+    }
+
+    @Test
+    public void clientSendingBadFrameIsDisconnectedTest() throws IOException, InterruptedException {
+        try (Socket socket = new Socket("localhost", server.getPortNumber())) {
+            assertEquals("connected", nextEvent());
+            // A card id past the last card of the game
+            socket.getOutputStream().write(new byte[]{0, 3, BinaryProtocol.CARD, 1, (byte) 200});
+            socket.getOutputStream().flush();
+            assertEquals("disconnected", nextEvent());
+        }
+    }
+}
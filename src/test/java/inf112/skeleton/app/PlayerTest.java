@@ -11,6 +11,8 @@ import inf112.skeleton.app.objects.player.Player;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
 
@@ -26,7 +28,7 @@ public class PlayerTest {
         RallyGame game = new RallyGame();
         game.setMapPath("assets/maps/Risky Exchange.tmx");
         game.setupGame();
-        Deck deck = new Deck();
+        Deck deck = new Deck(new Random(0));
         game.setDeck(deck.getDeck());
         Vector2 pos = new Vector2(0,0);
         player = new Player(pos, 1);
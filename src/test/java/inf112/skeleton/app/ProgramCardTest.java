@@ -7,6 +7,8 @@ import com.badlogic.gdx.math.Vector2;
 import inf112.skeleton.app.board.Board;
 import inf112.skeleton.app.cards.Deck;
 import inf112.skeleton.app.cards.ProgramCard;
+import inf112.skeleton.app.engine.Robot;
+import inf112.skeleton.app.engine.TurnEngine;
 import inf112.skeleton.app.enums.Direction;
 import inf112.skeleton.app.enums.Rotate;
 import inf112.skeleton.app.objects.player.Player;
@@ -15,8 +17,11 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 
 public class ProgramCardTest {
@@ -24,6 +29,9 @@ public class ProgramCardTest {
     private Deck deck;
     private RallyGame game;
     private Player player;
+    private Board board;
+    private Robot robot;
+    private TurnEngine engine;
     private ProgramCard right;
     private ProgramCard left;
     private ProgramCard uturn;
@@ -38,13 +46,17 @@ public class ProgramCardTest {
         this.game = new RallyGame();
         this.game.setMapPath("assets/maps/Risky Exchange.tmx");
         this.game.setupGame();
-        Deck deck = new Deck();
+        Deck deck = new Deck(new Random(0));
         game.setDeck(deck.getDeck());
         player = new Player(new Vector2(0, 0), 1);
         player.setDirection(Direction.EAST);
-        Board board = game.getBoard();
+        this.board = game.getBoard();
         board.addPlayer(player);
-        this.deck = new Deck();
+        this.robot = new Robot(1, board.toIndex(0, 0), Direction.EAST);
+        ArrayList<Robot> robots = new ArrayList<>();
+        robots.add(robot);
+        this.engine = new TurnEngine(board.getModel(), robots, new Random(0));
+        this.deck = new Deck(new Random(0));
         this.left = new ProgramCard(10, 0, Rotate.LEFT, "left");
         this.right = new ProgramCard(10, 0, Rotate.RIGHT, "right");
         this.uturn = new ProgramCard(10, 0, Rotate.UTURN, "uturn");
@@ -67,51 +79,41 @@ public class ProgramCardTest {
 
     @Test
     public void playingUturnCardTest() {
-        player.setSelectedCards(uturn);
-        game.playCard(player, 0);
-        assertEquals(Direction.WEST, player.getDirection());
+        engine.playCard(robot, uturn);
+        assertEquals(Direction.WEST, robot.getDirection());
     }
 
     @Test
     public void playingRightRotateCardTest() {
-        player.setSelectedCards(right);
-        game.playCard(player, 0);
-        assertEquals(Direction.SOUTH, player.getDirection());
+        engine.playCard(robot, right);
+        assertEquals(Direction.SOUTH, robot.getDirection());
     }
 
     @Test
     public void playingLeftRotateCardTest() {
-        player.setSelectedCards(left);
-        game.playCard(player, 0);
-        assertEquals(Direction.NORTH, player.getDirection());
+        engine.playCard(robot, left);
+        assertEquals(Direction.NORTH, robot.getDirection());
     }
 
     @Test
     public void playingMoveOneStepCardTest() {
-        player.setSelectedCards(moveOne);
-        Vector2 beforePosition = player.getPosition();
-        Vector2 afterPosition = new Vector2(beforePosition.x + 1, beforePosition.y);
-        game.playCard(player, 0);
-        assertEquals(afterPosition, player.getPosition());
+        engine.playCard(robot, moveOne);
+        assertEquals(board.toIndex(1, 0), robot.getCell());
     }
 
     @Test
     public void firstRotateThenMoveToCorrectPositionTest() {
-        player.setSelectedCards(left, moveOne);
-        Vector2 beforePosition = player.getPosition();
         // player is rotated left and therefore player will go up instead of to the right
-        Vector2 afterPosition = new Vector2(beforePosition.x, beforePosition.y + 1);
-        game.playCard(player, 0);
-        game.playCard(player, 1);
-        assertEquals(afterPosition, player.getPosition());
+        engine.playCard(robot, left);
+        engine.playCard(robot, moveOne);
+        assertEquals(board.toIndex(0, 1), robot.getCell());
     }
 
     @Test
     public void firstMoveThenRotateToCorrectRotationTest() {
-        player.setSelectedCards(moveTwo, right);
-        game.playCard(player, 0);
-        game.playCard(player, 1);
-        assertEquals(Direction.SOUTH, player.getDirection());
+        engine.playCard(robot, moveTwo);
+        engine.playCard(robot, right);
+        assertEquals(Direction.SOUTH, robot.getDirection());
     }
 
     @Test
@@ -135,11 +137,10 @@ public class ProgramCardTest {
      */
     @Test
     public void sequenceOfRotateCardsTest() {
-        player.setSelectedCards(right, left, left, uturn, right);
-        for (int playedCards = 0; playedCards <= 4; playedCards++) {
-            game.playCard(player, playedCards);
+        for (ProgramCard card : new ProgramCard[]{right, left, left, uturn, right}) {
+            engine.playCard(robot, card);
         }
-        assertEquals(Direction.WEST, player.getDirection());
+        assertEquals(Direction.WEST, robot.getDirection());
     }
 
     /**
@@ -148,11 +149,35 @@ public class ProgramCardTest {
      */
     @Test
     public void sequenceOfCardsTest() {
-        player.setSelectedCards(moveOne, left, moveTwo, right, moveOne);
-        Vector2 afterPosition = new Vector2(2, 2);
-        for (int playedCards = 0; playedCards <= 4; playedCards++) {
-            game.playCard(player, playedCards);
+        for (ProgramCard card : new ProgramCard[]{moveOne, left, moveTwo, right, moveOne}) {
+            engine.playCard(robot, card);
         }
-        assertEquals(afterPosition, player.getPosition());
+        assertEquals(board.toIndex(2, 2), robot.getCell());
+    }
+
+    @Test
+    public void cardsOfTheGameHaveIdsInOrderOfPriorityTest() {
+        for (int id = 0; id < ProgramCard.NUMBER_OF_CARDS; id++) {
+            ProgramCard card = ProgramCard.getCard(id);
+            assertEquals(id, card.getId());
+            assertSame(card, ProgramCard.fromPriority(card.getPriority()));
+        }
+    }
+
+    @Test
+    public void decksShareTheCardsOfTheGameTest() {
+        Deck otherDeck = new Deck(new Random(0));
+        ProgramCard card = otherDeck.drawCard();
+        assertSame(ProgramCard.fromPriority(card.getPriority()), card);
+    }
+
+    @Test
+    public void cardsWithSameValuesAreEqualTest() {
+        ProgramCard card = ProgramCard.getCard(0);
+        ProgramCard copy = new ProgramCard(card.getPriority(), card.getDistance(), card.getRotate(), card.getName());
+        assertEquals(card, copy);
+        assertEquals(card.hashCode(), copy.hashCode());
+        assertNotEquals(card, moveOne);
+        assertEquals(-1, moveOne.getId());
     }
 }
@@ -0,0 +1,77 @@
+package inf112.skeleton.app;
+
+import inf112.skeleton.app.cards.ProgramCard;
+import inf112.skeleton.app.cards.Registers;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RegistersTest {
+
+    private Registers registers;
+
+    @Before
+    public void setUp() {
+        this.registers = new Registers();
+    }
+
+    private void fillRegisters() {
+        for (int id = 0; id < Registers.NUMBER_OF_REGISTERS; id++) {
+            registers.addCard(ProgramCard.getCard(id));
+        }
+    }
+
+    @Test
+    public void newRegistersAreOpenAndEmptyTest() {
+        assertTrue(registers.hasRegistersWithoutCard());
+        assertEquals(Registers.NUMBER_OF_REGISTERS, registers.getOpenRegisters());
+        assertEquals(0, registers.getNumberOfCardsSelected());
+    }
+
+    @Test
+    public void fullRegistersHaveNoRegistersWithoutCardTest() {
+        fillRegisters();
+        assertFalse(registers.hasRegistersWithoutCard());
+        assertEquals(Registers.NUMBER_OF_REGISTERS, registers.getNumberOfCardsSelected());
+    }
+
+    @Test
+    public void cardIsFoundInItsRegisterTest() {
+        fillRegisters();
+        ProgramCard card = ProgramCard.getCard(3);
+        assertSame(registers.getRegister(3), registers.getRegister(card));
+        // contains is true when the card is not in a register
+        assertFalse(registers.contains(card));
+        assertTrue(registers.contains(ProgramCard.getCard(10)));
+        assertNull(registers.getRegister(ProgramCard.getCard(10)));
+    }
+
+    @Test
+    public void removingCardMovesLaterOpenCardsBackTest() {
+        fillRegisters();
+        registers.remove(ProgramCard.getCard(1));
+        assertSame(ProgramCard.getCard(2), registers.getCard(1));
+        assertSame(ProgramCard.getCard(4), registers.getCard(3));
+        assertNull(registers.getCard(4));
+        assertTrue(registers.contains(ProgramCard.getCard(1)));
+    }
+
+    @Test
+    public void damageLocksLastRegistersAndClearKeepsTheirCardsTest() {
+        fillRegisters();
+        registers.updateRegisters(6);
+        assertEquals(3, registers.getOpenRegisters());
+        assertFalse(registers.getRegister(3).isOpen());
+        assertFalse(registers.getRegister(4).isOpen());
+        registers.clear(true);
+        assertEquals(2, registers.getNumberOfCardsSelected());
+        assertSame(ProgramCard.getCard(3), registers.getCards().get(0));
+        registers.updateRegisters(20);
+        assertEquals(0, registers.getOpenRegisters());
+    }
+}
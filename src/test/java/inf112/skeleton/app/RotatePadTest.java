@@ -5,6 +5,8 @@ import com.badlogic.gdx.backends.headless.HeadlessApplication;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.math.Vector2;
 import inf112.skeleton.app.board.Board;
+import inf112.skeleton.app.engine.Robot;
+import inf112.skeleton.app.engine.TurnEngine;
 import inf112.skeleton.app.enums.Direction;
 import inf112.skeleton.app.enums.Rotate;
 import inf112.skeleton.app.objects.RotatePad;
@@ -13,6 +15,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -87,27 +90,28 @@ public class RotatePadTest {
 
     }
 
+    /**
+     * @param pad to put robot on
+     * @return robot facing east on pad, after one register without cards is played
+     */
+    private Robot playRegisterOnPad(RotatePad pad) {
+        Board board = game.getBoard();
+        Robot robot = new Robot(1, board.toIndex((int) pad.getPosition().x, (int) pad.getPosition().y), Direction.EAST);
+        ArrayList<Robot> robots = new ArrayList<>();
+        robots.add(robot);
+        new TurnEngine(board.getModel(), robots, new Random(0)).playRegister(0);
+        return robot;
+    }
+
     @Test
     public void playerOnLeftPadRotatesLeftTest() {
         RotatePad pad = getLeftRotatePads(rotatePads).get(0);
-        Vector2 padPosition = pad.getPosition();
-        player.setPosition(padPosition);
-        player.setDirection(Direction.EAST);
-        game.activateRotatePads();
-        assertEquals(Direction.NORTH, player.getDirection());
+        assertEquals(Direction.NORTH, playRegisterOnPad(pad).getDirection());
     }
 
     @Test
     public void playerOnRightPadRotatesRightTest() {
         RotatePad pad = getRightRotatePads(rotatePads).get(0);
-        Vector2 padPosition = pad.getPosition();
-        player.setPosition(padPosition);
-        player.setDirection(Direction.EAST);
-        game.activateRotatePads();
-        assertEquals(Direction.SOUTH, player.getDirection());
-
+        assertEquals(Direction.SOUTH, playRegisterOnPad(pad).getDirection());
     }
-
-
-
 }
@@ -1,29 +1,27 @@
 package inf112.skeleton.app;
 
 import com.badlogic.gdx.math.Vector2;
-import inf112.skeleton.app.lan.Converter;
-import inf112.skeleton.app.lan.GameServer;
-import inf112.skeleton.app.lan.GameServerThreads;
 import inf112.skeleton.app.board.Board;
-import inf112.skeleton.app.cards.Deck;
 import inf112.skeleton.app.cards.ProgramCard;
 import inf112.skeleton.app.enums.Messages;
-import inf112.skeleton.app.enums.Rotate;
+import inf112.skeleton.app.lan.BinaryProtocol;
+import inf112.skeleton.app.lan.Frame;
+import inf112.skeleton.app.lan.GameServer;
+import inf112.skeleton.app.lan.NioConnection;
 import inf112.skeleton.app.objects.player.Player;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.Socket;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Stack;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -34,135 +32,122 @@ import static org.mockito.Mockito.when;
 @RunWith(MockitoJUnitRunner.class)
 public class ServerTest {
 
-    private GameServerThreads server;
-    private Player player2;
-    private String cardStringFromPlayer2;
+    private GameServer server;
     private Player player1;
-    private ProgramCard card;
-    private ArrayList<Player> threePlayers;
-    private Converter converter;
-
-    @Mock
-    private Socket socket;
-
-    @Mock
-    private GameServer gameServer;
+    private Player player2;
+    private List<ProgramCard> cards;
+    private ByteBuffer output2;
+    private ByteBuffer output3;
 
     @Mock
     private RallyGame game;
 
     @Mock
-    private InputStream input;
-
-    @Mock
-    private OutputStream output;
-
-    @Mock
-    private BufferedReader reader;
+    private Board board;
 
     @Mock
-    private Deck deck;
+    private NioConnection connection2;
 
     @Mock
-    private Board board;
-
-
+    private NioConnection connection3;
 
     @Before
     public void setUp() {
-        when(deck.getDeck()).thenReturn(new Stack<>());
-        try {
-            when(socket.getInputStream()).thenReturn(input);
-            when(socket.getOutputStream()).thenReturn(output);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        this.converter = new Converter();
-        this.server = new GameServerThreads(gameServer, game, socket, 2);
+        this.server = new GameServer(game);
         this.player1 = new Player(new Vector2(0, 0), 1);
         this.player2 = new Player(new Vector2(0, 1), 2);
-        Player player3 = new Player(new Vector2(0, 2), 3);
-        ArrayList<Player> players = new ArrayList<>(Arrays.asList(player1, player2));
-        this.threePlayers = new ArrayList<>(Arrays.asList(player1, player2, player3));
-        this.card = new ProgramCard(10, 2, Rotate.NONE, "Move 2");
-        this.cardStringFromPlayer2 = converter.convertToString(2, card);
+        this.cards = new ArrayList<>();
+        for (int id = 0; id < 5; id++) {
+            cards.add(ProgramCard.getCard(id));
+        }
+        this.output2 = ByteBuffer.allocate(1024);
+        this.output3 = ByteBuffer.allocate(1024);
 
         when(game.getBoard()).thenReturn(board);
-        when(board.getPlayers()).thenReturn(players);
-        when(board.getPlayer(1)).thenReturn(player1);
+        when(board.getPlayers()).thenReturn(new ArrayList<>(Arrays.asList(player1, player2)));
         when(board.getPlayer(2)).thenReturn(player2);
-        when(board.getPlayer(3)).thenReturn(player3);
+        when(connection2.getAttachment()).thenReturn(2);
+        when(connection2.getOutput()).thenReturn(output2);
+        server.connected(connection2);
+    }
 
-        // Reader decided for each test
-        server.setReader(reader);
+    @After
+    public void tearDown() {
+        server.stop();
     }
 
     /**
-     * Wait for thread to finish
-     * @param thread to wait for
+     * Connect player 3, who does not send anything.
      */
-    private void waitForThread(Thread thread) {
-        try {
-            thread.join();
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+    private void connectPlayer3() {
+        when(connection3.getAttachment()).thenReturn(3);
+        when(connection3.getOutput()).thenReturn(output3);
+        server.connected(connection3);
+    }
+
+    /**
+     * Give the server a frame from player 2.
+     * @param writer writes the frame
+     */
+    private void receiveFromPlayer2(Consumer<ByteBuffer> writer) throws ProtocolException {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryProtocol.MAX_FRAME_SIZE);
+        writer.accept(buffer);
+        buffer.flip();
+        Frame frame = new Frame();
+        BinaryProtocol.read(buffer, frame);
+        server.received(connection2, frame);
+    }
+
+    /**
+     * @param output the server has written frames to
+     * @return frames written after the start values
+     */
+    private List<Frame> sentTo(ByteBuffer output) throws ProtocolException {
+        ByteBuffer sent = output.duplicate();
+        sent.flip();
+        List<Frame> frames = new ArrayList<>();
+        Frame frame = new Frame();
+        while (BinaryProtocol.read(sent, frame)) {
+            if (frame.getOpcode() == BinaryProtocol.MESSAGE || frame.getOpcode() == BinaryProtocol.PLAYER_MESSAGE
+                    || frame.getOpcode() == BinaryProtocol.PROGRAM) {
+                frames.add(frame);
+                frame = new Frame();
+            }
         }
+        return frames;
     }
 
     @Test
-    public void sentCardByPlayer2GoesToPlayer2RegisterTest() {
-        // Send card from player 2
-        try {
-            when(reader.readLine()).thenReturn(cardStringFromPlayer2).thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        server.start();
-        waitForThread(server);
-        assertEquals(1, player2.getRegisters().getCards().size());
+    public void programFromPlayer2FillsRegistersAndPowersDownTest() throws ProtocolException {
+        receiveFromPlayer2(out -> BinaryProtocol.writeProgram(out, 2, true, cards));
+        assertEquals(cards, player2.getRegisters().getCards());
+        assertTrue(player2.isPoweringDown());
+        assertTrue(server.allClientsHaveSelectedCardsOrIsPoweredDown());
     }
 
     @Test
-    public void allClientsHaveSentCardsTest() {
-        // Send 5 cards from player 2
-        try {
-            when(reader.readLine()).thenReturn(cardStringFromPlayer2, cardStringFromPlayer2, cardStringFromPlayer2, cardStringFromPlayer2, cardStringFromPlayer2).thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        server.start();
-        waitForThread(server);
-        assertTrue(server.allClientsHaveSelectedCardsOrInPowerDown());
+    public void programIsGivenToPlayerOfConnectionTest() throws ProtocolException {
+        // Player 2 can not send cards for the host
+        receiveFromPlayer2(out -> BinaryProtocol.writeProgram(out, 1, false, cards));
+        assertEquals(cards, player2.getRegisters().getCards());
+        assertTrue(player1.getRegisters().getCards().isEmpty());
     }
 
     @Test
-    public void player2SendPowerDownMessageTest() {
-        try {
-            when(reader.readLine())
-                    .thenReturn(converter.createMessageFromPlayer(2, Messages.POWERING_DOWN))
-                    .thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        server.start();
-        waitForThread(server);
+    public void player2SendPowerDownMessageTest() throws ProtocolException {
+        receiveFromPlayer2(out -> BinaryProtocol.writePlayerMessage(out, 2, Messages.POWERING_DOWN));
         assertTrue(player2.isPoweringDown());
     }
 
     @Test
-    public void letPlayer3KnowPlayer2IsPoweringDownTest() {
-        String poweringDownMessage = converter.createMessageFromPlayer(2, Messages.POWERING_DOWN);
-        when(board.getPlayers()).thenReturn(threePlayers);
-        try {
-            when(reader.readLine())
-                    .thenReturn(poweringDownMessage)
-                    .thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        server.start();
-        waitForThread(server);
-        verify(gameServer).sendToAllExcept(player2, poweringDownMessage);
+    public void letPlayer3KnowPlayer2IsPoweringDownTest() throws ProtocolException {
+        connectPlayer3();
+        receiveFromPlayer2(out -> BinaryProtocol.writePlayerMessage(out, 2, Messages.POWERING_DOWN));
+        List<Frame> sent = sentTo(output3);
+        assertEquals(1, sent.size());
+        assertEquals(2, sent.get(0).getPlayerNumber());
+        assertEquals(Messages.POWERING_DOWN, sent.get(0).getMessage());
+        assertTrue(sentTo(output2).isEmpty());
     }
 
     @Test
@@ -172,100 +157,60 @@ public class ServerTest {
     }
 
     @Test
-    public void allPlayersHaveSelectedCardsServerSendsStartTurnMessageTest() {
-        player1.setSelectedCards(card, card, card, card, card);
-        // Send 5 cards from player 2
-        try {
-            when(gameServer.serverHasConfirmed()).thenReturn(true);
-            when(reader.readLine()).thenReturn(cardStringFromPlayer2, cardStringFromPlayer2, cardStringFromPlayer2, cardStringFromPlayer2, cardStringFromPlayer2)
-                    .thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        // Do not wait for doTurn to finish
-        server.continueListening();
-        server.start();
-        waitForThread(server);
-        verify(gameServer).sendToAll(Messages.START_TURN.toString());
+    public void allPlayersHaveSelectedCardsServerSendsStartTurnMessageTest() throws ProtocolException {
+        player1.setSelectedCards(cards.get(0), cards.get(1), cards.get(2), cards.get(3), cards.get(4));
+        server.setServerHasConfirmed(true);
+        receiveFromPlayer2(out -> BinaryProtocol.writeProgram(out, 2, false, cards));
+        List<Frame> sent = sentTo(output2);
+        assertEquals(3, sent.size());
+        assertEquals(1, sent.get(0).getProgram().getPlayerNumber());
+        assertEquals(cards, sent.get(1).getProgram().getCards());
+        assertEquals(Messages.START_TURN, sent.get(2).getMessage());
+        verify(game).startTurn();
     }
 
     @Test
-    public void doNotSendCardsFromPlayersInPowerDownTest() {
+    public void doNotSendCardsFromPlayersInPowerDownTest() throws ProtocolException {
+        player2.setSelectedCards(cards.get(0), cards.get(1), cards.get(2), cards.get(3), cards.get(4));
         player2.setPoweredDown(true);
-        server.sendMessage("This should be last message");
-        server.sendSelectedCards(player2);
-        assertEquals("This should be last message", server.getLastSentMessage());
+        server.sendSelectedCardsToAll();
+        List<Frame> sent = sentTo(output2);
+        assertEquals(2, sent.get(1).getProgram().getPlayerNumber());
+        assertTrue(sent.get(1).getProgram().getCards().isEmpty());
     }
 
     @Test
-    public void hostHasPoweredDownAndAllCardsReceivedStartTurnTest() {
+    public void hostHasPoweredDownAndAllCardsReceivedStartTurnTest() throws ProtocolException {
         player1.setPoweredDown(true);
-        try {
-            when(gameServer.serverHasConfirmed()).thenReturn(true);
-            when(reader.readLine()).thenReturn(cardStringFromPlayer2, cardStringFromPlayer2, cardStringFromPlayer2, cardStringFromPlayer2, cardStringFromPlayer2)
-                    .thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        // Do not wait for doTurn to finish
-        server.continueListening();
-        server.start();
-        waitForThread(server);
-        verify(gameServer).sendToAll(Messages.START_TURN.toString());
+        server.setServerHasConfirmed(true);
+        receiveFromPlayer2(out -> BinaryProtocol.writeProgram(out, 2, false, cards));
+        List<Frame> sent = sentTo(output2);
+        assertEquals(Messages.START_TURN, sent.get(sent.size() - 1).getMessage());
     }
 
     @Test
-    public void player2SendsPowerUpMessageTest() {
+    public void player2SendsPowerUpMessageTest() throws ProtocolException {
         player2.setPoweredDown(true);
-        try {
-            when(reader.readLine())
-                    .thenReturn(converter.createMessageFromPlayer(2, Messages.POWER_UP))
-                    .thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        server.start();
-        waitForThread(server);
+        receiveFromPlayer2(out -> BinaryProtocol.writePlayerMessage(out, 2, Messages.POWER_UP));
         assertFalse(player2.isPoweredDown());
-    }
-
-    @Test
-    public void player2SendsPowerUpMessageIsRemovedFromPoweredDownPlayersTest() {
-        try {
-            when(reader.readLine())
-                    .thenReturn(converter.createMessageFromPlayer(2, Messages.POWER_UP))
-                    .thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        server.start();
-        waitForThread(server);
         verify(game).removePoweredDownPlayer(player2);
     }
 
     @Test
-    public void serverBroadcastsReceivedPowerUpMessageTest() {
-        String powerUpMessage = converter.createMessageFromPlayer(2, Messages.POWER_UP);
-        try {
-            when(reader.readLine()).thenReturn(powerUpMessage).thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        server.start();
-        waitForThread(server);
-        verify(gameServer).sendToAllExcept(player2, powerUpMessage);
+    public void serverBroadcastsReceivedPowerUpMessageTest() throws ProtocolException {
+        connectPlayer3();
+        receiveFromPlayer2(out -> BinaryProtocol.writePlayerMessage(out, 2, Messages.POWER_UP));
+        assertEquals(Messages.POWER_UP, sentTo(output3).get(0).getMessage());
     }
 
     @Test
-    public void playerSendsQuitMessageTest() {
-        try {
-            when(reader.readLine()).thenReturn(converter.createQuitMessage(2)).thenReturn(Messages.STOP_THREAD.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        server.start();
-        waitForThread(server);
-        verify(gameServer).sendToAllExcept(player2, converter.createQuitMessage(2));
+    public void playerSendsQuitMessageTest() throws ProtocolException {
+        connectPlayer3();
+        receiveFromPlayer2(out -> BinaryProtocol.writePlayerMessage(out, 2, Messages.QUIT));
+        assertEquals(Messages.QUIT, sentTo(output3).get(0).getMessage());
+        verify(connection2).close();
+        verify(game).quitPlaying();
+        assertEquals(1, server.getNumberOfConnectedClients());
     }
 
 }
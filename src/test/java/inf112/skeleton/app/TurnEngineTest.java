@@ -0,0 +1,262 @@
+package inf112.skeleton.app;
+
+import inf112.skeleton.app.cards.ProgramCard;
+import inf112.skeleton.app.engine.BoardEvent;
+import inf112.skeleton.app.engine.BoardModel;
+import inf112.skeleton.app.engine.Robot;
+import inf112.skeleton.app.engine.TurnEngine;
+import inf112.skeleton.app.engine.TurnRecorder;
+import inf112.skeleton.app.enums.Direction;
+import inf112.skeleton.app.enums.Rotate;
+import inf112.skeleton.app.enums.TileID;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the {@link TurnEngine}. The board is made from tile ids, so no libGDX application is needed.
+ */
+public class TurnEngineTest {
+
+    private static final int SIZE = 6;
+
+    private BoardModel board;
+    private ArrayList<Robot> robots;
+    private ProgramCard moveOne;
+    private ProgramCard moveTwo;
+    private ProgramCard moveThree;
+
+    @Before
+    public void setUp() {
+        int[] ground = new int[SIZE * SIZE];
+        int[] walls = new int[SIZE * SIZE];
+        int[] flags = new int[SIZE * SIZE];
+        ground[SIZE * 0 + 5] = TileID.NORMAL_HOLE.getId();
+        ground[SIZE * 4 + 1] = TileID.WEST_TO_EAST_BELT.getId();
+        ground[SIZE * 4 + 2] = TileID.WEST_TO_EAST_BELT.getId();
+        ground[SIZE * 5 + 0] = TileID.WRENCH.getId();
+        walls[SIZE * 2 + 2] = TileID.EAST_WALL.getId();
+        flags[SIZE * 4 + 4] = TileID.FLAG_1.getId();
+        flags[SIZE * 5 + 4] = TileID.FLAG_2.getId();
+        this.board = new BoardModel(SIZE, SIZE, ground, walls, flags);
+        this.robots = new ArrayList<>();
+        this.moveOne = new ProgramCard(490, 1, Rotate.NONE, "Move 1");
+        this.moveTwo = new ProgramCard(670, 2, Rotate.NONE, "Move 2");
+        this.moveThree = new ProgramCard(790, 3, Rotate.NONE, "Move 3");
+    }
+
+    private Robot addRobot(int x, int y, Direction direction) {
+        Robot robot = new Robot(robots.size() + 1, board.toIndex(x, y), direction);
+        robots.add(robot);
+        return robot;
+    }
+
+    /**
+     * Make a board without walls or flags with a row of belts along the bottom of it.
+     *
+     * @param belts tile of each belt in the row from the west, null for no belt
+     */
+    private void makeBeltBoard(TileID... belts) {
+        int[] ground = new int[SIZE * SIZE];
+        for (int x = 0; x < belts.length; x++) {
+            if (belts[x] != null) {
+                ground[x] = belts[x].getId();
+            }
+        }
+        this.board = new BoardModel(SIZE, SIZE, ground, new int[SIZE * SIZE], new int[SIZE * SIZE]);
+    }
+
+    private TurnEngine makeEngine() {
+        return new TurnEngine(board, robots, new Random(1));
+    }
+
+    @Test
+    public void robotMovesDistanceOfCardTest() {
+        Robot robot = addRobot(0, 0, Direction.EAST);
+        robot.setProgram(moveTwo);
+        makeEngine().playRegister(0);
+        assertEquals(board.toIndex(2, 0), robot.getCell());
+    }
+
+    @Test
+    public void robotIsStoppedByWallTest() {
+        Robot robot = addRobot(1, 2, Direction.EAST);
+        robot.setProgram(moveThree);
+        makeEngine().playRegister(0);
+        assertEquals(board.toIndex(2, 2), robot.getCell());
+    }
+
+    @Test
+    public void robotPushesRobotInFrontTest() {
+        Robot pusher = addRobot(0, 1, Direction.EAST);
+        Robot pushed = addRobot(1, 1, Direction.NORTH);
+        pusher.setProgram(moveOne);
+        TurnEngine engine = makeEngine();
+        engine.playRegister(0);
+        assertEquals(board.toIndex(1, 1), pusher.getCell());
+        assertEquals(board.toIndex(2, 1), pushed.getCell());
+        assertEquals(pushed, engine.getRobotInCell(board.toIndex(2, 1)));
+    }
+
+    @Test
+    public void robotInHoleIsDestroyedAndRespawnedAtBackupTest() {
+        Robot robot = addRobot(3, 0, Direction.EAST);
+        robot.setProgram(moveTwo);
+        TurnEngine engine = makeEngine();
+        engine.playRegister(0);
+        assertTrue(robot.isDestroyed());
+        assertEquals(Robot.LIFE_TOKENS - 1, robot.getLifeTokens());
+        engine.endTurn();
+        assertEquals(board.toIndex(3, 0), robot.getCell());
+        assertEquals(Direction.EAST, robot.getDirection());
+    }
+
+    @Test
+    public void beltMovesRobotOneStepTest() {
+        Robot robot = addRobot(1, 4, Direction.NORTH);
+        makeEngine().playRegister(0);
+        assertEquals(board.toIndex(2, 4), robot.getCell());
+    }
+
+    @Test
+    public void robotLaserDamagesFirstRobotInFrontTest() {
+        Robot shooter = addRobot(0, 3, Direction.EAST);
+        Robot target = addRobot(3, 3, Direction.NORTH);
+        makeEngine().playRegister(0);
+        assertEquals(1, target.getDamageTokens());
+        assertEquals(0, shooter.getDamageTokens());
+    }
+
+    @Test
+    public void robotLasersHitFirstRobotInRowFromBothSidesTest() {
+        Robot behind = addRobot(0, 3, Direction.EAST);
+        Robot middle = addRobot(1, 3, Direction.EAST);
+        Robot facing = addRobot(4, 3, Direction.WEST);
+        makeEngine().playRegister(0);
+        assertEquals(0, behind.getDamageTokens());
+        assertEquals(2, middle.getDamageTokens());
+        assertEquals(1, facing.getDamageTokens());
+    }
+
+    @Test
+    public void robotLaserBeamIsStoppedByWallTest() {
+        Robot shooter = addRobot(0, 2, Direction.EAST);
+        Robot target = addRobot(4, 2, Direction.NORTH);
+        TurnEngine engine = makeEngine();
+        TurnRecorder recorder = new TurnRecorder();
+        engine.setListener(recorder);
+        engine.playRegister(0);
+        assertEquals(0, target.getDamageTokens());
+        for (BoardEvent event : recorder.getEvents()) {
+            if (event.getType() == BoardEvent.Type.LASER_BEAM && event.getFrom() == shooter.getCell()) {
+                assertEquals(board.toIndex(2, 2), event.getTo());
+                return;
+            }
+        }
+        fail("Beam of shooter is not recorded");
+    }
+
+    @Test
+    public void robotPickingUpLastFlagWinsTest() {
+        Robot robot = addRobot(4, 3, Direction.NORTH);
+        robot.setProgram(moveOne, moveOne, moveOne, moveOne, moveOne);
+        Robot winner = makeEngine().playTurn();
+        assertEquals(robot, winner);
+        assertEquals(2, robot.getFlagsCollected());
+    }
+
+    @Test
+    public void robotOnRepairTileIsRepairedAtEndOfTurnTest() {
+        Robot robot = addRobot(0, 5, Direction.NORTH);
+        robot.setDamageTokens(3);
+        assertNull(makeEngine().playTurn());
+        assertEquals(2, robot.getDamageTokens());
+        assertEquals(board.toIndex(0, 5), robot.getBackupCell());
+    }
+
+    @Test
+    public void recorderListsEventsInOrderTest() {
+        Robot robot = addRobot(0, 0, Direction.EAST);
+        robot.setProgram(moveOne);
+        TurnEngine engine = makeEngine();
+        TurnRecorder recorder = new TurnRecorder();
+        engine.setListener(recorder);
+        engine.playRegister(0);
+        ArrayList<BoardEvent> events = recorder.getEvents();
+        assertEquals(BoardEvent.Type.REGISTER, events.get(0).getType());
+        assertEquals(BoardEvent.Type.CARD, events.get(1).getType());
+        assertEquals(BoardEvent.Type.MOVE, events.get(2).getType());
+        assertEquals(board.toIndex(1, 0), events.get(2).getTo());
+        assertEquals(BoardEvent.Type.CARD_DONE, events.get(3).getType());
+        assertEquals(BoardEvent.Type.REGISTER_DONE, events.get(events.size() - 1).getType());
+    }
+
+    @Test
+    public void robotsMovedToSameCellByBeltsBothStayTest() {
+        makeBeltBoard(null, TileID.WEST_TO_EAST_BELT, null, TileID.EAST_TO_WEST_BELT);
+        Robot robot1 = addRobot(1, 0, Direction.NORTH);
+        Robot robot2 = addRobot(3, 0, Direction.NORTH);
+        makeEngine().playRegister(0);
+        assertEquals(board.toIndex(1, 0), robot1.getCell());
+        assertEquals(board.toIndex(3, 0), robot2.getCell());
+    }
+
+    @Test
+    public void robotsSwappedByBeltsBothStayTest() {
+        makeBeltBoard(null, TileID.WEST_TO_EAST_BELT, TileID.EAST_TO_WEST_BELT);
+        Robot robot1 = addRobot(1, 0, Direction.NORTH);
+        Robot robot2 = addRobot(2, 0, Direction.NORTH);
+        makeEngine().playRegister(0);
+        assertEquals(board.toIndex(1, 0), robot1.getCell());
+        assertEquals(board.toIndex(2, 0), robot2.getCell());
+    }
+
+    @Test
+    public void robotsInALineOnBeltsMoveAtTheSameTimeTest() {
+        makeBeltBoard(null, TileID.WEST_TO_EAST_BELT, TileID.WEST_TO_EAST_BELT);
+        Robot robot1 = addRobot(1, 0, Direction.NORTH);
+        Robot robot2 = addRobot(2, 0, Direction.NORTH);
+        TurnEngine engine = makeEngine();
+        engine.playRegister(0);
+        assertEquals(board.toIndex(2, 0), robot1.getCell());
+        assertEquals(board.toIndex(3, 0), robot2.getCell());
+        assertEquals(robot1, engine.getRobotInCell(board.toIndex(2, 0)));
+    }
+
+    @Test
+    public void robotOnBeltPushesRowOfStandingRobotsTest() {
+        makeBeltBoard(null, TileID.WEST_TO_EAST_BELT);
+        Robot mover = addRobot(1, 0, Direction.NORTH);
+        Robot first = addRobot(2, 0, Direction.NORTH);
+        Robot second = addRobot(3, 0, Direction.NORTH);
+        TurnEngine engine = makeEngine();
+        engine.playRegister(0);
+        assertEquals(board.toIndex(2, 0), mover.getCell());
+        assertEquals(board.toIndex(3, 0), first.getCell());
+        assertEquals(board.toIndex(4, 0), second.getCell());
+        assertEquals(second, engine.getRobotInCell(board.toIndex(4, 0)));
+        assertNull(engine.getRobotInCell(board.toIndex(1, 0)));
+    }
+
+    @Test
+    public void robotWithTakenBackupRespawnsNextToItTest() {
+        Robot robot = addRobot(0, 0, Direction.NORTH);
+        robot.setDamageTokens(Robot.MAX_DAMAGE_TOKENS);
+        robot.setBackup(board.toIndex(3, 3), Direction.NORTH);
+        Robot other = addRobot(3, 3, Direction.NORTH);
+        TurnEngine engine = makeEngine();
+        engine.destroyAndRespawnRobots();
+        assertEquals(board.toIndex(3, 3), other.getCell());
+        int x = board.toX(robot.getCell());
+        int y = board.toY(robot.getCell());
+        assertTrue(robot.getCell() != board.toIndex(3, 3) && Math.abs(x - 3) <= 1 && Math.abs(y - 3) <= 1);
+        assertEquals(robot, engine.getRobotInCell(robot.getCell()));
+    }
+}
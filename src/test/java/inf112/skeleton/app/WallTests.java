@@ -6,13 +6,18 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.math.Vector2;
 import inf112.skeleton.app.board.Board;
+import inf112.skeleton.app.cards.ProgramCard;
+import inf112.skeleton.app.engine.Robot;
+import inf112.skeleton.app.engine.TurnEngine;
 import inf112.skeleton.app.enums.Direction;
+import inf112.skeleton.app.enums.Rotate;
 import inf112.skeleton.app.enums.TileID;
 import inf112.skeleton.app.objects.player.Player;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
@@ -226,6 +231,30 @@ public class WallTests {
         return wallsCopy;
     }
 
+    /**
+     * @param position to get cell of
+     * @return index of cell in position
+     */
+    private int cellOf(Vector2 position) {
+        return board.toIndex((int) position.x, (int) position.y);
+    }
+
+    /**
+     * Let a robot in position play a move one card with the {@link TurnEngine}.
+     *
+     * @param position  of robot
+     * @param direction robot faces
+     * @return cell robot is in after the move, {@link Board#OFF_BOARD} if it left the board
+     */
+    private int moveOneStep(Vector2 position, Direction direction) {
+        Robot robot = new Robot(1, cellOf(position), direction);
+        ArrayList<Robot> robots = new ArrayList<>();
+        robots.add(robot);
+        new TurnEngine(board.getModel(), robots, new Random(0))
+                .playCard(robot, new ProgramCard(490, 1, Rotate.NONE, "Move 1"));
+        return robot.getCell();
+    }
+
     /**
      * Put all position to the walls on board in lists.
      */
@@ -271,6 +300,22 @@ public class WallTests {
         assertFalse(allWestWalls.isEmpty());
     }
 
+    @Test
+    public void cornerWallHasWallOnBothSidesTest() {
+        TileID corner = TileID.fromId(TileID.NORTHWEST_WALL.getId());
+        assertEquals(TileID.NORTHWEST_WALL, corner);
+        assertTrue(corner.hasWall(Direction.NORTH));
+        assertTrue(corner.hasWall(Direction.WEST));
+        assertFalse(corner.hasWall(Direction.SOUTH));
+        assertFalse(corner.hasWall(Direction.EAST));
+    }
+
+    @Test
+    public void laserWallFiresAwayFromWallTest() {
+        assertEquals(Direction.WEST, TileID.EAST_LASER_WALL.getDirection());
+        assertTrue(TileID.EAST_LASER_WALL.hasWall(Direction.EAST));
+    }
+
 
     @Test
     public void playerIsOnCellWithNorthWallTest() {
@@ -325,74 +370,50 @@ public class WallTests {
 
     @Test
     public void playerFacingNorthWallDoesNotMoveTest() {
-        player.setPosition(allNorthWalls.get(0));
-        player.setDirection(Direction.NORTH);
-        Vector2 posBefore = new Vector2((int) player.getPosition().x, (int) player.getPosition().y);
-        board.movePlayer(player, false);
-        assertEquals(posBefore, player.getPosition());
+        Vector2 posBefore = allNorthWalls.get(0);
+        assertEquals(cellOf(posBefore), moveOneStep(posBefore, Direction.NORTH));
     }
 
     @Test
     public void playerFacingSouthWallDoesNotMoveTest() {
-        player.setPosition(allSouthWalls.get(0));
-        player.setDirection(Direction.SOUTH);
-        Vector2 posBefore = new Vector2((int) player.getPosition().x, (int) player.getPosition().y);
-        board.movePlayer(player, false);
-        assertEquals(posBefore, player.getPosition());
+        Vector2 posBefore = allSouthWalls.get(0);
+        assertEquals(cellOf(posBefore), moveOneStep(posBefore, Direction.SOUTH));
     }
 
     @Test
     public void playerFacingEastWallDoesNotMoveTest() {
-        player.setPosition(allEastWalls.get(0));
-        player.setDirection(Direction.EAST);
-        Vector2 posBefore = new Vector2((int) player.getPosition().x, (int) player.getPosition().y);
-        board.movePlayer(player, false);
-        assertEquals(posBefore, player.getPosition());
+        Vector2 posBefore = allEastWalls.get(0);
+        assertEquals(cellOf(posBefore), moveOneStep(posBefore, Direction.EAST));
     }
 
     @Test
     public void playerFacingWestWallDoesNotMoveTest() {
-        player.setPosition(allWestWalls.get(0));
-        player.setDirection(Direction.WEST);
-        Vector2 posBefore = new Vector2((int) player.getPosition().x, (int) player.getPosition().y);
-        board.movePlayer(player, false);
-        assertEquals(posBefore, player.getPosition());
+        Vector2 posBefore = allWestWalls.get(0);
+        assertEquals(cellOf(posBefore), moveOneStep(posBefore, Direction.WEST));
     }
 
     @Test
     public void playerIsNotFacingNorthWallButOnSameTileAsWallThenPlayerCanMoveTest() {
-        player.setPosition(getOnlyNorthWalls(allNorthWalls).get(0));
-        player.setDirection(Direction.WEST);
-        Vector2 posBefore = new Vector2((int) player.getPosition().x, (int) player.getPosition().y);
-        board.movePlayer(player, false);
-        assertNotEquals(posBefore, player.getPosition());
+        Vector2 posBefore = getOnlyNorthWalls(allNorthWalls).get(0);
+        assertNotEquals(cellOf(posBefore), moveOneStep(posBefore, Direction.WEST));
     }
 
     @Test
     public void playerIsNotFacingWestWallButOnSameTileAsWallThenPlayerCanMoveTest() {
-        player.setPosition(getOnlyWestWalls(allWestWalls).get(0));
-        player.setDirection(Direction.EAST);
-        Vector2 posBefore = new Vector2((int) player.getPosition().x, (int) player.getPosition().y);
-        board.movePlayer(player, false);
-        assertNotEquals(posBefore, player.getPosition());
+        Vector2 posBefore = getOnlyWestWalls(allWestWalls).get(0);
+        assertNotEquals(cellOf(posBefore), moveOneStep(posBefore, Direction.EAST));
     }
 
     @Test
     public void playerIsNotFacingEastWallButOnSameTileAsWallThenPlayerCanMoveTest() {
-        player.setPosition(getOnlyEastWalls(allEastWalls).get(0));
-        player.setDirection(Direction.SOUTH);
-        Vector2 posBefore = new Vector2((int) player.getPosition().x, (int) player.getPosition().y);
-        board.movePlayer(player, false);
-        assertNotEquals(posBefore, player.getPosition());
+        Vector2 posBefore = getOnlyEastWalls(allEastWalls).get(0);
+        assertNotEquals(cellOf(posBefore), moveOneStep(posBefore, Direction.SOUTH));
     }
 
     @Test
     public void playerIsNotFacingSouthWallButOnSameTileAsWallThenPlayerCanMoveTest() {
-            player.setPosition(getOnlySouthWalls(allSouthWalls).get(0));
-            player.setDirection(Direction.NORTH);
-            Vector2 posBefore = new Vector2((int) player.getPosition().x, (int) player.getPosition().y);
-            board.movePlayer(player, false);
-            assertNotEquals(posBefore, player.getPosition());
+            Vector2 posBefore = getOnlySouthWalls(allSouthWalls).get(0);
+            assertNotEquals(cellOf(posBefore), moveOneStep(posBefore, Direction.NORTH));
     }
 
     /**
@@ -410,10 +431,7 @@ public class WallTests {
             int neighbourX = (int) neighbourCellWithWall.x;
             int neighbourY = (int) neighbourCellWithWall.y;
             Vector2 playerPosition = new Vector2(neighbourX + 1, neighbourY);
-            player.setPosition(playerPosition);
-            player.setDirection(Direction.WEST);
-            board.movePlayer(player, false);
-            assertEquals(playerPosition, player.getPosition());
+            assertEquals(cellOf(playerPosition), moveOneStep(playerPosition, Direction.WEST));
         }
     }
 
@@ -426,10 +444,7 @@ public class WallTests {
         int neighbourX = (int) neighbourCellWithWall.x;
         int neighbourY = (int) neighbourCellWithWall.y;
         Vector2 playerPosition = new Vector2(neighbourX - 1, neighbourY);
-        player.setPosition(playerPosition);
-        player.setDirection(Direction.EAST);
-        board.movePlayer(player, false);
-        assertEquals(playerPosition, player.getPosition());
+        assertEquals(cellOf(playerPosition), moveOneStep(playerPosition, Direction.EAST));
     }
 
     /**
@@ -441,10 +456,7 @@ public class WallTests {
         int neighbourX = (int) neighbourCellWithWall.x;
         int neighbourY = (int) neighbourCellWithWall.y;
         Vector2 playerPosition = new Vector2(neighbourX, neighbourY+1);
-        player.setPosition(playerPosition);
-        player.setDirection(Direction.SOUTH);
-        board.movePlayer(player, false);
-        assertEquals(playerPosition, player.getPosition());
+        assertEquals(cellOf(playerPosition), moveOneStep(playerPosition, Direction.SOUTH));
     }
 
     /**
@@ -456,9 +468,30 @@ public class WallTests {
         int neighbourX = (int) neighbourCellWithWall.x;
         int neighbourY = (int) neighbourCellWithWall.y;
         Vector2 playerPosition = new Vector2(neighbourX, neighbourY-1);
-        player.setPosition(playerPosition);
-        player.setDirection(Direction.NORTH);
-        board.movePlayer(player, false);
-        assertEquals(playerPosition, player.getPosition());
+        assertEquals(cellOf(playerPosition), moveOneStep(playerPosition, Direction.NORTH));
+    }
+
+    /**
+     * Walls are folded into both cells sharing the wall when the board is loaded,
+     * so for every cell {@link Board#canGo(Vector2, Direction)} should agree with the wall tiles
+     * on the cell and on the neighbour cell.
+     */
+    @Test
+    public void canGoAgreesWithWallTilesOnEveryCellTest() {
+        TiledMapTileLayer wallLayer = board.getWallLayer();
+        for (int x = 0; x < board.getBoardWidth(); x++) {
+            for (int y = 0; y < board.getBoardHeight(); y++) {
+                Vector2 position = new Vector2(x, y);
+                TiledMapTileLayer.Cell cell = wallLayer.getCell(x, y);
+                assertEquals(!(board.hasNorthWall(cell) || board.hasSouthWall(wallLayer.getCell(x, y + 1))),
+                        board.canGo(position, Direction.NORTH));
+                assertEquals(!(board.hasSouthWall(cell) || board.hasNorthWall(wallLayer.getCell(x, y - 1))),
+                        board.canGo(position, Direction.SOUTH));
+                assertEquals(!(board.hasEastWall(cell) || board.hasWestWall(wallLayer.getCell(x + 1, y))),
+                        board.canGo(position, Direction.EAST));
+                assertEquals(!(board.hasWestWall(cell) || board.hasEastWall(wallLayer.getCell(x - 1, y))),
+                        board.canGo(position, Direction.WEST));
+            }
+        }
     }
 }